@@ -2,13 +2,23 @@ package SegundaEntrega.Controlador.ControladorAsociados;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado;
 import SegundaEntrega.Modelo.Negocio.GestorAsociados;
+import SegundaEntrega.Modelo.Negocio.ImportadorAsociados;
+import SegundaEntrega.Modelo.Negocio.IndiceBusquedaAsociados;
+import SegundaEntrega.Modelo.Negocio.ResultadoImportacion;
 import SegundaEntrega.Modelo.Excepciones.AsociadoDuplicadoException;
+import SegundaEntrega.Persistencia.DAOAsociado.ExportadorAsociados;
 import SegundaEntrega.Vista.JFrameAsociados.VentanaAsociados;
 
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Controlador para la VentanaAsociados. Maneja las acciones de los botones
@@ -16,17 +26,23 @@ import java.util.Optional;
  */
 public class ControladorAsociados implements ActionListener {
 
+    private static final int MAX_RESULTADOS_BUSQUEDA = 50; // Lo que se puede leer en la lista sin desplazarse mucho
+
     private VentanaAsociados vista;
     private GestorAsociados modelo;
+    private IndiceBusquedaAsociados indice;
 
     /**
      * Constructor.
      * @param vista La VentanaAsociados que controla.
      * @param modelo El GestorAsociados con la lógica de negocio.
+     * @param indice El índice de búsqueda por nombre, apellido o DNI de ese gestor
+     *               (el de la Clínica: el controlador no lo crea ni lo cierra).
      */
-    public ControladorAsociados(VentanaAsociados vista, GestorAsociados modelo) {
+    public ControladorAsociados(VentanaAsociados vista, GestorAsociados modelo, IndiceBusquedaAsociados indice) {
         this.vista = vista;
         this.modelo = modelo;
+        this.indice = indice;
 
         // Vincula este controlador con los botones de la vista
         this.vista.setControlador(this);
@@ -50,6 +66,15 @@ public class ControladorAsociados implements ActionListener {
             case "LIMPIAR_CAMPOS":
                 vista.limpiarCampos();
                 break;
+            case "IMPORTAR_ASOCIADOS":
+                importarAsociados();
+                break;
+            case "EXPORTAR_ASOCIADOS":
+                exportarAsociados();
+                break;
+            case "BUSCAR_ASOCIADOS":
+                buscarAsociados();
+                break;
             default:
                 System.err.println("Comando no reconocido en ControladorAsociados: " + command);
                 break;
@@ -132,4 +157,106 @@ public class ControladorAsociados implements ActionListener {
             ex.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Filtra la lista con lo escrito en el cuadro de búsqueda (se llama en cada tecla).
+     * El índice responde en memoria, así que se busca directamente en el hilo de Swing.
+     */
+    private void buscarAsociados() {
+        String texto = vista.getTextoBusqueda();
+        if (texto.isBlank()) {
+            vista.mostrarResultadosBusqueda(null); // Vuelve al listado completo
+            return;
+        }
+        vista.mostrarResultadosBusqueda(indice.buscar(texto, MAX_RESULTADOS_BUSQUEDA));
+    }
+
+    /**
+     * Importa un CSV de asociados elegido por el usuario. La importación corre en un
+     * SwingWorker; al terminar se muestra el resumen con los primeros rechazos.
+     */
+    private void importarAsociados() {
+        JFileChooser selector = new JFileChooser();
+        selector.setFileFilter(new FileNameExtensionFilter("Archivos CSV", "csv", "txt"));
+        if (selector.showOpenDialog(vista) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path archivo = selector.getSelectedFile().toPath();
+        vista.mostrarImportacion("Importando...");
+        new SwingWorker<ResultadoImportacion, Integer>() {
+            @Override
+            protected ResultadoImportacion doInBackground() throws Exception {
+                return new ImportadorAsociados(modelo).importar(archivo, this::publish);
+            }
+
+            @Override
+            protected void process(List<Integer> avances) {
+                vista.mostrarImportacion("Importando... " + avances.get(avances.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                vista.mostrarImportacion(null);
+                try {
+                    vista.mostrarMensaje("Importación terminada", describir(get()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    vista.mostrarError("Error al importar", "La importación se canceló: " + e.getCause().getMessage()
+                            + "\nLos asociados importados hasta ese momento se conservan.");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Exporta todos los asociados al archivo elegido por el usuario: CSV si la extensión
+     * es .csv, si no el formato binario. Corre en un SwingWorker.
+     */
+    private void exportarAsociados() {
+        JFileChooser selector = new JFileChooser();
+        selector.addChoosableFileFilter(new FileNameExtensionFilter("Archivos CSV", "csv"));
+        selector.addChoosableFileFilter(new FileNameExtensionFilter("Exportación binaria", "asoc"));
+        if (selector.showSaveDialog(vista) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path archivo = selector.getSelectedFile().toPath();
+        ExportadorAsociados.Formato formato = archivo.getFileName().toString().toLowerCase().endsWith(".csv")
+                ? ExportadorAsociados.Formato.CSV : ExportadorAsociados.Formato.BINARIO;
+        vista.mostrarExportacion(true);
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return modelo.exportarAsociados(archivo, formato);
+            }
+
+            @Override
+            protected void done() {
+                vista.mostrarExportacion(false);
+                try {
+                    vista.mostrarMensaje("Exportación terminada", get() + " asociado(s) exportados a " + archivo);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    vista.mostrarError("Error al exportar", "No se pudo exportar: " + e.getCause().getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    /** Resumen de la importación con los primeros rechazos. */
+    private static String describir(ResultadoImportacion resultado) {
+        StringBuilder texto = new StringBuilder(resultado.getResumen());
+        List<ResultadoImportacion.Rechazo> rechazos = resultado.getDetalleRechazos();
+        int mostrar = Math.min(10, rechazos.size());
+        for (int i = 0; i < mostrar; i++) {
+            texto.append("\n").append(rechazos.get(i));
+        }
+        if (resultado.getRechazadas() > mostrar) {
+            texto.append("\n... y ").append(resultado.getRechazadas() - mostrar).append(" rechazo(s) más.");
+        }
+        return texto.toString();
+    }
+}
@@ -8,11 +8,17 @@ import SegundaEntrega.Controlador.ControladorAsociados.ControladorAsociados;
 import SegundaEntrega.Vista.JFrameSimulacion.VentanaSimulacion;
 import SegundaEntrega.Controlador.ControladorSimulacion.ControladorSimulacion;
 
+import SegundaEntrega.Modelo.Negocio.Ambulancia;
+import SegundaEntrega.Modelo.Negocio.CambioAsociados;
+
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
 
 /**
@@ -81,12 +87,14 @@ public class ControladorPrincipal implements ActionListener {
     private void abrirVentanaAsociados() {
         VentanaAsociados vAsociados = new VentanaAsociados();
         // Pasar la vista y la parte relevante del modelo (GestorAsociados) al controlador específico
-        ControladorAsociados cAsociados = new ControladorAsociados(vAsociados, clinica.getGestorAsociados()); // Asume getGestorAsociados() en Clinica
+        ControladorAsociados cAsociados = new ControladorAsociados(vAsociados, clinica.getGestorAsociados(),
+                clinica.getIndiceBusquedaAsociados()); // El índice ya sigue al gestor desde el arranque
         vAsociados.mostrar();
         // Importante: Registrar la vista como observador del gestor
         clinica.getGestorAsociados().addObserver(vAsociados);
         // Cargar datos iniciales en la vista (llamando al update o un método específico)
-        vAsociados.update(clinica.getGestorAsociados(), clinica.getGestorAsociados().getListadoAsociados());
+        vAsociados.update(clinica.getGestorAsociados(),
+                CambioAsociados.cargaCompleta(clinica.getGestorAsociados().getListadoAsociados()));
     }
 
     /**
@@ -97,32 +105,68 @@ public class ControladorPrincipal implements ActionListener {
         ControladorSimulacion cSimulacion = new ControladorSimulacion(
                 vSimulacion,
                 clinica.getSimulador(),
-                clinica.getAmbulancia(),
+                clinica.getFlota(),
                 this.ventanaPrincipal
         );
         vSimulacion.mostrar();
-        clinica.getAmbulancia().addObserver(vSimulacion);
-        vSimulacion.update(clinica.getAmbulancia(), clinica.getAmbulancia().getNombreEstadoActual());
+        // La vista observa a cada unidad de la flota
+        for (Ambulancia ambulancia : clinica.getFlota().getUnidades()) {
+            ambulancia.addObserver(vSimulacion);
+            vSimulacion.update(ambulancia, ambulancia.getNombreEstadoActual());
+        }
     }
 
     /**
      * Inicia la aplicación.
-     * Carga los datos iniciales desde la BD y muestra la ventana principal.
+     * Muestra la ventana principal enseguida y carga los asociados desde la BD en
+     * segundo plano, informando el avance en la barra de estado.
      */
     public void iniciar() {
-        try {
-            clinica.getGestorAsociados().cargarAsociadosDesdeBD();
-        } catch (DAOException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(
-                    ventanaPrincipal,
-                    "Error crítico al conectar o cargar la Base de Datos.\n" + e.getMessage() +
-                            "\nVerifica que el servidor MySQL esté corriendo.",
-                    "Error de Persistencia",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
         ventanaPrincipal.mostrarVentana();
+        cargarAsociadosEnSegundoPlano();
+    }
+
+    /**
+     * Carga los asociados con un SwingWorker: la conexión a la BD, la recuperación del
+     * diario de escrituras y la lectura corren fuera del hilo de Swing, y el avance se
+     * publica de a una página.
+     */
+    private void cargarAsociadosEnSegundoPlano() {
+        ventanaPrincipal.mostrarEstadoCarga("Conectando con la base de datos...", true);
+        new SwingWorker<Integer, Integer>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                clinica.activarEscrituraDiferida(); // Antes de leer: lo que quedó en el diario va primero a la BD
+                clinica.getGestorAsociados().cargarAsociadosDesdeBD(this::publish);
+                return clinica.getGestorAsociados().getListadoAsociados().size();
+            }
+
+            @Override
+            protected void process(List<Integer> avances) {
+                int leidos = avances.get(avances.size() - 1); // Solo interesa el último
+                ventanaPrincipal.mostrarEstadoCarga("Cargando asociados... " + leidos, true);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    ventanaPrincipal.mostrarEstadoCarga("Asociados cargados: " + get(), false);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    causa.printStackTrace();
+                    ventanaPrincipal.mostrarEstadoCarga("No se pudieron cargar los asociados.", false);
+                    JOptionPane.showMessageDialog(
+                            ventanaPrincipal,
+                            "Error crítico al conectar o cargar la Base de Datos.\n" + causa.getMessage() +
+                                    "\nVerifica que el servidor MySQL esté corriendo.",
+                            "Error de Persistencia",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        }.execute();
     }
 
     /**
@@ -1,6 +1,8 @@
 package SegundaEntrega.Controlador.ControladorSimulacion;
 
-import SegundaEntrega.Modelo.Negocio.Ambulancia; // Para pasar al observer (aunque ya está registrado)
+import SegundaEntrega.Modelo.Negocio.Flota; // Para pasar al observer (aunque ya está registrado)
+import SegundaEntrega.Modelo.Negocio.MetricasSimulacion;
+import SegundaEntrega.Modelo.Negocio.ResultadoSimulacionDiscreta;
 import SegundaEntrega.Modelo.Negocio.Simulador;
 import SegundaEntrega.Vista.JFrameSimulacion.VentanaSimulacion;
 import SegundaEntrega.Vista.JFramePrincipal.VentanaPrincipal;
@@ -17,20 +19,20 @@ public class ControladorSimulacion implements ActionListener {
 
     private VentanaSimulacion vista;
     private Simulador modeloSimulador;
-    private Ambulancia modeloAmbulancia; // Para registrar observer (aunque se hace en C.Principal)
+    private Flota modeloFlota; // Para registrar observer (aunque se hace en C.Principal)
     private VentanaPrincipal vistaPrincipal;
 
     /**
      * Constructor.
      * @param vista La ventana de simulación.
      * @param modeloSimulador El objeto que maneja la simulación.
-     * @param modeloAmbulancia La ambulancia (para el observer).
+     * @param modeloFlota La flota de ambulancias (para el observer).
      * @param vistaPrincipal La ventana principal (para bloquear/desbloquear).
      */
-    public ControladorSimulacion(VentanaSimulacion vista, Simulador modeloSimulador, Ambulancia modeloAmbulancia, VentanaPrincipal vistaPrincipal) {
+    public ControladorSimulacion(VentanaSimulacion vista, Simulador modeloSimulador, Flota modeloFlota, VentanaPrincipal vistaPrincipal) {
         this.vista = vista;
         this.modeloSimulador = modeloSimulador;
-        this.modeloAmbulancia = modeloAmbulancia;
+        this.modeloFlota = modeloFlota;
         this.vistaPrincipal = vistaPrincipal;
         this.vista.setControlador(this);
     }
@@ -46,6 +48,9 @@ public class ControladorSimulacion implements ActionListener {
             case "FINALIZAR_SIMULACION":
                 finalizar();
                 break;
+            case "SIMULACION_DISCRETA":
+                simularConRelojVirtual();
+                break;
             case "SOLICITAR_MANTENIMIENTO": // Este es el nuevo ActionCommand
                 solicitarMantenimiento();
                 break;
@@ -55,14 +60,32 @@ public class ControladorSimulacion implements ActionListener {
         }
     }
 
+    /**
+     * Pasa al simulador la semilla ingresada en la vista.
+     * @return false si la semilla no es un número válido.
+     */
+    private boolean configurarSemilla() {
+        try {
+            modeloSimulador.setSemilla(vista.getSemilla());
+            return true;
+        } catch (NumberFormatException ex) {
+            vista.mostrarError("Configuración inválida", "La semilla debe ser un número entero (o quedar vacía).");
+            return false;
+        }
+    }
+
     /** Inicia la simulación */
     private void iniciar() {
         int cantSolicitudes = vista.getCantidadSolicitudes();
+        if (!configurarSemilla()) {
+            return;
+        }
         if (cantSolicitudes > 0) {
             vista.limpiarLogs(); // Limpiar logs antes de empezar
             vista.setSimulacionActiva(true); // Actualizar botones
             // simula en un hilo separado
             this.vistaPrincipal.setGestionHabilitada(false);
+            modeloSimulador.setModoEjecucion(vista.getModoEjecucion());
             new Thread(() -> {
                 modeloSimulador.iniciarSimulacion(cantSolicitudes);
                 SwingUtilities.invokeLater(() -> {
@@ -76,12 +99,39 @@ public class ControladorSimulacion implements ActionListener {
         }
     }
 
+    /** Corre la simulación por eventos discretos y muestra el resumen en el log */
+    private void simularConRelojVirtual() {
+        int cantSolicitudes = vista.getCantidadSolicitudes();
+        if (cantSolicitudes <= 0) {
+            vista.mostrarError("Configuración inválida", "La cantidad de solicitudes debe ser mayor a 0.");
+            return;
+        }
+        if (!configurarSemilla()) {
+            return;
+        }
+        vista.limpiarLogs();
+        vista.setSimulacionRapidaEnCurso(true); // Bloquea los botones de inicio mientras corre
+        vista.agregarLogGeneral("--> Simulación rápida (reloj virtual) iniciada...");
+        new Thread(() -> {
+            ResultadoSimulacionDiscreta resultado = modeloSimulador.simularConRelojVirtual(cantSolicitudes);
+            vista.agregarLogGeneral(resultado != null ? "--> " + resultado : "--> No hay asociados para simular.");
+            if (resultado != null) {
+                vista.mostrarMetricas(resultado.getMetricas().generarReporte());
+            }
+            SwingUtilities.invokeLater(() -> vista.setSimulacionRapidaEnCurso(false));
+        }).start();
+    }
+
     /** Finaliza la simulación */
     private void finalizar() {
         vista.agregarLogGeneral("--> Solicitando finalización de la simulación...");
         // Finalizar también en hilo separado si puede tardar
         new Thread(() -> {
             modeloSimulador.finalizarSimulacion();
+            MetricasSimulacion metricas = modeloSimulador.getMetricas();
+            if (metricas != null) {
+                vista.mostrarMetricas(metricas.generarReporte());
+            }
             // Actualizar la GUI cuando termine
             SwingUtilities.invokeLater(() -> {
                 vista.setSimulacionActiva(false);
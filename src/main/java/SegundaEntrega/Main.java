@@ -34,9 +34,8 @@ public class Main {
                 try {
                     // 1. Inicializar el Modelo (Singleton)
                     // Al llamar a getInstance() por primera vez, se crea la instancia:
-                    // - Se conecta a la BD (vía ConexionSingleton)
-                    // - Se instancia el DAO
-                    // - Se cargan los asociados (vía cargarDatosAsociados())
+                    // - Se instancia el DAO (la conexión a la BD se abre recién al primer uso)
+                    // - Los asociados se cargan en segundo plano desde controlador.iniciar()
                     System.out.println("Main: Obteniendo instancia de Clínica (Modelo)...");
                     Clinica modelo = Clinica.getInstance();
                     System.out.println("Main: Modelo inicializado.");
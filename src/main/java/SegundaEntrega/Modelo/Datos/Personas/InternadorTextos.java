@@ -0,0 +1,62 @@
+package SegundaEntrega.Modelo.Datos.Personas;
+
+/**
+ * Comparte una sola instancia de los textos que se repiten mucho entre personas
+ * (la ciudad, los nombres y apellidos comunes), para no guardar un String nuevo por fila.
+ *
+ * Es una tabla de tamaño fijo, sin lock: según su hash cada texto cae en un par de
+ * ranuras. Un texto nuevo entra en la segunda y sube a la primera cuando se repite, así
+ * que los textos que aparecen una sola vez no desplazan a los frecuentes y la memoria
+ * nunca pasa de la tabla.
+ * Una carrera entre hilos solo puede hacer que se pierda un reemplazo (y haya dos copias
+ * iguales), nunca devolver otro texto: los String son inmutables.
+ *
+ * A diferencia de String.intern(), los textos no quedan en la tabla global de la JVM.
+ * Se desactiva con -Dclinica.internado=false (internar devuelve el mismo texto).
+ */
+public final class InternadorTextos {
+
+    /** Ciudades: pocos cientos de valores distintos en todo el padrón. */
+    public static final InternadorTextos CIUDADES = new InternadorTextos(4096);
+    /** Nombres y apellidos: muchos distintos, pero los comunes se repiten miles de veces. */
+    public static final InternadorTextos NOMBRES = new InternadorTextos(1 << 16);
+
+    static final int LARGO_MAXIMO = 64; // Los textos más largos casi nunca se repiten
+    private static final boolean ACTIVO = !"false".equalsIgnoreCase(System.getProperty("clinica.internado"));
+
+    private final String[] ranuras;
+    private final int mascara;
+
+    /**
+     * @param capacidad Cantidad de ranuras (se redondea a una potencia de 2).
+     */
+    public InternadorTextos(int capacidad) {
+        int ranurasPotencia = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.ranuras = new String[ranurasPotencia];
+        this.mascara = ranurasPotencia - 1;
+    }
+
+    /**
+     * Devuelve la instancia compartida de un texto igual, o guarda este para las próximas veces.
+     * @param texto El texto (puede ser null).
+     * @return Un String igual a {@code texto} (null si es null).
+     */
+    public String internar(String texto) {
+        if (!ACTIVO || texto == null || texto.length() > LARGO_MAXIMO) {
+            return texto;
+        }
+        int hash = texto.hashCode();
+        int base = (hash ^ (hash >>> 16)) & mascara & ~1; // Par de ranuras contiguas
+        String[] tabla = ranuras;
+        String frecuente = tabla[base];
+        if (texto.equals(frecuente)) return frecuente;
+        String candidato = tabla[base + 1];
+        if (texto.equals(candidato)) {
+            tabla[base + 1] = frecuente; // Al repetirse sube a la primera ranura
+            tabla[base] = candidato;
+            return candidato;
+        }
+        tabla[base + 1] = texto; // Un texto nuevo solo puede desplazar a la segunda
+        return texto;
+    }
+}
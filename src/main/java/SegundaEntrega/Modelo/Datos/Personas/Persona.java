@@ -5,6 +5,7 @@ package SegundaEntrega.Modelo.Datos.Personas;
 // Si estuvieran en otro paquete, necesitaríamos imports actualizados.
 
 import java.util.Objects; // Necesario para equals y hashCode si se implementan aquí
+import java.util.function.Consumer;
 
 /**
  * Clase que representa a una persona dentro del sistema de la clínica.
@@ -23,6 +24,12 @@ public class Persona { // Quitamos 'abstract' para poder instanciarla si fuera n
     protected String ciudad;
     protected String telefono;
 
+    // Seguimiento de cambios: se marca cuando un setter cambia un valor, para que la
+    // persistencia solo escriba las personas editadas. No es parte de la identidad.
+    private transient volatile boolean modificado = false;
+    // A quién avisar la primera vez que se modifica (la unidad de trabajo que la sigue)
+    private transient volatile Consumer<Persona> alModificarse;
+
     /**
      * Constructor vacío.
      * Necesario para que el DAO pueda crear instancias vacías antes de llenarlas
@@ -54,10 +61,12 @@ public class Persona { // Quitamos 'abstract' para poder instanciarla si fuera n
         assert telefono != null : "El teléfono no puede ser nulo (puede ser vacío)";
 
         this.dni= dni.trim(); // Guardar sin espacios extra
-        this.nombre = nombre.trim();
-        this.apellido = apellido.trim();
+        // Los textos que se repiten entre personas se comparten (ver InternadorTextos);
+        // domicilio y teléfono son casi únicos por persona y no vale la pena buscarlos
+        this.nombre = InternadorTextos.NOMBRES.internar(nombre.trim());
+        this.apellido = InternadorTextos.NOMBRES.internar(apellido.trim());
         this.domicilio = domicilio.trim();
-        this.ciudad = ciudad.trim();
+        this.ciudad = InternadorTextos.CIUDADES.internar(ciudad.trim());
         this.telefono = telefono.trim();
     }
 
@@ -92,31 +101,84 @@ public class Persona { // Quitamos 'abstract' para poder instanciarla si fuera n
     }
 
     // --- Setters Públicos ---
+    // Cada setter marca la persona como modificada solo si el valor realmente cambia.
     public void setDni(String dni) {
         // Añadir validación si es necesario
+        marcarSiCambia(this.dni, dni);
         this.dni = dni;
     }
 
     public void setNombre(String nombre) {
+        marcarSiCambia(this.nombre, nombre);
         this.nombre = nombre;
     }
 
     public void setApellido(String apellido) {
+        marcarSiCambia(this.apellido, apellido);
         this.apellido = apellido;
     }
 
     public void setDomicilio(String domicilio) {
+        marcarSiCambia(this.domicilio, domicilio);
         this.domicilio = domicilio;
     }
 
     public void setCiudad(String ciudad) {
+        marcarSiCambia(this.ciudad, ciudad);
         this.ciudad = ciudad;
     }
 
     public void setTelefono(String telefono) {
+        marcarSiCambia(this.telefono, telefono);
         this.telefono = telefono;
     }
 
+    // --- Seguimiento de cambios ---
+
+    /**
+     * Indica si algún setter cambió un dato desde la última vez que se marcó como limpia.
+     * @return true si tiene cambios sin persistir.
+     */
+    public boolean isModificado() {
+        return modificado;
+    }
+
+    /**
+     * Marca la persona como sincronizada con la persistencia (la llama el DAO al
+     * leerla y la unidad de trabajo al escribirla).
+     */
+    public void marcarLimpio() {
+        this.modificado = false;
+    }
+
+    /**
+     * Fuerza la marca de modificada (ej: una baja y alta del mismo DNI se persiste como actualización).
+     */
+    public void marcarModificado() {
+        if (!modificado) {
+            this.modificado = true;
+            Consumer<Persona> aviso = alModificarse;
+            if (aviso != null) {
+                aviso.accept(this);
+            }
+        }
+    }
+
+    /**
+     * Registra a quién avisar cuando la persona pasa de limpia a modificada, para que
+     * la persistencia anote solo las editadas sin tener que seguir a todas.
+     * @param aviso Recibe la persona; null para dejar de avisar.
+     */
+    public void alModificarse(Consumer<Persona> aviso) {
+        this.alModificarse = aviso;
+    }
+
+    private void marcarSiCambia(String anterior, String nuevo) {
+        if (!Objects.equals(anterior, nuevo)) {
+            marcarModificado();
+        }
+    }
+
     // --- Otros Métodos ---
     @Override
     public String toString() {
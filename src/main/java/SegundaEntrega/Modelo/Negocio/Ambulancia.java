@@ -2,6 +2,9 @@ package SegundaEntrega.Modelo.Negocio;
 
 import SegundaEntrega.Patrones.PatronState.*; // Importar todos los estados e interfaz
 import java.util.Observable; // Para Observer
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Representa la ambulancia de la clínica. Es el contexto del patrón State
@@ -10,28 +13,129 @@ import java.util.Observable; // Para Observer
  */
 public class Ambulancia extends Observable {
 
-    private IEstadoAmbulancia estadoActual;
-    // Podríamos añadir otros atributos si fueran necesarios (ej: ubicación, patente, etc.)
+    private volatile IEstadoAmbulancia estadoActual; // volatile: los getters se leen sin tomar el lock
+    private final String identificador; // Distingue a la unidad dentro de la Flota
+    private final PlanificadorEventos planificador; // Reloj con el que los estados programan su fin
+    private SplittableRandom generador = new SplittableRandom(); // Sorteos de los estados (protegido por el lock)
+
+    // --- Monitor explícito ---
+    // Una cola de espera (Condition) por capacidad: al cambiar de estado solo se despierta
+    // a quienes esperan algo que el nuevo estado realmente permite.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition puedeTrasladar = lock.newCondition();
+    private final Condition puedeAtenderDomicilio = lock.newCondition();
+    private final Condition puedeIrATaller = lock.newCondition();
 
     /**
      * Constructor. Inicia la ambulancia en estado Disponible.
      */
     public Ambulancia() {
+        this("Ambulancia 1");
+    }
+
+    /**
+     * Constructor con identificador, usado por la Flota para numerar sus unidades.
+     * Los estados usan el temporizador compartido de tiempo real.
+     * @param identificador Nombre de la unidad (ej: "Ambulancia 2").
+     */
+    public Ambulancia(String identificador) {
+        this(identificador, TemporizadorEstados.getInstance());
+    }
+
+    /**
+     * Constructor con identificador y planificador propio (ej: reloj virtual de la
+     * simulación por eventos discretos).
+     * @param identificador Nombre de la unidad (ej: "Ambulancia 2").
+     * @param planificador Reloj con el que los estados programan su finalización.
+     */
+    public Ambulancia(String identificador, PlanificadorEventos planificador) {
+        this.identificador = identificador;
+        this.planificador = planificador;
         // Estado inicial
         this.estadoActual = new EstadoDisponible(this);
-        System.out.println("Ambulancia creada en estado: Disponible");
+        System.out.println(identificador + " creada en estado: Disponible");
         notificarCambioEstado(); // Notificar estado inicial
     }
 
+    /**
+     * Devuelve el identificador de la unidad.
+     * @return String con el identificador (ej: "Ambulancia 1").
+     */
+    public String getIdentificador() {
+        return identificador;
+    }
+
     /**
      * Cambia el estado actual de la ambulancia y notifica a los observadores.
      * Este método es llamado por las clases Estado concretas.
+     * Despierta solo a los hilos cuya condición de espera habilita el nuevo estado.
      * @param nuevoEstado El nuevo estado a establecer.
      */
     public void setEstado(IEstadoAmbulancia nuevoEstado) {
-        System.out.println("Transición de estado: " + estadoActual.getClass().getSimpleName() + " -> " + nuevoEstado.getClass().getSimpleName());
-        this.estadoActual = nuevoEstado;
-        notificarCambioEstado();
+        lock.lock(); // Reentrante: normalmente ya lo tiene el método de solicitud que disparó la transición
+        try {
+            System.out.println("Transición de estado (" + identificador + "): " + estadoActual.getClass().getSimpleName() + " -> " + nuevoEstado.getClass().getSimpleName());
+            this.estadoActual = nuevoEstado;
+            if (nuevoEstado.puedeTrasladar()) puedeTrasladar.signal();
+            if (nuevoEstado.puedeAtenderDomicilio()) puedeAtenderDomicilio.signal();
+            if (nuevoEstado.puedeIrATaller()) puedeIrATaller.signal();
+            notificarCambioEstado();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Programa el fin de un estado temporal (viaje, atención, taller) en el planificador
+     * de esta ambulancia. Al vencer, la acción se ejecuta con el lock tomado y solo si la
+     * ambulancia sigue en ese mismo estado; si ya salió de él (ej: un regreso
+     * interrumpido por una nueva solicitud), el vencimiento se descarta.
+     * @param estado El estado que programa su finalización.
+     * @param demoraMs Duración simulada en milisegundos.
+     * @param accion La transición a disparar (ej: retornarAClinica()).
+     */
+    public void programarFinDeEstado(IEstadoAmbulancia estado, long demoraMs, Runnable accion) {
+        planificador.programar(() -> {
+            lock.lock();
+            try {
+                if (estadoActual != estado) {
+                    System.out.println("   ... " + identificador + ": temporizador de " + estado.getClass().getSimpleName() + " vencido sin efecto (estado actual: " + getNombreEstadoActual() + ").");
+                    return;
+                }
+                accion.run();
+            } finally {
+                lock.unlock();
+            }
+        }, demoraMs);
+    }
+
+    /**
+     * Reemplaza el flujo aleatorio de la unidad (ej: el derivado de la semilla de la simulación).
+     * @param generador El nuevo generador.
+     */
+    public void setGeneradorAleatorio(SplittableRandom generador) {
+        lock.lock();
+        try {
+            this.generador = generador;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sortea un entero con el flujo aleatorio de la unidad. Lo usan los estados para
+     * la duración de viajes y atenciones; al tomar el lock, los sorteos de una unidad
+     * quedan en el mismo orden que sus transiciones.
+     * @param limite Cota superior exclusiva.
+     * @return Un entero entre 0 y limite - 1.
+     */
+    public int sortearEntero(int limite) {
+        lock.lock();
+        try {
+            return generador.nextInt(limite);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -52,30 +156,35 @@ public class Ambulancia extends Observable {
 
 
     // --- Métodos de Solicitud (Actúan como Monitor) ---
-    // Usan synchronized y wait/notifyAll para manejar concurrencia
+    // Usan un ReentrantLock y una Condition por capacidad para manejar concurrencia
 
     /**
      * Intenta procesar una solicitud de atención a domicilio.
      * Delega la acción al estado actual. Bloquea si no puede atender ahora.
      * @param solicitante Identificador del solicitante (ej: DNI del asociado).
      */
-    public synchronized void solicitarAtencionDomicilio(String solicitante) {
-        System.out.println("--> " + solicitante + " solicita ATENCION A DOMICILIO. Estado actual: " + getNombreEstadoActual());
-        while (!estadoActual.puedeAtenderDomicilio()) { // Condición de espera
-            System.out.println("    " + solicitante + " esperando para At. Domicilio (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
-            try {
-                wait(); // Libera el lock y espera
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt(); // Restablece el flag de interrupción
-                System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba At. Domicilio.");
-                return; // Salir si fue interrumpido
+    public void solicitarAtencionDomicilio(String solicitante) {
+        lock.lock();
+        try {
+            System.out.println("--> " + solicitante + " solicita ATENCION A DOMICILIO. Estado actual: " + getNombreEstadoActual());
+            while (!estadoActual.puedeAtenderDomicilio()) { // Condición de espera
+                System.out.println("    " + solicitante + " esperando para At. Domicilio (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
+                try {
+                    puedeAtenderDomicilio.await(); // Libera el lock y espera en su propia cola
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // Restablece el flag de interrupción
+                    System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba At. Domicilio.");
+                    cederSenial(puedeAtenderDomicilio, estadoActual.puedeAtenderDomicilio());
+                    return; // Salir si fue interrumpido
+                }
+                System.out.println("    " + solicitante + " despierta para reintentar At. Domicilio. Estado ahora: " + getNombreEstadoActual());
             }
-            System.out.println("    " + solicitante + " despierta para reintentar At. Domicilio. Estado ahora: " + getNombreEstadoActual());
+            // Si sale del while, puede atender
+            System.out.println("    Atendiendo At. Domicilio para " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarAtencionDomicilio(); // El estado se encargará de la transición (y de señalar)
+        } finally {
+            lock.unlock();
         }
-        // Si sale del while, puede atender
-        System.out.println("    Atendiendo At. Domicilio para " + solicitante + ". Estado: " + getNombreEstadoActual());
-        estadoActual.solicitarAtencionDomicilio(); // El estado se encargará de la transición
-        notifyAll(); // Despierta a otros hilos por si el nuevo estado les sirve
     }
 
     /**
@@ -83,22 +192,27 @@ public class Ambulancia extends Observable {
      * Delega la acción al estado actual. Bloquea si no puede atender ahora.
      * @param solicitante Identificador del solicitante (ej: DNI del asociado).
      */
-    public synchronized void solicitarTraslado(String solicitante) {
-        System.out.println("--> " + solicitante + " solicita TRASLADO. Estado actual: " + getNombreEstadoActual());
-        while (!estadoActual.puedeTrasladar()) { // Condición de espera
-            System.out.println("    " + solicitante + " esperando para Traslado (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba Traslado.");
-                return;
+    public void solicitarTraslado(String solicitante) {
+        lock.lock();
+        try {
+            System.out.println("--> " + solicitante + " solicita TRASLADO. Estado actual: " + getNombreEstadoActual());
+            while (!estadoActual.puedeTrasladar()) { // Condición de espera
+                System.out.println("    " + solicitante + " esperando para Traslado (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
+                try {
+                    puedeTrasladar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba Traslado.");
+                    cederSenial(puedeTrasladar, estadoActual.puedeTrasladar());
+                    return;
+                }
+                System.out.println("    " + solicitante + " despierta para reintentar Traslado. Estado ahora: " + getNombreEstadoActual());
             }
-            System.out.println("    " + solicitante + " despierta para reintentar Traslado. Estado ahora: " + getNombreEstadoActual());
+            System.out.println("    Atendiendo Traslado para " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarTraslado();
+        } finally {
+            lock.unlock();
         }
-        System.out.println("    Atendiendo Traslado para " + solicitante + ". Estado: " + getNombreEstadoActual());
-        estadoActual.solicitarTraslado();
-        notifyAll();
     }
 
     /**
@@ -106,38 +220,129 @@ public class Ambulancia extends Observable {
      * Delega la acción al estado actual. Bloquea si no puede atender ahora.
      * @param solicitante Identificador del solicitante (ej: "Operario").
      */
-    public synchronized void solicitarMantenimiento(String solicitante) {
-        System.out.println("--> " + solicitante + " solicita MANTENIMIENTO. Estado actual: " + getNombreEstadoActual());
-        while (!estadoActual.puedeIrATaller()) { // Condición de espera
-            System.out.println("    " + solicitante + " esperando para Mantenimiento (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba Mantenimiento.");
-                return;
+    public void solicitarMantenimiento(String solicitante) {
+        lock.lock();
+        try {
+            System.out.println("--> " + solicitante + " solicita MANTENIMIENTO. Estado actual: " + getNombreEstadoActual());
+            while (!estadoActual.puedeIrATaller()) { // Condición de espera
+                System.out.println("    " + solicitante + " esperando para Mantenimiento (Ambulancia ocupada: " + getNombreEstadoActual() + ")");
+                try {
+                    puedeIrATaller.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba Mantenimiento.");
+                    cederSenial(puedeIrATaller, estadoActual.puedeIrATaller());
+                    return;
+                }
+                System.out.println("    " + solicitante + " despierta para reintentar Mantenimiento. Estado ahora: " + getNombreEstadoActual());
             }
-            System.out.println("    " + solicitante + " despierta para reintentar Mantenimiento. Estado ahora: " + getNombreEstadoActual());
+            System.out.println("    Atendiendo Mantenimiento solicitado por " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarMantenimiento();
+        } finally {
+            lock.unlock();
         }
-        System.out.println("    Atendiendo Mantenimiento solicitado por " + solicitante + ". Estado: " + getNombreEstadoActual());
-        estadoActual.solicitarMantenimiento();
-        notifyAll();
+    }
+
+    // --- Métodos de Solicitud No Bloqueantes (usados por la Flota) ---
+    // Toman la solicitud solo si el estado actual la permite; nunca esperan.
+
+    /**
+     * Intenta tomar una solicitud de atención a domicilio sin bloquear.
+     * @param solicitante Identificador del solicitante (ej: DNI del asociado).
+     * @return true si la unidad tomó la solicitud, false si su estado no lo permite.
+     */
+    public boolean intentarAtencionDomicilio(String solicitante) {
+        lock.lock();
+        try {
+            if (!estadoActual.puedeAtenderDomicilio()) {
+                return false;
+            }
+            System.out.println("    " + identificador + " atiende At. Domicilio para " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarAtencionDomicilio();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Intenta tomar una solicitud de traslado sin bloquear.
+     * @param solicitante Identificador del solicitante (ej: DNI del asociado).
+     * @return true si la unidad tomó la solicitud, false si su estado no lo permite.
+     */
+    public boolean intentarTraslado(String solicitante) {
+        lock.lock();
+        try {
+            if (!estadoActual.puedeTrasladar()) {
+                return false;
+            }
+            System.out.println("    " + identificador + " atiende Traslado para " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarTraslado();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Intenta tomar una solicitud de mantenimiento sin bloquear. Una unidad que ya está
+     * en taller no la toma: en ese estado el pedido da por terminado el mantenimiento.
+     * @param solicitante Identificador del solicitante (ej: "Operario").
+     * @return true si la unidad tomó la solicitud, false si su estado no lo permite.
+     */
+    public boolean intentarMantenimiento(String solicitante) {
+        lock.lock();
+        try {
+            if (!aceptaMantenimiento(estadoActual)) {
+                return false;
+            }
+            System.out.println("    " + identificador + " atiende Mantenimiento solicitado por " + solicitante + ". Estado: " + getNombreEstadoActual());
+            estadoActual.solicitarMantenimiento();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica si una unidad en ese estado puede recibir un pedido de mantenimiento del
+     * operario: el estado lo permite y la unidad no está ya en taller.
+     * @param estado El estado de la unidad.
+     * @return true si puede ir a taller por un pedido nuevo.
+     */
+    public static boolean aceptaMantenimiento(IEstadoAmbulancia estado) {
+        return estado.puedeIrATaller() && !(estado instanceof EstadoEnTaller);
     }
 
     /**
      * Simula el evento de retorno automático a la clínica (ej: fin de viaje).
-     * Delega la acción al estado actual. Este método podría no necesitar ser synchronized
-     * si solo es llamado internamente por los estados o un temporizador controlado.
-     * Sin embargo, si puede ser invocado externamente de forma concurrente, debería serlo.
-     * Por simplicidad y seguridad inicial, lo hacemos synchronized.
+     * Delega la acción al estado actual. Toma el lock porque es invocado
+     * concurrentemente por los temporizadores de los estados.
+     */
+    public void retornarAClinica() {
+        lock.lock();
+        try {
+            System.out.println("--> Evento: RETORNO AUTOMATICO. Estado actual: " + getNombreEstadoActual());
+            // Aquí no hay espera, el retorno siempre se intenta
+            estadoActual.retornarAClinica();
+            // No es necesario verificar 'puedeRetornar()' porque la lógica está en el estado.
+            // El estado decidirá si la transición es válida (ej: si está regresando, pasa a disponible)
+            // y setEstado() despertará a quien corresponda.
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Si un hilo señalado se interrumpe antes de consumir la señal, la pasa
+     * al siguiente de la misma cola para que no se pierda. Requiere tener el lock.
+     * @param condicion La cola de espera del hilo interrumpido.
+     * @param habilitada Si el estado actual habilita esa capacidad.
      */
-    public synchronized void retornarAClinica() {
-        System.out.println("--> Evento: RETORNO AUTOMATICO. Estado actual: " + getNombreEstadoActual());
-        // Aquí no hay espera, el retorno siempre se intenta
-        estadoActual.retornarAClinica();
-        // No es necesario verificar 'puedeRetornar()' porque la lógica está en el estado.
-        // El estado decidirá si la transición es válida (ej: si está regresando, pasa a disponible).
-        notifyAll(); // Despertar hilos por si el nuevo estado les permite actuar
+    private void cederSenial(Condition condicion, boolean habilitada) {
+        if (habilitada) {
+            condicion.signal();
+        }
     }
 
 
@@ -151,4 +356,4 @@ public class Ambulancia extends Observable {
         setChanged(); // Marca que hubo un cambio
         notifyObservers(getNombreEstadoActual()); // Envía el nombre del estado actual
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,40 @@
 package SegundaEntrega.Modelo.Negocio;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
- * Tarea (Runnable) que simula las solicitudes de un asociado a la ambulancia.
+ * Tarea (Runnable) que simula las solicitudes de un asociado a la flota de ambulancias.
  */
 public class AsociadoRunnable implements Runnable {
 
     private final Asociado asociado;
-    private final Ambulancia ambulancia;
+    private final Flota flota;
     private final int cantSolicitudes;
-    private final Random random = new Random();
+    private final SplittableRandom random;
 
     /**
      * Constructor.
      * @param asociado El asociado que realizará las solicitudes.
-     * @param ambulancia La instancia compartida de la ambulancia.
+     * @param flota La flota compartida que despacha las solicitudes.
      * @param cantSolicitudes El número total de solicitudes a realizar.
      */
-    public AsociadoRunnable(Asociado asociado, Ambulancia ambulancia, int cantSolicitudes) {
+    public AsociadoRunnable(Asociado asociado, Flota flota, int cantSolicitudes) {
+        this(asociado, flota, cantSolicitudes, new SplittableRandom());
+    }
+
+    /**
+     * Constructor con flujo aleatorio propio (derivado de la semilla de la simulación).
+     * @param asociado El asociado que realizará las solicitudes.
+     * @param flota La flota compartida que despacha las solicitudes.
+     * @param cantSolicitudes El número total de solicitudes a realizar.
+     * @param random Generador de las esperas y del tipo de solicitud.
+     */
+    public AsociadoRunnable(Asociado asociado, Flota flota, int cantSolicitudes, SplittableRandom random) {
         this.asociado = asociado;
-        this.ambulancia = ambulancia;
+        this.flota = flota;
         this.cantSolicitudes = cantSolicitudes;
+        this.random = random;
     }
 
     @Override
@@ -43,9 +55,9 @@ public class AsociadoRunnable implements Runnable {
 
             System.out.println("Asociado " + asociado.getDni() + " - Solicitud #" + i);
             if (solicitarTraslado) {
-                ambulancia.solicitarTraslado(asociado.getDni());
+                flota.solicitarTraslado(asociado.getDni());
             } else {
-                ambulancia.solicitarAtencionDomicilio(asociado.getDni());
+                flota.solicitarAtencionDomicilio(asociado.getDni());
             }
             System.out.println("Asociado " + asociado.getDni() + " - Solicitud #" + i + " PROCESADA.");
 
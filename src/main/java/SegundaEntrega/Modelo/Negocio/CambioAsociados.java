@@ -0,0 +1,103 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+
+import java.util.List;
+
+/**
+ * Evento que GestorAsociados envía a sus observadores.
+ * En lugar de mandar el padrón completo en cada alta o baja, indica qué cambió y en qué
+ * posición del listado, para que la vista aplique solo esa diferencia. También lleva la
+ * instantánea inmutable posterior al cambio (no cuesta copiarla), así una vista puede
+ * apoyarse directamente en ella sin armar su propia lista.
+ */
+public final class CambioAsociados {
+
+    /** Tipo de cambio. */
+    public enum Tipo {
+        /** Se agregó un asociado al final del listado. */
+        AGREGADO,
+        /** Se quitó el asociado que estaba en la posición indicada. */
+        ELIMINADO,
+        /** Se reemplazó el asociado de la posición indicada por uno con los datos nuevos. */
+        ACTUALIZADO,
+        /** Avance de una carga en curso: el listado es lo cargado hasta ahora. */
+        CARGA_PARCIAL,
+        /** Se cargó el padrón completo (carga desde la BD o recarga): hay que redibujar todo. */
+        CARGA_COMPLETA,
+        /** No se pudo escribir en la BD un cambio ya aplicado en memoria (escritura diferida). El listado no cambia. */
+        FALLO_PERSISTENCIA
+    }
+
+    private final Tipo tipo;
+    private final Asociado asociado;
+    private final int posicion;
+    private final List<Asociado> listado;
+    private final String mensaje;
+    private final Asociado anterior;
+
+    private CambioAsociados(Tipo tipo, Asociado asociado, int posicion, List<Asociado> listado) {
+        this(tipo, asociado, posicion, listado, null, null);
+    }
+
+    private CambioAsociados(Tipo tipo, Asociado asociado, int posicion, List<Asociado> listado, String mensaje,
+                            Asociado anterior) {
+        this.tipo = tipo;
+        this.asociado = asociado;
+        this.posicion = posicion;
+        this.listado = listado;
+        this.mensaje = mensaje;
+        this.anterior = anterior;
+    }
+
+    public static CambioAsociados agregado(Asociado asociado, int posicion, List<Asociado> listado) {
+        return new CambioAsociados(Tipo.AGREGADO, asociado, posicion, listado);
+    }
+
+    public static CambioAsociados eliminado(Asociado asociado, int posicion, List<Asociado> listado) {
+        return new CambioAsociados(Tipo.ELIMINADO, asociado, posicion, listado);
+    }
+
+    public static CambioAsociados actualizado(Asociado asociado, Asociado anterior, int posicion, List<Asociado> listado) {
+        return new CambioAsociados(Tipo.ACTUALIZADO, asociado, posicion, listado, null, anterior);
+    }
+
+    public static CambioAsociados cargaParcial(List<Asociado> listado) {
+        return new CambioAsociados(Tipo.CARGA_PARCIAL, null, -1, listado);
+    }
+
+    public static CambioAsociados cargaCompleta(List<Asociado> listado) {
+        return new CambioAsociados(Tipo.CARGA_COMPLETA, null, -1, listado);
+    }
+
+    public static CambioAsociados falloPersistencia(Asociado asociado, String mensaje, List<Asociado> listado) {
+        return new CambioAsociados(Tipo.FALLO_PERSISTENCIA, asociado, -1, listado, mensaje, null);
+    }
+
+    public Tipo getTipo() { return tipo; }
+
+    /** @return El asociado afectado, o null en una carga. */
+    public Asociado getAsociado() { return asociado; }
+
+    /** @return En un ACTUALIZADO, la instancia reemplazada (con los datos viejos, sin tocar); null en los demás tipos. */
+    public Asociado getAnterior() { return anterior; }
+
+    /** @return Posición del asociado en el listado (antes de quitarlo, si es una baja), o -1 en una carga. */
+    public int getPosicion() { return posicion; }
+
+    /** @return La instantánea (inmutable) del listado después del cambio. */
+    public List<Asociado> getListado() { return listado; }
+
+    /** @return Descripción del error en un FALLO_PERSISTENCIA; null en los demás tipos. */
+    public String getMensaje() { return mensaje; }
+
+    @Override
+    public String toString() {
+        if (tipo == Tipo.FALLO_PERSISTENCIA) {
+            return tipo + " " + asociado.getDni() + ": " + mensaje;
+        }
+        return asociado == null
+                ? tipo + " (" + listado.size() + " asociados)"
+                : tipo + " " + asociado.getDni() + " en posición " + posicion;
+    }
+}
@@ -11,14 +11,17 @@ import SegundaEntrega.Modelo.Datos.Personas.Paciente;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado;
 import SegundaEntrega.Modelo.Datos.Personas.Operario;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOArchivo;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOCache;
 import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOImpl; // DAO Concreto
+import SegundaEntrega.Persistencia.DAOAsociado.ColaEscrituraAsociados;
 import SegundaEntrega.Persistencia.DAOAsociado.IAsociadoDAO;   // DAO Interfaz
 import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
 import SegundaEntrega.Modelo.Excepciones.AsociadoDuplicadoException;
 import SegundaEntrega.Persistencia.ConexionBD.ConexionSingleton;
 
 // Imports Java Standard
-import java.sql.SQLException;
+import java.nio.file.Paths;
 import java.time.LocalDate; // Para Factura
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +37,23 @@ public class Clinica {
     // --- Singleton ---
     private static Clinica instancia;
 
+    // Cantidad de unidades con las que se arma la flota de ambulancias
+    private static final int CANTIDAD_AMBULANCIAS = 3;
+
+    // Caché de búsquedas por DNI delante del DAO
+    private static final int CACHE_ASOCIADOS_CAPACIDAD = 10_000;
+    private static final long CACHE_ASOCIADOS_TTL_MS = 5 * 60_000;
+    private static final long CACHE_ASOCIADOS_TTL_AUSENTE_MS = 30_000; // Un alta hecha por otro cliente aparece a lo sumo en 30 s
+
+    // Almacén de asociados: por defecto MySQL; con -Dclinica.asociados.archivo=<archivo>
+    // se usa un archivo local (sin servidor de BD)
+    private static final String PROPIEDAD_ARCHIVO_ASOCIADOS = "clinica.asociados.archivo";
+
+    // Escritura diferida de asociados: se activa indicando el archivo del diario
+    // con -Dclinica.asociados.diario=<archivo>
+    private static final String PROPIEDAD_DIARIO_ASOCIADOS = "clinica.asociados.diario";
+    private static final long ESPERA_CIERRE_ESCRITURAS_MS = 10_000;
+
     // --- Atributos básicos de la Clínica ---
     private final String nombreClinica = "Clínica Los Alamos"; // Datos ejemplo
     private final String direccionClinica = "Avenida Siempre Viva 742";
@@ -49,13 +69,20 @@ public class Clinica {
 
     // --- Componentes Modelo Etapa II ---
     private GestorAsociados gestorAsociados;
-    private Ambulancia ambulancia;
+    private IndiceBusquedaAsociados indiceBusquedaAsociados;
+    private Flota flota;
     private Simulador simulador;
     private Operario operarioPredeterminado;
     private IAsociadoDAO asociadoDAO;
+    private AsociadoDAOCache cacheAsociados; // null con el almacén en archivo
+    private AsociadoDAOArchivo archivoAsociados; // null con MySQL
+    private volatile ColaEscrituraAsociados escrituraAsociados; // null si no se usa escritura diferida
+    private boolean escrituraDiferidaRevisada = false; // activarEscrituraDiferida() ya corrió
 
     /**
      * Constructor privado para Singleton. Inicializa componentes.
+     * No se conecta a la BD: el pool se crea con el primer acceso del DAO, así la
+     * ventana principal no espera a la base de datos para aparecer.
      */
     private Clinica() {
 
@@ -63,29 +90,60 @@ public class Clinica {
         this.medicos = new ArrayList<>();
         this.habitaciones = new ArrayList<>();
         this.catalogoCostos = new CatalogoCostos(); // Asume constructor vacío
-        try {
-            // Es crucial que la conexión se establezca antes de usar el DAO
-            ConexionSingleton.getInstance(); // Intenta conectar al instanciar Clinica
-            this.asociadoDAO = new AsociadoDAOImpl();
-        } catch (SQLException e) {
-            System.err.println("ERROR FATAL: No se pudo establecer conexión con la BD o instanciar DAO: " + e.getMessage());
-            throw new RuntimeException("Error inicializando la capa de persistencia", e);
-        } catch (Exception e) { // Captura genérica por si DAOImpl lanza otra cosa
-            System.err.println("ERROR FATAL: No se pudo instanciar el DAO de Asociados: " + e.getMessage());
-            throw new RuntimeException("Error inicializando DAO", e);
-        }
-
-        IAsociadoDAO dao = new AsociadoDAOImpl();
-        this.gestorAsociados = new GestorAsociados(dao);
-        this.ambulancia = new Ambulancia();
-        this.simulador = new Simulador(ambulancia, this.gestorAsociados); // Pasa el gestor al simulador
+        this.asociadoDAO = crearAsociadoDAO();
+        this.gestorAsociados = new GestorAsociados(asociadoDAO);
+        this.indiceBusquedaAsociados = new IndiceBusquedaAsociados(gestorAsociados); // Se sincroniza como observador
+        this.flota = new Flota(CANTIDAD_AMBULANCIAS);
 
         this.operarioPredeterminado = new Operario("Operario", "Sistema", "00000000", "Clinica Central", "N/A", "Ciudad Central");
-        this.simulador = new Simulador(this.ambulancia, this.gestorAsociados);
+        this.simulador = new Simulador(this.flota, this.gestorAsociados); // Pasa el gestor al simulador
 
       //  cargarDatosAsociados();
     }
 
+    /**
+     * Elige el almacén de asociados según la configuración de arranque.
+     * El archivo ya tiene su índice en memoria: no lleva el caché de búsquedas delante.
+     */
+    private IAsociadoDAO crearAsociadoDAO() {
+        String archivo = System.getProperty(PROPIEDAD_ARCHIVO_ASOCIADOS);
+        if (archivo != null && !archivo.isBlank()) {
+            try {
+                this.archivoAsociados = new AsociadoDAOArchivo(Paths.get(archivo)); // Se lee en la carga de fondo, con el primer uso
+                System.out.println("Clínica: Asociados en el archivo local " + archivo + ".");
+                return archivoAsociados;
+            } catch (DAOException e) {
+                System.err.println("ERROR: No se pudo abrir el archivo de asociados, se usa la BD: " + e.getMessage());
+            }
+        }
+        this.cacheAsociados = new AsociadoDAOCache(new AsociadoDAOImpl(), // No toca la BD hasta la primera operación
+                CACHE_ASOCIADOS_CAPACIDAD, CACHE_ASOCIADOS_TTL_MS, CACHE_ASOCIADOS_TTL_AUSENTE_MS);
+        return cacheAsociados;
+    }
+
+    /**
+     * Si se configuró un diario, las escrituras de asociados pasan por una cola en
+     * segundo plano. Si el diario no se puede abrir, se sigue escribiendo en el momento.
+     *
+     * Abrir la cola recupera el diario de la ejecución anterior y lo compacta (lee y
+     * fuerza al disco), así que no se hace en el constructor: llamar desde un hilo de
+     * fondo antes de cargar los asociados, para que la carga vea lo que quedó en el
+     * diario. Las llamadas siguientes no hacen nada.
+     */
+    public synchronized void activarEscrituraDiferida() {
+        if (escrituraDiferidaRevisada) return;
+        escrituraDiferidaRevisada = true;
+        String diario = System.getProperty(PROPIEDAD_DIARIO_ASOCIADOS);
+        if (diario == null || diario.isBlank()) return;
+        try {
+            this.escrituraAsociados = new ColaEscrituraAsociados(asociadoDAO, Paths.get(diario));
+            gestorAsociados.usarEscrituraDiferida(escrituraAsociados);
+            System.out.println("Clínica: Escritura diferida de asociados activada (diario " + diario + ").");
+        } catch (DAOException e) {
+            System.err.println("ERROR: No se pudo activar la escritura diferida, se escribe en el momento: " + e.getMessage());
+        }
+    }
+
     /** Obtiene la instancia única (Singleton). */
     public static synchronized Clinica getInstance() {
         if (instancia == null) {
@@ -108,7 +166,9 @@ public class Clinica {
     // ... otros getters Etapa I ...
 
     public GestorAsociados getGestorAsociados() { return gestorAsociados; }
-    public Ambulancia getAmbulancia() { return ambulancia; }
+    public IndiceBusquedaAsociados getIndiceBusquedaAsociados() { return indiceBusquedaAsociados; }
+    public Flota getFlota() { return flota; }
+    public Ambulancia getAmbulancia() { return flota.getUnidad(0); } // Primera unidad de la flota
     public Simulador getSimulador() { return simulador; }
 
 
@@ -189,7 +249,7 @@ public class Clinica {
     }
 
     /** Obtiene el listado actual de asociados desde el Gestor */
-    public synchronized List<Asociado> getListadoAsociados() {
+    public List<Asociado> getListadoAsociados() { // Sin lock: el gestor devuelve una instantánea inmutable
         return gestorAsociados.getListadoAsociados();
     }
 
@@ -215,48 +275,40 @@ public class Clinica {
         }
     }
 
+    /**
+     * Escribe en la BD los cambios hechos en memoria. Solo se escriben los asociados
+     * que cambiaron (unidad de trabajo del gestor), así el costo depende de lo editado
+     * y no del tamaño del padrón.
+     */
     public synchronized void guardarDatosAsociados() {
         System.out.println("Clínica: Guardando datos de asociados en BD...");
         if (this.asociadoDAO == null) return;
-        List<Asociado> asociadosMemoria = gestorAsociados.getListadoAsociados();
         try {
-            List<Asociado> asociadosDB = asociadoDAO.listarTodos();
-
-            // Eliminar de DB los que no están en memoria
-            for (Asociado enDB : asociadosDB) {
-                if (!asociadosMemoria.contains(enDB)) {
-                    try { asociadoDAO.eliminar(enDB); }
-                    catch (DAOException eDel) { System.err.println("WARN: Error eliminando asociado " + enDB.getDni() + ": " + eDel.getMessage()); }
-                }
-            }
-            // Actualizar o Insertar los de memoria en DB
-            for (Asociado actual : asociadosMemoria) {
-                try {
-                    if (asociadosDB.contains(actual)) { // Si ya estaba en la lista original de DB
-                        // Podríamos comparar campos para ver si realmente cambió antes de actualizar
-                        asociadoDAO.actualizar(actual);
-                    } else { // Si es nuevo (no estaba en la lista original de DB)
-                        asociadoDAO.guardar(actual);
-                    }
-                } catch (DAOException eUpdIns) {
-                    System.err.println("WARN: Error guardando/actualizando asociado " + actual.getDni() + ": " + eUpdIns.getMessage());
-                }
-            }
-            System.out.println("Clínica: Datos de asociados guardados.");
-        } catch (DAOException eList) {
-            System.err.println("ERROR: No se pudo listar asociados de BD para guardar: " + eList.getMessage());
-            eList.printStackTrace(); // Podría mostrarse en GUI
+            int escritas = gestorAsociados.confirmarCambios();
+            System.out.println("Clínica: Datos de asociados guardados (" + escritas + " fila(s) escritas).");
+        } catch (DAOException e) {
+            System.err.println("ERROR: No se pudieron guardar los cambios de asociados: " + e.getMessage());
+            e.printStackTrace(); // Podría mostrarse en GUI
         }
     }
 
     /** Cierra la conexión a la BD. Llamar al salir. */
     public void cerrarConexionBD() {
         System.out.println("Clínica: Solicitando cierre de conexión BD...");
-        try {
-            ConexionSingleton.getInstance().closeConnection();
-        } catch (SQLException e) {
-            System.err.println("WARN: Problema al obtener/cerrar conexión BD: " + e.getMessage());
+        ColaEscrituraAsociados cola = escrituraAsociados;
+        if (cola != null) {
+            cola.cerrar(ESPERA_CIERRE_ESCRITURAS_MS); // Lo que no se escriba queda en el diario
+            System.out.println(cola.getResumenMetricas());
+        }
+        if (cacheAsociados != null) {
+            System.out.println(cacheAsociados.getResumenMetricas());
+        }
+        if (archivoAsociados != null) {
+            System.out.println(archivoAsociados.getResumenMetricas());
+            archivoAsociados.cerrar();
         }
+        indiceBusquedaAsociados.cerrar();
+        ConexionSingleton.cerrarSiEstaAbierta(); // Si nunca se usó la BD, no hay nada que cerrar
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import java.util.SplittableRandom;
+
+/**
+ * Configuración aleatoria de una corrida de simulación.
+ * A partir de una semilla maestra se derivan flujos independientes (SplittableRandom):
+ * uno por asociado y uno por unidad de la flota. Cada flujo se entrega en el orden del
+ * padrón y de la flota, así que la misma semilla con el mismo padrón produce siempre los
+ * mismos sorteos. El mantenimiento lo pide el operario por demanda desde la ventana, así
+ * que no forma parte de la corrida sembrada.
+ *
+ * En la simulación por eventos discretos esto alcanza para repetir exactamente la
+ * secuencia de transiciones. En el modo en vivo cada hilo repite sus propios sorteos,
+ * pero el intercalado entre hilos depende del sistema operativo.
+ */
+public class ConfiguracionSimulacion {
+
+    private final long semilla;
+    private final SplittableRandom raizAsociados;
+    private final SplittableRandom raizUnidades;
+
+    /**
+     * Constructor.
+     * @param semilla Semilla maestra de la corrida.
+     */
+    public ConfiguracionSimulacion(long semilla) {
+        this.semilla = semilla;
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        // Raíces separadas: agregar una unidad no cambia los sorteos de los asociados
+        this.raizAsociados = raiz.split();
+        this.raizUnidades = raiz.split();
+    }
+
+    /**
+     * Crea una configuración con una semilla elegida al azar (que se informa para poder repetirla).
+     * @return Una configuración nueva.
+     */
+    public static ConfiguracionSimulacion conSemillaAleatoria() {
+        return new ConfiguracionSimulacion(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @return La semilla maestra.
+     */
+    public long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Devuelve el flujo del próximo asociado del padrón (llamar en el orden del padrón).
+     * @return Un generador independiente.
+     */
+    public synchronized SplittableRandom siguienteGeneradorAsociado() {
+        return raizAsociados.split();
+    }
+
+    /**
+     * Devuelve el flujo de la próxima unidad de la flota (llamar en el orden de la flota).
+     * @return Un generador independiente.
+     */
+    public synchronized SplittableRandom siguienteGeneradorUnidad() {
+        return raizUnidades.split();
+    }
+}
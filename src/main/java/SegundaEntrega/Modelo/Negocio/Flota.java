@@ -0,0 +1,280 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Patrones.PatronState.IEstadoAmbulancia;
+import SegundaEntrega.Patrones.PatronState.PlanificadorEventos;
+import SegundaEntrega.Patrones.PatronState.TemporizadorEstados;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable; // Para Observer
+import java.util.Observer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Representa la flota de ambulancias de la clínica y actúa como despachador.
+ * Cada solicitud se asigna a la primera unidad cuyo estado la permita; si ninguna
+ * puede atenderla, el solicitante espera hasta que alguna unidad cambie de estado.
+ * Cada Ambulancia conserva su propio patrón State y sus notificaciones Observer;
+ * la Flota se registra como observador de todas para enterarse de esos cambios.
+ */
+public class Flota implements Observer {
+
+    private final List<Ambulancia> unidades;
+    private final PlanificadorEventos planificador; // Reloj para medir la espera de las solicitudes
+    private volatile MetricasSimulacion metricas; // null si no se está midiendo
+
+    // --- Monitor del despachador ---
+    // Una cola de espera por capacidad, igual que en Ambulancia: una transición solo
+    // despierta a los solicitantes cuya capacidad habilita el nuevo estado.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Capacidad traslado = new Capacidad(lock.newCondition());
+    private final Capacidad domicilio = new Capacidad(lock.newCondition());
+    private final Capacidad taller = new Capacidad(lock.newCondition());
+
+    /**
+     * Constructor. Crea la cantidad indicada de ambulancias, todas en estado Disponible
+     * y usando el temporizador compartido de tiempo real.
+     * @param cantidadAmbulancias Cantidad de unidades de la flota (mayor a 0).
+     */
+    public Flota(int cantidadAmbulancias) {
+        this(cantidadAmbulancias, TemporizadorEstados.getInstance());
+    }
+
+    /**
+     * Constructor con planificador propio para todas las unidades.
+     * @param cantidadAmbulancias Cantidad de unidades de la flota (mayor a 0).
+     * @param planificador Reloj con el que los estados programan su finalización.
+     */
+    public Flota(int cantidadAmbulancias, PlanificadorEventos planificador) {
+        if (cantidadAmbulancias <= 0) {
+            throw new IllegalArgumentException("La flota debe tener al menos una ambulancia.");
+        }
+        this.planificador = planificador;
+        List<Ambulancia> lista = new ArrayList<>();
+        for (int i = 1; i <= cantidadAmbulancias; i++) {
+            Ambulancia ambulancia = new Ambulancia("Ambulancia " + i, planificador);
+            ambulancia.addObserver(this); // La flota se entera de cada transición
+            lista.add(ambulancia);
+        }
+        this.unidades = Collections.unmodifiableList(lista);
+        System.out.println("Flota creada con " + cantidadAmbulancias + " ambulancia(s).");
+    }
+
+    /**
+     * Devuelve las unidades de la flota (lista no modificable).
+     * @return Lista de ambulancias.
+     */
+    public List<Ambulancia> getUnidades() {
+        return unidades;
+    }
+
+    /**
+     * Devuelve una unidad por su posición.
+     * @param indice Posición de la unidad (empieza en 0).
+     * @return La ambulancia en esa posición.
+     */
+    public Ambulancia getUnidad(int indice) {
+        return unidades.get(indice);
+    }
+
+    /**
+     * @return La cantidad de ambulancias de la flota.
+     */
+    public int getCantidadUnidades() {
+        return unidades.size();
+    }
+
+    /**
+     * @return El reloj de la flota (el mismo que usan los estados de sus unidades).
+     */
+    public PlanificadorEventos getPlanificador() {
+        return planificador;
+    }
+
+    /**
+     * Define dónde se registran las esperas de las solicitudes bloqueantes.
+     * @param metricas Las métricas de la corrida, o null para dejar de medir.
+     */
+    public void setMetricas(MetricasSimulacion metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Asigna a cada unidad, en orden, su flujo aleatorio derivado de la configuración.
+     * @param configuracion La configuración (semilla) de la corrida.
+     */
+    public void aplicarConfiguracion(ConfiguracionSimulacion configuracion) {
+        for (Ambulancia unidad : unidades) {
+            unidad.setGeneradorAleatorio(configuracion.siguienteGeneradorUnidad());
+        }
+    }
+
+
+    // --- Métodos de Solicitud (Despacho) ---
+
+    /**
+     * Despacha una solicitud de atención a domicilio a la primera unidad que pueda atenderla.
+     * Bloquea mientras ninguna unidad pueda.
+     * @param solicitante Identificador del solicitante (ej: DNI del asociado).
+     */
+    public void solicitarAtencionDomicilio(String solicitante) {
+        despachar(solicitante, TipoSolicitud.ATENCION_DOMICILIO, domicilio, a -> a.intentarAtencionDomicilio(solicitante));
+    }
+
+    /**
+     * Despacha una solicitud de traslado a la primera unidad que pueda atenderla.
+     * Bloquea mientras ninguna unidad pueda.
+     * @param solicitante Identificador del solicitante (ej: DNI del asociado).
+     */
+    public void solicitarTraslado(String solicitante) {
+        despachar(solicitante, TipoSolicitud.TRASLADO, traslado, a -> a.intentarTraslado(solicitante));
+    }
+
+    /**
+     * Despacha una solicitud de mantenimiento a la primera unidad que pueda ir a taller.
+     * Las unidades que ya están en taller se saltean (el pedido terminaría su mantenimiento).
+     * Bloquea mientras ninguna unidad pueda.
+     * @param solicitante Identificador del solicitante (ej: "Operario").
+     */
+    public void solicitarMantenimiento(String solicitante) {
+        despachar(solicitante, TipoSolicitud.MANTENIMIENTO, taller, a -> a.intentarMantenimiento(solicitante));
+    }
+
+    // --- Métodos de Solicitud No Bloqueantes (usados por la simulación discreta) ---
+
+    /**
+     * Asigna una atención a domicilio a la primera unidad que pueda, sin esperar.
+     * @param solicitante Identificador del solicitante.
+     * @return true si alguna unidad la tomó.
+     */
+    public boolean intentarAtencionDomicilio(String solicitante) {
+        return intentarEnAlgunaUnidad(a -> a.intentarAtencionDomicilio(solicitante));
+    }
+
+    /**
+     * Asigna un traslado a la primera unidad que pueda, sin esperar.
+     * @param solicitante Identificador del solicitante.
+     * @return true si alguna unidad lo tomó.
+     */
+    public boolean intentarTraslado(String solicitante) {
+        return intentarEnAlgunaUnidad(a -> a.intentarTraslado(solicitante));
+    }
+
+    /**
+     * Asigna un mantenimiento a la primera unidad que pueda, sin esperar.
+     * @param solicitante Identificador del solicitante.
+     * @return true si alguna unidad lo tomó.
+     */
+    public boolean intentarMantenimiento(String solicitante) {
+        return intentarEnAlgunaUnidad(a -> a.intentarMantenimiento(solicitante));
+    }
+
+    /**
+     * Recorre las unidades en orden y devuelve true en cuanto una acepta.
+     * @param intento Acción no bloqueante sobre una unidad.
+     * @return true si alguna unidad tomó la solicitud.
+     */
+    private boolean intentarEnAlgunaUnidad(Predicate<Ambulancia> intento) {
+        for (Ambulancia ambulancia : unidades) {
+            if (intento.test(ambulancia)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recorre las unidades en orden y asigna la solicitud a la primera que la acepte.
+     * Nunca se retiene el lock de la Flota mientras se toma el de una Ambulancia
+     * (la Ambulancia notifica a la Flota con su propio lock tomado), así se evita
+     * un interbloqueo por orden de adquisición.
+     * @param solicitante Identificador del solicitante.
+     * @param tipo Tipo de solicitud (para el log y las métricas de espera).
+     * @param capacidad Cola de espera de este tipo de solicitud.
+     * @param intento Acción no bloqueante sobre una unidad; devuelve true si la tomó.
+     */
+    private void despachar(String solicitante, TipoSolicitud tipo, Capacidad capacidad, Predicate<Ambulancia> intento) {
+        System.out.println("--> " + solicitante + " solicita " + tipo + " a la flota.");
+        long inicio = planificador.ahoraMillis();
+        while (true) {
+            long habilitacionesVistas;
+            lock.lock();
+            try {
+                habilitacionesVistas = capacidad.habilitaciones;
+            } finally {
+                lock.unlock();
+            }
+            if (intentarEnAlgunaUnidad(intento)) {
+                MetricasSimulacion m = metricas;
+                if (m != null) {
+                    m.registrarEspera(tipo, planificador.ahoraMillis() - inicio);
+                }
+                return; // Alguna unidad tomó la solicitud
+            }
+            lock.lock();
+            try {
+                // Si alguna unidad habilitó esta capacidad mientras recorríamos, reintentamos sin esperar
+                while (capacidad.habilitaciones == habilitacionesVistas) {
+                    System.out.println("    " + solicitante + " esperando para " + tipo + " (ninguna unidad disponible)");
+                    try {
+                        capacidad.cola.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        System.err.println("WARN: " + solicitante + " interrumpido mientras esperaba " + tipo + ".");
+                        capacidad.cola.signal(); // Cede la señal que pudo haber recibido
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+
+    // --- Observer ---
+
+    /**
+     * Se llama cada vez que una unidad cambia de estado (con el lock de esa unidad tomado).
+     * Despierta a un solicitante por cada capacidad que el nuevo estado habilita.
+     * @param o La Ambulancia que cambió.
+     * @param arg El nombre del nuevo estado.
+     */
+    @Override
+    public void update(Observable o, Object arg) {
+        if (!(o instanceof Ambulancia)) {
+            return;
+        }
+        IEstadoAmbulancia estado = ((Ambulancia) o).getEstadoActual();
+        lock.lock();
+        try {
+            if (estado.puedeTrasladar()) traslado.habilitar();
+            if (estado.puedeAtenderDomicilio()) domicilio.habilitar();
+            if (Ambulancia.aceptaMantenimiento(estado)) taller.habilitar();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cola de espera de un tipo de solicitud junto con un contador de habilitaciones.
+     * El contador permite detectar una habilitación ocurrida entre que el solicitante
+     * recorrió las unidades y se puso a esperar. Se accede siempre con el lock tomado.
+     */
+    private static class Capacidad {
+        private final Condition cola;
+        private long habilitaciones = 0;
+
+        private Capacidad(Condition cola) {
+            this.cola = cola;
+        }
+
+        private void habilitar() {
+            habilitaciones++;
+            cola.signal();
+        }
+    }
+}
@@ -2,36 +2,102 @@ package SegundaEntrega.Modelo.Negocio;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado;
 import SegundaEntrega.Modelo.Excepciones.AsociadoDuplicadoException;
+import SegundaEntrega.Persistencia.DAOAsociado.ColaEscrituraAsociados;
+import SegundaEntrega.Persistencia.DAOAsociado.ExportadorAsociados;
+import SegundaEntrega.Persistencia.DAOAsociado.FalloEscrituraAsociado;
 import SegundaEntrega.Persistencia.DAOAsociado.IAsociadoDAO;
+import SegundaEntrega.Persistencia.DAOAsociado.UnidadDeTrabajoAsociados;
 import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
 
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Observable;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Gestiona el alta, baja y listado de asociados.
- * Notifica a los observadores cuando la lista de asociados cambia.
+ * Notifica a los observadores cuando la lista de asociados cambia, con un CambioAsociados
+ * que describe solo la diferencia (alta, baja, modificación o carga completa).
+ *
+ * Las escrituras (alta, baja, carga) se serializan con el monitor del gestor. Las
+ * lecturas no toman lock: el listado es una instantánea inmutable que cada escritura
+ * vuelve a publicar (un ListadoPersistente: la escritura copia solo el camino hasta la
+ * hoja que cambia, no el padrón) y la búsqueda por DNI usa un índice concurrente.
+ * Así el Simulador, los observadores y la fachada comparten la misma lista sin copiarla
+ * ni esperar a un escritor.
+ *
+ * Con usarEscrituraDiferida() las altas, bajas y modificaciones no esperan a la BD: se
+ * aplican en memoria y se encolan en una ColaEscrituraAsociados. Con el monitor tomado
+ * solo se reserva el lugar en el diario; la espera al disco se hace después de soltarlo,
+ * así varias escrituras comparten el force() y las lecturas no esperan al disco. Si el
+ * diario falla, el cambio ya publicado se deshace (y el alta o la baja lanza la
+ * excepción de siempre). Si después una escritura se descarta en la BD, se avisa a los
+ * observadores con un FALLO_PERSISTENCIA.
  */
 public class GestorAsociados extends Observable {
 
+    private static final int TAMANIO_FETCH = 1000; // Filas por viaje a la BD en la carga inicial
+    private static final long INTERVALO_PUBLICACION_NS = 250_000_000L; // Cada cuánto se muestra el avance de una carga
+    private static final long ESPERA_ESCRITURAS_MS = 10_000; // Antes de leer la BD se espera a la cola de escritura
+
     // **¡Importante! Acceso a la lista interna**
     // Para que Clinica pueda cargar datos directamente o para el método
     // altaAsociadoSinNotificar, necesitamos una forma de añadir sin notificar.
     // Opción 1: Hacer la lista 'protected' (menos encapsulado).
     // Opción 2: Crear el método altaAsociadoSinNotificar (preferible).
-    private List<Asociado> asociados;
+    // Índice por DNI: alta, baja y búsqueda en O(1). Se escribe con el monitor tomado
+    // y se lee sin lock. Guarda también la clave del asociado en el listado.
+    private final Map<String, EnPadron> indicePorDni = new ConcurrentHashMap<>();
+    // Orden de inserción (el de la BD al cargar). Es persistente: cada escritura arma un
+    // listado nuevo que comparte casi todo con el anterior, que sigue publicado tal cual.
+    private ListadoPersistente orden = ListadoPersistente.VACIO; // Protegido por el monitor del gestor
+    private final List<Asociado> pendientesDePublicar = new ArrayList<>(); // Carga masiva aún no publicada
+    private long siguienteClave = 0; // Número de alta del próximo asociado; los pendientes tienen los anteriores
+    private volatile List<Asociado> instantanea = ListadoPersistente.VACIO;
+    private volatile boolean instantaneaVencida = false; // Solo durante una carga masiva sin notificar
     private IAsociadoDAO dao;
+    private final UnidadDeTrabajoAsociados unidadDeTrabajo; // Qué cambió desde la última escritura
+    private final Object cerrojoCarga = new Object(); // Serializa las cargas desde la BD
+    private Set<String> bajasDuranteCarga; // DNIs dados de baja mientras corre una carga; null si no hay carga
+    private volatile ColaEscrituraAsociados escrituraDiferida; // null: se escribe en la BD en el momento
 
     /**
      * Constructor.
      * @param dao La implementación del DAO que se usará para persistencia.
      */
     public GestorAsociados(IAsociadoDAO dao) { // <-- MODIFICAR CONSTRUCTOR
-        this.asociados = new ArrayList<>();
         this.dao = dao; // Guardar la referencia al DAO
+        this.unidadDeTrabajo = new UnidadDeTrabajoAsociados(dao);
+    }
+
+    /**
+     * Activa la escritura diferida: desde ahora las altas, bajas y modificaciones se
+     * encolan en lugar de esperar a la BD. Los fallos definitivos de la cola se reenvían
+     * a los observadores como FALLO_PERSISTENCIA.
+     * @param cola La cola de escritura, sobre el mismo DAO que usa el gestor.
+     */
+    public void usarEscrituraDiferida(ColaEscrituraAsociados cola) {
+        cola.addObserver((origen, arg) -> {
+            FalloEscrituraAsociado fallo = (FalloEscrituraAsociado) arg;
+            System.err.println("WARN (GestorAsociados): " + fallo);
+            if (fallo.isDefinitivo()) { // Los intermedios se reintentan solos
+                notificarFalloPersistencia(fallo);
+            }
+        });
+        this.escrituraDiferida = cola;
     }
 
     /**
@@ -41,23 +107,169 @@ public class GestorAsociados extends Observable {
      * @throws AsociadoDuplicadoException Si ya existe un asociado con el mismo DNI.
      * @throws IllegalArgumentException Si el asociado es nulo o inválido.
      */
-    public synchronized void altaAsociado(Asociado nuevoAsociado) throws AsociadoDuplicadoException,DAOException {
+    public void altaAsociado(Asociado nuevoAsociado) throws AsociadoDuplicadoException,DAOException {
         if (nuevoAsociado == null || nuevoAsociado.getDni() == null || nuevoAsociado.getDni().trim().isEmpty()) {
             throw new IllegalArgumentException("El asociado o su DNI no pueden ser nulos o vacíos.");
         }
-        if (this.asociados.contains(nuevoAsociado)) {
-            throw new AsociadoDuplicadoException("Ya existe un asociado con el DNI: " + nuevoAsociado.getDni());
+        ColaEscrituraAsociados.Anotacion anotacion = null;
+        long clave;
+        synchronized (this) {
+            if (indicePorDni.containsKey(nuevoAsociado.getDni())) {
+                throw new AsociadoDuplicadoException("Ya existe un asociado con el DNI: " + nuevoAsociado.getDni());
+            }
+            ColaEscrituraAsociados cola = escrituraDiferida;
+            if (cola != null) {
+                anotacion = cola.anotar(ColaEscrituraAsociados.Operacion.INSERTAR, nuevoAsociado);
+            } else {
+                try {
+                    dao.guardar(nuevoAsociado); // guardar en  bd
+                } catch (DAOException e) {
+                    System.err.println("Error de DAO al guardar asociado: " + e.getMessage());
+                    throw new DAOException("Error al persistir el nuevo asociado.", e);
+                }
+            }
+
+            clave = siguienteClave;
+            agregarPendiente(nuevoAsociado);
+            publicarInstantanea();
+            unidadDeTrabajo.registrarLimpio(nuevoAsociado); // Ya está en la BD; se sigue por si se edita
+            setChanged();
+            notifyObservers(CambioAsociados.agregado(nuevoAsociado, orden.size() - 1, instantanea)); //notifico a la vista
+        }
+        if (anotacion != null) {
+            try {
+                anotacion.esperar(); // Sin el monitor: otras escrituras comparten este force()
+            } catch (DAOException e) {
+                System.err.println("Error de DAO al guardar asociado: " + e.getMessage());
+                deshacerAltas(Collections.singletonList(nuevoAsociado), clave);
+                throw new DAOException("Error al persistir el nuevo asociado.", e);
+            }
+        }
+    }
+
+    /**
+     * Da de alta un lote de asociados con una sola escritura en la BD (importación masiva).
+     * Los DNIs que ya están en memoria no se agregan. Si el lote falla en la BD se
+     * guarda uno por uno, para aislar los que fallan. Avisa a los observadores una vez
+     * por lote (CARGA_PARCIAL): la vista agrega las filas nuevas al final.
+     * @param asociados Asociados válidos y sin DNIs repetidos entre sí.
+     * @param rechazo Recibe cada asociado que no se agregó y el motivo.
+     * @return Cantidad de asociados agregados.
+     * @throws DAOException Si no se pudo guardar ninguno de varios (la BD no responde).
+     */
+    public int altaAsociadosEnLote(List<Asociado> asociados, BiConsumer<Asociado, String> rechazo)
+            throws DAOException {
+        ColaEscrituraAsociados.Anotacion anotacion = null;
+        List<Asociado> guardados;
+        long primeraClave;
+        synchronized (this) {
+            List<Asociado> nuevos = new ArrayList<>(asociados.size());
+            for (Asociado a : asociados) {
+                if (indicePorDni.containsKey(a.getDni())) {
+                    rechazo.accept(a, "Ya existe un asociado con el DNI " + a.getDni());
+                } else {
+                    nuevos.add(a);
+                }
+            }
+            ColaEscrituraAsociados cola = escrituraDiferida;
+            if (cola != null) {
+                anotacion = cola.anotarLote(ColaEscrituraAsociados.Operacion.INSERTAR, nuevos); // Un solo force() por lote
+                guardados = nuevos;
+            } else {
+                guardados = guardarLote(nuevos, rechazo);
+            }
+            primeraClave = siguienteClave;
+            for (Asociado a : guardados) {
+                agregarPendiente(a);
+                unidadDeTrabajo.registrarLimpio(a);
+            }
+            if (!guardados.isEmpty()) {
+                notificarCargaParcial();
+            }
+        }
+        if (anotacion != null) {
+            try {
+                anotacion.esperar();
+            } catch (DAOException e) {
+                System.err.println("WARN (GestorAsociados): No se pudo anotar el lote de " + guardados.size()
+                        + " altas en el diario: " + e.getMessage());
+                deshacerAltas(guardados, primeraClave);
+                for (Asociado a : guardados) {
+                    rechazo.accept(a, "Error al guardar en la BD: " + e.getMessage());
+                }
+                if (guardados.size() > 1) {
+                    throw new DAOException("No se pudo guardar ninguno de los " + guardados.size() + " asociados del lote.", e);
+                }
+                return 0;
+            }
+        }
+        return guardados.size();
+    }
+
+    /**
+     * Escribe un lote en la BD; si la BD lo rechaza, reintenta fila por fila.
+     * @return Los que quedaron guardados.
+     */
+    private List<Asociado> guardarLote(List<Asociado> nuevos, BiConsumer<Asociado, String> rechazo) throws DAOException {
+        if (nuevos.isEmpty()) {
+            return nuevos;
         }
         try {
-            dao.guardar(nuevoAsociado); // guardar en  bd
+            dao.guardarLote(nuevos);
+            return nuevos;
         } catch (DAOException e) {
-            System.err.println("Error de DAO al guardar asociado: " + e.getMessage());
-            throw new DAOException("Error al persistir el nuevo asociado.", e);
+            System.err.println("WARN (GestorAsociados): Falló el lote de " + nuevos.size()
+                    + " altas; se guarda uno por uno: " + e.getMessage());
+        }
+        List<Asociado> guardados = new ArrayList<>(nuevos.size());
+        DAOException ultimoError = null;
+        for (Asociado a : nuevos) {
+            try {
+                dao.guardar(a);
+                guardados.add(a);
+            } catch (DAOException e) {
+                ultimoError = e;
+                rechazo.accept(a, "Error al guardar en la BD: " + e.getMessage());
+            }
         }
+        if (guardados.isEmpty() && nuevos.size() > 1) {
+            throw new DAOException("No se pudo guardar ninguno de los " + nuevos.size() + " asociados del lote.", ultimoError);
+        }
+        return guardados;
+    }
 
-        this.asociados.add(nuevoAsociado);
+    /**
+     * Quita de memoria altas ya publicadas cuya anotación en el diario falló. Las que se
+     * dieron de baja en el medio ya no están y se saltean. Llamar sin el monitor tomado.
+     * @param altas Los asociados, en el orden en que se agregaron.
+     * @param primeraClave Clave que recibió el primero (los demás tienen las siguientes).
+     */
+    private synchronized void deshacerAltas(List<Asociado> altas, long primeraClave) {
+        long clave = primeraClave;
+        Asociado quitado = null;
+        int posicion = -1;
+        int quitados = 0;
+        for (Asociado a : altas) {
+            EnPadron enPadron = indicePorDni.get(a.getDni());
+            if (enPadron != null && enPadron.clave == clave) { // Si no, es de otra alta posterior
+                posicion = posicionEnOrden(enPadron);
+                if (posicion >= 0) {
+                    orden = orden.quitar(posicion);
+                }
+                indicePorDni.remove(a.getDni());
+                unidadDeTrabajo.olvidar(enPadron.asociado);
+                quitado = enPadron.asociado;
+                quitados++;
+            }
+            clave++;
+        }
+        if (quitados == 0) {
+            return;
+        }
+        publicarInstantanea();
         setChanged();
-        notifyObservers(getListadoAsociados()); //notifico a la vista
+        notifyObservers(quitados == 1 ? CambioAsociados.eliminado(quitado, posicion, instantanea)
+                : CambioAsociados.cargaCompleta(instantanea));
     }
 
     /**
@@ -71,11 +283,13 @@ public class GestorAsociados extends Observable {
         if (asociado == null || asociado.getDni() == null || asociado.getDni().trim().isEmpty()) {
             throw new IllegalArgumentException("El asociado o su DNI no pueden ser nulos o vacíos (carga inicial).");
         }
-        if (this.asociados.contains(asociado)) {
+        if (indicePorDni.containsKey(asociado.getDni())) {
             System.err.println("WARN (GestorAsociados): Intentando agregar asociado duplicado durante carga: " + asociado.getDni());
             return; //ignoro un duplicado
         }
-        this.asociados.add(asociado)    ;
+        agregarPendiente(asociado);
+        instantaneaVencida = true; // Se publica una sola vez al notificar la carga completa
+        unidadDeTrabajo.registrarLimpio(asociado); // Viene de la BD
     }
 
     /**
@@ -84,8 +298,9 @@ public class GestorAsociados extends Observable {
      */
     public synchronized void notificarCargaCompleta() {
         System.out.println("GestorAsociados: Notificando carga completa a observadores.");
+        publicarInstantanea();
         setChanged();
-        notifyObservers(getListadoAsociados()); // Envía la lista final
+        notifyObservers(CambioAsociados.cargaCompleta(instantanea)); // Envía la lista final
     }
 
     /**
@@ -94,22 +309,165 @@ public class GestorAsociados extends Observable {
      * @param asociadoABajar el asociado que se va a eliminar
      * @throws DAOException Si ocurre un error al eliminar de la base de datos.
      */
-    public synchronized void bajaAsociado(Asociado asociadoABajar) throws AsociadoDuplicadoException, DAOException {
+    public void bajaAsociado(Asociado asociadoABajar) throws AsociadoDuplicadoException, DAOException {
         if (asociadoABajar == null || asociadoABajar.getDni() == null || asociadoABajar.getDni().trim().isEmpty()) {
             throw new IllegalArgumentException("El asociado a bajar o su DNI no pueden ser nulos o vacíos.");
         }
-        try {
-            dao.eliminar(asociadoABajar); //elimino de la bd
-        } catch (DAOException e) {
-            System.err.println("Error de DAO al eliminar asociado: " + e.getMessage());
-            throw new DAOException("Error al eliminar el asociado de la BD.", e);
+        ColaEscrituraAsociados.Anotacion anotacion = null;
+        Asociado eliminado;
+        synchronized (this) {
+            ColaEscrituraAsociados cola = escrituraDiferida;
+            if (cola != null) {
+                anotacion = cola.anotar(ColaEscrituraAsociados.Operacion.ELIMINAR, asociadoABajar);
+            } else {
+                try {
+                    dao.eliminar(asociadoABajar); //elimino de la bd
+                } catch (DAOException e) {
+                    System.err.println("Error de DAO al eliminar asociado: " + e.getMessage());
+                    throw new DAOException("Error al eliminar el asociado de la BD.", e);
+                }
+            }
+            eliminado = quitarDeMemoria(asociadoABajar);
+        }
+        if (anotacion != null) {
+            try {
+                anotacion.esperar(); // Sin el monitor: otras escrituras comparten este force()
+            } catch (DAOException e) {
+                System.err.println("Error de DAO al eliminar asociado: " + e.getMessage());
+                if (eliminado != null) {
+                    deshacerBaja(eliminado);
+                }
+                throw new DAOException("Error al eliminar el asociado de la BD.", e);
+            }
         }
-        boolean eliminado = this.asociados.remove(asociadoABajar);
-        if (!eliminado) {
+    }
+
+    /**
+     * Parte en memoria de la baja. Llamar con el monitor tomado.
+     * @return El asociado que estaba en memoria, o null si no estaba.
+     */
+    private Asociado quitarDeMemoria(Asociado asociadoABajar) {
+        EnPadron quitado = indicePorDni.remove(asociadoABajar.getDni());
+        Asociado eliminado = quitado == null ? null : quitado.asociado;
+        if (bajasDuranteCarga != null) {
+            bajasDuranteCarga.add(asociadoABajar.getDni()); // El cursor de la carga puede traerlo todavía
+        }
+        unidadDeTrabajo.olvidar(eliminado != null ? eliminado : asociadoABajar); // Ya se borró de la BD
+        if (eliminado == null) {
             System.err.println("WARN: Se eliminó de BD pero no se encontró en memoria: " + asociadoABajar.getDni());
+            return null; // La lista en memoria no cambió
+        }
+        int posicion = posicionEnOrden(quitado);
+        if (posicion >= 0) {
+            orden = orden.quitar(posicion);
+        }
+        publicarInstantanea();
+        setChanged();
+        notifyObservers(CambioAsociados.eliminado(eliminado, posicion, instantanea)); //notifico
+        return eliminado;
+    }
+
+    /**
+     * Vuelve a poner en memoria un asociado cuya baja no se pudo anotar en el diario.
+     * Queda al final del listado. Si en el medio se dio de alta otro con el mismo DNI, se
+     * deja ese. Llamar sin el monitor tomado.
+     */
+    private synchronized void deshacerBaja(Asociado eliminado) {
+        if (indicePorDni.containsKey(eliminado.getDni())) {
+            return;
+        }
+        agregarPendiente(eliminado);
+        publicarInstantanea();
+        unidadDeTrabajo.registrarLimpio(eliminado);
+        setChanged();
+        notifyObservers(CambioAsociados.agregado(eliminado, orden.size() - 1, instantanea));
+    }
+
+    /**
+     * Modifica los datos del asociado con el mismo DNI. El cambio queda pendiente en la
+     * unidad de trabajo y se escribe en la BD con confirmarCambios() (con escritura
+     * diferida, se encola enseguida).
+     *
+     * La instancia publicada no se toca: se arma otra con los datos nuevos y se la pone
+     * en su lugar en el índice y en una nueva instantánea. Así quien lee sin lock (el
+     * Simulador, la vista, el índice de búsqueda) ve los datos viejos o los nuevos, nunca
+     * una mezcla.
+     * @param datos Asociado con el DNI a modificar y los datos nuevos.
+     * @return true si el asociado existía y algún dato cambió.
+     */
+    public boolean actualizarAsociado(Asociado datos) {
+        if (datos == null || datos.getDni() == null || datos.getDni().trim().isEmpty()) {
+            throw new IllegalArgumentException("El asociado a modificar o su DNI no pueden ser nulos o vacíos.");
+        }
+        ColaEscrituraAsociados.Anotacion anotacion = null;
+        Asociado nuevo;
+        synchronized (this) {
+            nuevo = reemplazarEnMemoria(datos);
+            if (nuevo == null) {
+                return false;
+            }
+            ColaEscrituraAsociados cola = escrituraDiferida;
+            if (cola != null) {
+                // Con todos sus datos, incluidos cambios anteriores aún no escritos
+                anotacion = cola.anotar(ColaEscrituraAsociados.Operacion.ACTUALIZAR, nuevo);
+                unidadDeTrabajo.registrarLimpio(nuevo);
+            } else {
+                unidadDeTrabajo.registrarModificado(nuevo);
+            }
+        }
+        if (anotacion != null) {
+            try {
+                anotacion.esperar(); // Sin el monitor: otras escrituras comparten este force()
+            } catch (DAOException e) {
+                System.err.println("WARN: No se pudo encolar la modificación de " + nuevo.getDni()
+                        + "; queda para confirmarCambios(): " + e.getMessage());
+                synchronized (this) {
+                    EnPadron enPadron = indicePorDni.get(nuevo.getDni());
+                    if (enPadron != null && enPadron.asociado == nuevo) { // Si no, ya hubo otra modificación o la baja
+                        unidadDeTrabajo.olvidar(nuevo);
+                        unidadDeTrabajo.registrarModificado(nuevo);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parte en memoria de la modificación: publica el asociado con los datos nuevos.
+     * Llamar con el monitor tomado.
+     * @return El asociado nuevo, o null si no existía o no cambió nada.
+     */
+    private Asociado reemplazarEnMemoria(Asociado datos) {
+        EnPadron enPadron = indicePorDni.get(datos.getDni());
+        Asociado existente = enPadron == null ? null : enPadron.asociado;
+        if (existente == null || mismosDatos(existente, datos)) {
+            return null;
+        }
+        Asociado nuevo = new Asociado();
+        nuevo.setDni(existente.getDni());
+        nuevo.setNombre(datos.getNombre());
+        nuevo.setApellido(datos.getApellido());
+        nuevo.setDomicilio(datos.getDomicilio());
+        nuevo.setTelefono(datos.getTelefono());
+        nuevo.setCiudad(datos.getCiudad());
+        unidadDeTrabajo.olvidar(existente);
+
+        int posicion = posicionEnOrden(enPadron);
+        indicePorDni.put(nuevo.getDni(), new EnPadron(nuevo, enPadron.clave)); // Mismo lugar en el listado
+        if (posicion >= 0) {
+            orden = orden.reemplazar(posicion, nuevo);
         }
+        publicarInstantanea();
         setChanged();
-        notifyObservers(getListadoAsociados()); //notifico
+        notifyObservers(CambioAsociados.actualizado(nuevo, existente, posicion, instantanea));
+        return nuevo;
+    }
+
+    private static boolean mismosDatos(Asociado a, Asociado b) {
+        return Objects.equals(a.getNombre(), b.getNombre()) && Objects.equals(a.getApellido(), b.getApellido())
+                && Objects.equals(a.getDomicilio(), b.getDomicilio()) && Objects.equals(a.getTelefono(), b.getTelefono())
+                && Objects.equals(a.getCiudad(), b.getCiudad());
     }
 
     /**
@@ -117,19 +475,58 @@ public class GestorAsociados extends Observable {
      * Después de inicializar, recarga la lista (que ahora tendrá los datos de ejemplo).
      * @throws DAOException Si ocurre un error durante el DROP/CREATE/INSERT.
      */
-    public synchronized void inicializarTablas() throws DAOException {
+    public void inicializarTablas() throws DAOException {
         System.out.println("GestorAsociados: Solicitando inicialización de tablas al DAO...");
+        esperarEscriturasPendientes(); // Que no caigan sobre las tablas nuevas
         dao.inicializarTablaAsociados();
         System.out.println("GestorAsociados: Tablas inicializadas. Recargando datos...");
         cargarAsociadosDesdeBD();
     }
 
     /**
-     * Devuelve una copia de la lista de todos los asociados.
-     * @return Una nueva lista conteniendo todos los asociados.
+     * Devuelve la instantánea actual de todos los asociados, sin tomar lock ni copiar.
+     * Los observadores reciben las diferencias (CambioAsociados); este método es para
+     * quien necesita el padrón completo (el Simulador, la carga inicial de una vista).
+     * @return Una lista inmutable (no se puede modificar) en orden de inserción.
      */
-    public synchronized List<Asociado> getListadoAsociados() {
-        return new ArrayList<>(this.asociados);
+    public List<Asociado> getListadoAsociados() {
+        if (instantaneaVencida) {
+            synchronized (this) { // Solo pasa si alguien lee en medio de una carga masiva
+                publicarInstantanea();
+            }
+        }
+        return instantanea;
+    }
+
+    /**
+     * Publica una nueva instantánea con el contenido actual. Llamar con el monitor tomado.
+     */
+    private void publicarInstantanea() {
+        if (!pendientesDePublicar.isEmpty()) {
+            orden = orden.agregarTodos(siguienteClave - pendientesDePublicar.size(), pendientesDePublicar);
+            pendientesDePublicar.clear();
+        }
+        instantanea = orden; // Inmutable: se publica sin envolver ni copiar
+        instantaneaVencida = false;
+    }
+
+    /**
+     * Agrega al índice y a lo pendiente de publicar, con el número de alta siguiente.
+     * Llamar con el monitor tomado.
+     */
+    private void agregarPendiente(Asociado asociado) {
+        indicePorDni.put(asociado.getDni(), new EnPadron(asociado, siguienteClave++));
+        pendientesDePublicar.add(asociado);
+    }
+
+    /**
+     * Posición en el listado, por la clave guardada en el índice (O(log n), sin recorrerlo).
+     * Llamar con el monitor tomado.
+     * @return La posición, o -1 si no está.
+     */
+    private int posicionEnOrden(EnPadron enPadron) {
+        publicarInstantanea(); // Si quedaba una carga masiva pendiente, también puede estar ahí
+        return orden.posicion(enPadron.clave);
     }
 
     /**
@@ -137,51 +534,186 @@ public class GestorAsociados extends Observable {
      * @param dni El DNI a buscar.
      * @return Un Optional conteniendo el Asociado si se encuentra, o un Optional vacío si no.
      */
-    public synchronized Optional<Asociado> buscarAsociadoPorDNI(String dni) {
+    public Optional<Asociado> buscarAsociadoPorDNI(String dni) {
         if (dni == null || dni.trim().isEmpty()) {
             return Optional.empty();
         }
-        return this.asociados.stream()
-                .filter(a -> dni.equals(a.getDni()))
-                .findFirst();
+        EnPadron enPadron = indicePorDni.get(dni); // Lectura sin lock
+        return enPadron == null ? Optional.empty() : Optional.of(enPadron.asociado);
     }
 
     /**
      * Carga todos los asociados desde la base de datos (vía DAO)
-     * a la lista en memoria.
+     * a la lista en memoria. Equivale a cargarAsociadosDesdeBD(null).
      * @throws DAOException Si ocurre un error al leer la base de datos.
      */
-    public synchronized void cargarAsociadosDesdeBD() throws DAOException {
-        System.out.println("GestorAsociados: Cargando asociados desde la BD...");
-        try {
-            List<Asociado> asociadosBD = dao.listarTodos();
-            this.limpiarListaInterna();
-            for (Asociado a : asociadosBD) {
+    public void cargarAsociadosDesdeBD() throws DAOException {
+        cargarAsociadosDesdeBD(null);
+    }
+
+    /**
+     * Carga todos los asociados desde la base de datos (vía DAO)
+     * a la lista en memoria. Las filas se recorren con un cursor de a TAMANIO_FETCH,
+     * sin armar una lista intermedia con todo el resultado.
+     *
+     * El monitor se toma de a una página, no durante toda la carga: se puede llamar desde
+     * un hilo de fondo mientras la interfaz da altas o bajas. Cada tanto se publica lo
+     * cargado hasta el momento (CARGA_PARCIAL) para que el listado se vaya llenando.
+     * Una baja durante la carga se recuerda hasta el final, para que una página leída
+     * después no vuelva a agregar ese DNI.
+     * @param progreso Recibe la cantidad de filas leídas después de cada página (puede ser null).
+     * @throws DAOException Si ocurre un error al leer la base de datos.
+     */
+    public void cargarAsociadosDesdeBD(IntConsumer progreso) throws DAOException {
+        synchronized (cerrojoCarga) { // Dos cargas a la vez mezclarían sus filas
+            System.out.println("GestorAsociados: Cargando asociados desde la BD...");
+            esperarEscriturasPendientes(); // Si no, la carga no vería lo encolado
+            synchronized (this) {
+                this.limpiarListaInterna();
+                bajasDuranteCarga = new HashSet<>();
+                notificarCargaParcial();
+            }
+            int leidos = 0;
+            long ultimaPublicacion = System.nanoTime();
+            List<Asociado> pagina = new ArrayList<>(TAMANIO_FETCH);
+            try (Stream<Asociado> asociadosBD = dao.recorrerTodos(TAMANIO_FETCH)) {
+                Iterator<Asociado> it = asociadosBD.iterator();
+                while (it.hasNext()) {
+                    pagina.add(it.next());
+                    if (pagina.size() == TAMANIO_FETCH || !it.hasNext()) {
+                        boolean publicar = System.nanoTime() - ultimaPublicacion >= INTERVALO_PUBLICACION_NS;
+                        agregarPagina(pagina, publicar);
+                        if (publicar) {
+                            ultimaPublicacion = System.nanoTime();
+                        }
+                        leidos += pagina.size();
+                        pagina.clear();
+                        if (progreso != null) {
+                            progreso.accept(leidos);
+                        }
+                    }
+                }
+                System.out.println("GestorAsociados: Carga completa. " + leidos + " asociados leídos.");
+                notificarCargaCompleta(); //se notifica una sola vez
+
+            } catch (DAOException | DAORuntimeException e) {
+                DAOException causa = e instanceof DAORuntimeException ? ((DAORuntimeException) e).getCause() : (DAOException) e;
+                System.err.println("Error crítico al cargar asociados desde la BD (" + leidos + " leídos): " + causa.getMessage());
+                notificarCargaCompleta(); // La vista refleja lo que quedó en memoria
+                throw causa;
+            } finally {
+                synchronized (this) {
+                    bajasDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega una página de la carga con el monitor tomado. Se saltean los DNIs que se
+     * dieron de baja durante la carga: el cursor los leyó antes de que se borraran.
+     * @param pagina Asociados leídos de la BD.
+     * @param publicar true para publicar lo cargado hasta ahora y avisar a los observadores.
+     */
+    private synchronized void agregarPagina(List<Asociado> pagina, boolean publicar) {
+        for (Asociado a : pagina) {
+            if (bajasDuranteCarga != null && bajasDuranteCarga.contains(a.getDni())) {
+                continue;
+            }
+            try {
                 altaAsociadoSinNotificar(a);
+            } catch (AsociadoDuplicadoException e) {
+                System.err.println("Error de lógica: duplicado encontrado durante carga: " + e.getMessage());
             }
-            System.out.println("GestorAsociados: Carga completa. " + asociadosBD.size() + " asociados cargados.");
-            notificarCargaCompleta(); //se notifica una sola vez
+        }
+        if (publicar) {
+            notificarCargaParcial();
+        }
+    }
 
-        } catch (DAOException e) {
-            System.err.println("Error crítico al cargar asociados desde la BD: " + e.getMessage());
-            throw e;
-        } catch (AsociadoDuplicadoException e) {
-            System.err.println("Error de lógica: duplicado encontrado durante carga: " + e.getMessage());
+    /**
+     * Publica lo cargado hasta el momento y avisa a los observadores. Llamar con el monitor tomado.
+     */
+    private void notificarCargaParcial() {
+        publicarInstantanea();
+        setChanged();
+        notifyObservers(CambioAsociados.cargaParcial(instantanea));
+    }
+
+    /**
+     * Avisa a los observadores que una escritura diferida se descartó: la BD no refleja
+     * lo que muestra la memoria para ese asociado.
+     */
+    private synchronized void notificarFalloPersistencia(FalloEscrituraAsociado fallo) {
+        setChanged();
+        notifyObservers(CambioAsociados.falloPersistencia(fallo.getAsociado(),
+                "No se pudo " + fallo.getOperacion().name().toLowerCase() + " en la BD: " + fallo.getMensaje(),
+                instantanea));
+    }
+
+    /**
+     * Exporta todos los asociados de la BD a un archivo (ver ExportadorAsociados).
+     * Lee de la BD con un cursor, no de la lista en memoria, y no toma el monitor del
+     * gestor: las altas y bajas siguen funcionando durante la exportación.
+     * @param destino Archivo a generar.
+     * @param formato CSV o BINARIO.
+     * @return La cantidad de asociados exportados.
+     * @throws DAOException Si falla la lectura de la BD o la escritura del archivo.
+     */
+    public long exportarAsociados(Path destino, ExportadorAsociados.Formato formato) throws DAOException {
+        esperarEscriturasPendientes(); // Que lo encolado llegue al archivo
+        return new ExportadorAsociados(dao).exportar(destino, formato);
+    }
+
+    /**
+     * Con escritura diferida, espera (con límite) a que la cola escriba lo pendiente.
+     * No tomar el monitor del gestor antes: la cola lo necesita para avisar fallos.
+     */
+    private void esperarEscriturasPendientes() {
+        ColaEscrituraAsociados cola = escrituraDiferida;
+        if (cola != null && !cola.vaciar(ESPERA_ESCRITURAS_MS)) {
+            System.err.println("WARN (GestorAsociados): Quedan " + cola.getPendientes()
+                    + " escritura(s) sin confirmar; la BD puede no reflejarlas todavía.");
         }
     }
 
+    /**
+     * Escribe en la BD solo los asociados editados desde la última escritura
+     * (las altas y bajas ya se persisten en el momento).
+     * @return Cantidad de filas escritas.
+     * @throws DAOException Si falla la escritura.
+     */
+    public synchronized int confirmarCambios() throws DAOException {
+        return unidadDeTrabajo.confirmar();
+    }
+
     /**
      * Limpia la lista interna de asociados.
      * Útil antes de una recarga completa desde la BD.
      */
     public synchronized void limpiarListaInterna() {
-        this.asociados.clear();
+        indicePorDni.clear();
+        orden = ListadoPersistente.VACIO;
+        pendientesDePublicar.clear();
+        publicarInstantanea();
+        unidadDeTrabajo.limpiar();
         System.out.println("GestorAsociados: Lista interna limpiada.");
         // Considera si notificar observers aquí o esperar a la recarga
         // setChanged();
         // notifyObservers(getListadoAsociados()); // Notifica lista vacía
     }
 
+    /** Entrada del índice por DNI: el asociado y su clave en el listado (el número de alta). */
+    private static final class EnPadron {
+        final Asociado asociado;
+        final long clave;
+
+        EnPadron(Asociado asociado, long clave) {
+            this.asociado = asociado;
+            this.clave = clave;
+        }
+    }
+
 
 
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias al estilo HDR: cubetas exactas para valores chicos y, a partir
+ * de ahí, 16 cubetas lineales por cada potencia de 2 (error relativo menor al 6,25%).
+ * Registrar un valor es un incremento atómico sin locks, así que lo pueden usar
+ * muchos hilos a la vez con un costo despreciable frente a la espera que se mide.
+ */
+public class HistogramaLatencias {
+
+    private static final int EXACTAS = 32;          // Valores 0..31 tienen su propia cubeta
+    private static final int SUBCUBETAS = 16;       // Cubetas por potencia de 2 a partir de 32
+    private static final int BITS_SUBCUBETA = 4;    // log2(SUBCUBETAS)
+    private static final int PRIMER_EXPONENTE = 5;  // 2^5 = EXACTAS
+    private static final int CANTIDAD_CUBETAS = EXACTAS + (63 - PRIMER_EXPONENTE) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CANTIDAD_CUBETAS);
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong suma = new AtomicLong();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una medición.
+     * @param valor Valor medido (los negativos se cuentan como 0).
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        cubetas.incrementAndGet(indiceDe(v));
+        cantidad.incrementAndGet();
+        suma.addAndGet(v);
+        maximo.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * @return Cantidad de mediciones registradas.
+     */
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    /**
+     * @return El máximo registrado (exacto).
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * @return El promedio de las mediciones, o 0 si no hay.
+     */
+    public double getPromedio() {
+        long n = cantidad.get();
+        return n == 0 ? 0 : (double) suma.get() / n;
+    }
+
+    /**
+     * Calcula un percentil recorriendo las cubetas.
+     * @param percentil Entre 0 y 100 (ej: 50, 99).
+     * @return El límite superior de la cubeta que contiene el percentil (acotado por el máximo), o 0 si no hay mediciones.
+     */
+    public long getPercentil(double percentil) {
+        long n = cantidad.get();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100.0 * n));
+        long acumulado = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    private static int indiceDe(long valor) {
+        if (valor < EXACTAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (exponente - BITS_SUBCUBETA)); // Entre 16 y 31
+        return EXACTAS + (exponente - PRIMER_EXPONENTE) * SUBCUBETAS + (sub - SUBCUBETAS);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < EXACTAS) {
+            return indice;
+        }
+        int exponente = (indice - EXACTAS) / SUBCUBETAS + PRIMER_EXPONENTE;
+        long sub = (indice - EXACTAS) % SUBCUBETAS + SUBCUBETAS;
+        return ((sub + 1) << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+}
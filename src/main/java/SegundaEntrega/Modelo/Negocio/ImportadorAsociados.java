@@ -0,0 +1,347 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Importación masiva de asociados desde un CSV (por ejemplo, el padrón de una mutual).
+ *
+ * Columnas: dni, nombre, apellido, domicilio, telefono, ciudad; las tres últimas son
+ * opcionales. El separador es ',' o ';' (se detecta en la primera línea), los campos
+ * pueden ir entre comillas dobles y un encabezado que empiece con "dni" se saltea.
+ * Cada registro ocupa una línea, salvo que un campo entre comillas tenga saltos de línea
+ * (como los que escribe ExportadorAsociados): ahí sigue en las siguientes y los saltos se
+ * leen como '\n'. Los rechazos informan la primera línea del registro.
+ *
+ * El archivo se lee de a tandas de FILAS_POR_TANDA líneas sin cargarlo entero. Cada tanda
+ * se separa en campos y se valida en un hilo del pool (DNI y datos obligatorios de
+ * Persona); las tandas validadas se dan de alta en orden, con una escritura por lote
+ * en la BD (GestorAsociados.altaAsociadosEnLote). Los DNIs ya registrados o repetidos
+ * en el archivo se rechazan. Como mucho hay 2 tandas por hilo en vuelo: la memoria no
+ * depende del tamaño del archivo.
+ */
+public class ImportadorAsociados {
+
+    static final int FILAS_POR_TANDA = 1000;
+    static final int MAX_RECHAZOS_DETALLADOS = 1000; // El resto solo se cuenta
+    // Un registro válido es mucho más corto: más largo, una comilla sin cerrar no se traga el resto del archivo
+    static final int MAX_LARGO_REGISTRO = 4096;
+
+    private static final Pattern DNI_VALIDO = Pattern.compile("\\d{7,8}");
+    // Largos máximos de las columnas de la tabla asociados
+    private static final int MAX_NOMBRE = 50;
+    private static final int MAX_APELLIDO = 50;
+    private static final int MAX_DOMICILIO = 100;
+    private static final int MAX_TELEFONO = 20;
+    private static final int MAX_CIUDAD = 50;
+
+    private final GestorAsociados gestor;
+    private final int hilosValidacion;
+
+    /**
+     * Valida con un hilo por procesador.
+     * @param gestor Gestor en el que se dan de alta los asociados.
+     */
+    public ImportadorAsociados(GestorAsociados gestor) {
+        this(gestor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param gestor Gestor en el que se dan de alta los asociados.
+     * @param hilosValidacion Hilos que separan y validan las tandas.
+     */
+    public ImportadorAsociados(GestorAsociados gestor, int hilosValidacion) {
+        this.gestor = gestor;
+        this.hilosValidacion = Math.max(1, hilosValidacion);
+    }
+
+    /**
+     * Importa un archivo CSV en UTF-8.
+     * @param archivo El archivo.
+     * @param progreso Recibe la cantidad de filas procesadas después de cada tanda (puede ser null).
+     * @return El resumen de la importación.
+     * @throws IOException Si falla la lectura del archivo.
+     * @throws DAOException Si la BD rechaza lotes completos (se cancela; lo ya importado queda).
+     */
+    public ResultadoImportacion importar(Path archivo, IntConsumer progreso) throws IOException, DAOException {
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            return importar(lector, progreso);
+        }
+    }
+
+    /**
+     * Importa desde un Reader con el formato CSV descripto en la clase.
+     * @see #importar(Path, IntConsumer)
+     */
+    public ResultadoImportacion importar(Reader entrada, IntConsumer progreso) throws IOException, DAOException {
+        long inicio = System.nanoTime();
+        BufferedReader lector = entrada instanceof BufferedReader ? (BufferedReader) entrada : new BufferedReader(entrada);
+        Progreso estado = new Progreso(progreso);
+        ExecutorService validadores = Executors.newFixedThreadPool(hilosValidacion, crearFabricaHilos());
+        ArrayDeque<Future<Tanda>> enVuelo = new ArrayDeque<>();
+        try {
+            String linea = lector.readLine();
+            if (linea != null && linea.startsWith("\uFEFF")) {
+                linea = linea.substring(1); // BOM de Excel
+            }
+            char separador = linea != null && contar(linea, ';') > contar(linea, ',') ? ';' : ',';
+            long numeroLinea = 1;
+            if (linea != null && esEncabezado(linea, separador)) {
+                linea = lector.readLine();
+                numeroLinea++;
+            }
+            List<String> lineas = new ArrayList<>(FILAS_POR_TANDA);
+            long[] numeros = new long[FILAS_POR_TANDA];
+            while (linea != null) {
+                long primeraLinea = numeroLinea;
+                while (comillasAbiertas(linea) && linea.length() < MAX_LARGO_REGISTRO) {
+                    String siguiente = lector.readLine(); // El campo sigue en la línea siguiente
+                    if (siguiente == null) break;
+                    linea = linea + '\n' + siguiente;
+                    numeroLinea++;
+                }
+                if (!linea.isBlank()) {
+                    numeros[lineas.size()] = primeraLinea;
+                    lineas.add(linea);
+                    if (lineas.size() == FILAS_POR_TANDA) {
+                        enviar(validadores, enVuelo, lineas, numeros, separador, estado);
+                        lineas = new ArrayList<>(FILAS_POR_TANDA);
+                        numeros = new long[FILAS_POR_TANDA];
+                    }
+                }
+                linea = lector.readLine();
+                numeroLinea++;
+            }
+            if (!lineas.isEmpty()) {
+                enviar(validadores, enVuelo, lineas, numeros, separador, estado);
+            }
+            while (!enVuelo.isEmpty()) {
+                darDeAlta(esperar(enVuelo.poll()), estado);
+            }
+        } finally {
+            validadores.shutdownNow();
+            if (estado.importadas > 0) {
+                gestor.notificarCargaCompleta(); // Se redibuja una sola vez al final
+            }
+        }
+        estado.rechazos.sort(Comparator.comparingLong(ResultadoImportacion.Rechazo::getLinea));
+        ResultadoImportacion resultado = new ResultadoImportacion(estado.leidas, estado.importadas,
+                estado.rechazadas, System.nanoTime() - inicio, estado.rechazos);
+        System.out.println("ImportadorAsociados: " + resultado.getResumen());
+        return resultado;
+    }
+
+    /** Manda una tanda a validar; si ya hay demasiadas en vuelo, antes da de alta la más vieja. */
+    private void enviar(ExecutorService validadores, ArrayDeque<Future<Tanda>> enVuelo, List<String> lineas,
+                        long[] numeros, char separador, Progreso estado) throws DAOException {
+        if (enVuelo.size() >= 2 * hilosValidacion) {
+            darDeAlta(esperar(enVuelo.poll()), estado);
+        }
+        enVuelo.add(validadores.submit(() -> validar(lineas, numeros, separador)));
+    }
+
+    private static Tanda esperar(Future<Tanda> tanda) {
+        try {
+            return tanda.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Se interrumpió la importación de asociados", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al validar una tanda de asociados", e.getCause());
+        }
+    }
+
+    /** Da de alta los válidos de una tanda (en el hilo que importa: las altas van en orden). */
+    private void darDeAlta(Tanda tanda, Progreso estado) throws DAOException {
+        estado.leidas += tanda.filas;
+        for (ResultadoImportacion.Rechazo rechazo : tanda.rechazos) {
+            estado.rechazar(rechazo);
+        }
+        Map<String, Long> lineaPorDni = new HashMap<>(tanda.validos.size() * 2);
+        List<Asociado> unicos = new ArrayList<>(tanda.validos.size());
+        for (int i = 0; i < tanda.validos.size(); i++) {
+            Asociado a = tanda.validos.get(i);
+            Long anterior = lineaPorDni.putIfAbsent(a.getDni(), tanda.lineas[i]);
+            if (anterior != null) {
+                estado.rechazar(new ResultadoImportacion.Rechazo(tanda.lineas[i], a.getDni(),
+                        "DNI repetido en el archivo (línea " + anterior + ")"));
+            } else {
+                unicos.add(a);
+            }
+        }
+        // Un DNI repetido en otra tanda ya está en el gestor y se rechaza ahí
+        estado.importadas += gestor.altaAsociadosEnLote(unicos, (a, motivo) ->
+                estado.rechazar(new ResultadoImportacion.Rechazo(lineaPorDni.get(a.getDni()), a.getDni(), motivo)));
+        if (estado.progreso != null) {
+            estado.progreso.accept((int) Math.min(Integer.MAX_VALUE, estado.leidas));
+        }
+    }
+
+    // --- Validación (en los hilos del pool) ---
+
+    /**
+     * Separa y valida las líneas de una tanda.
+     * @param lineas Registros de la tanda (sin las líneas en blanco).
+     * @param numeros Número de la primera línea en el archivo de cada uno.
+     */
+    static Tanda validar(List<String> lineas, long[] numeros, char separador) {
+        Tanda tanda = new Tanda(lineas.size());
+        for (int i = 0; i < lineas.size(); i++) {
+            long numero = numeros[i];
+            List<String> campos = separar(lineas.get(i), separador);
+            String dni = campos.get(0).trim();
+            String error = validar(campos);
+            if (error != null) {
+                tanda.rechazos.add(new ResultadoImportacion.Rechazo(numero, dni, error));
+                continue;
+            }
+            tanda.validos.add(new Asociado(campos.get(1), campos.get(2), normalizarDni(dni),
+                    campo(campos, 3), campo(campos, 4), campo(campos, 5)));
+            tanda.lineas[tanda.validos.size() - 1] = numero;
+        }
+        return tanda;
+    }
+
+    /** @return El motivo del rechazo, o null si la fila es válida. */
+    private static String validar(List<String> campos) {
+        if (campos.size() < 3 || campos.size() > 6) {
+            return "Se esperaban de 3 a 6 columnas y hay " + campos.size();
+        }
+        if (!DNI_VALIDO.matcher(normalizarDni(campos.get(0).trim())).matches()) {
+            return "DNI inválido (7 u 8 dígitos, con o sin puntos)";
+        }
+        String nombre = campos.get(1).trim();
+        String apellido = campos.get(2).trim();
+        if (nombre.isEmpty()) return "Falta el nombre";
+        if (apellido.isEmpty()) return "Falta el apellido";
+        if (nombre.length() > MAX_NOMBRE) return "Nombre demasiado largo (máximo " + MAX_NOMBRE + ")";
+        if (apellido.length() > MAX_APELLIDO) return "Apellido demasiado largo (máximo " + MAX_APELLIDO + ")";
+        if (campo(campos, 3).length() > MAX_DOMICILIO) return "Domicilio demasiado largo (máximo " + MAX_DOMICILIO + ")";
+        if (campo(campos, 4).length() > MAX_TELEFONO) return "Teléfono demasiado largo (máximo " + MAX_TELEFONO + ")";
+        if (campo(campos, 5).length() > MAX_CIUDAD) return "Ciudad demasiado larga (máximo " + MAX_CIUDAD + ")";
+        return null;
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice < campos.size() ? campos.get(indice).trim() : "";
+    }
+
+    private static String normalizarDni(String dni) {
+        return dni.indexOf('.') < 0 ? dni : dni.replace(".", "");
+    }
+
+    /**
+     * Separa una línea CSV. Un campo entre comillas puede contener el separador, y
+     * comillas dobladas ("") representan una comilla.
+     */
+    static List<String> separar(String linea, char separador) {
+        List<String> campos = new ArrayList<>(6);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /** @return true si la línea termina dentro de un campo entre comillas (con separar, cada comilla alterna). */
+    private static boolean comillasAbiertas(String linea) {
+        return linea.indexOf('"') >= 0 && contar(linea, '"') % 2 != 0;
+    }
+
+    private static boolean esEncabezado(String linea, char separador) {
+        return separar(linea, separador).get(0).trim().equalsIgnoreCase("dni");
+    }
+
+    private static int contar(String texto, char c) {
+        int n = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == c) n++;
+        }
+        return n;
+    }
+
+    private static ThreadFactory crearFabricaHilos() {
+        AtomicInteger numero = new AtomicInteger();
+        return r -> {
+            Thread hilo = new Thread(r, "importacion-asociados-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    /** Resultado de validar una tanda. */
+    static final class Tanda {
+        final List<Asociado> validos;
+        final long[] lineas; // Número de línea de cada válido
+        final List<ResultadoImportacion.Rechazo> rechazos = new ArrayList<>();
+        final int filas;
+
+        Tanda(int capacidad) {
+            this.filas = capacidad;
+            this.validos = new ArrayList<>(capacidad);
+            this.lineas = new long[capacidad];
+        }
+    }
+
+    /** Contadores de la importación; solo los toca el hilo que importa. */
+    private static final class Progreso {
+        final IntConsumer progreso;
+        final List<ResultadoImportacion.Rechazo> rechazos = new ArrayList<>();
+        long leidas = 0;
+        long importadas = 0;
+        long rechazadas = 0;
+
+        Progreso(IntConsumer progreso) {
+            this.progreso = progreso;
+        }
+
+        void rechazar(ResultadoImportacion.Rechazo rechazo) {
+            rechazadas++;
+            if (rechazos.size() < MAX_RECHAZOS_DETALLADOS) {
+                rechazos.add(rechazo);
+            }
+        }
+    }
+}
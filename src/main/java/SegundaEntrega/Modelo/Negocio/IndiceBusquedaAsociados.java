@@ -0,0 +1,573 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Datos.Personas.InternadorTextos;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice para buscar asociados por parte del apellido, del nombre o del DNI
+ * (la búsqueda de la mesa de entradas: "lop", "lopez ana", "2011").
+ *
+ * Cada palabra del apellido y del nombre, y el DNI, es una clave normalizada (minúsculas,
+ * sin tildes). Las claves se guardan ordenadas en un arreglo junto al asociado, así que
+ * un prefijo es una búsqueda binaria y un recorrido de las claves siguientes. Si con el
+ * prefijo exacto no se llega al límite, se prueban las variantes del texto a un error de
+ * tipeo (una letra de más, de menos, cambiada o dos letras invertidas), cada una también
+ * por prefijo: son unos cientos de búsquedas binarias, no un recorrido del padrón.
+ *
+ * Se mantiene sincronizado como observador del GestorAsociados (CambioAsociados). Como el
+ * listado del gestor, el índice es una instantánea inmutable que se vuelve a publicar
+ * (copy-on-write); las búsquedas no toman lock. El aviso del gestor solo anota el cambio:
+ * un hilo propio junta los que llegan en ESPERA_TANDA_MS y los aplica con una sola copia,
+ * así que un alta aparece en las búsquedas unos milisegundos después (ponerAlDia espera).
+ * Con cerrar() deja de observar al gestor y el hilo termina; hay que llamarlo si el
+ * índice deja de usarse antes que el gestor.
+ * Durante una carga masiva las filas nuevas se juntan y se incorporan de a tandas (cada
+ * vez que suman un cuarto del índice, y al terminar la carga).
+ */
+public class IndiceBusquedaAsociados implements Observer {
+
+    private static final int TANDA_MINIMA = 10_000;      // Filas de una carga que justifican rearmar el índice
+    private static final int MAX_CANDIDATOS = 10_000;    // Claves revisadas por búsqueda, como mucho
+    private static final int LARGO_MINIMO_APROXIMADO = 3; // Con menos letras, un error de tipeo coincide con todo
+    private static final long ESPERA_TANDA_MS = 20;      // Se juntan los cambios que llegan en ese lapso
+    private static final long ESPERA_CIERRE_MS = 1000;   // Lo que se espera al hilo al cerrar
+    private static final String LETRAS = "abcdefghijklmnopqrstuvwxyz";
+    private static final String DIGITOS = "0123456789";
+    // Orden de las entradas: por clave y, con la misma clave, por DNI (único en el padrón)
+    private static final Comparator<Entrada> ORDEN = Comparator.<Entrada, String>comparing(e -> e.clave)
+            .thenComparing(e -> e.asociado.getDni());
+
+    private final GestorAsociados gestor;
+    private final Thread hilo;
+    private volatile Tabla tabla;
+
+    // Cambios recibidos del gestor, protegidos por lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayCambios = lock.newCondition();
+    private final Condition alDia = lock.newCondition();
+    private final ArrayDeque<Recibido> recibidos = new ArrayDeque<>();
+    private long cantidadRecibidos;
+    private long cantidadAplicados;
+    private int esperandoAlDia;
+    private boolean cerrado = false;
+
+    // Estado de sincronización: solo lo toca el hilo del índice
+    private final Set<Asociado> pendientes = Collections.newSetFromMap(new IdentityHashMap<>()); // De una carga en curso, aún sin indexar
+    private int conocidos; // Filas del listado del gestor ya vistas (indexadas o pendientes)
+
+    /**
+     * Indexa el padrón actual del gestor y se registra como su observador.
+     * @param gestor El gestor cuyos asociados se indexan.
+     */
+    public IndiceBusquedaAsociados(GestorAsociados gestor) {
+        this.gestor = gestor;
+        List<Asociado> listado;
+        synchronized (gestor) { // Sin altas ni bajas entre la instantánea y el registro
+            listado = gestor.getListadoAsociados();
+            gestor.addObserver(this);
+        }
+        // Se arma fuera del monitor del gestor; lo que cambie mientras tanto queda en recibidos
+        tabla = new Tabla(new String[0], new Asociado[0]).aplicar(entradas(listado), new Entrada[0]);
+        conocidos = listado.size();
+        hilo = new Thread(this::bucleIndice, "indice-busqueda-asociados");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Deja de observar al gestor y detiene el hilo del índice. Lo recibido y no aplicado
+     * se descarta; las búsquedas siguen funcionando sobre la última instantánea.
+     */
+    public void cerrar() {
+        gestor.deleteObserver(this);
+        lock.lock();
+        try {
+            cerrado = true;
+            hayCambios.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            hilo.join(ESPERA_CIERRE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Busca asociados cuyo apellido, nombre o DNI empiece con las palabras del texto.
+     * Con varias palabras, se recorre la que tiene menos claves en el índice y las demás
+     * tienen que coincidir con el comienzo de alguna otra palabra del asociado. Primero van las coincidencias
+     * exactas, en orden alfabético de la clave, y después las aproximadas.
+     * @param texto Lo que escribió el usuario.
+     * @param limite Cantidad máxima de resultados.
+     * @return Los asociados encontrados, sin repetir (lista inmutable).
+     */
+    public List<Asociado> buscar(String texto, int limite) {
+        List<String> palabras = palabras(texto);
+        if (palabras.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Tabla t = tabla;
+        String principal = Collections.min(palabras, Comparator.comparingInt(t::cantidadConPrefijo));
+        List<String> otras = new ArrayList<>(palabras);
+        otras.remove(principal);
+
+        Set<Asociado> resultados = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Asociado> enOrden = new ArrayList<>(Math.min(limite, 64));
+        int[] revisados = {0};
+        t.recorrerPrefijo(principal, otras, limite, resultados, enOrden, revisados);
+        if (enOrden.size() < limite && principal.length() >= LARGO_MINIMO_APROXIMADO) {
+            for (String variante : variantes(principal)) {
+                if (enOrden.size() >= limite || revisados[0] >= MAX_CANDIDATOS) break;
+                t.recorrerPrefijo(variante, otras, limite, resultados, enOrden, revisados);
+            }
+        }
+        return Collections.unmodifiableList(enOrden);
+    }
+
+    /** @return Cantidad de claves en el índice (sin contar una carga pendiente). */
+    public int getCantidadClaves() {
+        return tabla.claves.length;
+    }
+
+    /**
+     * Espera a que el índice aplique los cambios del gestor recibidos hasta ahora
+     * (las filas de una carga en curso se siguen incorporando de a tandas).
+     * @param timeoutMs Espera máxima.
+     * @return true si los aplicó a tiempo.
+     */
+    public boolean ponerAlDia(long timeoutMs) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        esperandoAlDia++;
+        try {
+            long hasta = cantidadRecibidos;
+            hayCambios.signal(); // No esperar el intervalo de la tanda
+            while (cantidadAplicados < hasta) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    return false;
+                }
+                alDia.awaitNanos(restante);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            esperandoAlDia--;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recibe un cambio del gestor. Llega con el monitor del gestor tomado, en el orden en
+     * que ocurrieron los cambios: solo se anota (con las claves que hay que quitar) y lo
+     * aplica el hilo del índice, así un alta no espera a que se copie el índice.
+     */
+    @Override
+    public void update(Observable o, Object arg) {
+        if (!(arg instanceof CambioAsociados)) {
+            return;
+        }
+        CambioAsociados cambio = (CambioAsociados) arg;
+        Asociado quitado = null;
+        if (cambio.getTipo() == CambioAsociados.Tipo.ELIMINADO) {
+            quitado = cambio.getAsociado();
+        } else if (cambio.getTipo() == CambioAsociados.Tipo.ACTUALIZADO) {
+            quitado = cambio.getAnterior();
+        } else if (cambio.getTipo() == CambioAsociados.Tipo.FALLO_PERSISTENCIA) {
+            return; // El listado no cambia
+        }
+        // Las claves con las que se indexó: el gestor reemplaza los asociados en vez de modificarlos
+        Recibido recibido = new Recibido(cambio, quitado, quitado == null ? null : entradas(List.of(quitado)));
+        lock.lock();
+        try {
+            recibidos.add(recibido);
+            cantidadRecibidos++;
+            hayCambios.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Hilo del índice ---
+
+    private void bucleIndice() {
+        while (true) {
+            List<Recibido> tanda;
+            lock.lock();
+            try {
+                try {
+                    while (recibidos.isEmpty() && !cerrado) {
+                        hayCambios.await();
+                    }
+                    if (cerrado) {
+                        return;
+                    }
+                    // Se da un momento para que lleguen más cambios y se apliquen con una sola copia
+                    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_TANDA_MS);
+                    long restante;
+                    while (esperandoAlDia == 0 && (restante = limite - System.nanoTime()) > 0) {
+                        hayCambios.awaitNanos(restante);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                tanda = new ArrayList<>(recibidos);
+                recibidos.clear();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                aplicar(tanda);
+            } catch (RuntimeException e) {
+                System.err.println("WARN: No se pudo actualizar el índice de búsqueda de asociados: " + e);
+            }
+            lock.lock();
+            try {
+                cantidadAplicados += tanda.size();
+                alDia.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Aplica una tanda de cambios en orden. Las altas y bajas se juntan y se publican con
+     * una sola copia del índice; rearmarlo entero solo hace falta si se perdió la cuenta
+     * del listado (por ejemplo, altas sin aviso) o empezó una carga nueva.
+     */
+    private void aplicar(List<Recibido> tanda) {
+        Set<Asociado> agregar = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Entrada> quitar = new ArrayList<>();
+        Tabla base = tabla;
+        for (Recibido recibido : tanda) {
+            CambioAsociados cambio = recibido.cambio;
+            List<Asociado> listado = cambio.getListado();
+            switch (cambio.getTipo()) {
+                case AGREGADO:
+                    if (listado.size() != conocidos + 1) {
+                        base = reconstruir(listado, agregar, quitar); // Ej: una carga sin avisos parciales
+                    } else {
+                        agregar.add(cambio.getAsociado());
+                        conocidos++;
+                    }
+                    break;
+                case ELIMINADO:
+                    quitar(recibido, agregar, quitar);
+                    conocidos--;
+                    if (listado.size() != conocidos) base = reconstruir(listado, agregar, quitar);
+                    break;
+                case ACTUALIZADO:
+                    quitar(recibido, agregar, quitar);
+                    agregar.add(cambio.getAsociado());
+                    break;
+                case CARGA_PARCIAL:
+                    if (listado.size() < conocidos) { // Empezó una carga nueva
+                        base = new Tabla(new String[0], new Asociado[0]);
+                        agregar.clear();
+                        quitar.clear();
+                        pendientes.clear();
+                        conocidos = 0;
+                    }
+                    pendientes.addAll(listado.subList(conocidos, listado.size())); // Una carga solo agrega al final
+                    conocidos = listado.size();
+                    break;
+                case CARGA_COMPLETA:
+                    if (listado.size() < conocidos) {
+                        base = reconstruir(listado, agregar, quitar);
+                    } else {
+                        pendientes.addAll(listado.subList(conocidos, listado.size()));
+                        conocidos = listado.size();
+                        agregar.addAll(pendientes);
+                        pendientes.clear();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (pendientes.size() >= Math.max(TANDA_MINIMA, base.asociados.length / 4)) {
+            agregar.addAll(pendientes);
+            pendientes.clear();
+        }
+        if (!agregar.isEmpty() || !quitar.isEmpty()) {
+            base = base.aplicar(entradas(agregar), quitar.toArray(new Entrada[0]));
+        }
+        tabla = base;
+    }
+
+    /** Quita lo que había antes del cambio: de lo que está por agregarse, de la carga pendiente o del índice. */
+    private void quitar(Recibido recibido, Set<Asociado> agregar, List<Entrada> quitar) {
+        if (!agregar.remove(recibido.quitado) && !pendientes.remove(recibido.quitado)) {
+            quitar.addAll(Arrays.asList(recibido.clavesQuitado));
+        }
+    }
+
+    private Tabla reconstruir(List<Asociado> listado, Set<Asociado> agregar, List<Entrada> quitar) {
+        agregar.clear();
+        quitar.clear();
+        pendientes.clear();
+        conocidos = listado.size();
+        return new Tabla(new String[0], new Asociado[0]).aplicar(entradas(listado), new Entrada[0]);
+    }
+
+    /** Claves de los asociados, ordenadas. */
+    private static Entrada[] entradas(Collection<Asociado> asociados) {
+        List<Entrada> entradas = new ArrayList<>(asociados.size() * 3);
+        for (Asociado asociado : asociados) {
+            for (String clave : claves(asociado)) {
+                entradas.add(new Entrada(InternadorTextos.NOMBRES.internar(clave), asociado)); // Los apellidos comunes, una vez
+            }
+        }
+        Entrada[] arreglo = entradas.toArray(new Entrada[0]);
+        Arrays.sort(arreglo, ORDEN);
+        return arreglo;
+    }
+
+    /** Palabras normalizadas del apellido y el nombre, y el DNI; sin repetir. */
+    static Set<String> claves(Asociado asociado) {
+        Set<String> claves = new LinkedHashSet<>();
+        claves.addAll(palabras(asociado.getApellido()));
+        claves.addAll(palabras(asociado.getNombre()));
+        claves.addAll(palabras(asociado.getDni()));
+        return claves;
+    }
+
+    /** Separa un texto en palabras en minúsculas y sin tildes (solo letras y dígitos). */
+    static List<String> palabras(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return List.of();
+        }
+        String base = texto;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) { // Solo se descompone si hay algo que no es ASCII
+                base = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> palabras = new ArrayList<>(2);
+        StringBuilder palabra = new StringBuilder(base.length());
+        for (int i = 0; i <= base.length(); i++) {
+            char c = i < base.length() ? base.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                palabra.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && palabra.length() > 0) {
+                palabras.add(palabra.toString());
+                palabra.setLength(0);
+            }
+        }
+        return palabras;
+    }
+
+    /** Textos a un error de tipeo del original, sin repetir y sin el original. */
+    static Set<String> variantes(String original) {
+        String alfabeto = original.chars().allMatch(Character::isDigit) ? DIGITOS : LETRAS;
+        Set<String> variantes = new LinkedHashSet<>();
+        int largo = original.length();
+        for (int i = 0; i < largo; i++) { // Una letra de más en el texto
+            variantes.add(original.substring(0, i) + original.substring(i + 1));
+        }
+        for (int i = 0; i + 1 < largo; i++) { // Dos letras invertidas
+            variantes.add(original.substring(0, i) + original.charAt(i + 1) + original.charAt(i) + original.substring(i + 2));
+        }
+        for (int i = 0; i < largo; i++) { // Una letra cambiada
+            for (int j = 0; j < alfabeto.length(); j++) {
+                variantes.add(original.substring(0, i) + alfabeto.charAt(j) + original.substring(i + 1));
+            }
+        }
+        for (int i = 0; i < largo; i++) { // Una letra de menos (al final ya lo cubre el prefijo)
+            for (int j = 0; j < alfabeto.length(); j++) {
+                variantes.add(original.substring(0, i) + alfabeto.charAt(j) + original.substring(i));
+            }
+        }
+        variantes.remove(original);
+        return variantes;
+    }
+
+    /** Un cambio del gestor aún sin aplicar, con las entradas del asociado que deja el índice. */
+    private static final class Recibido {
+        final CambioAsociados cambio;
+        final Asociado quitado;         // El eliminado o la versión anterior del actualizado; null si no hay
+        final Entrada[] clavesQuitado;
+
+        Recibido(CambioAsociados cambio, Asociado quitado, Entrada[] clavesQuitado) {
+            this.cambio = cambio;
+            this.quitado = quitado;
+            this.clavesQuitado = clavesQuitado;
+        }
+    }
+
+    private static final class Entrada {
+        final String clave;
+        final Asociado asociado;
+
+        Entrada(String clave, Asociado asociado) {
+            this.clave = clave;
+            this.asociado = asociado;
+        }
+    }
+
+    /** Claves ordenadas y el asociado de cada una. Inmutable una vez publicada. */
+    private static final class Tabla {
+        final String[] claves;
+        final Asociado[] asociados;
+
+        Tabla(String[] claves, Asociado[] asociados) {
+            this.claves = claves;
+            this.asociados = asociados;
+        }
+
+        /**
+         * Copia sin las entradas quitadas y con las nuevas (ya ordenadas) intercaladas, en una
+         * sola pasada. Cada entrada busca su lugar con una búsqueda binaria por clave y DNI, y
+         * lo que hay entre medio se copia de a bloques: no se comparan todas las claves.
+         */
+        Tabla aplicar(Entrada[] nuevas, Entrada[] quitadas) {
+            int[] fuera = new int[quitadas.length];
+            int cantidadFuera = 0;
+            for (Entrada quitada : quitadas) {
+                int posicion = posicion(quitada, 0);
+                if (posicion >= 0 && asociados[posicion] == quitada.asociado) {
+                    fuera[cantidadFuera++] = posicion;
+                }
+            }
+            Arrays.sort(fuera, 0, cantidadFuera);
+            String[] c = new String[claves.length - cantidadFuera + nuevas.length];
+            Asociado[] a = new Asociado[c.length];
+            int i = 0, k = 0, f = 0;
+            for (int n = 0; n <= nuevas.length; n++) {
+                int hasta = claves.length;
+                if (n < nuevas.length) {
+                    hasta = posicion(nuevas[n], i);
+                    if (hasta < 0) hasta = -hasta - 1;
+                }
+                for (; f < cantidadFuera && fuera[f] < hasta; f++) {
+                    System.arraycopy(claves, i, c, k, fuera[f] - i);
+                    System.arraycopy(asociados, i, a, k, fuera[f] - i);
+                    k += fuera[f] - i;
+                    i = fuera[f] + 1;
+                }
+                System.arraycopy(claves, i, c, k, hasta - i);
+                System.arraycopy(asociados, i, a, k, hasta - i);
+                k += hasta - i;
+                i = hasta;
+                if (n < nuevas.length) {
+                    c[k] = nuevas[n].clave;
+                    a[k++] = nuevas[n].asociado;
+                }
+            }
+            return new Tabla(c, a);
+        }
+
+        /** Búsqueda binaria por clave y DNI desde {@code desde}, con el resultado de Arrays.binarySearch. */
+        private int posicion(Entrada entrada, int desde) {
+            int bajo = desde, alto = claves.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                int comparacion = claves[medio].compareTo(entrada.clave);
+                if (comparacion == 0) {
+                    comparacion = asociados[medio].getDni().compareTo(entrada.asociado.getDni());
+                }
+                if (comparacion < 0) {
+                    bajo = medio + 1;
+                } else if (comparacion > 0) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -bajo - 1;
+        }
+
+        /** Cantidad de claves que empiezan con el prefijo (dos búsquedas binarias). */
+        int cantidadConPrefijo(String prefijo) {
+            return desde(prefijo + Character.MAX_VALUE) - desde(prefijo);
+        }
+
+        /** Primera posición con una clave mayor o igual (con claves repetidas, la primera de ellas). */
+        private int desde(String clave) {
+            int bajo = 0, alto = claves.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (claves[medio].compareTo(clave) < 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        /**
+         * Agrega a {@code enOrden} los asociados con una clave que empieza con {@code prefijo}
+         * y que cumplen las demás palabras, hasta el límite.
+         */
+        void recorrerPrefijo(String prefijo, List<String> otras, int limite, Set<Asociado> vistos,
+                             List<Asociado> enOrden, int[] revisados) {
+            for (int i = desde(prefijo); i < claves.length && claves[i].startsWith(prefijo); i++) {
+                if (enOrden.size() >= limite || ++revisados[0] > MAX_CANDIDATOS) return;
+                Asociado asociado = asociados[i];
+                if (!vistos.contains(asociado) && cumple(asociado, otras)) {
+                    vistos.add(asociado);
+                    enOrden.add(asociado);
+                }
+            }
+        }
+
+        private static boolean cumple(Asociado asociado, List<String> otras) {
+            for (String otra : otras) {
+                if (!tienePalabra(asociado.getApellido(), otra) && !tienePalabra(asociado.getNombre(), otra)
+                        && !tienePalabra(asociado.getDni(), otra)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Si alguna palabra del texto empieza con el prefijo (ya normalizado). Con texto ASCII
+         * compara en el lugar, sin armar las palabras: se llama por cada candidato.
+         */
+        private static boolean tienePalabra(String texto, String prefijo) {
+            if (texto == null) return false;
+            boolean inicioDePalabra = true;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c >= 0x80) { // Tildes u otros alfabetos: por el camino general
+                    for (String palabra : palabras(texto)) {
+                        if (palabra.startsWith(prefijo)) return true;
+                    }
+                    return false;
+                }
+                boolean alfanumerico = Character.isLetterOrDigit(c);
+                if (alfanumerico && inicioDePalabra && texto.regionMatches(true, i, prefijo, 0, prefijo.length())) {
+                    return true; // El prefijo es solo letras y dígitos: no pasa a la palabra siguiente
+                }
+                inicioDePalabra = !alfanumerico;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Listado de asociados inmutable y persistente: cada escritura devuelve un listado nuevo
+ * y el anterior sigue valiendo tal cual, así que se puede publicar como instantánea y
+ * leer sin lock.
+ *
+ * Es un árbol con todas las hojas a la misma altura; cada nodo tiene hasta ANCHO
+ * elementos (hojas) o hijos (nodos internos) y los internos llevan el tamaño acumulado
+ * de sus hijos. Una escritura copia solo el camino de la raíz a la hoja que cambia
+ * (unos pocos arreglos de ANCHO referencias), no el listado entero: agregar al final,
+ * quitar o reemplazar en una posición y get(i) son O(log n).
+ *
+ * Cada asociado lleva una clave creciente en el orden del listado (GestorAsociados usa
+ * un número de alta, que guarda en su índice por DNI) y cada nodo interno la última
+ * clave de cada hijo: posicion(clave) baja por el árbol sin recorrer el listado.
+ *
+ * Las hojas que quedan con pocos elementos después de las bajas no se fusionan: el
+ * árbol no crece en altura por eso (solo se agrega a la derecha) y una hoja vacía se
+ * saca de su padre.
+ */
+final class ListadoPersistente extends AbstractList<Asociado> {
+
+    static final int ANCHO = 64;
+
+    static final ListadoPersistente VACIO = new ListadoPersistente(new Nodo(new Object[0], new long[0], null), 0);
+
+    private final Nodo raiz;
+    private final int altura; // 0: la raíz es una hoja
+
+    private ListadoPersistente(Nodo raiz, int altura) {
+        this.raiz = raiz;
+        this.altura = altura;
+    }
+
+    @Override
+    public int size() {
+        return raiz.tamanio();
+    }
+
+    @Override
+    public Asociado get(int indice) {
+        if (indice < 0 || indice >= size()) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " de " + size());
+        }
+        Nodo nodo = raiz;
+        for (int h = altura; h > 0; h--) {
+            int hijo = nodo.hijoCon(indice);
+            indice -= nodo.antesDe(hijo);
+            nodo = (Nodo) nodo.elementos[hijo];
+        }
+        return (Asociado) nodo.elementos[indice];
+    }
+
+    /**
+     * Posición del asociado con esa clave.
+     * @return La posición, o -1 si no está.
+     */
+    int posicion(long clave) {
+        Nodo nodo = raiz;
+        int antes = 0;
+        for (int h = altura; h > 0; h--) {
+            int hijo = nodo.primeraClaveDesde(clave);
+            if (hijo == nodo.cantidad()) {
+                return -1;
+            }
+            antes += nodo.antesDe(hijo);
+            nodo = (Nodo) nodo.elementos[hijo];
+        }
+        int i = Arrays.binarySearch(nodo.claves, clave);
+        return i < 0 ? -1 : antes + i;
+    }
+
+    /** @return La clave del último asociado, o -1 si está vacío. */
+    long ultimaClave() {
+        Nodo ultima = ultimaHoja();
+        return ultima.cantidad() == 0 ? -1 : ultima.claves[ultima.cantidad() - 1];
+    }
+
+    /**
+     * @param clave Mayor que ultimaClave().
+     * @return Un listado con el asociado agregado al final.
+     */
+    ListadoPersistente agregar(long clave, Asociado asociado) {
+        return agregarTodos(clave, List.of(asociado));
+    }
+
+    /**
+     * @param primeraClave Clave del primero, mayor que ultimaClave(); los demás llevan las siguientes.
+     * @return Un listado con los asociados agregados al final, en orden. Completa la
+     * última hoja y agrega las demás ya llenas: una carga masiva no copia el camino por fila.
+     */
+    ListadoPersistente agregarTodos(long primeraClave, List<Asociado> asociados) {
+        if (asociados.isEmpty()) {
+            return this;
+        }
+        Nodo nuevaRaiz = raiz;
+        int nuevaAltura = altura;
+        int desde = 0;
+        Nodo ultima = ultimaHoja();
+        if (ultima.cantidad() < ANCHO && size() > 0) {
+            int entran = Math.min(ANCHO - ultima.cantidad(), asociados.size());
+            Object[] elementos = Arrays.copyOf(ultima.elementos, ultima.cantidad() + entran);
+            long[] claves = Arrays.copyOf(ultima.claves, elementos.length);
+            for (int i = 0; i < entran; i++) {
+                elementos[ultima.cantidad() + i] = asociados.get(i);
+                claves[ultima.cantidad() + i] = primeraClave + i;
+            }
+            nuevaRaiz = conUltimaHoja(raiz, altura, new Nodo(elementos, claves, null));
+            desde = entran;
+        }
+        while (desde < asociados.size()) {
+            int hasta = Math.min(desde + ANCHO, asociados.size());
+            long[] claves = new long[hasta - desde];
+            for (int i = 0; i < claves.length; i++) {
+                claves[i] = primeraClave + desde + i;
+            }
+            Nodo hoja = new Nodo(asociados.subList(desde, hasta).toArray(), claves, null);
+            if (nuevaRaiz.cantidad() == 0) {
+                nuevaRaiz = hoja; // Listado vacío
+            } else if (nuevaAltura == 0) {
+                nuevaRaiz = Nodo.interno(new Object[]{nuevaRaiz, hoja});
+                nuevaAltura = 1;
+            } else {
+                Nodo[] resultado = agregarHoja(nuevaRaiz, nuevaAltura, hoja);
+                nuevaRaiz = resultado[0];
+                if (resultado.length == 2) { // La raíz estaba llena: el árbol crece un nivel
+                    nuevaRaiz = Nodo.interno(new Object[]{resultado[0], resultado[1]});
+                    nuevaAltura++;
+                }
+            }
+            desde = hasta;
+        }
+        return new ListadoPersistente(nuevaRaiz, nuevaAltura);
+    }
+
+    /** @return Un listado sin el asociado de esa posición. */
+    ListadoPersistente quitar(int indice) {
+        if (indice < 0 || indice >= size()) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " de " + size());
+        }
+        Nodo nuevaRaiz = quitar(raiz, altura, indice);
+        if (nuevaRaiz == null) {
+            return VACIO;
+        }
+        int nuevaAltura = altura;
+        while (nuevaAltura > 0 && nuevaRaiz.cantidad() == 1) { // Un solo hijo: baja un nivel
+            nuevaRaiz = (Nodo) nuevaRaiz.elementos[0];
+            nuevaAltura--;
+        }
+        return new ListadoPersistente(nuevaRaiz, nuevaAltura);
+    }
+
+    /** @return Un listado con otro asociado en esa posición (con la misma clave). */
+    ListadoPersistente reemplazar(int indice, Asociado asociado) {
+        if (indice < 0 || indice >= size()) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " de " + size());
+        }
+        return new ListadoPersistente(reemplazar(raiz, altura, indice, asociado), altura);
+    }
+
+    /** Recorre las hojas en orden, sin buscar cada posición desde la raíz. */
+    @Override
+    public Iterator<Asociado> iterator() {
+        return new Iterator<Asociado>() {
+            private final Nodo[] nodos = new Nodo[altura + 1];
+            private final int[] posiciones = new int[altura + 1];
+            private int restantes = size();
+
+            {
+                nodos[altura] = raiz;
+                for (int h = altura; h > 0; h--) { // El camino de la izquierda; en cada nivel sigue el hijo 1
+                    nodos[h - 1] = (Nodo) nodos[h].elementos[0];
+                    posiciones[h] = 1;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return restantes > 0;
+            }
+
+            @Override
+            public Asociado next() {
+                if (restantes == 0) {
+                    throw new NoSuchElementException();
+                }
+                int h = 0;
+                while (posiciones[h] == nodos[h].cantidad()) { // Hoja (o subárbol) terminado: se sube
+                    h++;
+                }
+                while (h > 0) { // Y se baja por el hijo siguiente hasta una hoja
+                    nodos[h - 1] = (Nodo) nodos[h].elementos[posiciones[h]++];
+                    posiciones[--h] = 0;
+                }
+                restantes--;
+                return (Asociado) nodos[0].elementos[posiciones[0]++];
+            }
+        };
+    }
+
+    private Nodo ultimaHoja() {
+        Nodo nodo = raiz;
+        for (int h = altura; h > 0; h--) {
+            nodo = (Nodo) nodo.elementos[nodo.cantidad() - 1];
+        }
+        return nodo;
+    }
+
+    private static Nodo conUltimaHoja(Nodo nodo, int altura, Nodo hoja) {
+        if (altura == 0) {
+            return hoja;
+        }
+        int ultimo = nodo.cantidad() - 1;
+        return nodo.conHijo(ultimo, conUltimaHoja((Nodo) nodo.elementos[ultimo], altura - 1, hoja));
+    }
+
+    /**
+     * Agrega una hoja a la derecha del subárbol.
+     * @return El subárbol nuevo y, si no entraba, un hermano nuevo a su derecha con la misma altura.
+     */
+    private static Nodo[] agregarHoja(Nodo nodo, int altura, Nodo hoja) {
+        Nodo nuevo = hoja;
+        Nodo actualizado = nodo;
+        if (altura > 1) {
+            int ultimo = nodo.cantidad() - 1;
+            Nodo[] resultado = agregarHoja((Nodo) nodo.elementos[ultimo], altura - 1, hoja);
+            actualizado = nodo.conHijo(ultimo, resultado[0]);
+            if (resultado.length == 1) {
+                return new Nodo[]{actualizado};
+            }
+            nuevo = resultado[1];
+        }
+        if (actualizado.cantidad() < ANCHO) {
+            Object[] hijos = Arrays.copyOf(actualizado.elementos, actualizado.cantidad() + 1);
+            hijos[hijos.length - 1] = nuevo;
+            return new Nodo[]{Nodo.interno(hijos)};
+        }
+        // Lleno: un hermano de la misma altura con solo lo nuevo (nuevo tiene la altura de sus hijos)
+        return new Nodo[]{actualizado, Nodo.interno(new Object[]{nuevo})};
+    }
+
+    /** @return El subárbol sin esa posición, o null si queda vacío. */
+    private static Nodo quitar(Nodo nodo, int altura, int indice) {
+        if (altura == 0) {
+            return nodo.cantidad() == 1 ? null : nodo.sin(indice);
+        }
+        int hijo = nodo.hijoCon(indice);
+        Nodo nuevoHijo = quitar((Nodo) nodo.elementos[hijo], altura - 1, indice - nodo.antesDe(hijo));
+        if (nuevoHijo != null) {
+            return nodo.conHijo(hijo, nuevoHijo);
+        }
+        return nodo.cantidad() == 1 ? null : nodo.sin(hijo);
+    }
+
+    private static Nodo reemplazar(Nodo nodo, int altura, int indice, Asociado asociado) {
+        if (altura == 0) {
+            Object[] elementos = nodo.elementos.clone();
+            elementos[indice] = asociado;
+            return new Nodo(elementos, nodo.claves, null); // Las claves no cambian: se comparten
+        }
+        int hijo = nodo.hijoCon(indice);
+        return nodo.conHijo(hijo, reemplazar((Nodo) nodo.elementos[hijo], altura - 1, indice - nodo.antesDe(hijo), asociado));
+    }
+
+    /** Hoja (elementos son Asociado) o nodo interno (elementos son Nodo, con sus tamaños acumulados). */
+    private static final class Nodo {
+        final Object[] elementos;
+        final long[] claves;    // Hoja: la de cada asociado; interno: la última de cada hijo
+        final int[] acumulados; // Tamaño hasta cada hijo inclusive; null en una hoja
+
+        Nodo(Object[] elementos, long[] claves, int[] acumulados) {
+            this.elementos = elementos;
+            this.claves = claves;
+            this.acumulados = acumulados;
+        }
+
+        static Nodo interno(Object[] hijos) {
+            long[] claves = new long[hijos.length];
+            int[] acumulados = new int[hijos.length];
+            int total = 0;
+            for (int i = 0; i < hijos.length; i++) {
+                Nodo hijo = (Nodo) hijos[i];
+                claves[i] = hijo.claves[hijo.cantidad() - 1];
+                total += hijo.tamanio();
+                acumulados[i] = total;
+            }
+            return new Nodo(hijos, claves, acumulados);
+        }
+
+        int cantidad() {
+            return elementos.length;
+        }
+
+        int tamanio() {
+            return acumulados == null ? elementos.length : acumulados[acumulados.length - 1];
+        }
+
+        /** Hijo que contiene la posición (búsqueda binaria sobre los acumulados). */
+        int hijoCon(int indice) {
+            int bajo = 0, alto = acumulados.length - 1;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (acumulados[medio] > indice) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            return bajo;
+        }
+
+        /** Primer hijo cuya última clave es mayor o igual (cantidad() si no hay). */
+        int primeraClaveDesde(long clave) {
+            int bajo = 0, alto = claves.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (claves[medio] < clave) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        int antesDe(int hijo) {
+            return hijo == 0 ? 0 : acumulados[hijo - 1];
+        }
+
+        Nodo conHijo(int posicion, Nodo hijo) {
+            Object[] hijos = elementos.clone();
+            hijos[posicion] = hijo;
+            return interno(hijos);
+        }
+
+        Nodo sin(int posicion) {
+            Object[] quedan = new Object[elementos.length - 1];
+            System.arraycopy(elementos, 0, quedan, 0, posicion);
+            System.arraycopy(elementos, posicion + 1, quedan, posicion, quedan.length - posicion);
+            if (acumulados != null) {
+                return interno(quedan);
+            }
+            long[] clavesQuedan = new long[quedan.length];
+            System.arraycopy(claves, 0, clavesQuedan, 0, posicion);
+            System.arraycopy(claves, posicion + 1, clavesQuedan, posicion, quedan.length - posicion);
+            return new Nodo(quedan, clavesQuedan, null);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Patrones.PatronState.EstadoDisponible;
+import SegundaEntrega.Patrones.PatronState.PlanificadorEventos;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * Métricas de una corrida de simulación:
+ * - espera de cada solicitud (desde que se pide hasta que una unidad la toma), en un
+ *   histograma por tipo de solicitud;
+ * - tiempo de permanencia de cada unidad en cada estado, de donde sale la utilización.
+ * Se registra como observador de las unidades de la flota; el tiempo lo da el mismo
+ * planificador que usan los estados (real en vivo, virtual en la simulación discreta).
+ */
+public class MetricasSimulacion implements Observer {
+
+    private static final String ESTADO_LIBRE = EstadoDisponible.class.getSimpleName();
+
+    private final PlanificadorEventos reloj;
+    private final Flota flota;
+    private final long inicio;
+    private volatile long fin = -1; // -1 mientras la corrida sigue abierta
+    private final Map<TipoSolicitud, HistogramaLatencias> esperas = new EnumMap<>(TipoSolicitud.class);
+    private final Map<Ambulancia, Permanencia> permanencias = new LinkedHashMap<>(); // Solo se lee tras el constructor
+
+    /**
+     * Constructor. Empieza a medir desde este instante con el reloj de la flota.
+     * @param flota La flota observada.
+     */
+    public MetricasSimulacion(Flota flota) {
+        this.reloj = flota.getPlanificador();
+        this.flota = flota;
+        this.inicio = reloj.ahoraMillis();
+        for (TipoSolicitud tipo : TipoSolicitud.values()) {
+            esperas.put(tipo, new HistogramaLatencias());
+        }
+        for (Ambulancia unidad : flota.getUnidades()) {
+            permanencias.put(unidad, new Permanencia(unidad.getNombreEstadoActual(), inicio));
+            unidad.addObserver(this);
+        }
+    }
+
+    /**
+     * @return El instante actual según el reloj de la corrida.
+     */
+    public long ahoraMillis() {
+        return reloj.ahoraMillis();
+    }
+
+    /**
+     * Registra cuánto esperó una solicitud hasta ser tomada.
+     * @param tipo Tipo de solicitud.
+     * @param esperaMs Espera en milisegundos.
+     */
+    public void registrarEspera(TipoSolicitud tipo, long esperaMs) {
+        esperas.get(tipo).registrar(esperaMs);
+    }
+
+    /**
+     * Cierra la corrida: acumula el tramo final de cada estado y deja de observar la flota.
+     */
+    public void finalizar() {
+        if (fin >= 0) {
+            return;
+        }
+        for (Ambulancia unidad : flota.getUnidades()) {
+            unidad.deleteObserver(this);
+        }
+        fin = reloj.ahoraMillis();
+    }
+
+    /**
+     * @param tipo Tipo de solicitud.
+     * @return El histograma de esperas de ese tipo.
+     */
+    public HistogramaLatencias getHistogramaEspera(TipoSolicitud tipo) {
+        return esperas.get(tipo);
+    }
+
+    /**
+     * Tiempo que cada unidad pasó en cada estado hasta ahora (o hasta el cierre).
+     * @param unidad La ambulancia.
+     * @return Milisegundos por nombre de estado, en orden de aparición.
+     */
+    public Map<String, Long> getPermanenciaPorEstado(Ambulancia unidad) {
+        Permanencia permanencia = permanencias.get(unidad);
+        return permanencia == null ? new LinkedHashMap<>() : permanencia.hasta(instanteDeCorte());
+    }
+
+    /**
+     * Fracción del tiempo total de la flota que las unidades no estuvieron disponibles.
+     * @return Un valor entre 0 y 1.
+     */
+    public double getUtilizacion() {
+        long total = 0;
+        long libre = 0;
+        for (Ambulancia unidad : permanencias.keySet()) {
+            for (Map.Entry<String, Long> entrada : getPermanenciaPorEstado(unidad).entrySet()) {
+                total += entrada.getValue();
+                if (ESTADO_LIBRE.equals(entrada.getKey())) libre += entrada.getValue();
+            }
+        }
+        return total == 0 ? 0 : (double) (total - libre) / total;
+    }
+
+    /**
+     * Arma el reporte de texto que se muestra al terminar la corrida.
+     * @return El reporte (esperas p50/p99 por tipo y utilización por unidad).
+     */
+    public String generarReporte() {
+        long duracion = instanteDeCorte() - inicio;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("--- Métricas de la simulación (%.1f s) ---%n", duracion / 1000.0));
+        sb.append("Espera por tipo de solicitud (ms):\n");
+        for (Map.Entry<TipoSolicitud, HistogramaLatencias> entrada : esperas.entrySet()) {
+            HistogramaLatencias h = entrada.getValue();
+            if (h.getCantidad() == 0) continue;
+            sb.append(String.format("  %-22s n=%d  p50=%d  p99=%d  máx=%d  prom=%.0f%n", entrada.getKey(),
+                    h.getCantidad(), h.getPercentil(50), h.getPercentil(99), h.getMaximo(), h.getPromedio()));
+        }
+        sb.append(String.format("Utilización de la flota: %.1f%%%n", getUtilizacion() * 100));
+        for (Ambulancia unidad : permanencias.keySet()) {
+            Map<String, Long> porEstado = getPermanenciaPorEstado(unidad);
+            long total = 0;
+            for (long ms : porEstado.values()) total += ms;
+            sb.append("  ").append(unidad.getIdentificador()).append(":");
+            for (Map.Entry<String, Long> entrada : porEstado.entrySet()) {
+                double porcentaje = total == 0 ? 0 : entrada.getValue() * 100.0 / total;
+                sb.append(String.format(" %s %.1f%%", entrada.getKey(), porcentaje));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private long instanteDeCorte() {
+        long cierre = fin;
+        return cierre >= 0 ? cierre : reloj.ahoraMillis();
+    }
+
+    /**
+     * Se llama con el lock de la unidad tomado, así las transiciones de una unidad llegan en orden.
+     * @param o La Ambulancia que cambió.
+     * @param arg El nombre del nuevo estado.
+     */
+    @Override
+    public void update(Observable o, Object arg) {
+        Permanencia permanencia = permanencias.get(o);
+        if (permanencia != null && arg instanceof String && fin < 0) {
+            permanencia.transicion((String) arg, reloj.ahoraMillis());
+        }
+    }
+
+    /**
+     * Acumulado de permanencia por estado de una unidad.
+     */
+    private static class Permanencia {
+        private final Map<String, Long> acumulado = new LinkedHashMap<>();
+        private String estadoActual;
+        private long desde;
+
+        Permanencia(String estadoInicial, long desde) {
+            this.estadoActual = estadoInicial;
+            this.desde = desde;
+        }
+
+        synchronized void transicion(String nuevoEstado, long ahora) {
+            acumulado.merge(estadoActual, ahora - desde, Long::sum);
+            estadoActual = nuevoEstado;
+            desde = ahora;
+        }
+
+        /** Copia del acumulado sumando el tramo abierto hasta el instante dado. */
+        synchronized Map<String, Long> hasta(long instante) {
+            Map<String, Long> copia = new LinkedHashMap<>(acumulado);
+            copia.merge(estadoActual, Math.max(0, instante - desde), Long::sum);
+            return copia;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo en que el Simulador ejecuta las tareas de asociados y operario.
+ */
+public enum ModoEjecucion {
+
+    /** Un hilo de plataforma por asociado (comportamiento original). */
+    POOL_FIJO("Pool fijo (hilos de plataforma)"),
+
+    /** Un hilo virtual por tarea: permite simular padrones de decenas de miles de asociados. */
+    HILOS_VIRTUALES("Hilos virtuales");
+
+    private final String descripcion;
+
+    ModoEjecucion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Crea el ExecutorService correspondiente a este modo.
+     * @param cantidadTareas Cantidad de tareas concurrentes esperadas (tamaño del pool fijo).
+     * @return Un ExecutorService nuevo.
+     */
+    public ExecutorService crearExecutor(int cantidadTareas) {
+        switch (this) {
+            case HILOS_VIRTUALES:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case POOL_FIJO:
+            default:
+                return Executors.newFixedThreadPool(Math.max(1, cantidadTareas));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
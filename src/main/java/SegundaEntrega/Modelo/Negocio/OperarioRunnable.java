@@ -12,7 +12,7 @@ public class OperarioRunnable implements Runnable {
     // --- Atributos ---
     // Necesita referencias al modelo para poder interactuar
     private final Operario operario;
-    private final Ambulancia ambulancia;
+    private final Flota flota;
     private final Simulador simulador; // Para saber cuándo detenerse
     private final Random random = new Random();
 
@@ -21,13 +21,13 @@ public class OperarioRunnable implements Runnable {
      * Constructor de la tarea del operario.
      * Recibe los objetos del modelo con los que necesita interactuar.
      * * @param operario El operario que realiza la acción.
-     * @param ambulancia La ambulancia (monitor) a la que se le pedirán solicitudes.
+     * @param flota La flota a la que se le pedirán solicitudes.
      * @param simulador El gestor de la simulación (para saber si debe parar).
      */
-    public OperarioRunnable(Operario operario, Ambulancia ambulancia, Simulador simulador) {
+    public OperarioRunnable(Operario operario, Flota flota, Simulador simulador) {
         // Asignar los parámetros recibidos a los atributos internos
         this.operario = operario;
-        this.ambulancia = ambulancia;
+        this.flota = flota;
         this.simulador = simulador;
     }
     // --- FIN DEL CONSTRUCTOR ---
@@ -68,8 +68,8 @@ public class OperarioRunnable implements Runnable {
             }
 
             System.out.println("Operario " + operario.getNombre() + " intenta solicitar mantenimiento.");
-            // Llama al método synchronized de la ambulancia (actúa como monitor)
-            ambulancia.solicitarMantenimiento(operario.getNombreCompleto());
+            // La flota despacha a la primera unidad que pueda ir a taller
+            flota.solicitarMantenimiento(operario.getNombreCompleto());
             System.out.println("Operario " + operario.getNombre() + " - Solicitud de mantenimiento PROCESADA.");
         }
 
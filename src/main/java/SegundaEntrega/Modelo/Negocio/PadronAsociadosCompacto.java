@@ -0,0 +1,419 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.DAOAsociado.IAsociadoDAO;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+
+/**
+ * Padrón de asociados de solo lectura guardado fuera del heap, para padrones de
+ * millones de asociados (consultas, simulaciones) donde un Asociado por fila, con sus
+ * seis String, ocupa gigabytes de heap y alarga las pausas del GC.
+ *
+ * Los datos se guardan por columnas en ByteBuffers directos:
+ * - dni: LARGO_DNI bytes fijos por fila (el VARCHAR(10) de la tabla, completado con ceros);
+ * - ciudad: un código por fila en un diccionario (hay pocas ciudades distintas);
+ * - nombre, apellido, domicilio y teléfono: seguidos en un área de texto en UTF-8
+ *   (largo short, -1 si es null), con la posición de cada fila en otra columna;
+ * - índice por DNI: tabla hash de direccionamiento abierto con el número de fila.
+ * El heap solo tiene los buffers y el diccionario de ciudades: el GC no recorre las filas.
+ *
+ * Lee igual que GestorAsociados (getListadoAsociados, buscarAsociadoPorDNI), pero los
+ * asociados devueltos son vistas livianas sobre una fila que decodifican cada dato al
+ * pedirlo; no se pueden modificar. Solo se agregan filas al final: las bajas y
+ * modificaciones se reflejan volviendo a cargar el padrón.
+ *
+ * Un solo escritor a la vez (monitor del padrón); las lecturas no toman lock: cada
+ * escritura publica una Columnas inmutable (referencias y cantidad de filas) y los
+ * lectores no miran filas posteriores a la de su instantánea.
+ */
+public class PadronAsociadosCompacto {
+
+    static final int LARGO_DNI = 10;
+    private static final int BYTES_POR_FILA = 2 * Integer.BYTES; // Código de ciudad y posición del texto
+    private static final int SIN_CIUDAD = -1;
+    private static final int FILAS_INICIALES = 1024;
+    private static final int TAMANIO_FETCH = 1000;
+
+    // Estado del escritor, protegido por el monitor
+    private ByteBuffer dnis;
+    private ByteBuffer filas;
+    private ByteBuffer textos;
+    private ByteBuffer tabla; // Fila + 1 por ranura; 0 es ranura libre
+    private String[] ciudades = new String[16];
+    private final Map<String, Integer> codigoCiudad = new HashMap<>();
+    private int cantidad;
+    private int bytesTexto;
+
+    private volatile Columnas columnas;
+
+    /**
+     * Crea un padrón vacío.
+     */
+    public PadronAsociadosCompacto() {
+        dnis = directo(FILAS_INICIALES * LARGO_DNI);
+        filas = directo(FILAS_INICIALES * BYTES_POR_FILA);
+        textos = directo(FILAS_INICIALES * 32);
+        tabla = directo(FILAS_INICIALES * 2 * Integer.BYTES);
+        publicar();
+    }
+
+    /**
+     * Agrega un asociado al final del padrón (se copian sus datos).
+     * @param asociado El asociado.
+     * @return false si ya había uno con el mismo DNI (no se agrega).
+     * @throws IllegalArgumentException Si el DNI es nulo, vacío o de más de LARGO_DNI bytes.
+     */
+    public synchronized boolean agregar(Asociado asociado) {
+        boolean agregado = agregarSinPublicar(asociado);
+        if (agregado) {
+            publicar();
+        }
+        return agregado;
+    }
+
+    /**
+     * Agrega todos los asociados de la fuente de datos, recorriéndola con un cursor:
+     * nunca hay más de TAMANIO_FETCH Asociado en el heap.
+     * @param dao DAO del que se leen los asociados.
+     * @return La cantidad de asociados agregados (los DNIs repetidos se ignoran).
+     * @throws DAOException Si falla la lectura; lo agregado hasta ese momento se conserva.
+     */
+    public synchronized long cargarDesde(IAsociadoDAO dao) throws DAOException {
+        long agregados = 0;
+        try (Stream<Asociado> asociados = dao.recorrerTodos(TAMANIO_FETCH)) {
+            Iterator<Asociado> it = asociados.iterator();
+            while (it.hasNext()) {
+                if (agregarSinPublicar(it.next()) && ++agregados % TAMANIO_FETCH == 0) {
+                    publicar(); // Los lectores ven la carga avanzar
+                }
+            }
+        } catch (DAORuntimeException e) {
+            throw e.getCause();
+        } finally {
+            publicar();
+        }
+        return agregados;
+    }
+
+    /**
+     * @return Una vista inmutable del padrón en orden de carga, sin copiar ni tomar lock.
+     * Cada get() devuelve una vista nueva sobre la fila.
+     */
+    public List<Asociado> getListadoAsociados() {
+        return new Listado(columnas);
+    }
+
+    /**
+     * Busca un asociado por su DNI.
+     * @param dni El DNI a buscar.
+     * @return Un Optional con la vista del asociado, o vacío si no está.
+     */
+    public Optional<Asociado> buscarAsociadoPorDNI(String dni) {
+        if (dni == null || dni.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        Columnas c = columnas;
+        int fila = c.buscar(dni);
+        return fila < 0 ? Optional.empty() : Optional.of(new AsociadoCompacto(c, fila));
+    }
+
+    /** @return Cantidad de asociados en el padrón. */
+    public int getCantidad() {
+        return columnas.cantidad;
+    }
+
+    /** @return Bytes reservados fuera del heap (capacidad de los buffers, no solo lo usado). */
+    public synchronized long getBytesFueraDelHeap() {
+        return (long) dnis.capacity() + filas.capacity() + textos.capacity() + tabla.capacity();
+    }
+
+    /** @return Cantidad de ciudades distintas en el diccionario. */
+    public synchronized int getCantidadCiudades() {
+        return codigoCiudad.size();
+    }
+
+    private boolean agregarSinPublicar(Asociado asociado) {
+        String dni = asociado.getDni();
+        if (dni == null || dni.trim().isEmpty()) {
+            throw new IllegalArgumentException("El asociado o su DNI no pueden ser nulos o vacíos.");
+        }
+        byte[] dniUtf8 = dni.getBytes(StandardCharsets.UTF_8);
+        if (dniUtf8.length > LARGO_DNI) {
+            throw new IllegalArgumentException("DNI de más de " + LARGO_DNI + " bytes: " + dni);
+        }
+        if (buscarRanura(dni) >= 0) {
+            return false;
+        }
+        byte[][] campos = {utf8(asociado.getNombre()), utf8(asociado.getApellido()),
+                utf8(asociado.getDomicilio()), utf8(asociado.getTelefono())};
+        int largoTexto = 0;
+        for (byte[] campo : campos) {
+            largoTexto += Short.BYTES + (campo == null ? 0 : campo.length);
+        }
+        asegurarCapacidad(largoTexto);
+
+        dnis.put(cantidad * LARGO_DNI, dniUtf8);
+        for (int i = dniUtf8.length; i < LARGO_DNI; i++) {
+            dnis.put(cantidad * LARGO_DNI + i, (byte) 0);
+        }
+        filas.putInt(cantidad * BYTES_POR_FILA, codificarCiudad(asociado.getCiudad()));
+        filas.putInt(cantidad * BYTES_POR_FILA + Integer.BYTES, bytesTexto);
+        for (byte[] campo : campos) {
+            if (campo == null) {
+                textos.putShort(bytesTexto, (short) -1);
+                bytesTexto += Short.BYTES;
+            } else {
+                textos.putShort(bytesTexto, (short) campo.length);
+                textos.put(bytesTexto + Short.BYTES, campo);
+                bytesTexto += Short.BYTES + campo.length;
+            }
+        }
+        tabla.putInt((-buscarRanura(dni) - 1) * Integer.BYTES, cantidad + 1); // Después de escribir la fila
+        cantidad++;
+        return true;
+    }
+
+    /**
+     * @return La ranura del DNI si está (>= 0), o -(ranura libre) - 1 si no está.
+     */
+    private int buscarRanura(String dni) {
+        int mascara = tabla.capacity() / Integer.BYTES - 1;
+        for (int ranura = dispersar(dni.hashCode()) & mascara; ; ranura = (ranura + 1) & mascara) {
+            int valor = tabla.getInt(ranura * Integer.BYTES);
+            if (valor == 0) return -ranura - 1;
+            if (coincideDni(dnis, valor - 1, dni)) return ranura;
+        }
+    }
+
+    private int codificarCiudad(String ciudad) {
+        if (ciudad == null) return SIN_CIUDAD;
+        Integer codigo = codigoCiudad.get(ciudad);
+        if (codigo == null) {
+            codigo = codigoCiudad.size();
+            if (codigo == ciudades.length) {
+                ciudades = Arrays.copyOf(ciudades, codigo * 2); // Los lectores conservan el arreglo anterior
+            }
+            ciudades[codigo] = ciudad;
+            codigoCiudad.put(ciudad, codigo);
+        }
+        return codigo;
+    }
+
+    private void asegurarCapacidad(int largoTexto) {
+        if (cantidad * LARGO_DNI == dnis.capacity()) {
+            dnis = agrandar(dnis, dnis.capacity() * 2, cantidad * LARGO_DNI);
+            filas = agrandar(filas, filas.capacity() * 2, cantidad * BYTES_POR_FILA);
+        }
+        if (textos.capacity() - bytesTexto < largoTexto) {
+            long nueva = Math.max((long) textos.capacity() * 2, (long) bytesTexto + largoTexto);
+            if (nueva > Integer.MAX_VALUE) {
+                throw new IllegalStateException("El padrón compacto no admite más de 2 GB de texto");
+            }
+            textos = agrandar(textos, (int) nueva, bytesTexto);
+        }
+        if ((cantidad + 1) * 2 > tabla.capacity() / Integer.BYTES) { // Factor de carga hasta 0,5
+            rehacerTabla(tabla.capacity() * 2);
+        }
+    }
+
+    /** Arma una tabla nueva: la anterior queda intacta para los lectores que la estén usando. */
+    private void rehacerTabla(int bytes) {
+        ByteBuffer nueva = directo(bytes);
+        int mascara = bytes / Integer.BYTES - 1;
+        for (int fila = 0; fila < cantidad; fila++) {
+            int ranura = dispersar(hashDni(dnis, fila)) & mascara;
+            while (nueva.getInt(ranura * Integer.BYTES) != 0) {
+                ranura = (ranura + 1) & mascara;
+            }
+            nueva.putInt(ranura * Integer.BYTES, fila + 1);
+        }
+        tabla = nueva;
+    }
+
+    private void publicar() {
+        columnas = new Columnas(dnis, filas, textos, tabla, ciudades, cantidad);
+    }
+
+    private static ByteBuffer directo(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer agrandar(ByteBuffer viejo, int capacidad, int usados) {
+        ByteBuffer nuevo = directo(capacidad);
+        nuevo.put(0, viejo, 0, usados);
+        return nuevo;
+    }
+
+    private static byte[] utf8(String texto) {
+        if (texto == null) return null;
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto demasiado largo para el padrón compacto: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int dispersar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /** Mismo valor que String.hashCode() del DNI guardado, sin crear el String si es ASCII. */
+    private static int hashDni(ByteBuffer dnis, int fila) {
+        int hash = 0;
+        for (int i = 0; i < LARGO_DNI; i++) {
+            byte b = dnis.get(fila * LARGO_DNI + i);
+            if (b == 0) break;
+            if (b < 0) return leerDni(dnis, fila).hashCode();
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    private static boolean coincideDni(ByteBuffer dnis, int fila, String dni) {
+        int base = fila * LARGO_DNI;
+        if (dni.length() > LARGO_DNI) return false;
+        for (int i = 0; i < dni.length(); i++) {
+            char c = dni.charAt(i);
+            if (c >= 0x80) return leerDni(dnis, fila).equals(dni);
+            if (dnis.get(base + i) != c) return false;
+        }
+        return dni.length() == LARGO_DNI || dnis.get(base + dni.length()) == 0;
+    }
+
+    private static String leerDni(ByteBuffer dnis, int fila) {
+        int base = fila * LARGO_DNI;
+        int largo = 0;
+        while (largo < LARGO_DNI && dnis.get(base + largo) != 0) {
+            largo++;
+        }
+        byte[] bytes = new byte[largo];
+        dnis.get(base, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Instantánea de las columnas que ven los lectores; las filas >= cantidad se ignoran. */
+    private static final class Columnas {
+        final ByteBuffer dnis;
+        final ByteBuffer filas;
+        final ByteBuffer textos;
+        final ByteBuffer tabla;
+        final String[] ciudades;
+        final int cantidad;
+
+        Columnas(ByteBuffer dnis, ByteBuffer filas, ByteBuffer textos, ByteBuffer tabla, String[] ciudades, int cantidad) {
+            this.dnis = dnis;
+            this.filas = filas;
+            this.textos = textos;
+            this.tabla = tabla;
+            this.ciudades = ciudades;
+            this.cantidad = cantidad;
+        }
+
+        int buscar(String dni) {
+            int mascara = tabla.capacity() / Integer.BYTES - 1;
+            for (int ranura = dispersar(dni.hashCode()) & mascara; ; ranura = (ranura + 1) & mascara) {
+                int valor = tabla.getInt(ranura * Integer.BYTES);
+                if (valor == 0) return -1;
+                int fila = valor - 1;
+                if (fila < cantidad && coincideDni(dnis, fila, dni)) return fila;
+            }
+        }
+
+        String ciudad(int fila) {
+            int codigo = filas.getInt(fila * BYTES_POR_FILA);
+            return codigo == SIN_CIUDAD ? null : ciudades[codigo];
+        }
+
+        /** @param campo 0 nombre, 1 apellido, 2 domicilio, 3 teléfono. */
+        String texto(int fila, int campo) {
+            int posicion = filas.getInt(fila * BYTES_POR_FILA + Integer.BYTES);
+            for (int i = 0; i < campo; i++) {
+                posicion += Short.BYTES + Math.max(0, textos.getShort(posicion));
+            }
+            short largo = textos.getShort(posicion);
+            if (largo < 0) return null;
+            byte[] bytes = new byte[largo];
+            textos.get(posicion + Short.BYTES, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Listado extends AbstractList<Asociado> implements RandomAccess {
+        private final Columnas columnas;
+
+        Listado(Columnas columnas) {
+            this.columnas = columnas;
+        }
+
+        @Override
+        public Asociado get(int indice) {
+            if (indice < 0 || indice >= columnas.cantidad) {
+                throw new IndexOutOfBoundsException("Índice " + indice + ", cantidad " + columnas.cantidad);
+            }
+            return new AsociadoCompacto(columnas, indice);
+        }
+
+        @Override
+        public int size() {
+            return columnas.cantidad;
+        }
+    }
+
+    /**
+     * Vista de solo lectura sobre una fila del padrón. Los campos heredados de Persona
+     * quedan en null: todo se lee de las columnas.
+     */
+    private static final class AsociadoCompacto extends Asociado {
+        private final Columnas columnas;
+        private final int fila;
+
+        AsociadoCompacto(Columnas columnas, int fila) {
+            this.columnas = columnas;
+            this.fila = fila;
+        }
+
+        @Override public String getDni() { return leerDni(columnas.dnis, fila); }
+        @Override public String getNombre() { return columnas.texto(fila, 0); }
+        @Override public String getApellido() { return columnas.texto(fila, 1); }
+        @Override public String getDomicilio() { return columnas.texto(fila, 2); }
+        @Override public String getTelefono() { return columnas.texto(fila, 3); }
+        @Override public String getCiudad() { return columnas.ciudad(fila); }
+
+        @Override
+        public String getNombreCompleto() {
+            String nombre = getNombre(), apellido = getApellido();
+            return (nombre != null ? nombre : "") + " " + (apellido != null ? apellido : "");
+        }
+
+        @Override public void setDni(String dni) { soloLectura(); }
+        @Override public void setNombre(String nombre) { soloLectura(); }
+        @Override public void setApellido(String apellido) { soloLectura(); }
+        @Override public void setDomicilio(String domicilio) { soloLectura(); }
+        @Override public void setCiudad(String ciudad) { soloLectura(); }
+        @Override public void setTelefono(String telefono) { soloLectura(); }
+
+        private static void soloLectura() {
+            throw new UnsupportedOperationException("Los asociados del padrón compacto son de solo lectura");
+        }
+
+        @Override
+        public String toString() {
+            return "Asociado [Persona{dni='" + getDni() + "', nombre='" + getNombre() + "', apellido='" + getApellido()
+                    + "', domicilio='" + getDomicilio() + "', ciudad='" + getCiudad() + "', telefono='" + getTelefono() + "'}]";
+        }
+    }
+}
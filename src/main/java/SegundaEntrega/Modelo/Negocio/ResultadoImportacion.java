@@ -0,0 +1,83 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva de asociados (ImportadorAsociados).
+ */
+public class ResultadoImportacion {
+
+    private final long filasLeidas;
+    private final long importadas;
+    private final long rechazadas;
+    private final long duracionNanos;
+    private final List<Rechazo> detalleRechazos;
+
+    /**
+     * Constructor.
+     * @param filasLeidas Filas de datos leídas (sin contar el encabezado).
+     * @param importadas Asociados agregados.
+     * @param rechazadas Filas no importadas (inválidas, repetidas o con error al guardar).
+     * @param duracionNanos Duración total de la importación.
+     * @param detalleRechazos Los primeros rechazos, en orden de línea (la lista está acotada).
+     */
+    public ResultadoImportacion(long filasLeidas, long importadas, long rechazadas, long duracionNanos,
+                                List<Rechazo> detalleRechazos) {
+        this.filasLeidas = filasLeidas;
+        this.importadas = importadas;
+        this.rechazadas = rechazadas;
+        this.duracionNanos = duracionNanos;
+        this.detalleRechazos = Collections.unmodifiableList(detalleRechazos);
+    }
+
+    public long getFilasLeidas() { return filasLeidas; }
+    public long getImportadas() { return importadas; }
+    public long getRechazadas() { return rechazadas; }
+    public long getDuracionMs() { return duracionNanos / 1_000_000; }
+    public List<Rechazo> getDetalleRechazos() { return detalleRechazos; }
+
+    /** @return Filas procesadas por segundo. */
+    public double getFilasPorSegundo() {
+        return duracionNanos == 0 ? 0 : filasLeidas * 1e9 / duracionNanos;
+    }
+
+    /** @return Resumen de una línea. */
+    public String getResumen() {
+        return String.format("%d filas leídas: %d importadas, %d rechazadas en %d ms (%.0f filas/s)",
+                filasLeidas, importadas, rechazadas, getDuracionMs(), getFilasPorSegundo());
+    }
+
+    @Override
+    public String toString() {
+        return getResumen();
+    }
+
+    /**
+     * Fila que no se importó.
+     */
+    public static final class Rechazo {
+        private final long linea;
+        private final String dni;
+        private final String motivo;
+
+        public Rechazo(long linea, String dni, String motivo) {
+            this.linea = linea;
+            this.dni = dni;
+            this.motivo = motivo;
+        }
+
+        /** @return Número de línea en el archivo (la primera es 1). */
+        public long getLinea() { return linea; }
+
+        /** @return El DNI tal como venía en el archivo (puede ser vacío). */
+        public String getDni() { return dni; }
+
+        public String getMotivo() { return motivo; }
+
+        @Override
+        public String toString() {
+            return "Línea " + linea + (dni.isEmpty() ? "" : " (DNI " + dni + ")") + ": " + motivo;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de una corrida de SimulacionDiscreta.
+ */
+public class ResultadoSimulacionDiscreta {
+
+    private final long semilla;
+    private final long solicitudesAtendidas;
+    private final long solicitudesSinAtender;
+    private final long eventosProcesados;
+    private final long tiempoVirtualMs;
+    private final long tiempoRealMs;
+    private final List<String> registroEventos;
+    private final MetricasSimulacion metricas;
+
+    /**
+     * Constructor.
+     * @param semilla Semilla maestra con la que se puede repetir la corrida.
+     * @param solicitudesAtendidas Solicitudes que alguna unidad tomó.
+     * @param solicitudesSinAtender Solicitudes que quedaron esperando al agotarse los eventos.
+     * @param eventosProcesados Cantidad de eventos extraídos de la cola.
+     * @param tiempoVirtualMs Tiempo simulado total (reloj virtual).
+     * @param tiempoRealMs Tiempo real que tardó la corrida.
+     * @param registroEventos Transiciones de estado en orden ("tiempo unidad estado").
+     * @param metricas Esperas y utilización medidas en tiempo virtual.
+     */
+    public ResultadoSimulacionDiscreta(long semilla, long solicitudesAtendidas, long solicitudesSinAtender,
+                                       long eventosProcesados, long tiempoVirtualMs, long tiempoRealMs,
+                                       List<String> registroEventos, MetricasSimulacion metricas) {
+        this.semilla = semilla;
+        this.solicitudesAtendidas = solicitudesAtendidas;
+        this.solicitudesSinAtender = solicitudesSinAtender;
+        this.eventosProcesados = eventosProcesados;
+        this.tiempoVirtualMs = tiempoVirtualMs;
+        this.tiempoRealMs = tiempoRealMs;
+        this.registroEventos = Collections.unmodifiableList(registroEventos);
+        this.metricas = metricas;
+    }
+
+    public long getSemilla() { return semilla; }
+    public long getSolicitudesAtendidas() { return solicitudesAtendidas; }
+    public long getSolicitudesSinAtender() { return solicitudesSinAtender; }
+    public long getEventosProcesados() { return eventosProcesados; }
+    public long getTiempoVirtualMs() { return tiempoVirtualMs; }
+    public long getTiempoRealMs() { return tiempoRealMs; }
+    public List<String> getRegistroEventos() { return registroEventos; }
+    public MetricasSimulacion getMetricas() { return metricas; }
+
+    /**
+     * Huella del registro de transiciones: dos corridas con la misma huella
+     * recorrieron (con altísima probabilidad) la misma secuencia.
+     * @return El hash del registro en hexadecimal.
+     */
+    public String getHuellaRegistro() {
+        return String.format("%08x", registroEventos.hashCode());
+    }
+
+    /**
+     * Cuántas veces más rápido que el tiempo real corrió la simulación.
+     * @return tiempo virtual / tiempo real (con un mínimo de 1 ms real).
+     */
+    public double getFactorAceleracion() {
+        return (double) tiempoVirtualMs / Math.max(1, tiempoRealMs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Simulación discreta (semilla %d): %d solicitudes atendidas (%d sin atender), %d eventos, "
+                        + "%.1f s simulados en %d ms reales (x%.0f), %d transiciones, huella %s",
+                semilla, solicitudesAtendidas, solicitudesSinAtender, eventosProcesados,
+                tiempoVirtualMs / 1000.0, tiempoRealMs, getFactorAceleracion(),
+                registroEventos.size(), getHuellaRegistro());
+    }
+}
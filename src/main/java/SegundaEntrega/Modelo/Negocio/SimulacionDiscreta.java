@@ -0,0 +1,251 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Patrones.PatronState.PlanificadorEventos;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Motor de simulación por eventos discretos con reloj virtual.
+ * Reproduce la misma máquina de estados de la Ambulancia (a través de una Flota propia)
+ * y las mismas distribuciones aleatorias que AsociadoRunnable y los estados, pero en
+ * lugar de dormir hilos avanza el reloj directamente al próximo evento de una cola de
+ * prioridad. Todo corre en un único hilo, miles de veces más rápido que el tiempo real.
+ * Con la misma semilla y el mismo padrón la corrida es determinista: el registro de
+ * transiciones resultante es idéntico, lo que permite comparar versiones del código.
+ * El modo con hilos (Simulador.iniciarSimulacion) sigue siendo la opción "en vivo".
+ */
+public class SimulacionDiscreta implements PlanificadorEventos {
+
+    private final PriorityQueue<Evento> eventos = new PriorityQueue<>();
+    private final Flota flota;
+    private final ConfiguracionSimulacion configuracion;
+    private final MetricasSimulacion metricas;
+    private final List<String> registroEventos = new ArrayList<>(); // "tiempo unidad estado" por transición
+    private final List<Long> ordenDeAtencion = new ArrayList<>(); // Orden de llegada de cada solicitud atendida
+    private long reloj = 0;              // Tiempo virtual actual en milisegundos
+    private long secuencia = 0;          // Desempata eventos del mismo instante (orden de programación)
+    private long eventosProcesados = 0;
+    private long solicitudesAtendidas = 0;
+    private long llegadas = 0;           // Orden global de llegada de las solicitudes
+    private boolean ejecutada = false;
+
+    // Solicitudes que llegaron cuando ninguna unidad podía atenderlas (equivalen a los hilos en espera)
+    private final Deque<TareaAsociado> pendientesTraslado = new ArrayDeque<>();
+    private final Deque<TareaAsociado> pendientesDomicilio = new ArrayDeque<>();
+
+    /**
+     * Constructor con semilla aleatoria.
+     * @param cantidadAmbulancias Cantidad de unidades de la flota simulada.
+     */
+    public SimulacionDiscreta(int cantidadAmbulancias) {
+        this(cantidadAmbulancias, ConfiguracionSimulacion.conSemillaAleatoria());
+    }
+
+    /**
+     * Constructor. Crea una flota cuyas unidades usan el reloj virtual de esta simulación
+     * y los flujos aleatorios derivados de la configuración.
+     * @param cantidadAmbulancias Cantidad de unidades de la flota simulada.
+     * @param configuracion Semilla de la corrida.
+     */
+    public SimulacionDiscreta(int cantidadAmbulancias, ConfiguracionSimulacion configuracion) {
+        this.configuracion = configuracion;
+        this.flota = new Flota(cantidadAmbulancias, this);
+        this.flota.aplicarConfiguracion(configuracion);
+        this.metricas = new MetricasSimulacion(flota);
+        for (Ambulancia unidad : flota.getUnidades()) {
+            unidad.addObserver((o, estado) ->
+                    registroEventos.add(reloj + " " + unidad.getIdentificador() + " " + estado));
+        }
+    }
+
+    /**
+     * Ejecuta la simulación completa hasta que no quedan eventos.
+     * Cada instancia se ejecuta una sola vez.
+     * @param asociados Los asociados que realizan solicitudes.
+     * @param cantSolicitudesPorAsociado Solicitudes que hace cada asociado.
+     * @return El resumen de la corrida.
+     */
+    public ResultadoSimulacionDiscreta ejecutar(List<Asociado> asociados, int cantSolicitudesPorAsociado) {
+        if (ejecutada) {
+            throw new IllegalStateException("La simulación discreta ya fue ejecutada.");
+        }
+        ejecutada = true;
+        long inicioReal = System.nanoTime();
+
+        for (Asociado asociado : asociados) {
+            new TareaAsociado(asociado, cantSolicitudesPorAsociado, configuracion.siguienteGeneradorAsociado())
+                    .programarProximaSolicitud();
+        }
+
+        while (!eventos.isEmpty()) {
+            Evento evento = eventos.poll();
+            reloj = evento.tiempo; // El reloj salta directamente al próximo evento
+            evento.accion.run();
+            eventosProcesados++;
+            atenderPendientes(); // Equivale a despertar a los hilos en espera tras una transición
+        }
+
+        metricas.finalizar();
+        long msReales = (System.nanoTime() - inicioReal) / 1_000_000;
+        return new ResultadoSimulacionDiscreta(configuracion.getSemilla(), solicitudesAtendidas,
+                pendientesTraslado.size() + pendientesDomicilio.size(), eventosProcesados, reloj, msReales,
+                registroEventos, metricas);
+    }
+
+    /**
+     * Reintenta las solicitudes que quedaron esperando, siempre empezando por la que
+     * llegó primero entre las dos colas. Si la más antigua no puede atenderse, se prueba
+     * la cabeza de la otra cola; se termina cuando ninguna de las dos avanza.
+     */
+    private void atenderPendientes() {
+        while (true) {
+            TareaAsociado traslado = pendientesTraslado.peek();
+            TareaAsociado domicilio = pendientesDomicilio.peek();
+            boolean trasladoPrimero = domicilio == null
+                    || (traslado != null && traslado.ordenLlegada < domicilio.ordenLlegada);
+            if (trasladoPrimero) {
+                if (!intentarPendienteTraslado() && !intentarPendienteDomicilio()) return;
+            } else {
+                if (!intentarPendienteDomicilio() && !intentarPendienteTraslado()) return;
+            }
+        }
+    }
+
+    private boolean intentarPendienteTraslado() {
+        if (pendientesTraslado.isEmpty() || !flota.intentarTraslado(pendientesTraslado.peek().getDni())) {
+            return false;
+        }
+        pendientesTraslado.poll().solicitudAtendida();
+        return true;
+    }
+
+    private boolean intentarPendienteDomicilio() {
+        if (pendientesDomicilio.isEmpty() || !flota.intentarAtencionDomicilio(pendientesDomicilio.peek().getDni())) {
+            return false;
+        }
+        pendientesDomicilio.poll().solicitudAtendida();
+        return true;
+    }
+
+    /**
+     * @return Las métricas de esta corrida (esperas y utilización).
+     */
+    public MetricasSimulacion getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * @return El orden de llegada (0, 1, 2...) de cada solicitud, en el orden en que fueron atendidas.
+     */
+    List<Long> getOrdenDeAtencion() {
+        return ordenDeAtencion;
+    }
+
+    /**
+     * @return La flota simulada (para consultar sus unidades al finalizar).
+     */
+    public Flota getFlota() {
+        return flota;
+    }
+
+
+    // --- PlanificadorEventos (reloj virtual) ---
+
+    /**
+     * Agrega un evento a la cola para el instante virtual actual más la demora.
+     * @param tarea La acción del evento.
+     * @param demoraMs Demora en milisegundos virtuales.
+     */
+    @Override
+    public void programar(Runnable tarea, long demoraMs) {
+        eventos.add(new Evento(reloj + Math.max(0, demoraMs), secuencia++, tarea));
+    }
+
+    /**
+     * @return El tiempo virtual actual en milisegundos.
+     */
+    @Override
+    public long ahoraMillis() {
+        return reloj;
+    }
+
+
+    /**
+     * Equivalente discreto de AsociadoRunnable: mismas esperas entre solicitudes
+     * (entre 1 y 4 segundos) y misma elección aleatoria entre traslado y domicilio.
+     */
+    private class TareaAsociado {
+        private final Asociado asociado;
+        private final int cantSolicitudes;
+        private final SplittableRandom random;
+        private int realizadas = 0;
+        private TipoSolicitud tipoEnCurso;   // Solicitud actual (para medir su espera)
+        private long instanteSolicitud;
+        private long ordenLlegada;
+
+        TareaAsociado(Asociado asociado, int cantSolicitudes, SplittableRandom random) {
+            this.asociado = asociado;
+            this.cantSolicitudes = cantSolicitudes;
+            this.random = random;
+        }
+
+        String getDni() {
+            return asociado.getDni();
+        }
+
+        void programarProximaSolicitud() {
+            if (realizadas < cantSolicitudes) {
+                programar(this::solicitar, random.nextInt(3000) + 1000); // Espera entre 1 y 4 segundos
+            }
+        }
+
+        private void solicitar() {
+            boolean solicitarTraslado = random.nextBoolean();
+            tipoEnCurso = solicitarTraslado ? TipoSolicitud.TRASLADO : TipoSolicitud.ATENCION_DOMICILIO;
+            instanteSolicitud = reloj;
+            ordenLlegada = llegadas++;
+            if (solicitarTraslado) {
+                if (flota.intentarTraslado(getDni())) solicitudAtendida();
+                else pendientesTraslado.add(this);
+            } else {
+                if (flota.intentarAtencionDomicilio(getDni())) solicitudAtendida();
+                else pendientesDomicilio.add(this);
+            }
+        }
+
+        void solicitudAtendida() {
+            metricas.registrarEspera(tipoEnCurso, reloj - instanteSolicitud);
+            ordenDeAtencion.add(ordenLlegada);
+            realizadas++;
+            solicitudesAtendidas++;
+            programarProximaSolicitud();
+        }
+    }
+
+    /**
+     * Evento de la cola: instante virtual, número de secuencia y acción.
+     */
+    private static class Evento implements Comparable<Evento> {
+        private final long tiempo;
+        private final long secuencia;
+        private final Runnable accion;
+
+        Evento(long tiempo, long secuencia, Runnable accion) {
+            this.tiempo = tiempo;
+            this.secuencia = secuencia;
+            this.accion = accion;
+        }
+
+        @Override
+        public int compareTo(Evento otro) {
+            int porTiempo = Long.compare(tiempo, otro.tiempo);
+            return porTiempo != 0 ? porTiempo : Long.compare(secuencia, otro.secuencia);
+        }
+    }
+}
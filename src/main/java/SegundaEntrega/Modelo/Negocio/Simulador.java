@@ -6,31 +6,77 @@ import SegundaEntrega.Modelo.Datos.Personas.Asociado;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Orquesta la simulación concurrente de solicitudes a la ambulancia.
+ * Orquesta la simulación concurrente de solicitudes a la flota de ambulancias.
  */
 public class Simulador {
 
-    private final Ambulancia ambulancia;
+    private final Flota flota;
     private final GestorAsociados gestorAsociados; // Para obtener la lista de asociados
     //private final Operario operario; // El operario que solicita mantenimiento, lo comento para hacer por demanda
     private ExecutorService executorService; // Gestiona los hilos
     private volatile boolean simulacionActiva = false; // Controla si la simulación está corriendo
+    private ModoEjecucion modoEjecucion = ModoEjecucion.POOL_FIJO; // Cómo se crean los hilos de las tareas
+    private Long semilla = null; // Semilla maestra de la próxima corrida (null = aleatoria)
+    private volatile MetricasSimulacion metricas; // Métricas de la última corrida en vivo
 
     /**
      * Constructor.
-     * @param ambulancia La instancia compartida de la ambulancia.
+     * @param flota La flota compartida que despacha las solicitudes.
      * @param gestorAsociados El gestor para obtener los asociados.
      */
-    public Simulador(Ambulancia ambulancia, GestorAsociados gestorAsociados) {
-        this.ambulancia = ambulancia;
+    public Simulador(Flota flota, GestorAsociados gestorAsociados) {
+        this.flota = flota;
         this.gestorAsociados = gestorAsociados;
     //    this.operario = operario; lo saco, para hacer por demadna
     }
 
+    /**
+     * Define cómo se ejecutarán las tareas en la próxima simulación.
+     * @param modoEjecucion POOL_FIJO (un hilo de plataforma por asociado) o HILOS_VIRTUALES.
+     */
+    public synchronized void setModoEjecucion(ModoEjecucion modoEjecucion) {
+        if (modoEjecucion != null) {
+            this.modoEjecucion = modoEjecucion;
+        }
+    }
+
+    /**
+     * @return El modo de ejecución configurado.
+     */
+    public synchronized ModoEjecucion getModoEjecucion() {
+        return modoEjecucion;
+    }
+
+    /**
+     * Fija la semilla maestra de las próximas corridas para poder repetirlas.
+     * @param semilla La semilla, o null para elegir una al azar en cada corrida.
+     */
+    public synchronized void setSemilla(Long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * @return La semilla configurada, o null si es aleatoria.
+     */
+    public synchronized Long getSemilla() {
+        return semilla;
+    }
+
+    /**
+     * Crea la configuración de una corrida a partir de la semilla fijada (o una al azar).
+     * @return La configuración, cuya semilla se informa para poder repetir la corrida.
+     */
+    private synchronized ConfiguracionSimulacion crearConfiguracion() {
+        ConfiguracionSimulacion configuracion = (semilla != null)
+                ? new ConfiguracionSimulacion(semilla)
+                : ConfiguracionSimulacion.conSemillaAleatoria();
+        System.out.println("Semilla: " + configuracion.getSemilla());
+        return configuracion;
+    }
+
     /**
      * Inicia la simulación creando y ejecutando los hilos para asociados y operario.
      * @param cantSolicitudesPorAsociado Número de solicitudes que hará cada asociado.
@@ -47,6 +93,7 @@ public class Simulador {
 
         System.out.println("\n--- INICIANDO SIMULACION ---");
         System.out.println("Solicitudes por asociado: " + cantSolicitudesPorAsociado);
+        System.out.println("Modo de ejecución: " + modoEjecucion);
 
         List<Asociado> asociados = gestorAsociados.getListadoAsociados();
         if (asociados.isEmpty()) {
@@ -55,13 +102,21 @@ public class Simulador {
         }
 
         // Usar un ExecutorService es más moderno y manejable que crear Threads directamente
-        // Se crea un pool con un hilo por asociado + 1 para el operario
-        executorService = Executors.newFixedThreadPool(asociados.size()); //saque el +1 porque reservaba un hilo para el operario
+        // POOL_FIJO: un hilo por asociado (saque el +1 porque reservaba un hilo para el operario)
+        // HILOS_VIRTUALES: un hilo virtual por tarea, sin límite práctico de asociados
+        executorService = modoEjecucion.crearExecutor(asociados.size());
         simulacionActiva = true;
 
+        // Cada asociado y cada unidad sortea con su propio flujo derivado de la semilla
+        ConfiguracionSimulacion configuracion = crearConfiguracion();
+        flota.aplicarConfiguracion(configuracion);
+        metricas = new MetricasSimulacion(flota);
+        flota.setMetricas(metricas);
+
         // Crear y lanzar hilos (tareas) para cada asociado
         for (Asociado a : asociados) {
-            AsociadoRunnable tareaAsociado = new AsociadoRunnable(a, ambulancia, cantSolicitudesPorAsociado);
+            AsociadoRunnable tareaAsociado = new AsociadoRunnable(a, flota, cantSolicitudesPorAsociado,
+                    configuracion.siguienteGeneradorAsociado());
             executorService.submit(tareaAsociado);
             System.out.println("SIMULADOR: Iniciando tarea para asociado " + a.getNombreCompleto());
         }
@@ -79,6 +134,30 @@ public class Simulador {
         // pero el enunciado pide finalización manual o por completar tareas.
     }
 
+    /**
+     * Ejecuta una simulación rápida por eventos discretos con reloj virtual.
+     * Usa una flota propia del mismo tamaño, así no interfiere con la simulación en vivo.
+     * Con la misma semilla y el mismo padrón produce el mismo registro de transiciones.
+     * @param cantSolicitudesPorAsociado Número de solicitudes que hará cada asociado.
+     * @return El resumen de la corrida, o null si no hay asociados o la cantidad es inválida.
+     */
+    public ResultadoSimulacionDiscreta simularConRelojVirtual(int cantSolicitudesPorAsociado) {
+        if (cantSolicitudesPorAsociado <= 0) {
+            System.out.println("SIMULADOR: Cantidad de solicitudes debe ser mayor a 0.");
+            return null;
+        }
+        List<Asociado> asociados = gestorAsociados.getListadoAsociados();
+        if (asociados.isEmpty()) {
+            System.out.println("SIMULADOR: No hay asociados para iniciar la simulación.");
+            return null;
+        }
+        System.out.println("\n--- SIMULACION DISCRETA (reloj virtual) ---");
+        SimulacionDiscreta simulacion = new SimulacionDiscreta(flota.getCantidadUnidades(), crearConfiguracion());
+        ResultadoSimulacionDiscreta resultado = simulacion.ejecutar(asociados, cantSolicitudesPorAsociado);
+        System.out.println("SIMULADOR: " + resultado);
+        return resultado;
+    }
+
     /**
      * Intenta finalizar la simulación de forma ordenada.
      * Pide a los hilos que terminen y espera un tiempo prudencial.
@@ -112,11 +191,22 @@ public class Simulador {
             Thread.currentThread().interrupt(); // Restablece el estado de interrupción
         }
 
+        flota.setMetricas(null);
+        metricas.finalizar();
+        System.out.println(metricas.generarReporte());
         System.out.println("--- SIMULACION FINALIZADA ---");
         // Resetear el executor para posible reinicio (o manejar estado de finalización)
         executorService = null;
     }
 
+    /**
+     * Devuelve las métricas de la corrida en vivo actual o de la última finalizada.
+     * @return Las métricas, o null si nunca se inició una simulación.
+     */
+    public MetricasSimulacion getMetricas() {
+        return metricas;
+    }
+
     /**
      * Verifica si la simulación está actualmente activa.
      * Usado por los Runnables para saber si deben continuar.
@@ -129,8 +219,8 @@ public class Simulador {
     /**
      * Procesa una solicitud de mantenimiento proveniente "por demanda"
      * La solicitud se envía al pool de hilos (ExecutorService) para no bloquear
-     * la interfaz de usuario , ya que la ambulancia podría estar ocupada
-     * y el método solicitarMantenimiento() puede entrar en espera (wait).
+     * la interfaz de usuario , ya que todas las ambulancias podrían estar ocupadas
+     * y el método solicitarMantenimiento() de la flota puede entrar en espera (wait).
      *
      * @param solicitante El identificador del solicitante
      */
@@ -141,7 +231,7 @@ public class Simulador {
             // Enviamos la tarea (que puede bloquearse) a un hilo del pool
             executorService.submit(() -> {
                 System.out.println("--> Tarea (Demanda) " + solicitante + " ejecutando solicitarMantenimiento...");
-                ambulancia.solicitarMantenimiento(solicitante);
+                flota.solicitarMantenimiento(solicitante);
                 System.out.println("<-- Tarea (Demanda) " + solicitante + " finalizó solicitarMantenimiento.");
             });
 
@@ -0,0 +1,22 @@
+package SegundaEntrega.Modelo.Negocio;
+
+/**
+ * Tipos de solicitud que despacha la Flota.
+ */
+public enum TipoSolicitud {
+
+    TRASLADO("TRASLADO"),
+    ATENCION_DOMICILIO("ATENCION A DOMICILIO"),
+    MANTENIMIENTO("MANTENIMIENTO");
+
+    private final String descripcion;
+
+    TipoSolicitud(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
@@ -1,12 +1,10 @@
 package SegundaEntrega.Patrones.PatronState;
 
 import SegundaEntrega.Modelo.Negocio.Ambulancia;
-import java.util.Random;
 
 public class EstadoEnTaller implements IEstadoAmbulancia {
 
     private final Ambulancia ambulancia;
-    private final Random random = new Random();
 
     public EstadoEnTaller(Ambulancia ambulancia) {
         this.ambulancia = ambulancia;
@@ -14,22 +12,16 @@ public class EstadoEnTaller implements IEstadoAmbulancia {
     }
 
     /**
-     * Inicia un nuevo hilo (timer) para simular la duración de la
-     * atención a domicilio. Cuando termina, llama a retornarAClinica()
-     * para transicionar al siguiente estado.
+     * Programa en el temporizador compartido la duración del
+     * mantenimiento. Cuando vence, el propio taller pide el fin del
+     * mantenimiento para transicionar al siguiente estado.
      */
     private void simularTiempoDeAtencion() {
         System.out.println("   ... Ambulancia ocupada en taller (simulando tiempo)...");
-        new Thread(() -> {
-            try {
-                Thread.sleep(random.nextInt(3000) + 2000);
-                System.out.println("   ... Mantenimiento finalizado.");
-                ambulancia.solicitarMantenimiento("Taller(Fin tarea)");
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("WARN: Hilo de simulación de atención interrumpido.");
-            }
-        }).start();
+        ambulancia.programarFinDeEstado(this, ambulancia.sortearEntero(3000) + 2000, () -> {
+            System.out.println("   ... Mantenimiento finalizado.");
+            ambulancia.solicitarMantenimiento("Taller(Fin tarea)"); // En este estado no espera
+        });
     }
 
     @Override
@@ -1,12 +1,10 @@
 package SegundaEntrega.Patrones.PatronState;
 
 import SegundaEntrega.Modelo.Negocio.Ambulancia;
-import java.util.Random;
 
 public class EstadoRegresandoDelTaller implements IEstadoAmbulancia {
 
     private final Ambulancia ambulancia;
-    private final Random random = new Random();
 
     public EstadoRegresandoDelTaller(Ambulancia ambulancia) {
         this.ambulancia = ambulancia;
@@ -14,28 +12,15 @@ public class EstadoRegresandoDelTaller implements IEstadoAmbulancia {
     }
 
     /**
-     * Inicia un nuevo hilo (timer) para simular la duración de la
-     * atención a domicilio. Cuando termina, llama a retornarAClinica()
-     * para transicionar al siguiente estado.
-     */
-    // Archivo: EstadoRegresandoDelTaller.java
-
-    /**
-     * Simula el tiempo de viaje de regreso desde el taller.
-     * Cuando termina, llama a retornarAClinica() para pasar a Disponible.
+     * Simula el tiempo de viaje de regreso desde el taller con el temporizador compartido.
+     * Cuando vence, llama a retornarAClinica() para pasar a Disponible.
      */
     private void simularTiempoDeAtencion() {
         System.out.println("   ... Ambulancia REGRESANDO DE TALLER (simulando tiempo)..."); // <-- Mensaje corregido
-        new Thread(() -> {
-            try {
-                Thread.sleep(random.nextInt(3000) + 2000); // Simular viaje
-                System.out.println("   ... Ambulancia LLEGÓ a la clínica desde el taller."); // <-- Mensaje corregido
-                ambulancia.retornarAClinica(); // Transiciona a Estado 1 (Disponible)
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("WARN: Hilo de simulación de regreso de taller interrumpido.");
-            }
-        }).start();
+        ambulancia.programarFinDeEstado(this, ambulancia.sortearEntero(3000) + 2000, () -> { // Simular viaje
+            System.out.println("   ... Ambulancia LLEGÓ a la clínica desde el taller."); // <-- Mensaje corregido
+            ambulancia.retornarAClinica(); // Transiciona a Estado 1 (Disponible)
+        });
     }
 
     @Override
@@ -1,7 +1,6 @@
 package SegundaEntrega.Patrones.PatronState;
 
 import SegundaEntrega.Modelo.Negocio.Ambulancia;
-import java.util.Random;
 
 /**
  * Estado que representa a la ambulancia mientras traslada un paciente a la clínica.
@@ -10,7 +9,6 @@ import java.util.Random;
 public class EstadoTrasladandoPaciente implements IEstadoAmbulancia {
 
     private final Ambulancia ambulancia; // Referencia al contexto (la ambulancia)
-    private final Random random = new Random();
 
     /**
      * Constructor. Asocia este estado con el contexto (ambulancia).
@@ -22,22 +20,16 @@ public class EstadoTrasladandoPaciente implements IEstadoAmbulancia {
     }
 
     /**
-     * Inicia un nuevo hilo (timer) para simular la duración de la
-     * atención a domicilio. Cuando termina, llama a retornarAClinica()
-     * para transicionar al siguiente estado.
+     * Programa en el temporizador compartido la duración del viaje.
+     * Cuando vence, llama a retornarAClinica() para transicionar
+     * al siguiente estado.
      */
     private void simularTiempoDeAtencion() {
         System.out.println("   ... Ambulancia ocupada en domicilio (simulando tiempo)...");
-        new Thread(() -> {
-            try {
-                Thread.sleep(random.nextInt(3000) + 2000);
-                System.out.println("   ... Atención a domicilio finalizada.");
-                ambulancia.retornarAClinica();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                System.err.println("WARN: Hilo de simulación de atención interrumpido.");
-            }
-        }).start();
+        ambulancia.programarFinDeEstado(this, ambulancia.sortearEntero(3000) + 2000, () -> {
+            System.out.println("   ... Atención a domicilio finalizada.");
+            ambulancia.retornarAClinica();
+        });
     }
 
     @Override
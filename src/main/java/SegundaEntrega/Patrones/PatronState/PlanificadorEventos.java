@@ -0,0 +1,22 @@
+package SegundaEntrega.Patrones.PatronState;
+
+/**
+ * Abstracción del reloj con el que los estados programan su finalización.
+ * Permite correr la misma máquina de estados en tiempo real (TemporizadorEstados)
+ * o con un reloj virtual (SimulacionDiscreta).
+ */
+public interface PlanificadorEventos {
+
+    /**
+     * Programa una tarea para que se ejecute una vez pasada la demora.
+     * @param tarea La acción a ejecutar.
+     * @param demoraMs Demora en milisegundos (reales o virtuales según la implementación).
+     */
+    void programar(Runnable tarea, long demoraMs);
+
+    /**
+     * Devuelve la hora actual del reloj de este planificador.
+     * @return Milisegundos desde un origen arbitrario (solo sirve para medir intervalos).
+     */
+    long ahoraMillis();
+}
@@ -0,0 +1,74 @@
+package SegundaEntrega.Patrones.PatronState;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Temporizador compartido por todos los estados de todas las ambulancias (Singleton).
+ * Reemplaza el "un hilo nuevo con Thread.sleep por cada transición": las esperas
+ * quedan como tareas programadas en un único ScheduledExecutorService, así miles de
+ * transiciones simultáneas no cuestan hilos adicionales.
+ * Es el planificador de tiempo real; la simulación por eventos discretos usa otro.
+ */
+public final class TemporizadorEstados implements PlanificadorEventos {
+
+    private static final int HILOS = 2; // Las tareas solo disparan una transición, son cortas
+
+    private static TemporizadorEstados instancia;
+
+    private final ScheduledExecutorService planificador;
+
+    /**
+     * Constructor privado. Crea el planificador con hilos daemon para no
+     * impedir que la aplicación termine.
+     */
+    private TemporizadorEstados() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "temporizador-estados-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.planificador = Executors.newScheduledThreadPool(HILOS, fabrica);
+    }
+
+    /**
+     * Obtiene la instancia única (Singleton).
+     * @return El temporizador compartido.
+     */
+    public static synchronized TemporizadorEstados getInstance() {
+        if (instancia == null) {
+            instancia = new TemporizadorEstados();
+        }
+        return instancia;
+    }
+
+    /**
+     * Programa una tarea para que se ejecute una vez pasada la demora.
+     * @param tarea La acción a ejecutar (ej: retornar a la clínica).
+     * @param demoraMs Demora en milisegundos.
+     */
+    @Override
+    public void programar(Runnable tarea, long demoraMs) {
+        planificador.schedule(() -> {
+            try {
+                tarea.run();
+            } catch (RuntimeException e) {
+                // Una excepción no debe matar el hilo compartido
+                System.err.println("WARN: Error en tarea del temporizador de estados: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, demoraMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return Milisegundos de un reloj monotónico (System.nanoTime()).
+     */
+    @Override
+    public long ahoraMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+}
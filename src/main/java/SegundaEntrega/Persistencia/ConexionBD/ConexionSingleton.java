@@ -1,33 +1,59 @@
 package SegundaEntrega.Persistencia.ConexionBD;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Gestiona la conexión a la base de datos utilizando el patrón Singleton
- * para asegurar una única instancia y punto de acceso a la conexión.
+ * Gestiona el acceso a la base de datos utilizando el patrón Singleton
+ * para asegurar una única instancia y punto de acceso.
+ * Detrás de getConnection() hay un pool acotado de conexiones: cada llamada presta
+ * una conexión propia, que debe cerrarse para devolverla al pool.
+ *
+ * Los datos de conexión pueden sobreescribirse con propiedades del sistema
+ * (clinica.db.url, clinica.db.usuario, clinica.db.password, clinica.db.pool.maximo,
+ * clinica.db.pool.sentencias),
+ * por ejemplo para correr los tests contra una base embebida.
  */
 public class ConexionSingleton {
 
     private static ConexionSingleton instancia; // La única instancia
-    private Connection connection; // La conexión JDBC
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/grupo_2?allowPublicKeyRetrieval=true&useSSL=false";
+    private final PoolConexiones pool; // Las conexiones JDBC
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/grupo_2?allowPublicKeyRetrieval=true&useSSL=false&rewriteBatchedStatements=true&useCursorFetch=true"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=64";
     private static final String DB_USER = "progra_c";
     private static final String DB_PASSWORD = "progra_c";
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    private static final int POOL_MAXIMO = 8;                        // EDT, carga inicial y simulación no se bloquean entre sí
+    private static final long POOL_TIMEOUT_PRESTAMO_MS = 5_000;
+    private static final long POOL_INACTIVIDAD_MAXIMA_MS = 5 * 60_000;
+    private static final long POOL_VIDA_MAXIMA_MS = 30 * 60_000;     // Menor que el wait_timeout por defecto de MySQL
+
 
     /**
      * Constructor privado para prevenir instanciación externa.
-     * Intenta establecer la conexión al crear la instancia.
+     * Crea el pool y abre una primera conexión para detectar enseguida un error de configuración.
      * @throws SQLException Si ocurre un error al conectar con la base de datos.
      */
     private ConexionSingleton() throws SQLException {
+        String url = System.getProperty("clinica.db.url", DB_URL);
         try {
-            Class.forName(DB_DRIVER);
-            this.connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("Conexión a la base de datos establecida."); // Log
+            if (url.startsWith("jdbc:mysql:")) {
+                Class.forName(DB_DRIVER);
+            }
+            this.pool = new PoolConexiones(url,
+                    System.getProperty("clinica.db.usuario", DB_USER),
+                    System.getProperty("clinica.db.password", DB_PASSWORD),
+                    Integer.getInteger("clinica.db.pool.maximo", POOL_MAXIMO),
+                    POOL_TIMEOUT_PRESTAMO_MS, POOL_INACTIVIDAD_MAXIMA_MS, POOL_VIDA_MAXIMA_MS,
+                    Integer.getInteger("clinica.db.pool.sentencias", PoolConexiones.TAMANIO_CACHE_SENTENCIAS));
+            try {
+                pool.obtenerConexion().close(); // Solo para probar la configuración; vuelve al pool
+                System.out.println("Conexión a la base de datos establecida."); // Log
+            } catch (SQLException e) {
+                pool.cerrar();
+                throw e;
+            }
         } catch (ClassNotFoundException e) {
             System.err.println("Error: Driver JDBC no encontrado.");
             throw new SQLException("Driver no encontrado", e);
@@ -51,28 +77,43 @@ public class ConexionSingleton {
     }
 
     /**
-     * Devuelve la conexión JDBC activa.
+     * Cierra el pool solo si ya se había creado (la conexión se abre recién al primer uso,
+     * así que puede no haberse abierto nunca).
+     */
+    public static synchronized void cerrarSiEstaAbierta() {
+        if (instancia != null) {
+            instancia.closeConnection();
+        }
+    }
+
+    /**
+     * Presta una conexión del pool. Debe cerrarse al terminar (close() la devuelve al pool).
      * @return Connection.
+     * @throws SQLException Si se agotó la espera de préstamo o no se pudo abrir una conexión.
      */
-    public Connection getConnection() {
-        // Podríamos añadir verificación de si está cerrada y reabrirla si es necesario
-        return connection;
+    public Connection getConnection() throws SQLException {
+        return pool.obtenerConexion();
     }
 
     /**
-     * Cierra la conexión a la base de datos.
+     * @return El pool, para consultar sus métricas.
+     */
+    public PoolConexiones getPool() {
+        return pool;
+    }
+
+    /**
+     * Cierra el pool y todas sus conexiones.
      *
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Conexión a la base de datos cerrada.");
+        synchronized (ConexionSingleton.class) {
+            System.out.println(pool.getResumenMetricas());
+            pool.cerrar();
+            System.out.println("Conexión a la base de datos cerrada.");
+            if (instancia == this) {
+                instancia = null; // Permitir recrear la instancia si se vuelve a pedir
             }
-        } catch (SQLException e) {
-            System.err.println("Error al cerrar la conexión: " + e.getMessage());
-        } finally {
-            instancia = null; // Permitir recrear la instancia si se vuelve a pedir
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,620 @@
+package SegundaEntrega.Persistencia.ConexionBD;
+
+import SegundaEntrega.Modelo.Negocio.HistogramaLatencias;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Cada préstamo devuelve un envoltorio de la conexión física cuyo close() la devuelve
+ * al pool en lugar de cerrarla. Al prestar se descartan las conexiones que superaron
+ * su vida máxima o que no pasan la validación (isValid); un hilo daemon desaloja
+ * periódicamente las que quedaron inactivas demasiado tiempo. Si el pool está lleno,
+ * el pedido espera hasta el timeout de préstamo y luego falla con SQLTimeoutException.
+ *
+ * Cada conexión física guarda además sus últimas sentencias preparadas (LRU, por texto SQL):
+ * prepareStatement(sql) devuelve una ya preparada si la hay, y su close() la deja lista para
+ * el próximo uso en lugar de cerrarla. Así el servidor no vuelve a analizar las mismas
+ * sentencias del DAO en cada llamada.
+ */
+public class PoolConexiones {
+
+    /** Sentencias por conexión: alcanza para todas las del DAO de asociados con margen. */
+    public static final int TAMANIO_CACHE_SENTENCIAS = 32;
+
+    private final String url;
+    private final String usuario;
+    private final String password;
+    private final int tamanioMaximo;
+    private final long timeoutPrestamoMs;
+    private final long inactividadMaximaMs;
+    private final long vidaMaximaMs;
+    private final int timeoutValidacionSeg;
+    private final int tamanioCacheSentencias; // Por conexión física; 0 = sin caché
+
+    // --- Estado, protegido por el lock ---
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayDisponible = lock.newCondition();
+    private final Deque<ConexionFisica> inactivas = new ArrayDeque<>(); // LIFO: la más reciente primero
+    private int abiertas = 0; // Prestadas + inactivas + en creación
+    private boolean cerrado = false;
+
+    private final ScheduledExecutorService limpieza;
+
+    // --- Métricas ---
+    private final AtomicLong prestamos = new AtomicLong();
+    private final AtomicLong timeoutsPrestamo = new AtomicLong();
+    private final AtomicLong creadas = new AtomicLong();
+    private final AtomicLong descartadasPorValidacion = new AtomicLong();
+    private final AtomicLong desalojadasPorInactividad = new AtomicLong();
+    private final AtomicLong retiradasPorVidaMaxima = new AtomicLong();
+    private final HistogramaLatencias esperaPrestamoMicros = new HistogramaLatencias();
+    private final AtomicLong sentenciasReutilizadas = new AtomicLong();
+    private final AtomicLong sentenciasPreparadas = new AtomicLong();
+
+    /**
+     * Constructor con el caché de sentencias por defecto (TAMANIO_CACHE_SENTENCIAS).
+     * No abre conexiones hasta el primer préstamo.
+     */
+    public PoolConexiones(String url, String usuario, String password, int tamanioMaximo,
+                          long timeoutPrestamoMs, long inactividadMaximaMs, long vidaMaximaMs) {
+        this(url, usuario, password, tamanioMaximo, timeoutPrestamoMs, inactividadMaximaMs, vidaMaximaMs,
+                TAMANIO_CACHE_SENTENCIAS);
+    }
+
+    /**
+     * Constructor. No abre conexiones hasta el primer préstamo.
+     * @param url URL JDBC.
+     * @param usuario Usuario de la base.
+     * @param password Contraseña.
+     * @param tamanioMaximo Cantidad máxima de conexiones físicas abiertas.
+     * @param timeoutPrestamoMs Cuánto puede esperar un préstamo con el pool lleno.
+     * @param inactividadMaximaMs Tiempo inactiva tras el cual una conexión se cierra.
+     * @param vidaMaximaMs Edad máxima de una conexión física (0 = sin límite).
+     * @param tamanioCacheSentencias Sentencias preparadas que guarda cada conexión (0 = sin caché).
+     */
+    public PoolConexiones(String url, String usuario, String password, int tamanioMaximo,
+                          long timeoutPrestamoMs, long inactividadMaximaMs, long vidaMaximaMs,
+                          int tamanioCacheSentencias) {
+        if (tamanioMaximo <= 0) {
+            throw new IllegalArgumentException("El pool debe admitir al menos una conexión.");
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.tamanioMaximo = tamanioMaximo;
+        this.timeoutPrestamoMs = timeoutPrestamoMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.vidaMaximaMs = vidaMaximaMs;
+        this.timeoutValidacionSeg = 2;
+        this.tamanioCacheSentencias = Math.max(0, tamanioCacheSentencias);
+
+        this.limpieza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-limpieza");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000, inactividadMaximaMs / 2);
+        limpieza.scheduleWithFixedDelay(this::desalojarInactivas, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión. Debe cerrarse (idealmente con try-with-resources) para devolverla.
+     * @return Un envoltorio de la conexión física.
+     * @throws SQLTimeoutException Si no se liberó ninguna conexión dentro del timeout de préstamo.
+     * @throws SQLException Si el pool está cerrado o no se puede abrir una conexión nueva.
+     */
+    public Connection obtenerConexion() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(timeoutPrestamoMs);
+        while (true) {
+            ConexionFisica candidata = null;
+            boolean crearNueva = false;
+            lock.lock();
+            try {
+                while (true) {
+                    if (cerrado) {
+                        throw new SQLException("El pool de conexiones está cerrado.");
+                    }
+                    candidata = inactivas.pollFirst();
+                    if (candidata != null) break;
+                    if (abiertas < tamanioMaximo) {
+                        abiertas++; // Reservamos el lugar; la conexión se abre fuera del lock
+                        crearNueva = true;
+                        break;
+                    }
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        timeoutsPrestamo.incrementAndGet();
+                        throw new SQLTimeoutException("Tiempo de espera agotado (" + timeoutPrestamoMs
+                                + " ms) para obtener una conexión del pool (" + tamanioMaximo + " en uso).");
+                    }
+                    try {
+                        hayDisponible.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (crearNueva) {
+                candidata = abrirConexionFisica();
+            } else if (!esUtilizable(candidata)) {
+                continue; // Se descartó; probar con otra
+            }
+            prestamos.incrementAndGet();
+            esperaPrestamoMicros.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio));
+            return candidata.prestar();
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones inactivas y marca el pool como cerrado.
+     * Las conexiones prestadas se cierran cuando sus dueños las devuelven.
+     */
+    public void cerrar() {
+        Deque<ConexionFisica> aCerrar = new ArrayDeque<>();
+        lock.lock();
+        try {
+            if (cerrado) return;
+            cerrado = true;
+            while (!inactivas.isEmpty()) {
+                aCerrar.add(inactivas.pollFirst());
+            }
+            hayDisponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        limpieza.shutdownNow();
+        // Igual que en el desalojo: un cierre de socket lento no debe frenar a quien pide conexiones
+        for (ConexionFisica conexion : aCerrar) {
+            cerrarFisica(conexion);
+        }
+    }
+
+    /**
+     * @return true si se llamó a cerrar().
+     */
+    public boolean isCerrado() {
+        lock.lock();
+        try {
+            return cerrado;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Métricas ---
+
+    public long getPrestamos() { return prestamos.get(); }
+    public long getTimeoutsPrestamo() { return timeoutsPrestamo.get(); }
+    public long getConexionesCreadas() { return creadas.get(); }
+    public long getDescartadasPorValidacion() { return descartadasPorValidacion.get(); }
+    public long getDesalojadasPorInactividad() { return desalojadasPorInactividad.get(); }
+    public long getRetiradasPorVidaMaxima() { return retiradasPorVidaMaxima.get(); }
+    public HistogramaLatencias getEsperaPrestamoMicros() { return esperaPrestamoMicros; }
+    public long getSentenciasReutilizadas() { return sentenciasReutilizadas.get(); }
+    public long getSentenciasPreparadas() { return sentenciasPreparadas.get(); }
+
+    /**
+     * @return Cantidad de conexiones físicas abiertas (prestadas o inactivas).
+     */
+    public int getConexionesAbiertas() {
+        lock.lock();
+        try {
+            return abiertas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Cantidad de conexiones inactivas listas para prestar.
+     */
+    public int getConexionesInactivas() {
+        lock.lock();
+        try {
+            return inactivas.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Resumen de una línea con las métricas del pool.
+     */
+    public String getResumenMetricas() {
+        return String.format("Pool: %d abiertas (%d inactivas) de %d, %d préstamos, espera p50=%d us p99=%d us, "
+                        + "%d timeouts, %d creadas, %d descartadas por validación, %d por inactividad, %d por vida máxima, "
+                        + "sentencias: %d reutilizadas, %d preparadas",
+                getConexionesAbiertas(), getConexionesInactivas(), tamanioMaximo, getPrestamos(),
+                esperaPrestamoMicros.getPercentil(50), esperaPrestamoMicros.getPercentil(99), getTimeoutsPrestamo(),
+                getConexionesCreadas(), getDescartadasPorValidacion(), getDesalojadasPorInactividad(),
+                getRetiradasPorVidaMaxima(), getSentenciasReutilizadas(), getSentenciasPreparadas());
+    }
+
+    // --- Internos ---
+
+    private ConexionFisica abrirConexionFisica() throws SQLException {
+        try {
+            Connection conexion = DriverManager.getConnection(url, usuario, password);
+            creadas.incrementAndGet();
+            return new ConexionFisica(conexion);
+        } catch (SQLException | RuntimeException e) {
+            liberarLugar();
+            throw e;
+        }
+    }
+
+    /**
+     * Verifica una conexión inactiva antes de prestarla; si no sirve la cierra y libera su lugar.
+     */
+    private boolean esUtilizable(ConexionFisica conexion) {
+        if (vencida(conexion)) {
+            retiradasPorVidaMaxima.incrementAndGet();
+            descartar(conexion);
+            return false;
+        }
+        boolean valida;
+        try {
+            valida = conexion.fisica.isValid(timeoutValidacionSeg);
+        } catch (SQLException e) {
+            valida = false;
+        }
+        if (!valida) {
+            descartadasPorValidacion.incrementAndGet();
+            System.err.println("WARN: Conexión del pool descartada por no pasar la validación.");
+            descartar(conexion);
+        }
+        return valida;
+    }
+
+    private boolean vencida(ConexionFisica conexion) {
+        return vidaMaximaMs > 0 && System.currentTimeMillis() - conexion.creadaEn >= vidaMaximaMs;
+    }
+
+    /** Recibe una conexión devuelta por su envoltorio. */
+    private void devolver(ConexionFisica conexion) {
+        boolean sirve = !vencida(conexion) && restaurar(conexion);
+        if (!sirve && vencida(conexion)) {
+            retiradasPorVidaMaxima.incrementAndGet();
+        }
+        lock.lock();
+        try {
+            if (sirve && !cerrado) {
+                conexion.inactivaDesde = System.currentTimeMillis();
+                inactivas.addFirst(conexion);
+                hayDisponible.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        descartar(conexion);
+    }
+
+    /**
+     * Deja la conexión como la recibiría un préstamo nuevo (autocommit activo, sin transacción abierta).
+     * @return false si la conexión quedó inutilizable.
+     */
+    private boolean restaurar(ConexionFisica conexion) {
+        conexion.liberarSentenciasPrestadas(); // Las que el préstamo no cerró vuelven al caché
+        try {
+            if (conexion.fisica.isClosed()) {
+                return false;
+            }
+            if (!conexion.fisica.getAutoCommit()) {
+                conexion.fisica.rollback(); // Lo que no se confirmó no debe filtrarse al próximo préstamo
+                conexion.fisica.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("WARN: No se pudo restaurar una conexión devuelta al pool: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Tarea periódica: cierra las conexiones inactivas de más o vencidas. */
+    private void desalojarInactivas() {
+        long ahora = System.currentTimeMillis();
+        Deque<ConexionFisica> aCerrar = new ArrayDeque<>();
+        lock.lock();
+        try {
+            Iterator<ConexionFisica> it = inactivas.iterator();
+            while (it.hasNext()) {
+                ConexionFisica conexion = it.next();
+                boolean inactivaDeMas = ahora - conexion.inactivaDesde >= inactividadMaximaMs;
+                if (inactivaDeMas || vencida(conexion)) {
+                    it.remove();
+                    abiertas--;
+                    aCerrar.add(conexion);
+                    if (inactivaDeMas) desalojadasPorInactividad.incrementAndGet();
+                    else retiradasPorVidaMaxima.incrementAndGet();
+                }
+            }
+            if (!aCerrar.isEmpty()) hayDisponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (ConexionFisica conexion : aCerrar) {
+            cerrarFisica(conexion);
+        }
+    }
+
+    private void descartar(ConexionFisica conexion) {
+        cerrarFisica(conexion);
+        liberarLugar();
+    }
+
+    private void liberarLugar() {
+        lock.lock();
+        try {
+            abiertas--;
+            hayDisponible.signal(); // Quien espera ahora puede abrir una conexión nueva
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void cerrarFisica(ConexionFisica conexion) {
+        conexion.cerrarSentencias();
+        try {
+            conexion.fisica.close();
+        } catch (SQLException e) {
+            System.err.println("WARN: Error al cerrar una conexión del pool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conexión física junto con sus marcas de tiempo y su caché de sentencias.
+     * La usa un solo préstamo a la vez, así que el caché no necesita lock propio.
+     */
+    private final class ConexionFisica {
+        private final Connection fisica;
+        private final long creadaEn = System.currentTimeMillis();
+        private long inactivaDesde;
+        private final LinkedHashMap<String, SentenciaCacheada> sentencias =
+                new LinkedHashMap<>(16, 0.75f, true) { // Orden de acceso: LRU
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, SentenciaCacheada> mayor) {
+                        if (size() <= tamanioCacheSentencias) {
+                            return false;
+                        }
+                        mayor.getValue().desalojar();
+                        return true;
+                    }
+                };
+        // Sentencias del caché entregadas en el préstamo actual y todavía no cerradas
+        private final Set<SentenciaPrestada> prestadas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        ConexionFisica(Connection fisica) {
+            this.fisica = fisica;
+        }
+
+        /**
+         * Devuelve la sentencia cacheada para este SQL, o la prepara y la guarda.
+         * Si la cacheada está en uso (dos sentencias iguales abiertas a la vez), prepara una aparte.
+         */
+        PreparedStatement preparar(String sql, Connection envoltorio) throws SQLException {
+            if (tamanioCacheSentencias == 0) {
+                return fisica.prepareStatement(sql);
+            }
+            SentenciaCacheada cacheada = sentencias.get(sql);
+            if (cacheada != null && !cacheada.enUso) {
+                sentenciasReutilizadas.incrementAndGet();
+            } else if (cacheada != null) {
+                return fisica.prepareStatement(sql);
+            } else {
+                sentenciasPreparadas.incrementAndGet();
+                cacheada = new SentenciaCacheada(fisica.prepareStatement(sql));
+                sentencias.put(sql, cacheada);
+            }
+            cacheada.enUso = true;
+            SentenciaPrestada prestada = new SentenciaPrestada(cacheada, sql, envoltorio, prestadas);
+            prestadas.add(prestada);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, prestada);
+        }
+
+        /**
+         * Cierra las sentencias que el préstamo dejó abiertas, como al cerrar una conexión
+         * común. Si no, su lugar en el caché quedaría en uso mientras viva la conexión física.
+         */
+        void liberarSentenciasPrestadas() {
+            for (SentenciaPrestada prestada : prestadas.toArray(new SentenciaPrestada[0])) {
+                prestada.cerrar();
+            }
+            prestadas.clear();
+        }
+
+        void cerrarSentencias() {
+            for (SentenciaCacheada cacheada : sentencias.values()) {
+                cacheada.desalojar();
+            }
+            sentencias.clear();
+        }
+
+        /** Crea un envoltorio nuevo para este préstamo. */
+        Connection prestar() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Prestamo(this));
+        }
+    }
+
+    /**
+     * Envoltorio de un préstamo: close() devuelve la conexión al pool una sola vez;
+     * después de eso cualquier otra llamada falla como en una conexión cerrada.
+     */
+    private final class Prestamo implements InvocationHandler {
+        private ConexionFisica conexion;
+
+        Prestamo(ConexionFisica conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    if (conexion != null) {
+                        ConexionFisica devuelta = conexion;
+                        conexion = null;
+                        devolver(devuelta);
+                    }
+                    return null;
+                case "isClosed":
+                    return conexion == null || conexion.fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Conexión del pool" + (conexion == null ? " (devuelta)" : "");
+                case "prepareStatement":
+                    if (conexion != null && args.length == 1) { // Solo la forma simple; el resto pasa directo
+                        return conexion.preparar((String) args[0], (Connection) proxy);
+                    }
+                    return delegar(metodo, args);
+                default:
+                    return delegar(metodo, args);
+            }
+        }
+
+        /** Pasa la llamada a la conexión física prestada. */
+        private Object delegar(Method metodo, Object[] args) throws Throwable {
+            if (conexion == null) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+            try {
+                return metodo.invoke(conexion.fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Sentencia preparada guardada en el caché de una conexión física.
+     */
+    private static final class SentenciaCacheada {
+        private final PreparedStatement fisica;
+        private boolean enUso;
+        private boolean desalojada; // Salió del caché: se cierra al terminar de usarse
+
+        SentenciaCacheada(PreparedStatement fisica) {
+            this.fisica = fisica;
+        }
+
+        void desalojar() {
+            desalojada = true;
+            if (!enUso) {
+                cerrarSentencia(fisica);
+            }
+        }
+
+        /** Fin de un uso: la deja limpia para el próximo, o la cierra si ya no está en el caché. */
+        void liberar() {
+            enUso = false;
+            if (!desalojada) {
+                try {
+                    fisica.clearParameters();
+                    fisica.clearBatch();
+                    return;
+                } catch (SQLException e) {
+                    System.err.println("WARN: No se pudo limpiar una sentencia cacheada: " + e.getMessage());
+                    desalojada = true; // Se cierra; el próximo uso la vuelve a preparar
+                }
+            }
+            cerrarSentencia(fisica);
+        }
+
+        private static void cerrarSentencia(PreparedStatement sentencia) {
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                System.err.println("WARN: Error al cerrar una sentencia cacheada: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Envoltorio de una sentencia cacheada mientras se usa: close() la devuelve al caché
+     * una sola vez; después cualquier otra llamada falla como en una sentencia cerrada.
+     */
+    private static final class SentenciaPrestada implements InvocationHandler {
+        private final SentenciaCacheada cacheada;
+        private final String sql;
+        private final Connection conexion;
+        private final Set<SentenciaPrestada> prestadas;
+        private boolean cerrada;
+
+        SentenciaPrestada(SentenciaCacheada cacheada, String sql, Connection conexion, Set<SentenciaPrestada> prestadas) {
+            this.cacheada = cacheada;
+            this.sql = sql;
+            this.conexion = conexion;
+            this.prestadas = prestadas;
+        }
+
+        /** Devuelve la sentencia al caché una sola vez. */
+        synchronized void cerrar() {
+            if (!cerrada) {
+                cerrada = true;
+                prestadas.remove(this);
+                cacheada.liberar();
+            }
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "close":
+                    cerrar();
+                    return null;
+                case "isClosed":
+                    return cerrada || cacheada.fisica.isClosed();
+                case "getConnection":
+                    return conexion; // El envoltorio del préstamo, no la conexión física
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Sentencia cacheada: " + sql + (cerrada ? " (devuelta)" : "");
+                default:
+                    if (cerrada) {
+                        throw new SQLException("La sentencia ya fue cerrada.");
+                    }
+                    try {
+                        return metodo.invoke(cacheada.fisica, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,752 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Datos.Personas.InternadorTextos;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Implementación de IAsociadoDAO sobre un archivo local, sin servidor de base de datos.
+ *
+ * El archivo es un registro de solo agregado: cada escritura agrega al final registros
+ * GUARDAR (el asociado completo) o BORRAR (el DNI), cerrados por un registro CONFIRMAR.
+ * Cada registro lleva su largo y un CRC32. Con el primer uso se relee el archivo y se
+ * descarta lo que quedó después del último CONFIRMAR válido (una escritura cortada por
+ * un corte de luz), así que cada operación, y cada lote, se aplica entera o no se aplica.
+ * Solo se descarta una cola cortada: si después del registro dañado hay lotes
+ * confirmados, el archivo está dañado en el medio y no se abre, para no perderlos.
+ * El constructor solo abre el archivo: la lectura (segundos con un millón de asociados)
+ * se hace en el hilo que lo usa primero, no en el que crea el DAO.
+ *
+ * En memoria se guarda solo un índice: por DNI y en el orden del listado
+ * (apellido, nombre, dni), con la posición del último registro GUARDAR de cada asociado.
+ * Los datos se leen del archivo mapeado en memoria; lo escrito después del último mapeo
+ * se lee con lecturas posicionales hasta que conviene volver a mapear.
+ *
+ * Los registros reemplazados o borrados quedan como basura hasta la compactación, que
+ * reescribe solo lo vigente (en el orden del listado) en un archivo nuevo y lo reemplaza
+ * de una vez. Se hace sola cuando la basura supera a lo vigente, o con compactar().
+ *
+ * Límite: el archivo no puede superar 2 GB (un solo mapeo). Una escritura que lo
+ * superaría primero compacta y, si igual no entra, se rechaza con una DAOException sin
+ * tocar el archivo.
+ */
+public class AsociadoDAOArchivo implements IAsociadoDAO {
+
+    private static final byte GUARDAR = 1;
+    private static final byte BORRAR = 2;
+    private static final byte CONFIRMAR = 3;
+    private static final int CABECERA = 8; // largo (int) + CRC32 (int) antes de cada registro
+    private static final long COMPACTAR_DESDE_BYTES = 1L << 20; // Por debajo de 1 MB no vale la pena
+    private static final long REMAPEAR_DESDE_BYTES = 8L << 20; // Cola sin mapear tolerada
+    private static final int TAMANIO_BUFFER_COMPACTACION = 1 << 20;
+    private static final long LIMITE_BYTES = Integer.MAX_VALUE; // Lo que cubre un solo mapeo
+
+    private static final Comparator<Entrada> ORDEN_LISTADO = AsociadoDAOArchivo::comparar;
+
+    private final Path archivo;
+    private final boolean sincronizar;
+    private final long limiteBytes;
+
+    // --- Estado, protegido por el monitor del DAO ---
+    private FileChannel canal;
+    private MappedByteBuffer mapa; // Cubre [0, mapa.limit()); null si hay que volver a mapear
+    private long tamanio; // Bytes confirmados del archivo
+    private long bytesVigentes; // Bytes de los registros GUARDAR vigentes
+    private final Map<String, Entrada> porDni = new HashMap<>();
+    private final TreeSet<Entrada> enOrden = new TreeSet<>(ORDEN_LISTADO);
+    private long compactaciones = 0;
+    private boolean recuperado = false; // Si ya se leyó el archivo y se armó el índice
+
+    /**
+     * Abre (o crea) el archivo y sincroniza con el disco cada escritura. El archivo se lee
+     * con la primera operación.
+     * @param archivo Archivo de datos.
+     * @throws DAOException Si no se puede abrir el archivo.
+     */
+    public AsociadoDAOArchivo(Path archivo) throws DAOException {
+        this(archivo, true);
+    }
+
+    /**
+     * @param archivo Archivo de datos.
+     * @param sincronizar true para forzar cada escritura al disco (sobrevive a un corte de
+     *                    luz); false solo la entrega al sistema operativo (sobrevive a que
+     *                    se cierre la aplicación), mucho más rápido.
+     * @throws DAOException Si no se puede abrir el archivo.
+     */
+    public AsociadoDAOArchivo(Path archivo, boolean sincronizar) throws DAOException {
+        this(archivo, sincronizar, LIMITE_BYTES);
+    }
+
+    /** Constructor con el tamaño máximo del archivo configurable, para los tests. */
+    AsociadoDAOArchivo(Path archivo, boolean sincronizar, long limiteBytes) throws DAOException {
+        this.archivo = archivo;
+        this.sincronizar = sincronizar;
+        this.limiteBytes = limiteBytes;
+        try {
+            abrir();
+        } catch (IOException e) {
+            throw new DAOException("No se pudo abrir el archivo de asociados " + archivo, e);
+        }
+    }
+
+    /**
+     * Lee el archivo y arma el índice, si todavía no se hizo. Llamar con el monitor tomado
+     * al principio de cada operación.
+     * @throws DAOException Si no se puede leer el archivo.
+     */
+    private void asegurarRecuperado() throws DAOException {
+        if (recuperado) return;
+        try {
+            recuperar();
+        } catch (IOException e) {
+            throw new DAOException("No se pudo leer el archivo de asociados " + archivo, e);
+        }
+        recuperado = true;
+    }
+
+    @Override
+    public synchronized void guardar(Asociado asociado) throws DAOException {
+        asegurarRecuperado();
+        if (porDni.containsKey(asociado.getDni())) {
+            throw new DAOException("Error al guardar asociado con DNI: " + asociado.getDni() + " (ya existe)");
+        }
+        escribir(List.of(asociado), List.of());
+    }
+
+    @Override
+    public synchronized void eliminar(Asociado asociado) throws DAOException {
+        asegurarRecuperado();
+        if (!porDni.containsKey(asociado.getDni())) {
+            throw new DAOException("No se encontró asociado para eliminar con DNI: " + asociado.getDni());
+        }
+        escribir(List.of(), List.of(asociado.getDni()));
+    }
+
+    @Override
+    public synchronized void actualizar(Asociado asociado) throws DAOException {
+        asegurarRecuperado();
+        if (!porDni.containsKey(asociado.getDni())) {
+            throw new DAOException("No se encontró asociado para actualizar con DNI: " + asociado.getDni());
+        }
+        escribir(List.of(asociado), List.of());
+    }
+
+    @Override
+    public synchronized Optional<Asociado> buscarPorDNI(String dni) throws DAOException {
+        asegurarRecuperado();
+        Entrada entrada = porDni.get(dni);
+        return entrada == null ? Optional.empty() : Optional.of(leer(entrada));
+    }
+
+    @Override
+    public synchronized List<Asociado> listarTodos() throws DAOException {
+        asegurarRecuperado();
+        List<Asociado> asociados = new ArrayList<>(enOrden.size());
+        for (Entrada entrada : enOrden) {
+            asociados.add(leer(entrada));
+        }
+        return asociados;
+    }
+
+    @Override
+    public synchronized List<Asociado> listarPagina(Asociado despuesDe, int limite) throws DAOException {
+        asegurarRecuperado();
+        Iterator<Entrada> it = despuesDe == null
+                ? enOrden.iterator()
+                : enOrden.tailSet(new Entrada(despuesDe.getDni(), despuesDe.getApellido(), despuesDe.getNombre(), -1, 0), false).iterator();
+        List<Asociado> pagina = new ArrayList<>(Math.min(limite, enOrden.size()));
+        while (it.hasNext() && pagina.size() < limite) {
+            pagina.add(leer(it.next()));
+        }
+        return pagina;
+    }
+
+    /**
+     * Recorre por páginas de {@code tamanioFetch} con listarPagina: no bloquea el DAO
+     * durante todo el recorrido y ve las escrituras hechas mientras tanto.
+     */
+    @Override
+    public Stream<Asociado> recorrerTodos(int tamanioFetch) {
+        Iterator<Asociado> it = new Iterator<Asociado>() {
+            private List<Asociado> pagina = List.of();
+            private int indice = 0;
+            private boolean ultima = false;
+
+            @Override
+            public boolean hasNext() {
+                if (indice < pagina.size()) return true;
+                if (ultima) return false;
+                Asociado despuesDe = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1);
+                try {
+                    pagina = listarPagina(despuesDe, tamanioFetch);
+                } catch (DAOException e) {
+                    throw new DAORuntimeException(e);
+                }
+                indice = 0;
+                ultima = pagina.size() < tamanioFetch;
+                return !pagina.isEmpty();
+            }
+
+            @Override
+            public Asociado next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return pagina.get(indice++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public synchronized void guardarLote(Collection<Asociado> asociados) throws DAOException {
+        asegurarRecuperado();
+        if (asociados.isEmpty()) return;
+        Set<String> dnis = new HashSet<>();
+        for (Asociado asociado : asociados) {
+            if (porDni.containsKey(asociado.getDni()) || !dnis.add(asociado.getDni())) {
+                throw new DAOException("Error al guardar un lote de " + asociados.size()
+                        + " asociados: DNI duplicado " + asociado.getDni());
+            }
+        }
+        escribir(asociados, List.of());
+        System.out.println("DAO archivo: Lote 'guardar' de " + asociados.size() + " asociados confirmado.");
+    }
+
+    @Override
+    public synchronized void actualizarLote(Collection<Asociado> asociados) throws DAOException {
+        asegurarRecuperado();
+        List<Asociado> existentes = new ArrayList<>(asociados.size());
+        for (Asociado asociado : asociados) {
+            if (porDni.containsKey(asociado.getDni())) existentes.add(asociado);
+        }
+        escribir(existentes, List.of());
+        informarLote("actualizar", asociados.size(), existentes.size());
+    }
+
+    @Override
+    public synchronized void eliminarLote(Collection<Asociado> asociados) throws DAOException {
+        asegurarRecuperado();
+        List<String> existentes = new ArrayList<>(asociados.size());
+        for (Asociado asociado : asociados) {
+            if (porDni.containsKey(asociado.getDni())) existentes.add(asociado.getDni());
+        }
+        escribir(List.of(), existentes);
+        informarLote("eliminar", asociados.size(), existentes.size());
+    }
+
+    /**
+     * Vacía el archivo y deja los mismos datos de ejemplo que la versión JDBC.
+     */
+    @Override
+    public synchronized void inicializarTablaAsociados() throws DAOException {
+        try {
+            mapa = null;
+            canal.truncate(0);
+            tamanio = 0;
+            bytesVigentes = 0;
+            porDni.clear();
+            enOrden.clear();
+            recuperado = true; // Lo que tenía el archivo ya no importa
+        } catch (IOException e) {
+            throw new DAOException("Error al vaciar el archivo de asociados", e);
+        }
+        Asociado juan = new Asociado("Juan", "Perez", "12345678", "Calle Falsa 123", "2235001122", "Mar del Plata");
+        Asociado maria = new Asociado("Maria", "Gomez", "87654321", "Av. Siempre Viva 742", "2235112233", "Springfield");
+        escribir(List.of(juan, maria), List.of());
+        System.out.println("DAO archivo: Archivo de asociados inicializado con datos de ejemplo.");
+    }
+
+    /**
+     * Reescribe el archivo solo con los asociados vigentes.
+     * @throws DAOException Si falla la escritura; el archivo anterior queda intacto.
+     */
+    public synchronized void compactar() throws DAOException {
+        asegurarRecuperado();
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".compactando");
+        long[] posiciones = new long[enOrden.size()];
+        long escrito = 0;
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER_COMPACTACION);
+            int i = 0;
+            for (Entrada entrada : enOrden) {
+                ByteBuffer registro = leerBytes(entrada.posicion, entrada.largo); // Se copia tal cual, con su CRC
+                if (buffer.remaining() < registro.remaining()) {
+                    escribirCompleto(nuevo, buffer);
+                }
+                posiciones[i++] = escrito;
+                escrito += registro.remaining();
+                if (registro.remaining() > buffer.capacity()) {
+                    escribirCompleto(nuevo, registro);
+                } else {
+                    buffer.put(registro);
+                }
+            }
+            ByteArrayOutputStream registroConfirmar = new ByteArrayOutputStream(CABECERA + 1);
+            agregarRegistro(registroConfirmar, codificarConfirmar());
+            ByteBuffer confirmar = ByteBuffer.wrap(registroConfirmar.toByteArray());
+            if (buffer.remaining() < confirmar.remaining()) {
+                escribirCompleto(nuevo, buffer);
+            }
+            buffer.put(confirmar);
+            escribirCompleto(nuevo, buffer);
+            nuevo.force(true); // Completo en disco antes de reemplazar al anterior
+        } catch (IOException e) {
+            throw new DAOException("Error al compactar el archivo de asociados", e);
+        }
+        long anterior = tamanio;
+        // El canal nuevo se abre antes de reemplazar: si algo falla, se sigue con el archivo anterior
+        FileChannel compactado;
+        try {
+            compactado = FileChannel.open(temporal, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new DAOException("Error al abrir el archivo de asociados compactado", e);
+        }
+        try {
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                compactado.close();
+            } catch (IOException eCerrar) {
+                System.err.println("Error al cerrar el archivo compactado descartado: " + eCerrar.getMessage());
+            }
+            throw new DAOException("Error al reemplazar el archivo de asociados compactado", e);
+        }
+        mapa = null;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el archivo de asociados anterior: " + e.getMessage());
+        }
+        canal = compactado;
+        int i = 0;
+        for (Entrada entrada : enOrden) {
+            entrada.posicion = posiciones[i++]; // La posición no forma parte del orden
+        }
+        tamanio = escrito + CABECERA + 1;
+        compactaciones++;
+        System.out.println("DAO archivo: Compactado de " + anterior + " a " + tamanio + " bytes ("
+                + enOrden.size() + " asociados).");
+    }
+
+    /**
+     * Cierra el archivo. El DAO no se puede usar después.
+     */
+    public synchronized void cerrar() {
+        try {
+            mapa = null;
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el archivo de asociados: " + e.getMessage());
+        }
+    }
+
+    // --- Métricas (en 0 hasta que se lee el archivo) ---
+
+    public synchronized long getTamanioArchivo() { return tamanio; }
+    public synchronized long getBytesVigentes() { return bytesVigentes; }
+    public synchronized long getCompactaciones() { return compactaciones; }
+
+    /**
+     * @return Resumen de una línea con el estado del archivo.
+     */
+    public synchronized String getResumenMetricas() {
+        if (!recuperado) {
+            return "Archivo de asociados: " + archivo + " (no se llegó a leer)";
+        }
+        return String.format("Archivo de asociados: %d asociados, %d bytes (%.1f%% vigente), %d compactaciones",
+                porDni.size(), tamanio, tamanio == 0 ? 100.0 : 100.0 * bytesVigentes / tamanio, compactaciones);
+    }
+
+    // --- Escritura ---
+
+    /**
+     * Agrega los registros y un CONFIRMAR en una sola escritura y, si salió bien,
+     * actualiza el índice. Llamar con el monitor tomado.
+     * @throws DAOException Si falla la escritura o el archivo superaría el límite.
+     */
+    private void escribir(Collection<Asociado> guardados, Collection<String> borrados) throws DAOException {
+        if (guardados.isEmpty() && borrados.isEmpty()) return;
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(128 * (guardados.size() + borrados.size()) + 16);
+        long[] posiciones = new long[guardados.size()];
+        int[] largos = new int[guardados.size()];
+        int i = 0;
+        for (Asociado asociado : guardados) {
+            posiciones[i] = salida.size(); // Relativa al final actual, que puede cambiar si se compacta
+            largos[i] = agregarRegistro(salida, codificarGuardar(asociado));
+            i++;
+        }
+        for (String dni : borrados) {
+            agregarRegistro(salida, codificarBorrar(dni));
+        }
+        agregarRegistro(salida, codificarConfirmar());
+
+        if (tamanio + salida.size() > limiteBytes) {
+            if (tamanio - bytesVigentes > CABECERA + 1) { // Hay basura: quizás compactado entra
+                try {
+                    compactar();
+                } catch (DAOException e) {
+                    System.err.println("WARN: No se pudo compactar el archivo de asociados: " + e.getMessage());
+                }
+            }
+            if (tamanio + salida.size() > limiteBytes) {
+                throw new DAOException("La escritura llevaría el archivo de asociados a más de " + limiteBytes
+                        + " bytes (tiene " + tamanio + "): " + archivo);
+            }
+        }
+        long inicio = tamanio;
+        ByteBuffer buffer = ByteBuffer.wrap(salida.toByteArray());
+        try {
+            long posicion = tamanio;
+            while (buffer.hasRemaining()) {
+                posicion += canal.write(buffer, posicion);
+            }
+            if (sincronizar) {
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            try {
+                canal.truncate(tamanio); // Sin CONFIRMAR igual se descartaría al abrir
+            } catch (IOException eTruncar) {
+                System.err.println("Error al descartar una escritura incompleta: " + eTruncar.getMessage());
+            }
+            throw new DAOException("Error al escribir en el archivo de asociados", e);
+        }
+        tamanio += buffer.limit();
+
+        i = 0;
+        for (Asociado asociado : guardados) {
+            reemplazar(new Entrada(asociado.getDni(), asociado.getApellido(), asociado.getNombre(),
+                    inicio + posiciones[i], largos[i]));
+            i++;
+        }
+        for (String dni : borrados) {
+            quitar(dni);
+        }
+        if (tamanio > COMPACTAR_DESDE_BYTES && tamanio - bytesVigentes > bytesVigentes) {
+            try {
+                compactar();
+            } catch (DAOException e) {
+                // La escritura ya está confirmada en el archivo: no se informa como fallida
+                System.err.println("WARN: No se pudo compactar el archivo de asociados; se sigue con el actual: "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private void reemplazar(Entrada nueva) {
+        quitar(nueva.dni);
+        porDni.put(nueva.dni, nueva);
+        enOrden.add(nueva);
+        bytesVigentes += nueva.largo;
+    }
+
+    private void quitar(String dni) {
+        Entrada anterior = porDni.remove(dni);
+        if (anterior != null) {
+            enOrden.remove(anterior);
+            bytesVigentes -= anterior.largo;
+        }
+    }
+
+    /** Orden del listado: apellido, nombre, dni (null primero). */
+    private static int comparar(Entrada a, Entrada b) {
+        int c = compararTexto(a.apellido, b.apellido);
+        if (c != 0) return c;
+        c = compararTexto(a.nombre, b.nombre);
+        return c != 0 ? c : a.dni.compareTo(b.dni);
+    }
+
+    private static int compararTexto(String a, String b) {
+        if (a == null) return b == null ? 0 : -1;
+        return b == null ? 1 : a.compareTo(b);
+    }
+
+    private static void informarLote(String operacion, int pedidos, int aplicados) {
+        System.out.println("DAO archivo: Lote '" + operacion + "' de " + pedidos + " asociados confirmado.");
+        if (aplicados < pedidos) {
+            System.err.println("WARN: " + (pedidos - aplicados) + " asociado(s) no encontrados al " + operacion + " en lote.");
+        }
+    }
+
+    private static void escribirCompleto(FileChannel destino, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // --- Lectura ---
+
+    /**
+     * Lee el archivo desde el principio y arma el índice. Si el final está cortado o
+     * corrupto, se trunca en el último CONFIRMAR válido.
+     * @throws DAOException Si hay un registro dañado con algún CONFIRMAR válido después:
+     *                      truncar borraría lotes confirmados, así que no se toca nada.
+     */
+    private void recuperar() throws IOException, DAOException {
+        porDni.clear(); // Por si un intento anterior falló a mitad de camino
+        enOrden.clear();
+        bytesVigentes = 0;
+        long largoArchivo = canal.size();
+        if (largoArchivo > Integer.MAX_VALUE) {
+            throw new DAOException("El archivo de asociados supera los 2 GB: " + archivo);
+        }
+        tamanio = largoArchivo; // Para que leerBytes() mapee todo
+        ByteBuffer datos = leerBytes(0, (int) largoArchivo);
+        List<Entrada> guardadosSinConfirmar = new ArrayList<>();
+        List<String> borradosSinConfirmar = new ArrayList<>();
+        List<Boolean> esGuardado = new ArrayList<>();
+        List<Entrada> enOrdenDeArchivo = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        long confirmado = 0;
+        int posicion = 0;
+        while (posicion + CABECERA <= largoArchivo) {
+            int largo = datos.getInt(posicion);
+            int crcEsperado = datos.getInt(posicion + 4);
+            if (largo <= 0 || posicion + CABECERA + (long) largo > largoArchivo) break;
+            crc.reset();
+            crc.update(datos.duplicate().position(posicion + CABECERA).limit(posicion + CABECERA + largo));
+            if ((int) crc.getValue() != crcEsperado) break;
+
+            byte tipo = datos.get(posicion + CABECERA);
+            if (tipo == CONFIRMAR) {
+                int g = 0, b = 0;
+                for (Boolean guardado : esGuardado) { // Se aplica en el orden en que se escribió
+                    Entrada anterior = guardado
+                            ? porDni.put(guardadosSinConfirmar.get(g).dni, guardadosSinConfirmar.get(g++))
+                            : porDni.remove(borradosSinConfirmar.get(b++));
+                    if (guardado) {
+                        enOrdenDeArchivo.add(guardadosSinConfirmar.get(g - 1));
+                        bytesVigentes += guardadosSinConfirmar.get(g - 1).largo;
+                    }
+                    if (anterior != null) bytesVigentes -= anterior.largo;
+                }
+                guardadosSinConfirmar.clear();
+                borradosSinConfirmar.clear();
+                esGuardado.clear();
+                confirmado = posicion + CABECERA + largo;
+            } else if (tipo == GUARDAR) {
+                ByteBuffer lector = datos.duplicate().position(posicion + CABECERA + 1);
+                String dni = leerTexto(lector); // Para el índice alcanza con los tres primeros campos
+                String nombre = InternadorTextos.NOMBRES.internar(leerTexto(lector)); // El índice vive todo el tiempo
+                String apellido = InternadorTextos.NOMBRES.internar(leerTexto(lector));
+                guardadosSinConfirmar.add(new Entrada(dni, apellido, nombre, posicion, CABECERA + largo));
+                esGuardado.add(true);
+            } else if (tipo == BORRAR) {
+                borradosSinConfirmar.add(leerTexto(datos.duplicate().position(posicion + CABECERA + 1)));
+                esGuardado.add(false);
+            } else {
+                break;
+            }
+            posicion += CABECERA + largo;
+        }
+        if (posicion < largoArchivo && hayConfirmarDesde(datos, posicion + 1)) {
+            throw new DAOException("El archivo de asociados tiene un registro dañado en la posición " + posicion
+                    + " y lotes confirmados después; no se descarta nada, hay que revisarlo: " + archivo);
+        }
+        if (confirmado < largoArchivo) {
+            System.err.println("WARN: Se descartan " + (largoArchivo - confirmado)
+                    + " bytes sin confirmar al final de " + archivo);
+            mapa = null;
+            canal.truncate(confirmado);
+        }
+        tamanio = confirmado;
+        // El orden se arma al final, en el orden del archivo: la compactación lo deja
+        // ordenado, así que ordenar cuesta casi nada
+        enOrdenDeArchivo.removeIf(e -> porDni.get(e.dni) != e); // Reemplazados o borrados
+        Entrada[] vigentes = enOrdenDeArchivo.toArray(new Entrada[0]);
+        Arrays.sort(vigentes, ORDEN_LISTADO);
+        enOrden.addAll(Arrays.asList(vigentes));
+        if (tamanio > 0) {
+            System.out.println("DAO archivo: " + porDni.size() + " asociados leídos de " + archivo + ".");
+        }
+    }
+
+    /**
+     * Busca, byte por byte, un registro CONFIRMAR válido desde la posición indicada.
+     * Solo se usa al encontrar un registro dañado, para distinguir una escritura cortada
+     * (no hay nada confirmado después) de un daño en el medio del archivo.
+     */
+    private static boolean hayConfirmarDesde(ByteBuffer datos, int desde) {
+        byte[] contenido = codificarConfirmar();
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        int crcConfirmar = (int) crc.getValue();
+        for (int p = desde; p + CABECERA + contenido.length <= datos.limit(); p++) {
+            if (datos.get(p + CABECERA) == CONFIRMAR && datos.getInt(p) == contenido.length
+                    && datos.getInt(p + 4) == crcConfirmar) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Asociado leer(Entrada entrada) throws DAOException {
+        try {
+            return decodificar(leerBytes(entrada.posicion, entrada.largo), CABECERA + 1);
+        } catch (IOException e) {
+            throw new DAOException("Error al leer el asociado con DNI: " + entrada.dni, e);
+        }
+    }
+
+    /**
+     * Devuelve los bytes [posicion, posicion + largo) del archivo, posicionados en 0.
+     * Del mapeo si los cubre; si no, se vuelve a mapear cuando la parte sin mapear ya es
+     * grande, o se leen con una lectura posicional.
+     */
+    private ByteBuffer leerBytes(long posicion, int largo) throws IOException {
+        if (largo == 0) {
+            return ByteBuffer.allocate(0); // Archivo vacío
+        }
+        long fin = posicion + largo;
+        long mapeado = mapa == null ? 0 : mapa.limit();
+        if (fin > mapeado && (mapa == null || tamanio - mapeado >= REMAPEAR_DESDE_BYTES)) {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+            mapeado = tamanio;
+        }
+        if (fin <= mapeado) {
+            return mapa.slice((int) posicion, largo);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(largo);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado en la posición " + posicion);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void abrir() throws IOException {
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // --- Formato de los registros ---
+
+    /** @return Largo total del registro (cabecera incluida). */
+    private static int agregarRegistro(ByteArrayOutputStream salida, byte[] contenido) {
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).putInt(contenido.length).putInt((int) crc.getValue());
+        salida.write(cabecera.array(), 0, CABECERA);
+        salida.write(contenido, 0, contenido.length);
+        return CABECERA + contenido.length;
+    }
+
+    private static byte[] codificarGuardar(Asociado a) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(GUARDAR);
+            escribirTexto(salida, a.getDni());
+            escribirTexto(salida, a.getNombre());
+            escribirTexto(salida, a.getApellido());
+            escribirTexto(salida, a.getDomicilio());
+            escribirTexto(salida, a.getTelefono());
+            escribirTexto(salida, a.getCiudad());
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // No pasa escribiendo en memoria
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] codificarBorrar(String dni) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(BORRAR);
+            escribirTexto(salida, dni);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] codificarConfirmar() {
+        return new byte[]{CONFIRMAR};
+    }
+
+    /** Texto como largo en bytes (short, -1 = null) seguido de UTF-8. */
+    private static void escribirTexto(DataOutputStream salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeShort(-1);
+            return;
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto demasiado largo para el archivo de asociados: " + utf8.length + " bytes");
+        }
+        salida.writeShort(utf8.length);
+        salida.write(utf8);
+    }
+
+    /** @param desde Posición del primer campo (después del tipo). */
+    private static Asociado decodificar(ByteBuffer datos, int desde) {
+        ByteBuffer lector = datos.duplicate().position(desde);
+        Asociado asociado = new Asociado(); // Con setters, como el DAO JDBC: las columnas opcionales pueden ser null
+        asociado.setDni(leerTexto(lector));
+        asociado.setNombre(InternadorTextos.NOMBRES.internar(leerTexto(lector)));
+        asociado.setApellido(InternadorTextos.NOMBRES.internar(leerTexto(lector)));
+        asociado.setDomicilio(leerTexto(lector));
+        asociado.setTelefono(leerTexto(lector));
+        asociado.setCiudad(InternadorTextos.CIUDADES.internar(leerTexto(lector)));
+        asociado.marcarLimpio();
+        return asociado;
+    }
+
+    private static String leerTexto(ByteBuffer lector) {
+        short largo = lector.getShort();
+        if (largo < 0) return null;
+        byte[] utf8 = new byte[largo];
+        lector.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Asociado en el índice: clave del orden del listado y ubicación de su registro GUARDAR. */
+    private static final class Entrada {
+        final String dni;
+        final String apellido;
+        final String nombre;
+        long posicion; // Cambia al compactar
+        final int largo; // Cabecera incluida
+
+        Entrada(String dni, String apellido, String nombre, long posicion, int largo) {
+            this.dni = dni;
+            this.apellido = apellido;
+            this.nombre = nombre;
+            this.posicion = posicion;
+            this.largo = largo;
+        }
+    }
+}
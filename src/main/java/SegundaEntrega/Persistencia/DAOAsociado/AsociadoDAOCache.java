@@ -0,0 +1,259 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de IAsociadoDAO con un caché de lectura para buscarPorDNI.
+ * Un DNI consultado se guarda (encontrado o no) hasta que vence su TTL; las búsquedas
+ * siguientes no van a la BD. El caché es LRU y acotado: al superar la capacidad se
+ * desaloja el menos usado. guardar, actualizar y eliminar (y sus versiones por lote)
+ * invalidan el DNI afectado; el resto de las operaciones pasa directo al DAO decorado.
+ *
+ * Se devuelven copias: el que recibe un asociado puede modificarlo sin alterar el caché.
+ */
+public class AsociadoDAOCache implements IAsociadoDAO {
+
+    private final IAsociadoDAO dao;
+    private final int capacidad;
+    private final long ttlNanos;
+    private final long ttlAusenteNanos;
+    private final LongSupplier reloj;
+
+    // --- Estado, protegido por el monitor de 'entradas' ---
+    private final LinkedHashMap<String, Entrada> entradas; // Orden de acceso: el primero es el menos usado
+    private long version = 0; // Se incrementa con cada escritura; descarta lecturas que quedaron viejas
+
+    // --- Métricas ---
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojosPorCapacidad = new AtomicLong();
+    private final AtomicLong vencidas = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    /**
+     * @param dao El DAO decorado.
+     * @param capacidad Cantidad máxima de DNIs en caché.
+     * @param ttlMs Vigencia de un asociado encontrado.
+     * @param ttlAusenteMs Vigencia de un "no existe" (caché negativo); conviene que sea menor.
+     */
+    public AsociadoDAOCache(IAsociadoDAO dao, int capacidad, long ttlMs, long ttlAusenteMs) {
+        this(dao, capacidad, ttlMs, ttlAusenteMs, System::nanoTime);
+    }
+
+    /** Constructor con reloj (en nanosegundos) configurable, para los tests. */
+    AsociadoDAOCache(IAsociadoDAO dao, int capacidad, long ttlMs, long ttlAusenteMs, LongSupplier reloj) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad del caché debe ser al menos 1.");
+        }
+        this.dao = dao;
+        this.capacidad = capacidad;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.ttlAusenteNanos = TimeUnit.MILLISECONDS.toNanos(ttlAusenteMs);
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                if (size() > AsociadoDAOCache.this.capacidad) {
+                    desalojosPorCapacidad.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Optional<Asociado> buscarPorDNI(String dni) throws DAOException {
+        long versionLeida;
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(dni);
+            if (entrada != null) {
+                if (reloj.getAsLong() - entrada.vence < 0) {
+                    aciertos.incrementAndGet();
+                    return copiar(entrada.asociado);
+                }
+                entradas.remove(dni);
+                vencidas.incrementAndGet();
+            }
+            versionLeida = version;
+        }
+        fallos.incrementAndGet();
+        Optional<Asociado> leido = dao.buscarPorDNI(dni); // Fuera del lock: no frena otras búsquedas
+        synchronized (entradas) {
+            if (version == versionLeida) { // Si hubo una escritura mientras tanto, el valor puede ser viejo
+                Asociado asociado = leido.map(AsociadoDAOCache::copiarAsociado).orElse(null);
+                long ttl = asociado != null ? ttlNanos : ttlAusenteNanos;
+                entradas.put(dni, new Entrada(asociado, reloj.getAsLong() + ttl));
+            }
+        }
+        return leido;
+    }
+
+    @Override
+    public void guardar(Asociado asociado) throws DAOException {
+        try {
+            dao.guardar(asociado);
+        } finally {
+            invalidar(asociado.getDni()); // También si falló: no se sabe qué quedó en la BD
+        }
+    }
+
+    @Override
+    public void eliminar(Asociado asociado) throws DAOException {
+        try {
+            dao.eliminar(asociado);
+        } finally {
+            invalidar(asociado.getDni());
+        }
+    }
+
+    @Override
+    public void actualizar(Asociado asociado) throws DAOException {
+        try {
+            dao.actualizar(asociado);
+        } finally {
+            invalidar(asociado.getDni());
+        }
+    }
+
+    @Override
+    public void guardarLote(Collection<Asociado> asociados) throws DAOException {
+        try {
+            dao.guardarLote(asociados);
+        } finally {
+            invalidar(asociados);
+        }
+    }
+
+    @Override
+    public void actualizarLote(Collection<Asociado> asociados) throws DAOException {
+        try {
+            dao.actualizarLote(asociados);
+        } finally {
+            invalidar(asociados);
+        }
+    }
+
+    @Override
+    public void eliminarLote(Collection<Asociado> asociados) throws DAOException {
+        try {
+            dao.eliminarLote(asociados);
+        } finally {
+            invalidar(asociados);
+        }
+    }
+
+    @Override
+    public void inicializarTablaAsociados() throws DAOException {
+        try {
+            dao.inicializarTablaAsociados();
+        } finally {
+            synchronized (entradas) {
+                version++;
+                invalidaciones.addAndGet(entradas.size());
+                entradas.clear();
+            }
+        }
+    }
+
+    @Override
+    public List<Asociado> listarTodos() throws DAOException {
+        return dao.listarTodos();
+    }
+
+    @Override
+    public List<Asociado> listarPagina(Asociado despuesDe, int limite) throws DAOException {
+        return dao.listarPagina(despuesDe, limite);
+    }
+
+    @Override
+    public Stream<Asociado> recorrerTodos(int tamanioFetch) throws DAOException {
+        return dao.recorrerTodos(tamanioFetch);
+    }
+
+    // --- Métricas ---
+
+    public long getAciertos() { return aciertos.get(); }
+    public long getFallos() { return fallos.get(); }
+    public long getDesalojosPorCapacidad() { return desalojosPorCapacidad.get(); }
+    public long getVencidas() { return vencidas.get(); }
+    public long getInvalidaciones() { return invalidaciones.get(); }
+
+    public int getTamanio() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * @return Resumen de una línea con las métricas del caché.
+     */
+    public String getResumenMetricas() {
+        long consultas = getAciertos() + getFallos();
+        return String.format("Caché de asociados: %d de %d entradas, %d aciertos, %d fallos (%.1f%% aciertos), "
+                        + "%d desalojos por capacidad, %d vencidas, %d invalidaciones",
+                getTamanio(), capacidad, getAciertos(), getFallos(),
+                consultas == 0 ? 0.0 : 100.0 * getAciertos() / consultas,
+                getDesalojosPorCapacidad(), getVencidas(), getInvalidaciones());
+    }
+
+    // --- Internos ---
+
+    private void invalidar(String dni) {
+        synchronized (entradas) {
+            version++;
+            if (entradas.remove(dni) != null) {
+                invalidaciones.incrementAndGet();
+            }
+        }
+    }
+
+    private void invalidar(Collection<Asociado> asociados) {
+        synchronized (entradas) {
+            version++;
+            for (Asociado asociado : asociados) {
+                if (entradas.remove(asociado.getDni()) != null) {
+                    invalidaciones.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static Optional<Asociado> copiar(Asociado asociado) {
+        return asociado == null ? Optional.empty() : Optional.of(copiarAsociado(asociado));
+    }
+
+    private static Asociado copiarAsociado(Asociado original) {
+        Asociado copia = new Asociado(); // Con setters, como el DAO: las columnas opcionales pueden ser null
+        copia.setDni(original.getDni());
+        copia.setNombre(original.getNombre());
+        copia.setApellido(original.getApellido());
+        copia.setDomicilio(original.getDomicilio());
+        copia.setTelefono(original.getTelefono());
+        copia.setCiudad(original.getCiudad());
+        copia.marcarLimpio();
+        return copia;
+    }
+
+    /** Valor en caché: el asociado, o null si no existe en la BD. */
+    private static final class Entrada {
+        final Asociado asociado;
+        final long vence; // En nanosegundos del reloj
+
+        Entrada(Asociado asociado, long vence) {
+            this.asociado = asociado;
+            this.vence = vence;
+        }
+    }
+}
@@ -1,24 +1,68 @@
 package SegundaEntrega.Persistencia.DAOAsociado;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Datos.Personas.InternadorTextos;
 import SegundaEntrega.Persistencia.ConexionBD.ConexionSingleton;
 import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementación concreta de IAsociadoDAO utilizando JDBC.
  */
 public class AsociadoDAOImpl implements IAsociadoDAO {
 
+    private static final int TAMANIO_LOTE = 1000; // Filas por executeBatch (acota la memoria del driver)
+    private static final String SELECT_ASOCIADOS = "SELECT dni, nombre, apellido, domicilio, telefono, ciudad FROM asociados";
+    // dni desempata a los homónimos: el orden es total y sirve como clave de paginación
+    private static final String ORDEN_LISTADO = " ORDER BY apellido, nombre, dni";
+
     private Connection getConnection() throws SQLException {
-        // Obtiene la conexión del Singleton
+        // Presta una conexión del pool del Singleton; hay que devolverla con cerrarConexion()
         return ConexionSingleton.getInstance().getConnection();
     }
 
+    /**
+     * Arma un Asociado con la fila actual del ResultSet.
+     * Queda marcado como limpio: coincide con lo que hay en la BD.
+     * @param rs ResultSet posicionado en una fila de asociados.
+     * @return El asociado leído.
+     * @throws SQLException Si falla la lectura de alguna columna.
+     */
+    private Asociado mapearAsociado(ResultSet rs) throws SQLException {
+        Asociado asociado = new Asociado();
+        asociado.setDni(rs.getString("dni"));
+        asociado.setNombre(InternadorTextos.NOMBRES.internar(rs.getString("nombre")));
+        asociado.setApellido(InternadorTextos.NOMBRES.internar(rs.getString("apellido")));
+        asociado.setDomicilio(rs.getString("domicilio"));
+        asociado.setTelefono(rs.getString("telefono"));
+        asociado.setCiudad(InternadorTextos.CIUDADES.internar(rs.getString("ciudad"))); // El driver crea un String por fila
+        asociado.marcarLimpio();
+        return asociado;
+    }
+
+    /**
+     * Devuelve la conexión al pool.
+     * @param conn La conexión prestada (puede ser null si no se llegó a obtener).
+     */
+    private void cerrarConexion(Connection conn) {
+        try {
+            if (conn != null) conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al devolver la conexión: " + e.getMessage());
+        }
+    }
+
     public void guardar(Asociado asociado) throws DAOException {
         String sql = "INSERT INTO asociados (dni, nombre, apellido, domicilio, telefono, ciudad) VALUES (?, ?, ?, ?, ?, ?)";
         Connection conn = null;
@@ -49,6 +93,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
             } catch (SQLException e) {
                 System.err.println("Error al cerrar PreparedStatement: " + e.getMessage());
             }
+            cerrarConexion(conn);
         }
     }
     public void eliminar(Asociado asociado) throws DAOException {
@@ -76,6 +121,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
             } catch (SQLException e) {
                 System.err.println("Error al cerrar PreparedStatement: " + e.getMessage());
             }
+            cerrarConexion(conn);
         }
     }
 
@@ -93,13 +139,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                asociado = new Asociado();
-                asociado.setDni(rs.getString("dni"));
-                asociado.setNombre(rs.getString("nombre"));
-                asociado.setApellido(rs.getString("apellido"));
-                asociado.setDomicilio(rs.getString("domicilio"));
-                asociado.setTelefono(rs.getString("telefono"));
-                asociado.setCiudad(rs.getString("ciudad"));
+                asociado = mapearAsociado(rs);
                 System.out.println("DAO: Asociado encontrado: " + dni); // Log
             } else {
                 System.out.println("DAO: Asociado NO encontrado: " + dni); // Log
@@ -115,6 +155,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
             } catch (SQLException e) {
                 System.err.println("Error al cerrar recursos: " + e.getMessage());
             }
+            cerrarConexion(conn);
 
         }
         return Optional.ofNullable(asociado);
@@ -123,7 +164,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
     @Override
 // En AsociadoDAOImpl.java
     public List<Asociado> listarTodos() throws DAOException {
-        String sql = "SELECT dni, nombre, apellido, domicilio, telefono, ciudad FROM asociados ORDER BY apellido, nombre";
+        String sql = SELECT_ASOCIADOS + ORDEN_LISTADO;
         List<Asociado> lista = new ArrayList<>();
 
         Connection conn = null; // Declarar afuera
@@ -140,14 +181,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
                 rs = rsTmp;     // Asignar para logging
 
                 while (rs.next()) {
-                    Asociado asociado = new Asociado();
-                    asociado.setDni(rs.getString("dni"));
-                    asociado.setNombre(rs.getString("nombre"));
-                    asociado.setApellido(rs.getString("apellido"));
-                    asociado.setDomicilio(rs.getString("domicilio"));
-                    asociado.setTelefono(rs.getString("telefono"));
-                    asociado.setCiudad(rs.getString("ciudad"));
-                    lista.add(asociado);
+                    lista.add(mapearAsociado(rs));
                 }
                 System.out.println("DAO: Listados " + lista.size() + " asociados."); // Log
             }
@@ -155,11 +189,107 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
         } catch (SQLException e) {
             System.err.println("Error SQL al listar asociados: " + e.getMessage());
             throw new DAOException("Error al listar todos los asociados", e);
+        } finally {
+            cerrarConexion(conn);
         }
 
         return lista;
     }
 
+    @Override
+    public List<Asociado> listarPagina(Asociado despuesDe, int limite) throws DAOException {
+        String sql = despuesDe == null
+                ? SELECT_ASOCIADOS + ORDEN_LISTADO + " LIMIT ?"
+                : SELECT_ASOCIADOS + " WHERE (apellido, nombre, dni) > (?, ?, ?)" + ORDEN_LISTADO + " LIMIT ?";
+        List<Asociado> pagina = new ArrayList<>(Math.min(limite, TAMANIO_LOTE));
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql);
+            int i = 1;
+            if (despuesDe != null) {
+                pstmt.setString(i++, despuesDe.getApellido());
+                pstmt.setString(i++, despuesDe.getNombre());
+                pstmt.setString(i++, despuesDe.getDni());
+            }
+            pstmt.setInt(i, limite);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                pagina.add(mapearAsociado(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error SQL al listar una página de asociados: " + e.getMessage());
+            throw new DAOException("Error al listar una página de asociados", e);
+        } finally {
+            try {
+                if (rs != null) rs.close();
+                if (pstmt != null) pstmt.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar recursos: " + e.getMessage());
+            }
+            cerrarConexion(conn);
+        }
+        return pagina;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Usa un ResultSet de solo avance con fetch size: con MySQL (useCursorFetch=true) el
+     * servidor mantiene un cursor y el driver nunca tiene más de {@code tamanioFetch} filas.
+     * La conexión queda prestada hasta cerrar el Stream.
+     */
+    @Override
+    public Stream<Asociado> recorrerTodos(int tamanioFetch) throws DAOException {
+        String sql = SELECT_ASOCIADOS + ORDEN_LISTADO;
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs;
+        try {
+            conn = getConnection();
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(tamanioFetch);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Error SQL al recorrer asociados: " + e.getMessage());
+            try {
+                if (pstmt != null) pstmt.close();
+            } catch (SQLException eCierre) {
+                System.err.println("Error al cerrar PreparedStatement: " + eCierre.getMessage());
+            }
+            cerrarConexion(conn);
+            throw new DAOException("Error al recorrer los asociados", e);
+        }
+
+        final Connection connAbierta = conn;
+        final PreparedStatement pstmtAbierto = pstmt;
+        Spliterator<Asociado> filas = new Spliterators.AbstractSpliterator<Asociado>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Asociado> accion) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    accion.accept(mapearAsociado(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DAORuntimeException(new DAOException("Error al leer un asociado del recorrido", e));
+                }
+            }
+        };
+        return StreamSupport.stream(filas, false).onClose(() -> {
+            try {
+                rs.close();
+                pstmtAbierto.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar recursos: " + e.getMessage());
+            }
+            cerrarConexion(connAbierta);
+        });
+    }
+
     @Override
     public void actualizar(Asociado asociado) throws DAOException {
         String sql = "UPDATE asociados SET nombre = ?, apellido = ?, domicilio = ?, telefono = ?, ciudad = ? WHERE dni = ?";
@@ -191,13 +321,121 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
             } catch (SQLException e) {
                 System.err.println("Error al cerrar PreparedStatement: " + e.getMessage());
             }
+            cerrarConexion(conn);
+        }
+    }
+
+    @Override
+    public void guardarLote(Collection<Asociado> asociados) throws DAOException {
+        String sql = "INSERT INTO asociados (dni, nombre, apellido, domicilio, telefono, ciudad) VALUES (?, ?, ?, ?, ?, ?)";
+        ejecutarLote(sql, asociados, "guardar", (pstmt, asociado) -> {
+            pstmt.setString(1, asociado.getDni());
+            pstmt.setString(2, asociado.getNombre());
+            pstmt.setString(3, asociado.getApellido());
+            pstmt.setString(4, asociado.getDomicilio());
+            pstmt.setString(5, asociado.getTelefono());
+            pstmt.setString(6, asociado.getCiudad());
+        });
+    }
+
+    @Override
+    public void actualizarLote(Collection<Asociado> asociados) throws DAOException {
+        String sql = "UPDATE asociados SET nombre = ?, apellido = ?, domicilio = ?, telefono = ?, ciudad = ? WHERE dni = ?";
+        ejecutarLote(sql, asociados, "actualizar", (pstmt, asociado) -> {
+            pstmt.setString(1, asociado.getNombre());
+            pstmt.setString(2, asociado.getApellido());
+            pstmt.setString(3, asociado.getDomicilio());
+            pstmt.setString(4, asociado.getTelefono());
+            pstmt.setString(5, asociado.getCiudad());
+            pstmt.setString(6, asociado.getDni()); // Cláusula WHERE
+        });
+    }
+
+    @Override
+    public void eliminarLote(Collection<Asociado> asociados) throws DAOException {
+        String sql = "DELETE FROM asociados WHERE dni = ?";
+        ejecutarLote(sql, asociados, "eliminar", (pstmt, asociado) -> pstmt.setString(1, asociado.getDni()));
+    }
+
+    /**
+     * Ejecuta la misma sentencia para todos los asociados con addBatch/executeBatch,
+     * enviando de a TAMANIO_LOTE filas, todo dentro de una única transacción.
+     * @param sql Sentencia parametrizada.
+     * @param asociados Los asociados a procesar.
+     * @param operacion Nombre de la operación (para el log).
+     * @param parametros Carga los parámetros de un asociado en la sentencia.
+     * @throws DAOException Si falla alguna parte del lote (se revierte todo).
+     */
+    private void ejecutarLote(String sql, Collection<Asociado> asociados, String operacion,
+                              CargaParametros parametros) throws DAOException {
+        if (asociados.isEmpty()) {
+            return;
+        }
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        int sinEfecto = 0;
+        try {
+            conn = getConnection();
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(sql);
+            int pendientes = 0;
+            for (Asociado asociado : asociados) {
+                parametros.cargar(pstmt, asociado);
+                pstmt.addBatch();
+                if (++pendientes == TAMANIO_LOTE) {
+                    sinEfecto += contarSinEfecto(pstmt.executeBatch());
+                    pendientes = 0;
+                }
+            }
+            if (pendientes > 0) {
+                sinEfecto += contarSinEfecto(pstmt.executeBatch());
+            }
+            conn.commit();
+            System.out.println("DAO: Lote '" + operacion + "' de " + asociados.size() + " asociados confirmado."); // Log
+            if (sinEfecto > 0) {
+                System.err.println("WARN: " + sinEfecto + " asociado(s) no encontrados al " + operacion + " en lote.");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error SQL en lote '" + operacion + "': " + e.getMessage());
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException eRollback) {
+                System.err.println("Error al revertir el lote: " + eRollback.getMessage());
+            }
+            throw new DAOException("Error al " + operacion + " un lote de " + asociados.size() + " asociados", e);
+        } finally {
+            try {
+                if (pstmt != null) pstmt.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar PreparedStatement: " + e.getMessage());
+            }
+            cerrarConexion(conn); // El pool restablece el autocommit
+        }
+    }
+
+    /**
+     * Cuenta las sentencias del lote que no afectaron ninguna fila.
+     * SUCCESS_NO_INFO (el driver no informa cantidades) se toma como éxito.
+     */
+    private static int contarSinEfecto(int[] resultados) {
+        int sinEfecto = 0;
+        for (int filas : resultados) {
+            if (filas == 0) sinEfecto++;
         }
+        return sinEfecto;
+    }
+
+    /**
+     * Carga los parámetros de un asociado en una sentencia del lote.
+     */
+    private interface CargaParametros {
+        void cargar(PreparedStatement pstmt, Asociado asociado) throws SQLException;
     }
 
     /**
      * Inicializa la base de datos para la gestión de asociados.
      * 1. Elimina la tabla 'asociados' si existe (DROP TABLE)[cite: 100, 349].
-     * 2. Crea la tabla 'asociados' (CREATE TABLE).
+     * 2. Crea la tabla 'asociados' (CREATE TABLE) y el índice del orden del listado.
      * 3. Inserta datos iniciales de ejemplo (INSERT).
      *
      * @throws DAOException Si ocurre un error de SQL durante la inicialización.
@@ -215,6 +453,9 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
                 + " telefono VARCHAR(20),"
                 + " ciudad VARCHAR(50)"
                 + ")";
+        // Mismo orden que ORDEN_LISTADO: la paginación por clave y el recorrido leen el
+        // índice desde la última fila en lugar de ordenar la tabla entera en cada página
+        String sqlIndiceListado = "CREATE INDEX idx_asociados_listado ON asociados (apellido, nombre, dni)";
 
         String sqlInsert1 = "INSERT INTO asociados (dni, nombre, apellido, domicilio, telefono, ciudad) VALUES "
                 + "('12345678', 'Juan', 'Perez', 'Calle Falsa 123', '2235001122', 'Mar del Plata')";
@@ -234,6 +475,7 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
 
                 System.out.println("DAO: Ejecutando CREATE TABLE...");
                 stmt.executeUpdate(sqlCreate); // 2. Crear
+                stmt.executeUpdate(sqlIndiceListado);
 
                 System.out.println("DAO: Ejecutando INSERTs iniciales...");
                 stmt.executeUpdate(sqlInsert1); // 3. Insertar datos
@@ -245,6 +487,8 @@ public class AsociadoDAOImpl implements IAsociadoDAO {
         } catch (SQLException e) {
             System.err.println("Error SQL al inicializar la base de datos: " + e.getMessage());
             throw new DAOException("Error al inicializar la tabla 'asociados'", e);
+        } finally {
+            cerrarConexion(conn);
         }
 
     }
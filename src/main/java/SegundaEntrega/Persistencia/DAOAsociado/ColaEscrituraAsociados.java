@@ -0,0 +1,854 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritura diferida (write-behind) de altas, bajas y modificaciones de asociados.
+ *
+ * encolar() anota la operación en un diario en disco y vuelve cuando está forzada al disco,
+ * sin esperar a la BD (encolarLote() hace lo mismo con un lote y un solo force(); anotar()
+ * separa la reserva del lugar en el diario de la espera al disco); un hilo de fondo junta las operaciones y las escribe con las
+ * operaciones por lote del DAO. Las operaciones pendientes sobre un mismo DNI se combinan
+ * (alta + modificación = alta con los datos nuevos; alta + baja = nada), así que cada DNI
+ * llega a la BD a lo sumo una vez por tanda.
+ *
+ * El diario solo crece al final: cada operación lleva un número de secuencia y, cuando se
+ * escribe en la BD, se agrega una marca HECHA con el rango de secuencias que cubre. Varias
+ * llamadas concurrentes a encolar() comparten un mismo force() (group commit), que se hace
+ * sin el lock del estado: el hilo escritor y los demás encolar() no esperan al disco. Cuando
+ * el diario supera TAMANIO_SEGMENTO se rota (el archivo pasa a ser un segmento viejo y se
+ * empieza otro), y un segmento se borra cuando todas sus operaciones están hechas; si no
+ * queda nada pendiente, el diario se trunca. Solo al abrir y al cerrar la cola se reescribe
+ * con lo pendiente.
+ *
+ * Si un lote falla se reintenta fila por fila para aislar la que falla; cada fallo se
+ * notifica a los observadores con un FalloEscrituraAsociado, y la operación se reintenta
+ * hasta MAX_INTENTOS veces. Lo que queda sin escribir al cerrar sigue en el diario y se
+ * recupera al crear la cola de nuevo.
+ */
+public class ColaEscrituraAsociados extends Observable {
+
+    /** Tipo de operación pendiente. */
+    public enum Operacion { INSERTAR, ACTUALIZAR, ELIMINAR }
+
+    private static final int TAMANIO_LOTE = 1000;           // Operaciones por tanda
+    private static final long ESPERA_TANDA_MS = 200;        // Cuánto se esperan más operaciones para combinar
+    private static final long ESPERA_MAXIMA_REINTENTO_MS = 10_000;
+    private static final long TAMANIO_SEGMENTO = 4L << 20;  // Al superarlo, el diario se rota
+    private static final String HECHA = "HECHA";
+    static final int MAX_INTENTOS = 5;
+
+    private final IAsociadoDAO dao;
+    private final Path diario;
+    private final long esperaTandaMs;
+    private final long tamanioSegmento;
+    private final Thread escritor;
+
+    // --- Estado, protegido por el lock ---
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayTrabajo = lock.newCondition();
+    private final Condition sinPendientes = lock.newCondition();
+    private final LinkedHashMap<String, Pendiente> pendientes = new LinkedHashMap<>();
+    private final List<Pendiente> porConfirmar = new ArrayList<>(); // Anotadas, todavía no forzadas al disco
+    private final StringBuilder porEscribir = new StringBuilder(); // Líneas del diario aún no escritas
+    private long ultimaSecuencia = 0;
+    private int enVuelo = 0; // Operaciones que el escritor está mandando a la BD
+    private boolean cerrada = false;
+    private int esperandoVaciado = 0; // Hilos en vaciar(): no tiene sentido demorar la tanda
+
+    // --- Archivos del diario, protegidos por cerrojoDiario (se toma antes que lock, nunca después) ---
+    private final ReentrantLock cerrojoDiario = new ReentrantLock();
+    private FileChannel canal;
+    private final ArrayDeque<Segmento> segmentos = new ArrayDeque<>(); // Rotados, del más viejo al más nuevo
+    private long numeroSegmento = 0;
+    private long ultimaEnDisco = 0; // Secuencia de la última operación escrita en el diario
+
+    // --- Métricas ---
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong combinadas = new AtomicLong();
+    private final AtomicLong escritas = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong sincronizaciones = new AtomicLong(); // force() del diario al encolar
+
+    /**
+     * Crea la cola y arranca el hilo escritor. Si el diario tiene operaciones de una
+     * ejecución anterior, se recuperan y se escriben primero.
+     * @param dao DAO al que se escribe.
+     * @param diario Archivo del diario (se crea si no existe).
+     * @throws DAOException Si no se puede leer o crear el diario.
+     */
+    public ColaEscrituraAsociados(IAsociadoDAO dao, Path diario) throws DAOException {
+        this(dao, diario, ESPERA_TANDA_MS);
+    }
+
+    /** Constructor con la espera entre tandas configurable, para los tests. */
+    ColaEscrituraAsociados(IAsociadoDAO dao, Path diario, long esperaTandaMs) throws DAOException {
+        this(dao, diario, esperaTandaMs, TAMANIO_SEGMENTO);
+    }
+
+    /** Constructor con la espera entre tandas y el tamaño de rotación configurables, para los tests. */
+    ColaEscrituraAsociados(IAsociadoDAO dao, Path diario, long esperaTandaMs, long tamanioSegmento) throws DAOException {
+        this.dao = dao;
+        this.diario = diario;
+        this.esperaTandaMs = esperaTandaMs;
+        this.tamanioSegmento = tamanioSegmento;
+        try {
+            int recuperadas = recuperarDiario();
+            if (recuperadas > 0) {
+                System.out.println("ColaEscrituraAsociados: " + recuperadas + " operación(es) recuperadas del diario.");
+            }
+            compactarDiario();
+        } catch (IOException e) {
+            throw new DAOException("No se pudo abrir el diario de escrituras " + diario, e);
+        }
+        this.escritor = new Thread(this::bucleEscritor, "escritura-asociados");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Anota una operación y vuelve cuando está en disco, sin esperar a la BD.
+     * Equivale a anotar(operacion, asociado).esperar().
+     * @param operacion Qué hacer con el asociado.
+     * @param asociado El asociado (se copian sus datos actuales).
+     * @throws DAOException Si no se pudo anotar en el diario (la operación no queda encolada).
+     * @throws IllegalStateException Si la cola ya se cerró.
+     */
+    public void encolar(Operacion operacion, Asociado asociado) throws DAOException {
+        anotar(operacion, asociado).esperar();
+    }
+
+    /**
+     * Anota la misma operación para todo un lote y vuelve cuando está en disco: las líneas
+     * se escriben juntas y se fuerzan una sola vez. Equivale a anotarLote(...).esperar().
+     * @param operacion Qué hacer con los asociados.
+     * @param asociados Los asociados (se copian sus datos actuales).
+     * @throws DAOException Si no se pudo anotar en el diario (no queda encolado ninguno).
+     * @throws IllegalStateException Si la cola ya se cerró.
+     */
+    public void encolarLote(Operacion operacion, List<Asociado> asociados) throws DAOException {
+        anotarLote(operacion, asociados).esperar();
+    }
+
+    /**
+     * Reserva el número de secuencia de una operación sin tocar el disco. El orden de las
+     * operaciones es el de las llamadas a anotar(); para que quede encolada hay que llamar
+     * a esperar() sobre lo que devuelve. Así quien anota con un lock propio tomado (el
+     * monitor del gestor) puede soltarlo antes de esperar al disco.
+     * @param operacion Qué hacer con el asociado.
+     * @param asociado El asociado (se copian sus datos actuales).
+     * @return La anotación, para esperar a que esté en disco.
+     * @throws IllegalStateException Si la cola ya se cerró.
+     */
+    public Anotacion anotar(Operacion operacion, Asociado asociado) {
+        return anotarLote(operacion, Collections.singletonList(asociado));
+    }
+
+    /**
+     * Como anotar(), para un lote: todas las operaciones quedan seguidas en el diario y
+     * se fuerzan juntas.
+     * @param operacion Qué hacer con los asociados.
+     * @param asociados Los asociados (se copian sus datos actuales).
+     * @return La anotación, para esperar a que esté en disco.
+     * @throws IllegalStateException Si la cola ya se cerró.
+     */
+    public Anotacion anotarLote(Operacion operacion, List<Asociado> asociados) {
+        lock.lock();
+        try {
+            if (cerrada) {
+                throw new IllegalStateException("La cola de escritura de asociados está cerrada.");
+            }
+            Pendiente ultima = null;
+            for (Asociado asociado : asociados) {
+                ultima = new Pendiente(operacion, copiar(asociado), ++ultimaSecuencia);
+                porEscribir.append(codificar(ultima));
+                porConfirmar.add(ultima);
+            }
+            return new Anotacion(ultima, asociados.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Operaciones anotadas con anotar() o anotarLote() que todavía pueden no estar en disco.
+     * Todas se escriben con el mismo force(), así que se confirman o fallan juntas.
+     */
+    public final class Anotacion {
+        private final Pendiente ultima; // null si el lote estaba vacío
+        private final int cantidad;
+
+        private Anotacion(Pendiente ultima, int cantidad) {
+            this.ultima = ultima;
+            this.cantidad = cantidad;
+        }
+
+        /**
+         * Vuelve cuando las operaciones están forzadas al disco. No llamar con el lock de
+         * otro objeto tomado si se quiere que varias escrituras compartan el force().
+         * @throws DAOException Si no se pudieron escribir en el diario (no quedan encoladas).
+         */
+        public void esperar() throws DAOException {
+            if (ultima == null) {
+                return;
+            }
+            // El primero que toma el diario escribe y fuerza lo anotado por todos; los demás solo esperan
+            while (ultima.estado == Pendiente.SIN_CONFIRMAR) {
+                cerrojoDiario.lock();
+                try {
+                    if (ultima.estado == Pendiente.SIN_CONFIRMAR) {
+                        escribirDiario();
+                    }
+                } finally {
+                    cerrojoDiario.unlock();
+                }
+            }
+            if (ultima.estado == Pendiente.FALLIDA) {
+                throw new DAOException("No se pudo anotar la operación en el diario de escrituras", ultima.error);
+            }
+            encoladas.addAndGet(cantidad);
+        }
+    }
+
+    /**
+     * Espera a que se escriba todo lo pendiente.
+     * @param timeoutMs Espera máxima.
+     * @return true si no quedó nada pendiente.
+     */
+    public boolean vaciar(long timeoutMs) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        esperandoVaciado++;
+        try {
+            hayTrabajo.signal(); // No esperar el intervalo de la tanda
+            while (hayTrabajoPendiente()) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    return false;
+                }
+                sinPendientes.awaitNanos(restante);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            esperandoVaciado--;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Intenta escribir lo pendiente y detiene el hilo escritor. Lo que no se llegó a
+     * escribir queda en el diario para la próxima ejecución.
+     * @param timeoutMs Espera máxima para escribir lo pendiente.
+     */
+    public void cerrar(long timeoutMs) {
+        vaciar(timeoutMs);
+        lock.lock();
+        try {
+            if (cerrada) return;
+            cerrada = true;
+            hayTrabajo.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            escritor.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrojoDiario.lock();
+        try {
+            lock.lock();
+            try {
+                compactarDiario();
+            } finally {
+                lock.unlock();
+            }
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("WARN: No se pudo cerrar el diario de escrituras: " + e.getMessage());
+        } finally {
+            cerrojoDiario.unlock();
+        }
+    }
+
+    // --- Métricas ---
+
+    public long getEncoladas() { return encoladas.get(); }
+    public long getCombinadas() { return combinadas.get(); }
+    public long getEscritas() { return escritas.get(); }
+    public long getLotes() { return lotes.get(); }
+    public long getFallos() { return fallos.get(); }
+    public long getDescartadas() { return descartadas.get(); }
+    public long getSincronizaciones() { return sincronizaciones.get(); }
+
+    public int getPendientes() {
+        lock.lock();
+        try {
+            return pendientes.size() + porConfirmar.size() + enVuelo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Resumen de una línea con las métricas de la cola.
+     */
+    public String getResumenMetricas() {
+        return String.format("Escritura diferida: %d encoladas con %d force(), %d combinadas, %d escritas en %d lotes, "
+                        + "%d fallos, %d descartadas, %d pendientes",
+                getEncoladas(), getSincronizaciones(), getCombinadas(), getEscritas(), getLotes(), getFallos(),
+                getDescartadas(), getPendientes());
+    }
+
+    // --- Hilo escritor ---
+
+    private void bucleEscritor() {
+        long esperaReintento = esperaTandaMs;
+        while (true) {
+            List<Pendiente> tanda;
+            lock.lock();
+            try {
+                try {
+                    while (pendientes.isEmpty() && !cerrada) {
+                        hayTrabajo.await();
+                    }
+                    if (pendientes.isEmpty()) {
+                        return; // Cerrada y sin trabajo
+                    }
+                    // Se da un momento para que lleguen más operaciones y se combinen
+                    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaTandaMs);
+                    long restante;
+                    while (!cerrada && esperandoVaciado == 0 && pendientes.size() < TAMANIO_LOTE && (restante = limite - System.nanoTime()) > 0) {
+                        hayTrabajo.awaitNanos(restante);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return; // Lo pendiente sigue en el diario
+                }
+                tanda = new ArrayList<>(Math.min(pendientes.size(), TAMANIO_LOTE));
+                Iterator<Pendiente> it = pendientes.values().iterator();
+                while (it.hasNext() && tanda.size() < TAMANIO_LOTE) {
+                    tanda.add(it.next());
+                    it.remove();
+                }
+                enVuelo = tanda.size();
+            } finally {
+                lock.unlock();
+            }
+
+            List<Pendiente> fallidas = escribir(tanda);
+
+            lock.lock();
+            try {
+                Set<Pendiente> reintentar = Collections.newSetFromMap(new IdentityHashMap<>());
+                reintentar.addAll(fallidas);
+                for (Pendiente p : tanda) {
+                    if (!reintentar.contains(p)) {
+                        porEscribir.append(codificarHecha(p.asociado.getDni(), p.primera, p.ultima));
+                    }
+                }
+                for (Pendiente fallida : fallidas) {
+                    Pendiente posterior = pendientes.remove(fallida.asociado.getDni());
+                    pendientes.put(fallida.asociado.getDni(), fallida);
+                    if (posterior != null) {
+                        combinar(posterior); // Lo encolado mientras tanto va después de la que falló
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            mantenerDiario(); // Fuera del lock: encolar() no espera a la rotación ni al borrado de segmentos
+
+            lock.lock();
+            try {
+                enVuelo = 0;
+                if (!hayTrabajoPendiente()) {
+                    sinPendientes.signalAll();
+                }
+                if (cerrada && !fallidas.isEmpty()) {
+                    return; // No se reintenta al cerrar: queda en el diario
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (fallidas.isEmpty()) {
+                esperaReintento = esperaTandaMs;
+            } else {
+                lock.lock();
+                try {
+                    if (!cerrada) {
+                        hayTrabajo.await(esperaReintento, TimeUnit.MILLISECONDS); // cerrar() despierta la espera
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+                esperaReintento = Math.min(esperaReintento * 2, ESPERA_MAXIMA_REINTENTO_MS);
+            }
+        }
+    }
+
+    /**
+     * Escribe una tanda por lotes; si un lote falla, fila por fila.
+     * @return Las operaciones que fallaron y se deben reintentar.
+     */
+    private List<Pendiente> escribir(List<Pendiente> tanda) {
+        Map<Operacion, List<Pendiente>> porOperacion = new LinkedHashMap<>();
+        for (Operacion operacion : new Operacion[]{Operacion.ELIMINAR, Operacion.INSERTAR, Operacion.ACTUALIZAR}) {
+            porOperacion.put(operacion, new ArrayList<>());
+        }
+        for (Pendiente p : tanda) {
+            porOperacion.get(p.operacion).add(p);
+        }
+        List<Pendiente> fallidas = new ArrayList<>();
+        for (Map.Entry<Operacion, List<Pendiente>> grupo : porOperacion.entrySet()) {
+            List<Pendiente> operaciones = grupo.getValue();
+            if (operaciones.isEmpty()) continue;
+            List<Asociado> asociados = new ArrayList<>(operaciones.size());
+            for (Pendiente p : operaciones) {
+                asociados.add(p.asociado);
+            }
+            try {
+                switch (grupo.getKey()) {
+                    case ELIMINAR: dao.eliminarLote(asociados); break;
+                    case INSERTAR: dao.guardarLote(asociados); break;
+                    default: dao.actualizarLote(asociados); break;
+                }
+                lotes.incrementAndGet();
+                escritas.addAndGet(operaciones.size());
+            } catch (DAOException e) {
+                System.err.println("WARN: Falló un lote de escritura diferida (" + grupo.getKey() + ", "
+                        + operaciones.size() + " filas); se reintenta fila por fila: " + e.getMessage());
+                for (Pendiente p : operaciones) {
+                    if (!escribirUna(p)) {
+                        fallidas.add(p);
+                    }
+                }
+            }
+        }
+        return fallidas;
+    }
+
+    /** Si queda algo sin escribir en la BD. Llamar con el lock tomado. */
+    private boolean hayTrabajoPendiente() {
+        return !pendientes.isEmpty() || !porConfirmar.isEmpty() || enVuelo > 0;
+    }
+
+    /** @return true si se escribió o se descartó definitivamente; false si hay que reintentarla. */
+    private boolean escribirUna(Pendiente p) {
+        try {
+            switch (p.operacion) {
+                case ELIMINAR: dao.eliminar(p.asociado); break;
+                case INSERTAR: dao.guardar(p.asociado); break;
+                default: dao.actualizar(p.asociado); break;
+            }
+            escritas.incrementAndGet();
+            return true;
+        } catch (DAOException e) {
+            fallos.incrementAndGet();
+            p.intentos++;
+            boolean definitivo = p.intentos >= MAX_INTENTOS;
+            if (definitivo) {
+                descartadas.incrementAndGet();
+            }
+            setChanged();
+            notifyObservers(new FalloEscrituraAsociado(p.operacion, copiar(p.asociado), e.getMessage(), p.intentos, definitivo));
+            return definitivo;
+        }
+    }
+
+    // --- Combinación de operaciones ---
+
+    /**
+     * Combina una operación nueva con la pendiente sobre el mismo DNI. Llamar con el lock tomado.
+     * Las reglas miran qué hay en la BD: INSERTAR = no existe todavía; ELIMINAR = existe y se va.
+     */
+    private void combinar(Pendiente nueva) {
+        String dni = nueva.asociado.getDni();
+        Pendiente anterior = pendientes.get(dni);
+        if (anterior == null) {
+            pendientes.put(dni, nueva);
+            return;
+        }
+        combinadas.incrementAndGet();
+        Operacion resultado;
+        switch (nueva.operacion) {
+            case INSERTAR: // Baja y alta de nuevo: la fila existe, solo cambian los datos
+                resultado = anterior.operacion == Operacion.ELIMINAR ? Operacion.ACTUALIZAR : Operacion.INSERTAR;
+                break;
+            case ACTUALIZAR: // Si todavía no se insertó, se inserta con los datos nuevos
+                resultado = anterior.operacion == Operacion.INSERTAR ? Operacion.INSERTAR : Operacion.ACTUALIZAR;
+                break;
+            case ELIMINAR:
+            default:
+                if (anterior.operacion == Operacion.INSERTAR) {
+                    pendientes.remove(dni); // Nunca llegó a la BD: no hay nada que hacer
+                    porEscribir.append(codificarHecha(dni, anterior.primera, nueva.ultima));
+                    return;
+                }
+                resultado = Operacion.ELIMINAR;
+                break;
+        }
+        Pendiente combinada = new Pendiente(resultado, nueva.asociado, anterior.primera, nueva.ultima);
+        combinada.intentos = anterior.intentos;
+        pendientes.put(dni, combinada);
+    }
+
+    // --- Diario ---
+
+    /**
+     * Escribe y fuerza al disco lo anotado desde la última vez, y pasa las operaciones
+     * confirmadas a 'pendientes'. Llamar con cerrojoDiario tomado y sin el lock.
+     */
+    private void escribirDiario() {
+        String texto;
+        List<Pendiente> confirmadas;
+        lock.lock();
+        try {
+            texto = porEscribir.toString();
+            porEscribir.setLength(0);
+            confirmadas = new ArrayList<>(porConfirmar);
+            porConfirmar.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (texto.isEmpty()) {
+            return;
+        }
+        IOException error = null;
+        long tamanioAnterior = -1;
+        try {
+            tamanioAnterior = canal.size();
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(texto);
+            while (bytes.hasRemaining()) {
+                canal.write(bytes);
+            }
+            canal.force(false);
+            sincronizaciones.incrementAndGet();
+            if (!confirmadas.isEmpty()) {
+                ultimaEnDisco = confirmadas.get(confirmadas.size() - 1).ultima;
+            }
+        } catch (IOException e) {
+            error = e;
+            System.err.println("ERROR: No se pudo escribir el diario de escrituras: " + e.getMessage());
+            if (tamanioAnterior >= 0) {
+                try {
+                    canal.truncate(tamanioAnterior); // Que no quede a medias una operación que se informa como fallida
+                } catch (IOException ignorada) {
+                    // El canal ya no sirve; la próxima escritura también va a fallar
+                }
+            }
+        }
+        lock.lock();
+        try {
+            for (Pendiente p : confirmadas) {
+                if (error == null) {
+                    combinar(p);
+                    p.estado = Pendiente.CONFIRMADA;
+                } else {
+                    p.error = error;
+                    p.estado = Pendiente.FALLIDA;
+                }
+            }
+            if (error == null) {
+                hayTrabajo.signal();
+            } else if (!hayTrabajoPendiente()) {
+                sinPendientes.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Después de una tanda: fuerza las marcas HECHA y, si no queda nada pendiente, trunca el
+     * diario; si no, borra los segmentos que ya no tienen operaciones pendientes y rota el
+     * diario si creció demasiado.
+     */
+    private void mantenerDiario() {
+        cerrojoDiario.lock();
+        try {
+            escribirDiario();
+            boolean vacia;
+            long primeraPendiente = Long.MAX_VALUE;
+            lock.lock();
+            try {
+                vacia = pendientes.isEmpty() && porConfirmar.isEmpty(); // La tanda del escritor ya está resuelta
+                if (vacia) {
+                    porEscribir.setLength(0); // Solo quedaban marcas HECHA: ya no hacen falta
+                } else if (!segmentos.isEmpty()) {
+                    for (Pendiente p : pendientes.values()) {
+                        primeraPendiente = Math.min(primeraPendiente, p.primera);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (vacia) {
+                canal.truncate(0);
+                primeraPendiente = Long.MAX_VALUE;
+            }
+            while (!segmentos.isEmpty() && segmentos.peekFirst().ultima < primeraPendiente) {
+                Files.deleteIfExists(segmentos.pollFirst().archivo);
+            }
+            if (canal.size() >= tamanioSegmento) {
+                rotarDiario();
+            }
+        } catch (IOException e) {
+            System.err.println("WARN: No se pudo mantener el diario de escrituras: " + e.getMessage());
+        } finally {
+            cerrojoDiario.unlock();
+        }
+    }
+
+    /** El diario actual pasa a ser un segmento viejo y se empieza uno vacío. Con cerrojoDiario tomado. */
+    private void rotarDiario() throws IOException {
+        canal.close();
+        try {
+            Path segmento = diario.resolveSibling(diario.getFileName() + "." + (++numeroSegmento));
+            Files.move(diario, segmento, StandardCopyOption.ATOMIC_MOVE);
+            segmentos.addLast(new Segmento(segmento, ultimaEnDisco));
+        } finally {
+            canal = abrirCanal();
+        }
+    }
+
+    private FileChannel abrirCanal() throws IOException {
+        FileChannel nuevo = FileChannel.open(diario, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        nuevo.position(nuevo.size());
+        return nuevo;
+    }
+
+    /** Segmentos rotados que quedaron de una ejecución anterior, en orden. */
+    private List<Path> segmentosEnDisco() throws IOException {
+        TreeMap<Long, Path> porNumero = new TreeMap<>();
+        String prefijo = diario.getFileName() + ".";
+        Path carpeta = diario.toAbsolutePath().getParent();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(carpeta, prefijo + "*")) {
+            for (Path archivo : archivos) {
+                String sufijo = archivo.getFileName().toString().substring(prefijo.length());
+                if (!sufijo.isEmpty() && sufijo.chars().allMatch(Character::isDigit)) {
+                    porNumero.put(Long.parseLong(sufijo), archivo);
+                }
+            }
+        }
+        return new ArrayList<>(porNumero.values());
+    }
+
+    /**
+     * Lee los segmentos y el diario, y combina en 'pendientes' las operaciones que no
+     * tienen una marca HECHA.
+     */
+    private int recuperarDiario() throws IOException {
+        List<Path> archivos = segmentosEnDisco();
+        if (Files.exists(diario)) {
+            archivos.add(diario);
+        }
+        List<Pendiente> operaciones = new ArrayList<>();
+        Map<String, List<long[]>> hechas = new HashMap<>();
+        for (Path archivo : archivos) {
+            try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    if (linea.isEmpty()) continue;
+                    try {
+                        String[] campos = linea.split("\t", -1);
+                        if (campos[0].equals(HECHA) && campos.length == 4) {
+                            hechas.computeIfAbsent(desescapar(campos[1]), dni -> new ArrayList<>())
+                                    .add(new long[]{Long.parseLong(campos[2]), Long.parseLong(campos[3])});
+                        } else {
+                            operaciones.add(decodificar(campos));
+                        }
+                    } catch (RuntimeException e) {
+                        System.err.println("WARN: Línea inválida en el diario de escrituras (se ignora): " + linea);
+                    }
+                }
+            }
+        }
+        int leidas = 0;
+        for (Pendiente p : operaciones) {
+            ultimaSecuencia = Math.max(ultimaSecuencia, p.ultima);
+            if (!estaHecha(hechas.get(p.asociado.getDni()), p.ultima)) {
+                combinar(p);
+                leidas++;
+            }
+        }
+        porEscribir.setLength(0); // Las marcas de las combinaciones ya quedan en el diario compactado
+        return leidas;
+    }
+
+    private static boolean estaHecha(List<long[]> rangos, long secuencia) {
+        if (rangos != null) {
+            for (long[] rango : rangos) {
+                if (rango[0] <= secuencia && secuencia <= rango[1]) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reescribe el diario solo con lo pendiente, borra los segmentos y deja el diario
+     * abierto para agregar. Se escribe en un temporal y se reemplaza de una vez. Solo al
+     * abrir y al cerrar la cola: llamar con cerrojoDiario y el lock tomados (o desde el constructor).
+     */
+    private void compactarDiario() throws IOException {
+        if (canal != null) {
+            canal.close();
+        }
+        Path temporal = diario.resolveSibling(diario.getFileName() + ".tmp");
+        try (FileChannel temporario = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            StringBuilder contenido = new StringBuilder();
+            for (Pendiente p : pendientes.values()) {
+                contenido.append(codificar(p));
+            }
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(contenido.toString());
+            while (bytes.hasRemaining()) {
+                temporario.write(bytes);
+            }
+            temporario.force(true); // El diario compactado debe estar en disco antes de reemplazar al anterior
+        }
+        Files.move(temporal, diario, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path segmento : segmentosEnDisco()) {
+            Files.deleteIfExists(segmento); // Lo que tenían de pendiente ya está en el compactado
+        }
+        segmentos.clear();
+        canal = abrirCanal();
+    }
+
+    /** Una operación por línea: tipo, secuencia y datos. Una combinada se anota con su última secuencia. */
+    private static String codificar(Pendiente p) {
+        Asociado a = p.asociado;
+        return p.operacion.name() + '\t' + p.ultima + '\t' + escapar(a.getDni()) + '\t' + escapar(a.getNombre()) + '\t'
+                + escapar(a.getApellido()) + '\t' + escapar(a.getDomicilio()) + '\t'
+                + escapar(a.getTelefono()) + '\t' + escapar(a.getCiudad()) + '\n';
+    }
+
+    /** Marca de que las operaciones del DNI con secuencia entre primera y ultima ya no están pendientes. */
+    private static String codificarHecha(String dni, long primera, long ultima) {
+        return HECHA + '\t' + escapar(dni) + '\t' + primera + '\t' + ultima + '\n';
+    }
+
+    private static Pendiente decodificar(String[] campos) {
+        if (campos.length != 8) {
+            throw new IllegalArgumentException("Cantidad de campos inválida: " + campos.length);
+        }
+        Asociado a = new Asociado();
+        a.setDni(desescapar(campos[2]));
+        a.setNombre(desescapar(campos[3]));
+        a.setApellido(desescapar(campos[4]));
+        a.setDomicilio(desescapar(campos[5]));
+        a.setTelefono(desescapar(campos[6]));
+        a.setCiudad(desescapar(campos[7]));
+        a.marcarLimpio();
+        return new Pendiente(Operacion.valueOf(campos[0]), a, Long.parseLong(campos[1]));
+    }
+
+    /** Tabulaciones y saltos de línea se escapan para que cada operación ocupe una línea. */
+    private static String escapar(String valor) {
+        if (valor == null) return "\\0";
+        return valor.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String desescapar(String valor) {
+        if (valor.equals("\\0")) return null;
+        StringBuilder sb = new StringBuilder(valor.length());
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' && i + 1 < valor.length()) {
+                char siguiente = valor.charAt(++i);
+                sb.append(siguiente == 't' ? '\t' : siguiente == 'n' ? '\n' : siguiente == 'r' ? '\r' : siguiente);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Asociado copiar(Asociado original) {
+        Asociado copia = new Asociado();
+        copia.setDni(original.getDni());
+        copia.setNombre(original.getNombre());
+        copia.setApellido(original.getApellido());
+        copia.setDomicilio(original.getDomicilio());
+        copia.setTelefono(original.getTelefono());
+        copia.setCiudad(original.getCiudad());
+        copia.marcarLimpio();
+        return copia;
+    }
+
+    /**
+     * Operación pendiente sobre un DNI, con los datos a escribir y el rango de secuencias
+     * del diario que representa (más de una si se combinó).
+     */
+    private static final class Pendiente {
+        static final int SIN_CONFIRMAR = 0, CONFIRMADA = 1, FALLIDA = 2;
+
+        final Operacion operacion;
+        final Asociado asociado;
+        final long primera;
+        final long ultima;
+        int intentos;
+        volatile int estado = SIN_CONFIRMAR; // Si ya está forzada al disco (solo para encolar())
+        IOException error;
+
+        Pendiente(Operacion operacion, Asociado asociado, long secuencia) {
+            this(operacion, asociado, secuencia, secuencia);
+        }
+
+        Pendiente(Operacion operacion, Asociado asociado, long primera, long ultima) {
+            this.operacion = operacion;
+            this.asociado = asociado;
+            this.primera = primera;
+            this.ultima = ultima;
+        }
+    }
+
+    /** Diario rotado: se borra cuando no queda pendiente ninguna operación hasta 'ultima'. */
+    private static final class Segmento {
+        final Path archivo;
+        final long ultima;
+
+        Segmento(Path archivo, long ultima) {
+            this.archivo = archivo;
+            this.ultima = ultima;
+        }
+    }
+}
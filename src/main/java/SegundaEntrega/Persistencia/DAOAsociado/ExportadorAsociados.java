@@ -0,0 +1,368 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exportación completa de la tabla de asociados a un archivo, en CSV o en un formato
+ * binario compacto.
+ *
+ * Los asociados se recorren con IAsociadoDAO.recorrerTodos (un cursor de solo avance)
+ * y se codifican directamente en un buffer de TAMANIO_BUFFER bytes que se vuelca al
+ * archivo con un FileChannel cada vez que se llena: la memoria usada no depende de la
+ * cantidad de asociados. Se escribe en un archivo temporal al lado del destino y se lo
+ * renombra al terminar, así que el destino nunca queda con una exportación a medias.
+ *
+ * CSV: separador ';', encabezado "dni;nombre;apellido;domicilio;telefono;ciudad", UTF-8,
+ * campos entre comillas solo si hace falta (un salto de línea queda dentro de las comillas).
+ * Es el formato que lee ImportadorAsociados.
+ *
+ * Binario: "ASOC" y un byte de versión; cada asociado es el byte FILA seguido de sus seis
+ * campos (el largo en UTF-8 más uno como varint, 0 si es null, y los bytes: con los largos
+ * de la tabla casi siempre es un solo byte de largo); al final el byte FIN y la cantidad
+ * de asociados (long), que leerBinario verifica para detectar un archivo cortado.
+ */
+public class ExportadorAsociados {
+
+    /** Formato del archivo exportado. */
+    public enum Formato { CSV, BINARIO }
+
+    static final int TAMANIO_BUFFER = 1 << 20;
+    private static final int FILAS_POR_VIAJE = 1000; // tamanioFetch del recorrido
+    private static final byte[] MAGICO = {'A', 'S', 'O', 'C'};
+    private static final byte VERSION = 1;
+    private static final byte FILA = 1;
+    private static final byte FIN = 0;
+    private static final byte[] ENCABEZADO_CSV = "dni;nombre;apellido;domicilio;telefono;ciudad\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final char SEPARADOR = ';';
+    // Peor caso de un campo en el buffer: 3 bytes UTF-8 por char, más comillas duplicadas en CSV
+    private static final int BYTES_POR_CHAR = 6;
+    private static final int MAX_BYTES_VARINT = 5;
+
+    private final IAsociadoDAO dao;
+    private final boolean sincronizar;
+
+    /**
+     * Constructor. Sincroniza el archivo con el disco antes de renombrarlo.
+     * @param dao DAO del que se leen los asociados.
+     */
+    public ExportadorAsociados(IAsociadoDAO dao) {
+        this(dao, true);
+    }
+
+    /**
+     * @param dao DAO del que se leen los asociados.
+     * @param sincronizar true para hacer force() antes de renombrar (sobrevive a un corte de luz).
+     */
+    public ExportadorAsociados(IAsociadoDAO dao, boolean sincronizar) {
+        this.dao = dao;
+        this.sincronizar = sincronizar;
+    }
+
+    /**
+     * Exporta todos los asociados, en el orden del listado.
+     * @param destino Archivo a generar; si existe se reemplaza al terminar.
+     * @param formato CSV o BINARIO.
+     * @return La cantidad de asociados exportados.
+     * @throws DAOException Si falla la lectura de los asociados o la escritura del archivo;
+     * en ese caso el destino queda como estaba.
+     */
+    public long exportar(Path destino, Formato formato) throws DAOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".parcial");
+        long inicio = System.nanoTime();
+        long cantidad;
+        long bytes;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Stream<Asociado> asociados = dao.recorrerTodos(FILAS_POR_VIAJE)) {
+            Escritor escritor = new Escritor(canal);
+            cantidad = formato == Formato.CSV ? escribirCsv(asociados.iterator(), escritor)
+                    : escribirBinario(asociados.iterator(), escritor);
+            escritor.vaciar();
+            if (sincronizar) {
+                canal.force(false);
+            }
+            bytes = canal.size();
+        } catch (IOException e) {
+            borrar(temporal);
+            throw new DAOException("Error al escribir la exportación de asociados en " + destino, e);
+        } catch (DAORuntimeException e) {
+            borrar(temporal);
+            throw e.getCause();
+        } catch (DAOException e) {
+            borrar(temporal);
+            throw e;
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            borrar(temporal);
+            throw new DAOException("Error al reemplazar " + destino + " con la exportación", e);
+        }
+        long nanos = Math.max(1, System.nanoTime() - inicio);
+        System.out.printf("ExportadorAsociados: %d asociados (%.1f MB, %s) en %d ms (%.0f filas/s)%n",
+                cantidad, bytes / 1e6, formato, nanos / 1_000_000, cantidad * 1e9 / nanos);
+        return cantidad;
+    }
+
+    private static long escribirCsv(Iterator<Asociado> asociados, Escritor escritor) throws IOException {
+        escritor.asegurar(ENCABEZADO_CSV.length);
+        escritor.buffer.put(ENCABEZADO_CSV);
+        long cantidad = 0;
+        while (asociados.hasNext()) {
+            Asociado a = asociados.next();
+            escritor.campoCsv(a.getDni(), SEPARADOR);
+            escritor.campoCsv(a.getNombre(), SEPARADOR);
+            escritor.campoCsv(a.getApellido(), SEPARADOR);
+            escritor.campoCsv(a.getDomicilio(), SEPARADOR);
+            escritor.campoCsv(a.getTelefono(), SEPARADOR);
+            escritor.campoCsv(a.getCiudad(), '\n');
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    private static long escribirBinario(Iterator<Asociado> asociados, Escritor escritor) throws IOException {
+        escritor.asegurar(MAGICO.length + 1);
+        escritor.buffer.put(MAGICO).put(VERSION);
+        long cantidad = 0;
+        while (asociados.hasNext()) {
+            Asociado a = asociados.next();
+            escritor.asegurar(1);
+            escritor.buffer.put(FILA);
+            escritor.campoBinario(a.getDni());
+            escritor.campoBinario(a.getNombre());
+            escritor.campoBinario(a.getApellido());
+            escritor.campoBinario(a.getDomicilio());
+            escritor.campoBinario(a.getTelefono());
+            escritor.campoBinario(a.getCiudad());
+            cantidad++;
+        }
+        escritor.asegurar(1 + Long.BYTES);
+        escritor.buffer.put(FIN).putLong(cantidad);
+        return cantidad;
+    }
+
+    /**
+     * Lee un archivo generado con el formato BINARIO.
+     * @param origen El archivo.
+     * @param destino Recibe cada asociado, en el orden del archivo.
+     * @return La cantidad de asociados leídos.
+     * @throws DAOException Si el archivo no se puede leer, no tiene el formato o está incompleto.
+     */
+    public static long leerBinario(Path origen, Consumer<Asociado> destino) throws DAOException {
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            Lector lector = new Lector(canal);
+            lector.asegurar(MAGICO.length + 1);
+            for (byte b : MAGICO) {
+                if (lector.buffer.get() != b) {
+                    throw new DAOException(origen + " no es una exportación binaria de asociados");
+                }
+            }
+            byte version = lector.buffer.get();
+            if (version != VERSION) {
+                throw new DAOException("Versión de exportación no soportada: " + version);
+            }
+            long cantidad = 0;
+            while (true) {
+                lector.asegurar(1);
+                byte tipo = lector.buffer.get();
+                if (tipo == FIN) {
+                    lector.asegurar(Long.BYTES);
+                    long esperada = lector.buffer.getLong();
+                    if (esperada != cantidad) {
+                        throw new DAOException("La exportación anuncia " + esperada + " asociados pero tiene " + cantidad);
+                    }
+                    return cantidad;
+                }
+                if (tipo != FILA) {
+                    throw new DAOException("Registro inválido en la exportación de asociados: " + tipo);
+                }
+                Asociado asociado = new Asociado(); // Con setters: las columnas opcionales pueden ser null
+                asociado.setDni(lector.texto());
+                asociado.setNombre(lector.texto());
+                asociado.setApellido(lector.texto());
+                asociado.setDomicilio(lector.texto());
+                asociado.setTelefono(lector.texto());
+                asociado.setCiudad(lector.texto());
+                asociado.marcarLimpio();
+                destino.accept(asociado);
+                cantidad++;
+            }
+        } catch (IOException e) {
+            throw new DAOException("Error al leer la exportación de asociados " + origen, e);
+        }
+    }
+
+    private static void borrar(Path temporal) {
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar " + temporal + ": " + e.getMessage());
+        }
+    }
+
+    /** Buffer directo que se vuelca al canal cuando no queda lugar. */
+    private static final class Escritor {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+
+        Escritor(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void asegurar(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                vaciar();
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void campoBinario(String texto) throws IOException {
+            if (texto == null) {
+                asegurar(1);
+                buffer.put((byte) 0);
+                return;
+            }
+            asegurar(MAX_BYTES_VARINT + texto.length() * BYTES_POR_CHAR);
+            int largo = largoUtf8(texto) + 1;
+            while (largo >= 0x80) {
+                buffer.put((byte) (largo | 0x80));
+                largo >>>= 7;
+            }
+            buffer.put((byte) largo);
+            ponerUtf8(texto, false);
+        }
+
+        /** Bytes que ocupa el texto con ponerUtf8. */
+        private static int largoUtf8(String texto) {
+            int largo = texto.length(); // Un byte por char, más lo que sume cada char no ASCII
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) continue;
+                if (c < 0x800) {
+                    largo += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    largo += 2; // 4 bytes para los 2 chars del par
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    largo += 2;
+                }
+            }
+            return largo;
+        }
+
+        void campoCsv(String texto, char terminador) throws IOException {
+            String valor = texto == null ? "" : texto;
+            asegurar(valor.length() * BYTES_POR_CHAR + 3);
+            if (requiereComillas(valor)) {
+                buffer.put((byte) '"');
+                ponerUtf8(valor, true);
+                buffer.put((byte) '"');
+            } else {
+                ponerUtf8(valor, false);
+            }
+            buffer.put((byte) terminador);
+        }
+
+        /** Codifica en UTF-8 sin objetos intermedios; el caso común (ASCII) es un byte por char. */
+        private void ponerUtf8(String texto, boolean duplicarComillas) {
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' && duplicarComillas) buffer.put((byte) '"');
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | (c >> 6)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, texto.charAt(++i));
+                    buffer.put((byte) (0xF0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (cp & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    buffer.put((byte) '?'); // Suelto: igual que String.getBytes
+                } else {
+                    buffer.put((byte) (0xE0 | (c >> 12)));
+                    buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        private static boolean requiereComillas(String valor) {
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c == SEPARADOR || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+    }
+
+    /** Buffer directo que se rellena desde el canal a medida que se consume. */
+    private static final class Lector {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+
+        Lector(FileChannel canal) {
+            this.canal = canal;
+            buffer.flip(); // Vacío
+        }
+
+        void asegurar(int bytes) throws IOException, DAOException {
+            if (buffer.remaining() >= bytes) return;
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (canal.read(buffer) < 0) {
+                    throw new DAOException("La exportación de asociados está cortada");
+                }
+            }
+            buffer.flip();
+        }
+
+        String texto() throws IOException, DAOException {
+            int largo = 0;
+            for (int desplazamiento = 0; ; desplazamiento += 7) {
+                asegurar(1);
+                byte b = buffer.get();
+                largo |= (b & 0x7F) << desplazamiento;
+                if (b >= 0) break;
+                if (desplazamiento >= 21) throw new DAOException("Largo inválido en la exportación de asociados");
+            }
+            if (largo == 0) return null;
+            largo--;
+            if (largo < 0 || largo > TAMANIO_BUFFER) {
+                // Un campo así no sale de exportar: el archivo está dañado y asegurar no terminaría
+                throw new DAOException("Largo inválido en la exportación de asociados: " + largo);
+            }
+            asegurar(largo);
+            byte[] utf8 = new byte[largo];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+
+/**
+ * Aviso que manda la ColaEscrituraAsociados a sus observadores cuando no pudo escribir
+ * una operación en la BD.
+ */
+public final class FalloEscrituraAsociado {
+
+    private final ColaEscrituraAsociados.Operacion operacion;
+    private final Asociado asociado;
+    private final String mensaje;
+    private final int intentos;
+    private final boolean definitivo;
+
+    FalloEscrituraAsociado(ColaEscrituraAsociados.Operacion operacion, Asociado asociado, String mensaje,
+                           int intentos, boolean definitivo) {
+        this.operacion = operacion;
+        this.asociado = asociado;
+        this.mensaje = mensaje;
+        this.intentos = intentos;
+        this.definitivo = definitivo;
+    }
+
+    public ColaEscrituraAsociados.Operacion getOperacion() { return operacion; }
+
+    /** @return Copia de los datos que se intentaron escribir. */
+    public Asociado getAsociado() { return asociado; }
+
+    public String getMensaje() { return mensaje; }
+
+    public int getIntentos() { return intentos; }
+
+    /** @return true si se agotaron los reintentos y la operación se descartó. */
+    public boolean isDefinitivo() { return definitivo; }
+
+    @Override
+    public String toString() {
+        return "FalloEscrituraAsociado{" + operacion + " DNI " + asociado.getDni() + ", intento " + intentos
+                + (definitivo ? " (descartada)" : "") + ": " + mensaje + "}";
+    }
+}
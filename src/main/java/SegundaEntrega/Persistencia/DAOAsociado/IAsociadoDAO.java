@@ -3,8 +3,10 @@ package SegundaEntrega.Persistencia.DAOAsociado;
 import SegundaEntrega.Modelo.Datos.Personas.Asociado; // Importar Asociado
 import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException; // Importar Excepción DAO
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional; // Para búsquedas que pueden no encontrar nada
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de persistencia para la entidad Asociado.
@@ -43,6 +45,27 @@ public interface IAsociadoDAO {
      */
     List<Asociado> listarTodos() throws DAOException;
 
+    /**
+     * Recupera una página de asociados en el orden del listado (apellido, nombre, dni),
+     * empezando después del asociado indicado (paginación por clave, sin OFFSET).
+     * @param despuesDe Último asociado de la página anterior, o null para la primera página.
+     * @param limite Cantidad máxima de asociados a devolver.
+     * @return La página; si tiene menos de {@code limite} elementos es la última.
+     * @throws DAOException Si ocurre un error al recuperar la página.
+     */
+    List<Asociado> listarPagina(Asociado despuesDe, int limite) throws DAOException;
+
+    /**
+     * Recorre todos los asociados (en el orden del listado) sin cargarlos juntos en memoria:
+     * las filas se traen de a {@code tamanioFetch}. El Stream mantiene recursos abiertos
+     * (ej: una conexión), así que hay que cerrarlo (try-with-resources).
+     * Los errores durante el recorrido se lanzan como DAORuntimeException.
+     * @param tamanioFetch Filas a traer por viaje a la fuente de datos.
+     * @return Un Stream secuencial de asociados.
+     * @throws DAOException Si no se puede iniciar la consulta.
+     */
+    Stream<Asociado> recorrerTodos(int tamanioFetch) throws DAOException;
+
     /**
      * Actualiza los datos de un asociado existente en la fuente de datos.
      * La identificación del asociado a actualizar suele hacerse por DNI.
@@ -51,6 +74,27 @@ public interface IAsociadoDAO {
      */
     void actualizar(Asociado asociado) throws DAOException;
 
+    /**
+     * Guarda varios asociados nuevos en una sola transacción (inserción por lotes).
+     * @param asociados Los asociados a insertar.
+     * @throws DAOException Si falla el lote; en ese caso no se guarda ninguno.
+     */
+    void guardarLote(Collection<Asociado> asociados) throws DAOException;
+
+    /**
+     * Actualiza varios asociados en una sola transacción. Los que no existen se informan y se ignoran.
+     * @param asociados Los asociados con los datos actualizados.
+     * @throws DAOException Si falla el lote; en ese caso no se actualiza ninguno.
+     */
+    void actualizarLote(Collection<Asociado> asociados) throws DAOException;
+
+    /**
+     * Elimina varios asociados (por DNI) en una sola transacción. Los que no existen se informan y se ignoran.
+     * @param asociados Los asociados a eliminar.
+     * @throws DAOException Si falla el lote; en ese caso no se elimina ninguno.
+     */
+    void eliminarLote(Collection<Asociado> asociados) throws DAOException;
+
     /**
      * Inicializa el almacenamiento de asociados (ej: crea tablas).
      * @throws DAOException Si hay un error de persistencia.
@@ -0,0 +1,196 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Datos.Personas.Persona;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Unidad de trabajo (Unit of Work) de asociados.
+ * Lleva la cuenta de qué asociados son nuevos, cuáles se eliminaron y cuáles se
+ * modificaron. confirmar() escribe solo esos cambios, en tres lotes (bajas,
+ * modificaciones, altas), así el costo es proporcional a lo editado y no al tamaño del padrón.
+ *
+ * Los asociados ya persistidos no se guardan acá: registrarLimpio() les deja un aviso
+ * (Persona.alModificarse) y recién cuando un setter cambia un dato el asociado entra
+ * en la lista de modificados. El padrón completo vive solo en el GestorAsociados.
+ */
+public class UnidadDeTrabajoAsociados {
+
+    private final IAsociadoDAO dao;
+    private final Map<String, Asociado> modificados = new ConcurrentHashMap<>(); // Lo anotan los avisos, sin el monitor
+    private final Map<String, Asociado> nuevos = new LinkedHashMap<>();    // Pendientes de insertar
+    private final Map<String, Asociado> eliminados = new LinkedHashMap<>(); // Pendientes de borrar
+    private Seguimiento seguimiento = new Seguimiento(); // Se reemplaza en limpiar()
+
+    /**
+     * Constructor.
+     * @param dao DAO con el que se confirman los cambios.
+     */
+    public UnidadDeTrabajoAsociados(IAsociadoDAO dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Empieza a seguir un asociado que ya está persistido (ej: recién leído de la BD).
+     * @param asociado El asociado.
+     */
+    public synchronized void registrarLimpio(Asociado asociado) {
+        asociado.marcarLimpio();
+        modificados.remove(asociado.getDni(), asociado);
+        asociado.alModificarse(seguimiento);
+    }
+
+    /**
+     * Sigue un asociado que reemplaza a uno ya persistido y todavía no se escribió
+     * (ej: una modificación armada como instancia nueva).
+     * @param asociado El asociado con los datos a escribir.
+     */
+    public synchronized void registrarModificado(Asociado asociado) {
+        asociado.alModificarse(seguimiento);
+        asociado.marcarModificado();
+        modificados.put(asociado.getDni(), asociado); // Por si ya venía marcado y no avisó
+    }
+
+    /**
+     * Registra un asociado que todavía no está persistido.
+     * Si su DNI estaba pendiente de borrado, el par baja/alta se escribe como una actualización.
+     * @param asociado El asociado nuevo.
+     */
+    public synchronized void registrarNuevo(Asociado asociado) {
+        String dni = asociado.getDni();
+        if (eliminados.remove(dni) != null) {
+            asociado.alModificarse(seguimiento);
+            asociado.marcarLimpio();
+            asociado.marcarModificado(); // Entra en modificados por el aviso
+        } else {
+            nuevos.put(dni, asociado);
+        }
+    }
+
+    /**
+     * Registra la baja de un asociado. Si todavía no se había insertado, simplemente se descarta.
+     * @param asociado El asociado a eliminar.
+     */
+    public synchronized void registrarEliminado(Asociado asociado) {
+        String dni = asociado.getDni();
+        if (nuevos.remove(dni) != null) {
+            return; // Nunca llegó a la BD
+        }
+        asociado.alModificarse(null);
+        modificados.remove(dni);
+        eliminados.put(dni, asociado);
+    }
+
+    /**
+     * Deja de seguir un asociado sin programar ninguna escritura (ej: ya se borró de la BD).
+     * @param asociado El asociado.
+     */
+    public synchronized void olvidar(Asociado asociado) {
+        String dni = asociado.getDni();
+        asociado.alModificarse(null);
+        modificados.remove(dni);
+        nuevos.remove(dni);
+        eliminados.remove(dni);
+    }
+
+    /**
+     * Deja de seguir todo (ej: antes de recargar desde la BD).
+     */
+    public synchronized void limpiar() {
+        seguimiento.vigente = false; // Las instancias viejas pueden seguir avisando; se ignoran
+        seguimiento = new Seguimiento();
+        modificados.clear();
+        nuevos.clear();
+        eliminados.clear();
+    }
+
+    /**
+     * @return Cantidad de filas que escribiría confirmar() en este momento.
+     */
+    public synchronized int getCantidadCambiosPendientes() {
+        return nuevos.size() + eliminados.size() + pendientesDeActualizar().size();
+    }
+
+    /**
+     * Escribe los cambios pendientes: bajas, modificaciones y altas, cada grupo en un lote.
+     * Cada grupo confirmado deja de estar pendiente; si uno falla, él y los siguientes
+     * quedan pendientes para un próximo intento.
+     * @return Cantidad de filas escritas.
+     * @throws DAOException Si falla alguno de los lotes.
+     */
+    public synchronized int confirmar() throws DAOException {
+        int escritas = 0;
+
+        List<Asociado> bajas = new ArrayList<>(eliminados.values());
+        dao.eliminarLote(bajas);
+        eliminados.clear();
+        escritas += bajas.size();
+
+        List<Asociado> modificaciones = pendientesDeActualizar();
+        dao.actualizarLote(modificaciones);
+        for (Asociado a : modificaciones) {
+            a.marcarLimpio();
+            descartarSiLimpio(a);
+        }
+        escritas += modificaciones.size();
+
+        List<Asociado> altas = new ArrayList<>(nuevos.values());
+        dao.guardarLote(altas);
+        for (Asociado a : altas) registrarLimpio(a);
+        nuevos.clear();
+        escritas += altas.size();
+
+        System.out.println("UnidadDeTrabajo: " + altas.size() + " altas, " + modificaciones.size()
+                + " modificaciones y " + bajas.size() + " bajas confirmadas.");
+        return escritas;
+    }
+
+    /**
+     * Los anotados que siguen marcados. Los que alguien marcó como limpios después
+     * (ej: la cola de escritura ya los encoló) se descartan.
+     */
+    private List<Asociado> pendientesDeActualizar() {
+        List<Asociado> pendientes = new ArrayList<>(modificados.size());
+        for (Asociado a : modificados.values()) {
+            if (a.isModificado()) {
+                pendientes.add(a);
+            } else {
+                descartarSiLimpio(a);
+            }
+        }
+        return pendientes;
+    }
+
+    /**
+     * Saca un asociado de los modificados. Si un setter lo marcó mientras tanto, su aviso
+     * no vuelve a llegar (ya estaba marcado), así que se lo anota de nuevo acá.
+     */
+    private void descartarSiLimpio(Asociado asociado) {
+        modificados.remove(asociado.getDni(), asociado);
+        if (asociado.isModificado() && seguimiento.vigente) {
+            modificados.putIfAbsent(asociado.getDni(), asociado);
+        }
+    }
+
+    /**
+     * Aviso que reciben los asociados seguidos. Cada limpiar() deja de atender a los
+     * del padrón anterior.
+     */
+    private final class Seguimiento implements Consumer<Persona> {
+        private volatile boolean vigente = true;
+
+        @Override
+        public void accept(Persona persona) {
+            if (vigente) {
+                modificados.put(persona.getDni(), (Asociado) persona);
+            }
+        }
+    }
+}
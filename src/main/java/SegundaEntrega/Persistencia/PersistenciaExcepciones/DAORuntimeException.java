@@ -0,0 +1,21 @@
+package SegundaEntrega.Persistencia.PersistenciaExcepciones;
+
+/**
+ * Versión no verificada de DAOException, para errores de persistencia que ocurren
+ * dentro de un Stream (donde no se pueden lanzar excepciones verificadas).
+ * La causa es siempre la DAOException original; usar getCause() para recuperarla.
+ */
+public class DAORuntimeException extends RuntimeException {
+
+    /**
+     * @param causa La DAOException original.
+     */
+    public DAORuntimeException(DAOException causa) {
+        super(causa.getMessage(), causa);
+    }
+
+    @Override
+    public synchronized DAOException getCause() {
+        return (DAOException) super.getCause();
+    }
+}
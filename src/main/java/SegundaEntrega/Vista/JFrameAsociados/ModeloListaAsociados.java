@@ -0,0 +1,88 @@
+package SegundaEntrega.Vista.JFrameAsociados;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Negocio.CambioAsociados;
+
+import javax.swing.AbstractListModel;
+import java.util.List;
+
+/**
+ * Modelo del JList de asociados apoyado directamente en la instantánea inmutable del
+ * GestorAsociados. No guarda un String por fila: el renderer formatea solo las filas
+ * visibles, así abrir la ventana con un padrón grande no recorre ni copia la lista.
+ * Usar solo desde el hilo de Swing.
+ */
+public class ModeloListaAsociados extends AbstractListModel<Asociado> {
+
+    private List<Asociado> listado = List.of();
+
+    @Override
+    public int getSize() {
+        return listado.size();
+    }
+
+    @Override
+    public Asociado getElementAt(int indice) {
+        return listado.get(indice);
+    }
+
+    /**
+     * Toma la instantánea posterior al cambio y avisa al JList solo el intervalo afectado.
+     * @param cambio El cambio notificado por el GestorAsociados.
+     */
+    public void aplicar(CambioAsociados cambio) {
+        if (cambio.getTipo() == CambioAsociados.Tipo.FALLO_PERSISTENCIA) {
+            return; // El listado no cambia
+        }
+        int anterior = listado.size();
+        listado = cambio.getListado();
+        int posicion = cambio.getPosicion();
+        switch (cambio.getTipo()) {
+            case AGREGADO:
+                if (listado.size() == anterior + 1) {
+                    fireIntervalAdded(this, posicion, posicion);
+                } else {
+                    avisarTodoCambiado(anterior); // La instantánea incluye filas de una carga en curso
+                }
+                break;
+            case ELIMINADO:
+                if (listado.size() == anterior - 1) {
+                    fireIntervalRemoved(this, posicion, posicion);
+                } else {
+                    avisarTodoCambiado(anterior);
+                }
+                break;
+            case ACTUALIZADO:
+                if (listado.size() == anterior) {
+                    fireContentsChanged(this, posicion, posicion);
+                } else {
+                    avisarTodoCambiado(anterior);
+                }
+                break;
+            case CARGA_PARCIAL:
+                if (listado.size() > anterior) {
+                    fireIntervalAdded(this, anterior, listado.size() - 1); // Una carga solo agrega al final
+                } else if (listado.size() < anterior) {
+                    avisarTodoCambiado(anterior); // Empezó una carga nueva
+                }
+                break;
+            case CARGA_COMPLETA:
+            default:
+                avisarTodoCambiado(anterior);
+                break;
+        }
+    }
+
+    /**
+     * Avisa al JList que se reemplazó todo el contenido.
+     * @param anterior Cantidad de filas antes del cambio.
+     */
+    private void avisarTodoCambiado(int anterior) {
+        if (anterior > 0) {
+            fireIntervalRemoved(this, 0, anterior - 1);
+        }
+        if (!listado.isEmpty()) {
+            fireIntervalAdded(this, 0, listado.size() - 1);
+        }
+    }
+}
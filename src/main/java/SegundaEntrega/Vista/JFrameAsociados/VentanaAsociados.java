@@ -1,8 +1,11 @@
 package SegundaEntrega.Vista.JFrameAsociados;
 
 import SegundaEntrega.Modelo.Datos.Personas.Asociado; // Importar Asociado
+import SegundaEntrega.Modelo.Negocio.CambioAsociados;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*; // Para Layouts
 import java.awt.event.ActionListener; // Para Controlador
 import java.util.List;
@@ -11,15 +14,21 @@ import java.util.Observer;   // Para Observer
 
 /**
  * Ventana para la gestión (Alta, Baja, Listado) de Asociados.
- * Implementa Observer para actualizarse cuando cambia la lista en el modelo.
+ * Implementa Observer para actualizarse cuando cambia la lista en el modelo: aplica
+ * cada CambioAsociados sobre el modelo del JList, que se apoya en la instantánea del
+ * gestor y formatea las filas recién al dibujarlas.
+ * Con texto en el cuadro de búsqueda, la lista muestra los resultados del índice en
+ * lugar del padrón completo.
  */
 public class VentanaAsociados extends JFrame implements Observer { // Implementa Observer
 
     // --- Componentes ---
     private JTextField txtDni, txtNombre, txtApellido, txtDomicilio, txtTelefono, txtCiudad;
-    private JButton btnAgregar, btnEliminar, btnLimpiar;
-    private JList<String> listaAsociadosVisual; // JList para mostrar asociados
-    private DefaultListModel<String> listModel; // Modelo para el JList
+    private JTextField txtBuscar;
+    private JButton btnAgregar, btnEliminar, btnLimpiar, btnImportar, btnExportar;
+    private JList<Asociado> listaAsociadosVisual; // JList para mostrar asociados
+    private ModeloListaAsociados listModel; // Modelo para el JList
+    private ModeloListaAsociados modeloResultados; // Resultados de la búsqueda, cuando hay
 
     /**
      * Constructor.
@@ -61,18 +70,49 @@ public class VentanaAsociados extends JFrame implements Observer { // Implementa
         btnEliminar.setActionCommand("ELIMINAR_ASOCIADO");
         btnLimpiar = new JButton("Limpiar Campos");
         btnLimpiar.setActionCommand("LIMPIAR_CAMPOS");
+        btnImportar = new JButton("Importar CSV...");
+        btnImportar.setActionCommand("IMPORTAR_ASOCIADOS");
+        btnExportar = new JButton("Exportar...");
+        btnExportar.setActionCommand("EXPORTAR_ASOCIADOS");
         panelBotones.add(btnAgregar);
         panelBotones.add(btnEliminar);
         panelBotones.add(btnLimpiar);
+        panelBotones.add(btnImportar);
+        panelBotones.add(btnExportar);
 
         // Lista para mostrar asociados
-        listModel = new DefaultListModel<>();
+        listModel = new ModeloListaAsociados();
         listaAsociadosVisual = new JList<>(listModel);
+        listaAsociadosVisual.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> lista, Object valor, int indice,
+                                                          boolean seleccionado, boolean conFoco) {
+                return super.getListCellRendererComponent(lista, formatear((Asociado) valor), indice, seleccionado, conFoco);
+            }
+        });
+        // Con un prototipo el JList calcula el tamaño de celda una vez, sin formatear todas las filas
+        listaAsociadosVisual.setPrototypeCellValue(new Asociado("Nombre del asociado", "Apellido del asociado", "00000000", "", "", ""));
         JScrollPane scrollLista = new JScrollPane(listaAsociadosVisual); // Para que tenga scroll
 
+        // Cuadro de búsqueda: cada tecla dispara BUSCAR_ASOCIADOS
+        txtBuscar = new JTextField(20);
+        txtBuscar.setActionCommand("BUSCAR_ASOCIADOS");
+        txtBuscar.setToolTipText("Apellido, nombre o DNI (alcanza con el comienzo)");
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { txtBuscar.postActionEvent(); }
+            @Override public void removeUpdate(DocumentEvent e) { txtBuscar.postActionEvent(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+        JPanel panelBusqueda = new JPanel(new BorderLayout(5, 5));
+        panelBusqueda.add(new JLabel("Buscar:"), BorderLayout.WEST);
+        panelBusqueda.add(txtBuscar, BorderLayout.CENTER);
+        JPanel panelListado = new JPanel(new BorderLayout(5, 5));
+        panelListado.add(panelBusqueda, BorderLayout.NORTH);
+        panelListado.add(scrollLista, BorderLayout.CENTER);
+
         // Añadir paneles al layout principal
         add(panelFormulario, BorderLayout.NORTH);
-        add(scrollLista, BorderLayout.CENTER);
+        add(panelListado, BorderLayout.CENTER);
         add(panelBotones, BorderLayout.SOUTH);
 
         // Deshabilitar botón eliminar inicialmente (hasta que se seleccione algo)
@@ -99,6 +139,27 @@ public class VentanaAsociados extends JFrame implements Observer { // Implementa
         btnAgregar.addActionListener(listener);
         btnEliminar.addActionListener(listener);
         btnLimpiar.addActionListener(listener);
+        btnImportar.addActionListener(listener);
+        btnExportar.addActionListener(listener);
+        txtBuscar.addActionListener(listener);
+    }
+
+    /**
+     * Indica que hay una importación en curso: deshabilita el botón y muestra el avance en él.
+     * @param texto Avance a mostrar, o null cuando terminó.
+     */
+    public void mostrarImportacion(String texto) {
+        btnImportar.setEnabled(texto == null);
+        btnImportar.setText(texto == null ? "Importar CSV..." : texto);
+    }
+
+    /**
+     * Indica que hay una exportación en curso: deshabilita el botón mientras dura.
+     * @param enCurso true al empezar, false al terminar.
+     */
+    public void mostrarExportacion(boolean enCurso) {
+        btnExportar.setEnabled(!enCurso);
+        btnExportar.setText(enCurso ? "Exportando..." : "Exportar...");
     }
 
     /**
@@ -145,22 +206,40 @@ public class VentanaAsociados extends JFrame implements Observer { // Implementa
      * @return La ciudad como String, sin espacios al inicio o fin.
      */
     public String getCiudad() { return txtCiudad.getText().trim(); }
+    /**
+     * Obtiene el texto del cuadro de búsqueda.
+     * @return El texto a buscar, sin espacios al inicio o fin.
+     */
+    public String getTextoBusqueda() { return txtBuscar.getText().trim(); }
+
+    /**
+     * Muestra en la lista los resultados de una búsqueda, o vuelve al padrón completo.
+     * @param resultados Los asociados encontrados, o null para mostrar todos.
+     */
+    public void mostrarResultadosBusqueda(List<Asociado> resultados) {
+        if (resultados == null) {
+            modeloResultados = null;
+            listaAsociadosVisual.setModel(listModel);
+            return;
+        }
+        if (modeloResultados == null) {
+            modeloResultados = new ModeloListaAsociados();
+            listaAsociadosVisual.setModel(modeloResultados);
+        }
+        modeloResultados.aplicar(CambioAsociados.cargaCompleta(resultados));
+    }
 
     /**
      * Obtiene el DNI del asociado seleccionado en la lista.
      * @return El DNI seleccionado, o null si no hay selección.
      */
     public String getDniSeleccionado() {
-        String seleccionado = listaAsociadosVisual.getSelectedValue();
-        if (seleccionado != null && seleccionado.contains("DNI: ")) {
-            // Extraer DNI (asumiendo formato "Apellido, Nombre (DNI: xxx)")
-            int inicioDni = seleccionado.indexOf("DNI: ") + 5;
-            int finDni = seleccionado.indexOf(")", inicioDni);
-            if (finDni > inicioDni) {
-                return seleccionado.substring(inicioDni, finDni);
-            }
+        int indice = listaAsociadosVisual.getSelectedIndex();
+        ListModel<Asociado> modelo = listaAsociadosVisual.getModel(); // El padrón o los resultados de la búsqueda
+        if (indice < 0 || indice >= modelo.getSize()) {
+            return null;
         }
-        return null;
+        return modelo.getElementAt(indice).getDni();
     }
 
 
@@ -182,20 +261,40 @@ public class VentanaAsociados extends JFrame implements Observer { // Implementa
 
     /**
      * Método del Observer: Se llama cuando GestorAsociados notifica un cambio.
+     * Puede llegar desde cualquier hilo; el cambio se aplica en el hilo de Swing.
      * @param o El objeto Observable (GestorAsociados).
-     * @param arg El argumento pasado (la lista actualizada de Asociado).
+     * @param arg El cambio (CambioAsociados).
      */
     @Override
     public void update(Observable o, Object arg) {
-        if (arg instanceof List) {
-            // Actualizar el JList
-            List<Asociado> asociados = (List<Asociado>) arg;
-            listModel.clear();
-            for (Asociado a : asociados) {
-                // Formato para mostrar en la lista
-                listModel.addElement(a.getApellido() + ", " + a.getNombre() + " (DNI: " + a.getDni() + ")");
-            }
+        if (!(arg instanceof CambioAsociados)) {
+            return;
         }
+        CambioAsociados cambio = (CambioAsociados) arg;
+        if (SwingUtilities.isEventDispatchThread()) {
+            aplicar(cambio);
+        } else {
+            SwingUtilities.invokeLater(() -> aplicar(cambio));
+        }
+    }
+
+    /** Aplica un cambio del gestor. Solo desde el hilo de Swing. */
+    private void aplicar(CambioAsociados cambio) {
+        if (cambio.getTipo() == CambioAsociados.Tipo.FALLO_PERSISTENCIA) {
+            mostrarError("Error de persistencia", "El asociado " + formatear(cambio.getAsociado())
+                    + " se modificó en pantalla pero no en la base de datos.\n" + cambio.getMensaje());
+            return;
+        }
+        listModel.aplicar(cambio);
+        if (modeloResultados != null) {
+            // Se repite la búsqueda cuando el índice ya recibió este cambio (después de esta notificación)
+            SwingUtilities.invokeLater(txtBuscar::postActionEvent);
+        }
+    }
+
+    /** Formato para mostrar un asociado en la lista. */
+    private static String formatear(Asociado a) {
+        return a.getApellido() + ", " + a.getNombre() + " (DNI: " + a.getDni() + ")";
     }
 
     /** Muestra la ventana */
@@ -20,6 +20,9 @@ public class VentanaPrincipal extends JFrame {
     private JMenuItem itemSalir, itemGestionAsociados, itemIniciarSimulacion,itemInicializarBD;
     private JButton btnGestionAsociados;
     private JButton btnSimulacion;
+    // --- Barra de estado (carga de asociados) ---
+    private JLabel lblEstado;
+    private JProgressBar barraCarga;
 
     /**
      * Constructor de la ventana principal.
@@ -89,8 +92,18 @@ public class VentanaPrincipal extends JFrame {
 
         this.setJMenuBar(menuBar);
 
+        // Barra de estado para el avance de la carga de asociados
+        JPanel panelEstado = new JPanel(new BorderLayout(10, 0));
+        panelEstado.setBorder(BorderFactory.createEmptyBorder(0, 10, 5, 10));
+        lblEstado = new JLabel(" ");
+        barraCarga = new JProgressBar();
+        barraCarga.setVisible(false);
+        panelEstado.add(lblEstado, BorderLayout.CENTER);
+        panelEstado.add(barraCarga, BorderLayout.EAST);
+
         add(panelTitulo, BorderLayout.NORTH);
         add(panelBotones, BorderLayout.CENTER);
+        add(panelEstado, BorderLayout.SOUTH);
     }
 
     /**
@@ -126,6 +139,17 @@ public class VentanaPrincipal extends JFrame {
         this.itemInicializarBD.setEnabled(habilitada);
     }
 
+    /**
+     * Muestra el estado de la carga de asociados en la barra inferior.
+     * @param texto Mensaje a mostrar.
+     * @param enCurso true mientras la carga sigue (muestra la barra de progreso).
+     */
+    public void mostrarEstadoCarga(String texto, boolean enCurso) {
+        lblEstado.setText(texto);
+        barraCarga.setIndeterminate(enCurso);
+        barraCarga.setVisible(enCurso);
+    }
+
     /**
      * Método para hacer visible la ventana (llamado desde el controlador o main).
      */
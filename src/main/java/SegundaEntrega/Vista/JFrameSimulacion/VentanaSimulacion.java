@@ -1,8 +1,13 @@
 package SegundaEntrega.Vista.JFrameSimulacion;
 
+import SegundaEntrega.Modelo.Negocio.Ambulancia;
+import SegundaEntrega.Modelo.Negocio.ModoEjecucion;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -14,11 +19,15 @@ public class VentanaSimulacion extends JFrame implements Observer {
 
     // --- Componentes ---
     private JSpinner spinnerSolicitudes; // Para configurar cant. solicitudes
+    private JComboBox<ModoEjecucion> comboModoEjecucion; // Pool fijo o hilos virtuales
+    private JTextField txtSemilla; // Semilla maestra (vacío = aleatoria)
     private JButton btnIniciar, btnFinalizar;
+    private JButton btnSimulacionRapida; // Corre la simulación por eventos discretos (reloj virtual)
     private JTextArea areaLogAmbulancia; // Muestra estado/actividad de la ambulancia
     private JTextArea areaLogGeneral;   // Muestra actividad general (asociados/operario)
     private JLabel lblEstadoAmbulancia; // Muestra el estado actual simple
     private JButton btnSolicitarMantenimiento; // Botón para el operario
+    private final Map<String, String> estadosPorUnidad = new LinkedHashMap<>(); // Último estado de cada ambulancia (solo EDT)
     /**
      * Constructor.
      */
@@ -37,16 +46,26 @@ public class VentanaSimulacion extends JFrame implements Observer {
         // Spinner para números enteros, valor inicial 1, mínimo 1
         spinnerSolicitudes = new JSpinner(new SpinnerNumberModel(1, 1, 100, 1));
         panelControles.add(spinnerSolicitudes);
+        panelControles.add(new JLabel("Modo:"));
+        comboModoEjecucion = new JComboBox<>(ModoEjecucion.values());
+        panelControles.add(comboModoEjecucion);
+        panelControles.add(new JLabel("Semilla:"));
+        txtSemilla = new JTextField(10);
+        txtSemilla.setToolTipText("Vacío = aleatoria. Con la misma semilla la simulación rápida se repite exactamente.");
+        panelControles.add(txtSemilla);
         btnIniciar = new JButton("Iniciar Simulación");
         btnIniciar.setActionCommand("INICIAR_SIMULACION");
         btnFinalizar = new JButton("Finalizar Simulación");
         btnFinalizar.setActionCommand("FINALIZAR_SIMULACION");
+        btnSimulacionRapida = new JButton("Simulación rápida (reloj virtual)");
+        btnSimulacionRapida.setActionCommand("SIMULACION_DISCRETA");
         btnSolicitarMantenimiento = new JButton("Solicitar Mantenimiento (Operario)");
         btnSolicitarMantenimiento.setActionCommand("SOLICITAR_MANTENIMIENTO");
         btnFinalizar.setEnabled(false);
         btnSolicitarMantenimiento.setEnabled(false);// Deshabilitado hasta que inicie
         panelControles.add(btnIniciar);
         panelControles.add(btnFinalizar);
+        panelControles.add(btnSimulacionRapida);
         panelControles.add(btnSolicitarMantenimiento);
 
         // Panel de Visualización (Centro) - Dividido
@@ -75,7 +94,7 @@ public class VentanaSimulacion extends JFrame implements Observer {
 
     private void configurarVentana() {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setSize(900, 600);
+        setSize(1250, 600);
         setLocationRelativeTo(null);
     }
 
@@ -86,6 +105,7 @@ public class VentanaSimulacion extends JFrame implements Observer {
     public void setControlador(ActionListener listener) {
         btnIniciar.addActionListener(listener);
         btnFinalizar.addActionListener(listener);
+        btnSimulacionRapida.addActionListener(listener);
         this.btnSolicitarMantenimiento.addActionListener(listener);
     }
 
@@ -98,6 +118,24 @@ public class VentanaSimulacion extends JFrame implements Observer {
         return (Integer) spinnerSolicitudes.getValue();
     }
 
+    /**
+     * Obtiene el modo de ejecución elegido en el combo.
+     * @return El ModoEjecucion seleccionado.
+     */
+    public ModoEjecucion getModoEjecucion() {
+        return (ModoEjecucion) comboModoEjecucion.getSelectedItem();
+    }
+
+    /**
+     * Obtiene la semilla ingresada.
+     * @return La semilla, o null si el campo está vacío.
+     * @throws NumberFormatException Si el texto no es un número entero.
+     */
+    public Long getSemilla() {
+        String texto = txtSemilla.getText().trim();
+        return texto.isEmpty() ? null : Long.parseLong(texto);
+    }
+
     /**
      * Habilita o deshabilita los controles según si la simulación está activa.
      * @param activa true si la simulación está corriendo, false si está detenida.
@@ -105,10 +143,22 @@ public class VentanaSimulacion extends JFrame implements Observer {
     public void setSimulacionActiva(boolean activa) {
         this.btnIniciar.setEnabled(activa);
         this.spinnerSolicitudes.setEnabled(activa);
+        this.comboModoEjecucion.setEnabled(activa);
+        this.txtSemilla.setEnabled(activa);
+        this.btnSimulacionRapida.setEnabled(activa);
         this.btnFinalizar.setEnabled(!activa);
         this.btnSolicitarMantenimiento.setEnabled(!activa);
     }
 
+    /**
+     * Bloquea los botones de inicio mientras corre la simulación rápida.
+     * @param enCurso true al comenzar la corrida, false al terminar.
+     */
+    public void setSimulacionRapidaEnCurso(boolean enCurso) {
+        this.btnIniciar.setEnabled(!enCurso);
+        this.btnSimulacionRapida.setEnabled(!enCurso);
+    }
+
     /** Añade texto al log general (hilos asociados/operario) */
     public void agregarLogGeneral(String mensaje) {
         SwingUtilities.invokeLater(() -> { // Asegurar actualización en el hilo de UI
@@ -118,6 +168,17 @@ public class VentanaSimulacion extends JFrame implements Observer {
     }
 
 
+    /**
+     * Muestra el reporte de métricas (esperas y utilización) en el panel de la flota.
+     * @param reporte Texto generado por MetricasSimulacion.
+     */
+    public void mostrarMetricas(String reporte) {
+        SwingUtilities.invokeLater(() -> {
+            areaLogAmbulancia.setText(reporte);
+            areaLogAmbulancia.setCaretPosition(0);
+        });
+    }
+
     /** Limpia las áreas de log */
     public void limpiarLogs() {
         SwingUtilities.invokeLater(() -> {
@@ -159,14 +220,29 @@ public class VentanaSimulacion extends JFrame implements Observer {
     public void update(Observable o, Object arg) {
         if (arg instanceof String) {
             String nuevoEstado = (String) arg;
+            String unidad = (o instanceof Ambulancia) ? ((Ambulancia) o).getIdentificador() : "Ambulancia";
             SwingUtilities.invokeLater(() -> { // Actualizar UI en su hilo
-                lblEstadoAmbulancia.setText("Estado Ambulancia: " + nuevoEstado);
+                estadosPorUnidad.put(unidad, nuevoEstado);
+                lblEstadoAmbulancia.setText("Estado Flota: " + formatearEstados());
                 // También podríamos añadirlo al log de ambulancia si queremos un historial
                 // agregarLogAmbulancia("Nuevo estado: " + nuevoEstado);
             });
         }
     }
 
+    /**
+     * Arma el texto con el estado de cada unidad de la flota.
+     * @return String del tipo "Ambulancia 1: EstadoDisponible | Ambulancia 2: ...".
+     */
+    private String formatearEstados() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entrada : estadosPorUnidad.entrySet()) {
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append(entrada.getKey()).append(": ").append(entrada.getValue());
+        }
+        return sb.toString();
+    }
+
     /** Muestra la ventana */
     public void mostrar() {
         setVisible(true);
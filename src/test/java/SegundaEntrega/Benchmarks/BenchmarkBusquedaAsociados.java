@@ -0,0 +1,109 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Negocio.GestorAsociados;
+import SegundaEntrega.Modelo.Negocio.IndiceBusquedaAsociados;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark JMH de la búsqueda de la mesa de entradas (20 resultados) sobre un padrón
+ * sintético: el IndiceBusquedaAsociados con un prefijo exacto, con un error de tipeo y
+ * con dos palabras, contra filtrar el listado del gestor con un stream (lo que había
+ * que hacer sin índice).
+ *
+ * Uso: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt y luego
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) org.openjdk.jmh.Main BenchmarkBusquedaAsociados
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class BenchmarkBusquedaAsociados {
+
+    private static final int LIMITE = 20;
+    private static final String[] APELLIDOS = {"Gonzalez", "Rodriguez", "Gomez", "Fernandez", "Lopez", "Diaz",
+            "Martinez", "Perez", "Garcia", "Sanchez", "Romero", "Sosa", "Torres", "Alvarez", "Ruiz"};
+
+    @State(Scope.Benchmark)
+    public static class Padron {
+        @Param({"100000", "1000000"})
+        int cantidad;
+
+        GestorAsociados gestor;
+        IndiceBusquedaAsociados indice;
+        PrintStream salidaOriginal;
+
+        @Setup(Level.Trial)
+        public void preparar() throws Exception {
+            salidaOriginal = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream())); // El gestor loguea cada alta
+            gestor = new GestorAsociados(new AsociadoDAOEnMemoria()); // Sin filas: el padrón se arma con altas sin notificar
+            for (int i = 0; i < cantidad; i++) {
+                // Un apellido común con un sufijo, para tener muchos apellidos distintos con prefijos compartidos
+                String apellido = APELLIDOS[i % APELLIDOS.length] + (i % 7 == 0 ? "" : sufijo(i / APELLIDOS.length));
+                gestor.altaAsociadoSinNotificar(new Asociado("Nombre" + (i / 7 % 3000), apellido,
+                        String.valueOf(10_000_000 + i), "D", "T", "C"));
+            }
+            gestor.notificarCargaCompleta();
+            indice = new IndiceBusquedaAsociados(gestor);
+        }
+
+        @TearDown(Level.Trial)
+        public void restaurar() {
+            indice.cerrar();
+            System.setOut(salidaOriginal);
+        }
+
+        private static String sufijo(int n) {
+            StringBuilder sufijo = new StringBuilder();
+            do {
+                sufijo.append((char) ('a' + n % 26));
+                n /= 26;
+            } while (n > 0);
+            return sufijo.toString();
+        }
+    }
+
+    @Benchmark
+    public List<Asociado> indicePrefijo(Padron p) {
+        return p.indice.buscar("martinezb", LIMITE);
+    }
+
+    @Benchmark
+    public List<Asociado> indiceErrorDeTipeo(Padron p) {
+        return p.indice.buscar("matrinezbq", LIMITE);
+    }
+
+    @Benchmark
+    public List<Asociado> indiceDosPalabras(Padron p) {
+        return p.indice.buscar("perez nombre12", LIMITE);
+    }
+
+    @Benchmark
+    public List<Asociado> recorridoPrefijo(Padron p) {
+        return p.gestor.getListadoAsociados().stream()
+                .filter(a -> a.getApellido().toLowerCase(Locale.ROOT).startsWith("martinezb"))
+                .limit(LIMITE).collect(Collectors.toList());
+    }
+}
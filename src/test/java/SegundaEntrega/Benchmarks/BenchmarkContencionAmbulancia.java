@@ -0,0 +1,192 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Negocio.Ambulancia;
+import SegundaEntrega.Patrones.PatronState.IEstadoAmbulancia;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark de contención sobre el monitor de la Ambulancia.
+ * Cientos de solicitantes quedan bloqueados a la vez y un hilo "liberador" devuelve
+ * la unidad a disponible apenas se ocupa. Se cuenta cuántas veces se evalúa una
+ * condición de espera (puede*()) por solicitud atendida: con wait/notifyAll cada
+ * transición despierta a todos; con una Condition por capacidad, a uno por cola.
+ *
+ * Uso: mvn test-compile y luego
+ * java -cp target/classes:target/test-classes SegundaEntrega.Benchmarks.BenchmarkContencionAmbulancia [solicitantes]
+ */
+public class BenchmarkContencionAmbulancia {
+
+    public static void main(String[] args) throws Exception {
+        int solicitantes = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+
+        PrintStream salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Los estados y la ambulancia loguean cada paso
+
+        Resultado legado = medirMonitorLegado(solicitantes);
+        Resultado condiciones = medirAmbulancia(solicitantes);
+
+        System.setOut(salidaOriginal);
+        System.out.println("Solicitantes concurrentes: " + solicitantes);
+        System.out.println("wait/notifyAll     -> " + legado);
+        System.out.println("Lock + Conditions  -> " + condiciones);
+    }
+
+    /** Mide la Ambulancia real con estados instantáneos que cuentan sus verificaciones. */
+    private static Resultado medirAmbulancia(int solicitantes) throws InterruptedException {
+        AtomicLong verificaciones = new AtomicLong();
+        Ambulancia ambulancia = new Ambulancia("Benchmark");
+        EstadoLibre libre = new EstadoLibre(ambulancia, verificaciones);
+        ambulancia.setEstado(libre);
+
+        return correr(solicitantes, verificaciones, i -> {
+            switch (i % 3) {
+                case 0: ambulancia.solicitarTraslado("S" + i); break;
+                case 1: ambulancia.solicitarAtencionDomicilio("S" + i); break;
+                default: ambulancia.solicitarMantenimiento("S" + i); break;
+            }
+        }, () -> {
+            if (ambulancia.getEstadoActual() != libre) ambulancia.retornarAClinica();
+        });
+    }
+
+    /** Reproduce el monitor original (synchronized + wait/notifyAll) con el mismo patrón de carga. */
+    private static Resultado medirMonitorLegado(int solicitantes) throws InterruptedException {
+        AtomicLong verificaciones = new AtomicLong();
+        MonitorLegado monitor = new MonitorLegado(verificaciones);
+        return correr(solicitantes, verificaciones, i -> monitor.solicitar(), monitor::liberar);
+    }
+
+    private static Resultado correr(int solicitantes, AtomicLong verificaciones,
+                                    Solicitud solicitud, Runnable liberar) throws InterruptedException {
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(solicitantes);
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < solicitantes; i++) {
+            final int id = i;
+            Thread t = new Thread(() -> {
+                try {
+                    largada.await();
+                    solicitud.accept(id);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            });
+            t.start();
+            hilos.add(t);
+        }
+        Thread liberador = new Thread(() -> {
+            while (fin.getCount() > 0) {
+                liberar.run();
+                Thread.onSpinWait();
+            }
+        });
+        long inicio = System.nanoTime();
+        largada.countDown();
+        liberador.start();
+        fin.await();
+        long nanos = System.nanoTime() - inicio;
+        liberador.join();
+        for (Thread t : hilos) t.join();
+        return new Resultado(solicitantes, verificaciones.get(), nanos);
+    }
+
+    /** Solicitud bloqueante hecha por el solicitante número {@code id}. */
+    private interface Solicitud {
+        void accept(int id) throws InterruptedException;
+    }
+
+    // --- Estados instantáneos para la Ambulancia real ---
+
+    private static class EstadoLibre implements IEstadoAmbulancia {
+        private final Ambulancia ambulancia;
+        private final AtomicLong verificaciones;
+        private final EstadoOcupado ocupado;
+
+        EstadoLibre(Ambulancia ambulancia, AtomicLong verificaciones) {
+            this.ambulancia = ambulancia;
+            this.verificaciones = verificaciones;
+            this.ocupado = new EstadoOcupado(this);
+        }
+
+        @Override public void solicitarAtencionDomicilio() { ambulancia.setEstado(ocupado); }
+        @Override public void solicitarTraslado() { ambulancia.setEstado(ocupado); }
+        @Override public void solicitarMantenimiento() { ambulancia.setEstado(ocupado); }
+        @Override public void retornarAClinica() { }
+        @Override public boolean puedeAtenderDomicilio() { verificaciones.incrementAndGet(); return true; }
+        @Override public boolean puedeTrasladar() { verificaciones.incrementAndGet(); return true; }
+        @Override public boolean puedeIrATaller() { verificaciones.incrementAndGet(); return true; }
+    }
+
+    private static class EstadoOcupado implements IEstadoAmbulancia {
+        private final EstadoLibre libre;
+
+        EstadoOcupado(EstadoLibre libre) {
+            this.libre = libre;
+        }
+
+        @Override public void solicitarAtencionDomicilio() { }
+        @Override public void solicitarTraslado() { }
+        @Override public void solicitarMantenimiento() { }
+        @Override public void retornarAClinica() { libre.ambulancia.setEstado(libre); }
+        @Override public boolean puedeAtenderDomicilio() { libre.verificaciones.incrementAndGet(); return false; }
+        @Override public boolean puedeTrasladar() { libre.verificaciones.incrementAndGet(); return false; }
+        @Override public boolean puedeIrATaller() { libre.verificaciones.incrementAndGet(); return false; }
+    }
+
+    // --- Monitor original, como referencia ---
+
+    private static class MonitorLegado {
+        private final AtomicLong verificaciones;
+        private boolean libre = true;
+
+        MonitorLegado(AtomicLong verificaciones) {
+            this.verificaciones = verificaciones;
+        }
+
+        synchronized void solicitar() throws InterruptedException {
+            while (!estaLibre()) {
+                wait();
+            }
+            libre = false;
+            notifyAll();
+        }
+
+        synchronized void liberar() {
+            if (!libre) {
+                libre = true;
+                notifyAll();
+            }
+        }
+
+        private boolean estaLibre() {
+            verificaciones.incrementAndGet();
+            return libre;
+        }
+    }
+
+    private static class Resultado {
+        private final int atendidas;
+        private final long verificaciones;
+        private final long nanos;
+
+        Resultado(int atendidas, long verificaciones, long nanos) {
+            this.atendidas = atendidas;
+            this.verificaciones = verificaciones;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d solicitudes en %.1f ms, %d verificaciones de condición (%.1f por solicitud)",
+                    atendidas, nanos / 1e6, verificaciones, (double) verificaciones / atendidas);
+        }
+    }
+}
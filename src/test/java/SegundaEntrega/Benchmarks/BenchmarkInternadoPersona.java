@@ -0,0 +1,69 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mide el heap que ocupa un padrón generado de asociados con y sin InternadorTextos.
+ *
+ * Los asociados se arman con el constructor de Persona a partir de Strings nuevos por
+ * fila, como los que entrega el driver JDBC: ~300 ciudades, 2000 nombres, 8000
+ * apellidos, y domicilio y teléfono distintos en cada fila. Se mide el heap vivo
+ * después de un GC completo y el tiempo de armado.
+ *
+ * Cada variante corre en su propia JVM (el internado se apaga con -Dclinica.internado=false).
+ * Uso: mvn test-compile y luego
+ * java -cp target/classes:target/test-classes SegundaEntrega.Benchmarks.BenchmarkInternadoPersona [asociados]
+ */
+public class BenchmarkInternadoPersona {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--medir")) {
+            medir(Integer.parseInt(args[1]));
+            return;
+        }
+        String asociados = args.length > 0 ? args[0] : "1000000";
+        System.out.println("Asociados: " + asociados);
+        for (boolean internado : new boolean[]{false, true}) {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            List<String> comando = List.of(java, "-Xms2g", "-Xmx2g", "-Dclinica.internado=" + internado, "-cp",
+                    System.getProperty("java.class.path"), BenchmarkInternadoPersona.class.getName(), "--medir", asociados);
+            Process proceso = new ProcessBuilder(comando).inheritIO().start();
+            if (proceso.waitFor() != 0) {
+                System.out.println("internado=" + internado + " -> falló, probablemente sin memoria.");
+            }
+        }
+    }
+
+    private static void medir(int cantidad) {
+        System.gc();
+        long base = heapUsado();
+        SplittableRandom azar = new SplittableRandom(42);
+        Asociado[] padron = new Asociado[cantidad];
+        long inicio = System.nanoTime();
+        for (int i = 0; i < cantidad; i++) {
+            // new String(...): cada fila trae su propia copia, como un ResultSet
+            padron[i] = new Asociado(
+                    new String("Nombre" + azar.nextInt(2000)),
+                    new String("Apellido" + azar.nextInt(8000)),
+                    String.valueOf(10_000_000 + i),
+                    "Calle " + azar.nextInt(5000) + " " + i,
+                    "223-" + (1_000_000 + i),
+                    new String("Ciudad " + azar.nextInt(300)));
+        }
+        long armadoMs = (System.nanoTime() - inicio) / 1_000_000;
+        System.gc();
+        long ocupado = heapUsado() - base;
+        System.out.printf("internado=%-5s -> %d asociados en %d ms, heap %d MB (%d bytes por asociado)%n",
+                System.getProperty("clinica.internado"), cantidad, armadoMs, ocupado >> 20, ocupado / cantidad);
+        if (padron[cantidad - 1].hashCode() == 42) System.out.print(""); // Que el padrón siga vivo hasta acá
+    }
+
+    private static long heapUsado() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,127 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Negocio.GestorAsociados;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de lecturas concurrentes con escrituras sobre el padrón de asociados.
+ * Tres hilos leen (listado completo y búsqueda por DNI) mientras uno da altas y bajas.
+ * Se compara el GestorAsociados actual (instantánea inmutable + índice concurrente)
+ * con el esquema anterior: todo synchronized y una copia de la lista por lectura.
+ *
+ * Uso: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt y luego
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) org.openjdk.jmh.Main BenchmarkLecturaGestorAsociados
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkLecturaGestorAsociados {
+
+    @State(Scope.Group)
+    public static class Padron {
+        @Param({"1000", "100000"})
+        int cantidad;
+
+        @Param({"actual", "legado"})
+        String implementacion;
+
+        OperacionesPadron padron;
+        PrintStream salidaOriginal;
+        int siguiente;
+
+        @Setup(Level.Trial)
+        public void preparar() throws Exception {
+            salidaOriginal = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream())); // El gestor loguea cada alta/baja
+            padron = "actual".equals(implementacion) ? new PadronActual() : new PadronLegado();
+            for (int i = 0; i < cantidad; i++) {
+                padron.cargar(new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+            }
+            padron.finCarga();
+            siguiente = cantidad;
+        }
+
+        @TearDown(Level.Trial)
+        public void restaurar() {
+            System.setOut(salidaOriginal);
+        }
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(3)
+    public void leer(Padron estado, Blackhole bh) {
+        List<Asociado> listado = estado.padron.listar();
+        bh.consume(listado.size());
+        bh.consume(estado.padron.buscar(String.valueOf(listado.size() / 2)));
+    }
+
+    @Benchmark
+    @Group("mixto")
+    @GroupThreads(1)
+    public void escribir(Padron estado) throws Exception {
+        // Alta seguida de baja: el tamaño del padrón se mantiene estable
+        Asociado nuevo = new Asociado("X", "Y", "E" + (estado.siguiente++), "D", "T", "C");
+        estado.padron.alta(nuevo);
+        estado.padron.baja(nuevo);
+    }
+
+    /** Operaciones comunes a las dos implementaciones comparadas. */
+    interface OperacionesPadron {
+        void cargar(Asociado a) throws Exception;
+        void finCarga();
+        List<Asociado> listar();
+        Optional<Asociado> buscar(String dni);
+        void alta(Asociado a) throws Exception;
+        void baja(Asociado a) throws Exception;
+    }
+
+    static class PadronActual implements OperacionesPadron {
+        private final GestorAsociados gestor = new GestorAsociados(new AsociadoDAOEnMemoria());
+        public void cargar(Asociado a) throws Exception { gestor.altaAsociadoSinNotificar(a); }
+        public void finCarga() { gestor.notificarCargaCompleta(); }
+        public List<Asociado> listar() { return gestor.getListadoAsociados(); }
+        public Optional<Asociado> buscar(String dni) { return gestor.buscarAsociadoPorDNI(dni); }
+        public void alta(Asociado a) throws Exception { gestor.altaAsociado(a); }
+        public void baja(Asociado a) throws Exception { gestor.bajaAsociado(a); }
+    }
+
+    /** El esquema anterior: un índice bajo synchronized y una copia completa por listado. */
+    static class PadronLegado implements OperacionesPadron {
+        private final Map<String, Asociado> asociados = new LinkedHashMap<>();
+        public synchronized void cargar(Asociado a) { asociados.putIfAbsent(a.getDni(), a); }
+        public void finCarga() { }
+        public synchronized List<Asociado> listar() { return new ArrayList<>(asociados.values()); }
+        public synchronized Optional<Asociado> buscar(String dni) { return Optional.ofNullable(asociados.get(dni)); }
+        public synchronized void alta(Asociado a) { asociados.put(a.getDni(), a); }
+        public synchronized void baja(Asociado a) { asociados.remove(a.getDni()); }
+    }
+}
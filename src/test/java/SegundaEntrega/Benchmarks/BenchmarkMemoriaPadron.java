@@ -0,0 +1,157 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Negocio.GestorAsociados;
+import SegundaEntrega.Modelo.Negocio.PadronAsociadosCompacto;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import SegundaEntrega.Persistencia.DAOAsociado.IAsociadoDAO;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compara el padrón en el heap (GestorAsociados: un Asociado con seis String por fila)
+ * contra PadronAsociadosCompacto (columnas fuera del heap) con el mismo padrón sintético.
+ *
+ * Por cada almacenamiento se mide:
+ * - heap ocupado después de un GC completo, y memoria directa (fuera del heap);
+ * - pausas del GC durante una carga de trabajo que busca asociados por DNI y arma textos
+ *   con sus datos, guardando los últimos RECIENTES (cantidad de colecciones, tiempo total
+ *   en GC y el mayor tiempo de GC entre dos muestras);
+ * - duración de un GC completo con el padrón vivo (System.gc()).
+ *
+ * Cada almacenamiento corre en su propia JVM para que el heap de uno no afecte al otro,
+ * con -Xms igual a -Xmx: si no, el heap casi vacío del padrón compacto arranca con una
+ * generación joven chica y las comparaciones de GC no son parejas.
+ * Uso: mvn test-compile y luego
+ * java -cp target/classes:target/test-classes SegundaEntrega.Benchmarks.BenchmarkMemoriaPadron [asociados] [heap de cada JVM]
+ */
+public class BenchmarkMemoriaPadron {
+
+    private static final String[] CIUDADES = {"Mar del Plata", "Tandil", "Balcarce", "Necochea", "Miramar",
+            "Pinamar", "Villa Gesell", "Olavarría", "Azul", "Bahía Blanca"};
+    private static final int BUSQUEDAS = 5_000_000;
+    private static final int RECIENTES = 100_000; // Resultados que sobreviven un rato, como en una pantalla o un reporte
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("--modo=")) {
+            correrEnEsteProceso(args[0].substring("--modo=".length()), Integer.parseInt(args[1]));
+            return;
+        }
+        String asociados = args.length > 0 ? args[0] : "2000000";
+        String xmx = args.length > 1 ? args[1] : "4g";
+        System.out.println("Asociados: " + asociados + ", -Xmx" + xmx);
+        for (String modo : new String[]{"LISTA", "COMPACTO"}) {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            List<String> comando = List.of(java, "-Xms" + xmx, "-Xmx" + xmx, "-XX:MaxDirectMemorySize=" + xmx, "-cp",
+                    System.getProperty("java.class.path"), BenchmarkMemoriaPadron.class.getName(), "--modo=" + modo, asociados);
+            Process proceso = new ProcessBuilder(comando).inheritIO().start();
+            if (proceso.waitFor() != 0) {
+                System.out.println(modo + " -> falló, probablemente sin memoria.");
+            }
+        }
+    }
+
+    private static void correrEnEsteProceso(String modo, int cantidad) throws Exception {
+        IAsociadoDAO dao = new DAOSintetico(cantidad);
+        long inicio = System.nanoTime();
+        Function<String, Optional<Asociado>> buscar;
+        Object padron; // Referencia viva durante todas las mediciones
+        if (modo.equals("LISTA")) {
+            GestorAsociados gestor = new GestorAsociados(dao);
+            gestor.cargarAsociadosDesdeBD();
+            buscar = gestor::buscarAsociadoPorDNI;
+            padron = gestor;
+        } else {
+            PadronAsociadosCompacto compacto = new PadronAsociadosCompacto();
+            compacto.cargarDesde(dao);
+            buscar = compacto::buscarAsociadoPorDNI;
+            padron = compacto;
+        }
+        long cargaMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long directa = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) directa = pool.getMemoryUsed();
+        }
+
+        String[] recientes = new String[RECIENTES];
+        long[] antes = colecciones();
+        long pausaMaxima = 0;
+        long encontrados = 0;
+        long ultimoTiempo = antes[1];
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        inicio = System.nanoTime();
+        for (int i = 0; i < BUSQUEDAS; i++) {
+            Optional<Asociado> asociado = buscar.apply(String.valueOf(10_000_000 + azar.nextInt(cantidad)));
+            if (asociado.isPresent()) {
+                recientes[i % RECIENTES] = asociado.get().getNombreCompleto() + ", " + asociado.get().getCiudad();
+                encontrados++;
+            }
+            if ((i & 0xFFFF) == 0) {
+                long tiempo = colecciones()[1]; // Aproximación: tiempo de GC acumulado entre muestras
+                pausaMaxima = Math.max(pausaMaxima, tiempo - ultimoTiempo);
+                ultimoTiempo = tiempo;
+            }
+        }
+        long trabajoMs = (System.nanoTime() - inicio) / 1_000_000;
+        long[] despues = colecciones();
+
+        inicio = System.nanoTime();
+        System.gc();
+        long gcCompletoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.printf("%-8s -> carga %d ms | heap %d MB, directa %d MB | %d búsquedas (%d encontradas) en %d ms: "
+                        + "%d GCs, %d ms en GC, máx. %d ms entre muestras | GC completo %d ms%n",
+                modo, cargaMs, heap >> 20, directa >> 20, BUSQUEDAS, encontrados, trabajoMs,
+                despues[0] - antes[0], despues[1] - antes[1], pausaMaxima, gcCompletoMs);
+        if (padron.hashCode() == 42) System.out.print(""); // Que el padrón siga vivo hasta acá
+    }
+
+    /** @return {colecciones, ms} acumulados de todos los recolectores. */
+    private static long[] colecciones() {
+        long cantidad = 0, ms = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            cantidad += Math.max(0, gc.getCollectionCount());
+            ms += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{cantidad, ms};
+    }
+
+    /** Genera el padrón al recorrerlo, sin tenerlo en memoria. */
+    private static final class DAOSintetico extends AsociadoDAOEnMemoria {
+        private final int cantidad;
+
+        DAOSintetico(int cantidad) {
+            this.cantidad = cantidad;
+        }
+
+        @Override
+        public Stream<Asociado> recorrerTodos(int tamanioFetch) {
+            return IntStream.range(0, cantidad).mapToObj(i -> {
+                Asociado a = new Asociado("Nombre" + (i % 5000), "Apellido" + (i % 20000), String.valueOf(10_000_000 + i),
+                        "Calle " + (i % 3000) + " " + (i % 9000), "223-" + (1_000_000 + i), CIUDADES[i % CIUDADES.length]);
+                a.marcarLimpio();
+                return a;
+            });
+        }
+
+        @Override
+        public List<Asociado> listarTodos() {
+            List<Asociado> todos = new ArrayList<>(cantidad);
+            recorrerTodos(0).forEach(todos::add);
+            return todos;
+        }
+    }
+}
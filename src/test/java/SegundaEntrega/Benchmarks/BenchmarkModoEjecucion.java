@@ -0,0 +1,103 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Negocio.ModoEjecucion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compara los modos de ejecución del Simulador: pool fijo (un hilo de plataforma por
+ * asociado) contra un hilo virtual por tarea. Cada tarea reproduce el patrón de
+ * AsociadoRunnable: espera entre solicitudes y una sección crítica breve sobre un lock
+ * compartido. Se mide el tiempo hasta completar y el pico de memoria residente (VmHWM).
+ *
+ * Cada modo corre en su propia JVM para que el RSS de uno no contamine al otro.
+ * Uso: mvn test-compile y luego
+ * java -cp target/classes:target/test-classes SegundaEntrega.Benchmarks.BenchmarkModoEjecucion [tareas] [solicitudes] [esperaMs]
+ */
+public class BenchmarkModoEjecucion {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith("--modo=")) {
+            ModoEjecucion modo = ModoEjecucion.valueOf(args[0].substring("--modo=".length()));
+            correrEnEsteProceso(modo, Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        String tareas = args.length > 0 ? args[0] : "10000";
+        String solicitudes = args.length > 1 ? args[1] : "3";
+        String esperaMs = args.length > 2 ? args[2] : "1000";
+        System.out.println("Tareas: " + tareas + ", solicitudes por tarea: " + solicitudes + ", espera: " + esperaMs + " ms");
+        for (ModoEjecucion modo : ModoEjecucion.values()) {
+            correrEnOtraJvm(modo, tareas, solicitudes, esperaMs);
+        }
+    }
+
+    private static void correrEnOtraJvm(ModoEjecucion modo, String tareas, String solicitudes, String esperaMs)
+            throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> comando = new ArrayList<>();
+        comando.add(java);
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(BenchmarkModoEjecucion.class.getName());
+        comando.add("--modo=" + modo.name());
+        comando.add(tareas);
+        comando.add(solicitudes);
+        comando.add(esperaMs);
+        Process proceso = new ProcessBuilder(comando).inheritIO().start();
+        int salida = proceso.waitFor();
+        if (salida != 0) {
+            System.out.println(modo + " -> falló (código " + salida + "), probablemente sin memoria o sin hilos disponibles.");
+        }
+    }
+
+    private static void correrEnEsteProceso(ModoEjecucion modo, int tareas, int solicitudes, int esperaMs)
+            throws InterruptedException {
+        ReentrantLock ambulanciaSimulada = new ReentrantLock();
+        long[] atendidas = new long[1];
+        long inicio = System.nanoTime();
+        ExecutorService executor = modo.crearExecutor(tareas);
+        for (int i = 0; i < tareas; i++) {
+            executor.submit(() -> {
+                for (int s = 0; s < solicitudes; s++) {
+                    try {
+                        Thread.sleep(esperaMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    ambulanciaSimulada.lock();
+                    try {
+                        atendidas[0]++;
+                    } finally {
+                        ambulanciaSimulada.unlock();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf("%-32s -> %d solicitudes en %d ms, pico RSS %s%n", modo, atendidas[0], ms, leerPicoRss());
+    }
+
+    /** Lee VmHWM (pico de memoria residente) de /proc; solo disponible en Linux. */
+    private static String leerPicoRss() {
+        try {
+            for (String linea : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (linea.startsWith("VmHWM:")) {
+                    return linea.substring("VmHWM:".length()).trim();
+                }
+            }
+        } catch (IOException ignored) {
+            // Fuera de Linux no hay /proc
+        }
+        return "n/d";
+    }
+}
@@ -0,0 +1,88 @@
+package SegundaEntrega.Benchmarks;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Negocio.HistogramaLatencias;
+import SegundaEntrega.Persistencia.ConexionBD.ConexionSingleton;
+import SegundaEntrega.Persistencia.ConexionBD.PoolConexiones;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOImpl;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia por operación del DAO de asociados con y sin el caché de sentencias
+ * preparadas del pool. Cada ronda hace guardar, buscarPorDNI, actualizar y eliminar
+ * sobre DNIs distintos y registra cada llamada en un histograma.
+ *
+ * Por defecto corre contra H2 en memoria (sin red: se mide sobre todo el costo de
+ * preparar). Con -Dclinica.db.url=... se puede apuntar a un MySQL real.
+ * Uso: mvn test-compile y luego
+ * java -cp target/classes:target/test-classes:h2.jar SegundaEntrega.Benchmarks.BenchmarkSentenciasDAO [operaciones]
+ */
+public class BenchmarkSentenciasDAO {
+
+    private static final String[] OPERACIONES = {"guardar", "buscarPorDNI", "actualizar", "eliminar"};
+
+    public static void main(String[] args) throws Exception {
+        int operaciones = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        if (System.getProperty("clinica.db.url") == null) {
+            System.setProperty("clinica.db.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+            System.setProperty("clinica.db.usuario", "sa");
+            System.setProperty("clinica.db.password", "");
+        }
+
+        PrintStream salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // El DAO loguea cada operación
+
+        String[] resultados = new String[2];
+        int[] tamanios = {0, PoolConexiones.TAMANIO_CACHE_SENTENCIAS};
+        for (int i = 0; i < tamanios.length; i++) {
+            System.setProperty("clinica.db.pool.sentencias", String.valueOf(tamanios[i]));
+            medir(operaciones / 4); // Calentamiento del JIT
+            resultados[i] = medir(operaciones);
+        }
+
+        System.setOut(salidaOriginal);
+        System.out.println("Operaciones por tipo: " + operaciones + " (" + System.getProperty("clinica.db.url") + ")");
+        System.out.println("Sin caché de sentencias:\n" + resultados[0]);
+        System.out.println("Con caché de sentencias (" + tamanios[1] + " por conexión):\n" + resultados[1]);
+    }
+
+    private static String medir(int operaciones) throws Exception {
+        AsociadoDAOImpl dao = new AsociadoDAOImpl();
+        dao.inicializarTablaAsociados();
+        HistogramaLatencias[] latencias = new HistogramaLatencias[OPERACIONES.length];
+        for (int i = 0; i < latencias.length; i++) {
+            latencias[i] = new HistogramaLatencias();
+        }
+        for (int i = 0; i < operaciones; i++) {
+            Asociado asociado = new Asociado("N" + i, "A" + i, String.valueOf(10_000_000 + i), "D", "T", "C");
+            cronometrar(latencias[0], () -> dao.guardar(asociado));
+            cronometrar(latencias[1], () -> dao.buscarPorDNI(asociado.getDni()));
+            asociado.setCiudad("Tandil");
+            cronometrar(latencias[2], () -> dao.actualizar(asociado));
+            cronometrar(latencias[3], () -> dao.eliminar(asociado));
+        }
+        StringBuilder resumen = new StringBuilder();
+        for (int i = 0; i < OPERACIONES.length; i++) {
+            resumen.append(String.format("  %-13s p50=%4d us  p99=%5d us  promedio=%6.1f us%n", OPERACIONES[i],
+                    latencias[i].getPercentil(50), latencias[i].getPercentil(99), latencias[i].getPromedio()));
+        }
+        resumen.append("  ").append(ConexionSingleton.getInstance().getPool().getResumenMetricas());
+        ConexionSingleton.getInstance().closeConnection();
+        return resumen.toString();
+    }
+
+    private static void cronometrar(HistogramaLatencias histograma, Operacion operacion) throws DAOException {
+        long inicio = System.nanoTime();
+        operacion.ejecutar();
+        histograma.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio));
+    }
+
+    /** Una llamada al DAO. */
+    private interface Operacion {
+        void ejecutar() throws DAOException;
+    }
+}
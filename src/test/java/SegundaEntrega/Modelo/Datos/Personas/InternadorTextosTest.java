@@ -0,0 +1,40 @@
+package SegundaEntrega.Modelo.Datos.Personas;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests del internador: comparte los textos repetidos, no crece y no confunde textos.
+ */
+public class InternadorTextosTest extends TestCase {
+
+    public void testComparteLosTextosRepetidos() {
+        InternadorTextos internador = new InternadorTextos(64);
+        String primera = internador.internar(new String("Tandil"));
+        assertSame(primera, internador.internar(new String("Tandil")));
+        assertSame(primera, internador.internar(new String("Tandil")));
+        assertNull(internador.internar(null));
+        String largo = "x".repeat(InternadorTextos.LARGO_MAXIMO + 1);
+        assertSame(largo, internador.internar(largo));
+        assertNotSame(largo, internador.internar(new String(largo)));
+    }
+
+    public void testLosTextosDeUnaVezNoDesplazanALosFrecuentes() {
+        InternadorTextos internador = new InternadorTextos(16);
+        String ciudad = internador.internar("Mar del Plata");
+        internador.internar(new String("Mar del Plata")); // Ya se repitió: queda en la primera ranura
+        for (int i = 0; i < 10_000; i++) {
+            String unico = "Domicilio " + i;
+            assertEquals(unico, internador.internar(unico));
+        }
+        assertSame(ciudad, internador.internar(new String("Mar del Plata")));
+    }
+
+    public void testPersonaCompartePorDefectoCiudadYNombres() {
+        Asociado ana = new Asociado(new String("Ana"), new String("Lopez"), "1", "D1", "T1", new String("Balcarce"));
+        Asociado eva = new Asociado(new String("Eva"), new String("Lopez"), "2", "D2", "T2", new String(" Balcarce "));
+        Asociado otra = new Asociado(new String("Ana"), new String("Diaz"), "3", "D3", "T3", new String("Balcarce"));
+        assertSame(eva.getCiudad(), otra.getCiudad());
+        assertSame(ana.getNombre(), otra.getNombre());
+        assertSame(eva.getApellido(), ana.getApellido());
+    }
+}
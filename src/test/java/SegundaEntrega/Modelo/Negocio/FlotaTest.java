@@ -0,0 +1,143 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Patrones.PatronState.EstadoAtendiendoDomicilio;
+import SegundaEntrega.Patrones.PatronState.EstadoEnTaller;
+import SegundaEntrega.Patrones.PatronState.EstadoTrasladandoPaciente;
+import SegundaEntrega.Patrones.PatronState.PlanificadorEventos;
+import junit.framework.TestCase;
+
+import java.util.PriorityQueue;
+
+/**
+ * Tests del despacho de la Flota: qué unidad toma cada solicitud y que los solicitantes
+ * bloqueados se despierten cuando una unidad se libera. Los estados usan un reloj manual,
+ * así los vencimientos ocurren solo cuando el test avanza el tiempo.
+ */
+public class FlotaTest extends TestCase {
+
+    private RelojManual reloj;
+
+    protected void setUp() {
+        reloj = new RelojManual();
+    }
+
+    public void testAsignaCadaSolicitudALaPrimeraUnidadQuePuede() {
+        Flota flota = new Flota(3, reloj);
+
+        assertTrue(flota.intentarTraslado("A"));
+        assertTrue(flota.intentarAtencionDomicilio("B"));
+        assertTrue(flota.intentarTraslado("C"));
+        assertFalse(flota.intentarAtencionDomicilio("D")); // Las tres ocupadas
+
+        assertTrue(flota.getUnidad(0).getEstadoActual() instanceof EstadoTrasladandoPaciente);
+        assertTrue(flota.getUnidad(1).getEstadoActual() instanceof EstadoAtendiendoDomicilio);
+        assertTrue(flota.getUnidad(2).getEstadoActual() instanceof EstadoTrasladandoPaciente);
+    }
+
+    public void testElMantenimientoSalteaLasUnidadesQueYaEstanEnTaller() {
+        Flota flota = new Flota(2, reloj);
+
+        assertTrue(flota.intentarMantenimiento("Operario"));
+        assertTrue(flota.intentarMantenimiento("Operario"));
+        assertFalse(flota.intentarMantenimiento("Operario")); // No termina el mantenimiento de ninguna
+
+        assertTrue(flota.getUnidad(0).getEstadoActual() instanceof EstadoEnTaller);
+        assertTrue(flota.getUnidad(1).getEstadoActual() instanceof EstadoEnTaller);
+    }
+
+    public void testDespiertaAlSolicitanteCuandoSeLiberaUnaUnidad() throws Exception {
+        Flota flota = new Flota(1, reloj);
+        assertTrue(flota.intentarTraslado("A"));
+
+        Thread solicitante = new Thread(() -> flota.solicitarTraslado("B"));
+        solicitante.start();
+        esperarBloqueado(solicitante);
+
+        avanzarHastaQueTermine(solicitante); // Fin del traslado de A: la unidad vuelve a estar disponible
+        assertTrue(flota.getUnidad(0).getEstadoActual() instanceof EstadoTrasladandoPaciente);
+    }
+
+    public void testElMantenimientoEnEsperaNoTerminaElTallerEnCurso() throws Exception {
+        Flota flota = new Flota(1, reloj);
+        assertTrue(flota.intentarMantenimiento("Operario"));
+
+        Thread operario = new Thread(() -> flota.solicitarMantenimiento("Operario 2"));
+        operario.start();
+        esperarBloqueado(operario); // Antes tomaba la unidad en taller y terminaba su mantenimiento
+        assertTrue(flota.getUnidad(0).getEstadoActual() instanceof EstadoEnTaller);
+
+        avanzarHastaQueTermine(operario); // Taller, regreso, disponible: recién ahí la vuelve a mandar
+        assertTrue(flota.getUnidad(0).getEstadoActual() instanceof EstadoEnTaller);
+    }
+
+    private static void esperarBloqueado(Thread hilo) throws InterruptedException {
+        for (int i = 0; i < 500 && hilo.getState() != Thread.State.WAITING; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.WAITING, hilo.getState());
+    }
+
+    /** Avanza el reloj de a poco hasta que el hilo termina (cada estado dura al menos 2 s). */
+    private void avanzarHastaQueTermine(Thread hilo) throws InterruptedException {
+        for (int i = 0; i < 200 && hilo.isAlive(); i++) {
+            reloj.avanzar(100);
+            hilo.join(50);
+        }
+        assertFalse("El solicitante sigue esperando", hilo.isAlive());
+    }
+
+    /** Reloj que solo avanza cuando el test lo pide; ejecuta los vencimientos en orden. */
+    private static class RelojManual implements PlanificadorEventos {
+        private final PriorityQueue<Programada> pendientes = new PriorityQueue<>();
+        private long ahora = 0;
+        private long secuencia = 0;
+
+        @Override
+        public synchronized void programar(Runnable tarea, long demoraMs) {
+            pendientes.add(new Programada(ahora + demoraMs, secuencia++, tarea));
+        }
+
+        @Override
+        public synchronized long ahoraMillis() {
+            return ahora;
+        }
+
+        void avanzar(long ms) {
+            long hasta;
+            synchronized (this) {
+                hasta = ahora + ms;
+            }
+            while (true) {
+                Programada proxima;
+                synchronized (this) {
+                    proxima = pendientes.peek();
+                    if (proxima == null || proxima.tiempo > hasta) {
+                        ahora = hasta;
+                        return;
+                    }
+                    pendientes.poll();
+                    ahora = proxima.tiempo;
+                }
+                proxima.tarea.run(); // Fuera del monitor del reloj: la tarea toma el lock de la ambulancia
+            }
+        }
+    }
+
+    private static class Programada implements Comparable<Programada> {
+        private final long tiempo;
+        private final long secuencia;
+        private final Runnable tarea;
+
+        Programada(long tiempo, long secuencia, Runnable tarea) {
+            this.tiempo = tiempo;
+            this.secuencia = secuencia;
+            this.tarea = tarea;
+        }
+
+        @Override
+        public int compareTo(Programada otra) {
+            int porTiempo = Long.compare(tiempo, otra.tiempo);
+            return porTiempo != 0 ? porTiempo : Long.compare(secuencia, otra.secuencia);
+        }
+    }
+}
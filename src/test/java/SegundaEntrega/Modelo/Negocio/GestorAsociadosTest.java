@@ -0,0 +1,215 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Modelo.Excepciones.AsociadoDuplicadoException;
+import SegundaEntrega.Persistencia.DAOAsociado.ColaEscrituraAsociados;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Tests del GestorAsociados con un DAO en memoria.
+ */
+public class GestorAsociadosTest extends TestCase {
+
+    private AsociadoDAOEnMemoria dao;
+    private GestorAsociados gestor;
+
+    protected void setUp() {
+        dao = new AsociadoDAOEnMemoria();
+        gestor = new GestorAsociados(dao);
+    }
+
+    public void testAltaBusquedaYBaja() throws Exception {
+        Asociado ana = new Asociado("Ana", "Lopez", "11111111", "D", "T", "C");
+        gestor.altaAsociado(ana);
+        assertSame(ana, gestor.buscarAsociadoPorDNI("11111111").get());
+        assertTrue(dao.filas.containsKey("11111111"));
+
+        gestor.bajaAsociado(new Asociado("X", "Y", "11111111", "", "", "")); // Igualdad por DNI
+        assertFalse(gestor.buscarAsociadoPorDNI("11111111").isPresent());
+        assertTrue(gestor.getListadoAsociados().isEmpty());
+    }
+
+    public void testAltaDuplicadaSeRechaza() throws Exception {
+        gestor.altaAsociado(new Asociado("Ana", "Lopez", "11111111", "D", "T", "C"));
+        try {
+            gestor.altaAsociado(new Asociado("Otra", "Persona", "11111111", "D", "T", "C"));
+            fail("Se esperaba AsociadoDuplicadoException");
+        } catch (AsociadoDuplicadoException esperada) {
+            assertEquals(1, gestor.getListadoAsociados().size());
+        }
+    }
+
+    public void testCargaConservaElOrdenEIgnoraDuplicados() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            dao.filas.put(String.valueOf(i), new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        gestor.cargarAsociadosDesdeBD();
+        gestor.altaAsociadoSinNotificar(new Asociado("Dup", "Dup", "5", "D", "T", "C"));
+        List<Asociado> listado = gestor.getListadoAsociados();
+        assertEquals(1000, listado.size());
+        assertEquals("0", listado.get(0).getDni());
+        assertEquals("999", listado.get(999).getDni());
+        assertEquals("N5", gestor.buscarAsociadoPorDNI("5").get().getNombre());
+    }
+
+    public void testNotificaSoloLaDiferencia() throws Exception {
+        List<CambioAsociados> cambios = new ArrayList<>();
+        gestor.addObserver((o, arg) -> cambios.add((CambioAsociados) arg));
+        for (int i = 0; i < 3; i++) {
+            dao.filas.put(String.valueOf(i), new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        gestor.cargarAsociadosDesdeBD();
+        gestor.altaAsociado(new Asociado("Ana", "Lopez", "9", "D", "T", "C"));
+        assertTrue(gestor.actualizarAsociado(new Asociado("Ana", "Perez", "9", "D", "T", "C")));
+        assertFalse(gestor.actualizarAsociado(new Asociado("Ana", "Perez", "9", "D", "T", "C"))); // Nada cambió
+        gestor.bajaAsociado(new Asociado("X", "Y", "1", "", "", ""));
+
+        assertEquals(CambioAsociados.Tipo.CARGA_PARCIAL, cambios.remove(0).getTipo()); // Inicio de la carga: listado vacío
+        assertEquals(4, cambios.size());
+        assertEquals(CambioAsociados.Tipo.CARGA_COMPLETA, cambios.get(0).getTipo());
+        assertEquals(3, cambios.get(0).getListado().size());
+        assertEquals(CambioAsociados.Tipo.AGREGADO, cambios.get(1).getTipo());
+        assertEquals(3, cambios.get(1).getPosicion());
+        assertEquals(CambioAsociados.Tipo.ACTUALIZADO, cambios.get(2).getTipo());
+        assertEquals(3, cambios.get(2).getPosicion());
+        assertEquals(CambioAsociados.Tipo.ELIMINADO, cambios.get(3).getTipo());
+        assertEquals(1, cambios.get(3).getPosicion());
+        assertTrue(gestor.buscarAsociadoPorDNI("9").get().isModificado()); // Queda para confirmarCambios()
+    }
+
+    public void testLasPosicionesDeLosCambiosCoincidenConElListado() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            dao.filas.put(String.valueOf(i), new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        gestor.cargarAsociadosDesdeBD();
+        List<CambioAsociados> cambios = new ArrayList<>();
+        gestor.addObserver((o, arg) -> cambios.add((CambioAsociados) arg));
+        List<Asociado> referencia = new ArrayList<>(gestor.getListadoAsociados());
+
+        SplittableRandom azar = new SplittableRandom(3);
+        for (int paso = 0; paso < 2000; paso++) {
+            Asociado elegido = referencia.get(azar.nextInt(referencia.size()));
+            int esperada = referencia.indexOf(elegido);
+            switch (azar.nextInt(3)) {
+                case 0:
+                    gestor.bajaAsociado(elegido);
+                    referencia.remove(esperada);
+                    break;
+                case 1:
+                    gestor.actualizarAsociado(new Asociado("Otro" + paso, "A", elegido.getDni(), "D", "T", "C"));
+                    referencia.set(esperada, gestor.buscarAsociadoPorDNI(elegido.getDni()).get());
+                    break;
+                default:
+                    Asociado nuevo = new Asociado("Nuevo", "A", String.valueOf(10_000 + paso), "D", "T", "C");
+                    gestor.altaAsociado(nuevo);
+                    esperada = referencia.size();
+                    referencia.add(nuevo);
+                    break;
+            }
+            assertEquals(esperada, cambios.get(cambios.size() - 1).getPosicion());
+        }
+        assertEquals(referencia, gestor.getListadoAsociados());
+    }
+
+    public void testElLoteConEscrituraDiferidaFuerzaElDiarioUnaVez() throws Exception {
+        Path diario = Files.createTempFile("asociados", ".diario");
+        ColaEscrituraAsociados cola = new ColaEscrituraAsociados(dao, diario);
+        try {
+            gestor.usarEscrituraDiferida(cola);
+            List<Asociado> lote = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                lote.add(new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+            }
+            assertEquals(2000, gestor.altaAsociadosEnLote(lote, (a, motivo) -> fail(motivo)));
+            assertEquals(1, cola.getSincronizaciones());
+
+            gestor.altaAsociado(new Asociado("Ana", "Lopez", "9999", "D", "T", "C"));
+            gestor.bajaAsociado(new Asociado("X", "Y", "0", "", "", ""));
+            assertTrue(gestor.actualizarAsociado(new Asociado("Otro", "A1", "1", "D", "T", "C")));
+            assertTrue(cola.vaciar(5000));
+            assertEquals(2000, dao.filas.size());
+            assertFalse(dao.filas.containsKey("0"));
+            assertEquals("Otro", dao.filas.get("1").getNombre());
+            assertEquals(2000, gestor.getListadoAsociados().size());
+        } finally {
+            cola.cerrar(1000);
+            Files.deleteIfExists(diario);
+        }
+    }
+
+    public void testActualizarReemplazaLaInstanciaSinTocarLaPublicada() throws Exception {
+        Asociado ana = new Asociado("Ana", "Lopez", "9", "D", "T", "C");
+        gestor.altaAsociado(ana);
+        List<Asociado> antes = gestor.getListadoAsociados();
+        List<CambioAsociados> cambios = new ArrayList<>();
+        gestor.addObserver((o, arg) -> cambios.add((CambioAsociados) arg));
+
+        assertTrue(gestor.actualizarAsociado(new Asociado("Ana", "Perez", "9", "D", "T", "C")));
+
+        assertEquals("Lopez", ana.getApellido()); // Quien la estaba leyendo no ve un cambio a medias
+        assertSame(ana, antes.get(0));
+        Asociado nueva = gestor.buscarAsociadoPorDNI("9").get();
+        assertNotSame(ana, nueva);
+        assertEquals("Perez", nueva.getApellido());
+        assertSame(nueva, gestor.getListadoAsociados().get(0));
+        assertSame(ana, cambios.get(0).getAnterior());
+        assertSame(nueva, cambios.get(0).getAsociado());
+
+        assertEquals(1, gestor.confirmarCambios());
+        assertEquals("Perez", dao.filas.get("9").getApellido());
+        assertEquals(0, gestor.confirmarCambios());
+    }
+
+    public void testCargaInformaElAvancePorPagina() throws Exception {
+        for (int i = 0; i < 2500; i++) {
+            dao.filas.put(String.valueOf(i), new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        List<Integer> avances = new ArrayList<>();
+        gestor.cargarAsociadosDesdeBD(avances::add);
+        assertEquals(List.of(1000, 2000, 2500), avances);
+        assertEquals(2500, gestor.getListadoAsociados().size());
+    }
+
+    public void testUnaBajaDuranteLaCargaNoVuelveConLaPaginaSiguiente() throws Exception {
+        for (int i = 0; i < 2500; i++) {
+            dao.filas.put(String.valueOf(i), new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        // El cursor ya tiene la fila 2200 cuando, a mitad de la carga, la interfaz la da de baja
+        boolean[] darDeBaja = {true};
+        gestor = new GestorAsociados(new AsociadoDAOEnMemoria() {
+            @Override
+            public Stream<Asociado> recorrerTodos(int tamanioFetch) {
+                List<Asociado> filas = dao.listarTodos();
+                return filas.stream().peek(a -> {
+                    if (darDeBaja[0] && a.getDni().equals("1500")) {
+                        darDeBaja(filas.get(2200));
+                    }
+                });
+            }
+        });
+        gestor.cargarAsociadosDesdeBD();
+
+        assertFalse(gestor.buscarAsociadoPorDNI("2200").isPresent());
+        assertEquals(2499, gestor.getListadoAsociados().size());
+
+        darDeBaja[0] = false;
+        gestor.cargarAsociadosDesdeBD(); // La baja ya no se recuerda en la carga siguiente
+        assertTrue(gestor.buscarAsociadoPorDNI("2200").isPresent());
+    }
+
+    private void darDeBaja(Asociado asociado) {
+        try {
+            gestor.bajaAsociado(asociado);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
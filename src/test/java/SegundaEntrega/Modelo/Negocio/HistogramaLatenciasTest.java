@@ -0,0 +1,123 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Patrones.PatronState.PlanificadorEventos;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Tests del histograma de latencias (cubetas exactas, límites en potencias de 2 y error
+ * relativo de los percentiles) y de la utilización que calcula MetricasSimulacion.
+ */
+public class HistogramaLatenciasTest extends TestCase {
+
+    private static final long GRANDE = Long.MAX_VALUE; // Fija el máximo: el percentil no queda acotado por él
+
+    public void testValoresChicosSonExactos() {
+        for (long v = 0; v < 32; v++) {
+            assertEquals(v, limiteDeLaCubeta(v));
+        }
+        HistogramaLatencias h = new HistogramaLatencias();
+        for (long v = 0; v < 32; v++) {
+            h.registrar(v);
+        }
+        assertEquals(15, h.getPercentil(50));   // 16° valor de 32
+        assertEquals(31, h.getPercentil(100));
+        assertEquals(0, h.getPercentil(0));     // Al menos el primer valor
+    }
+
+    public void testLimitesEnLasPotenciasDeDos() {
+        assertEquals(33, limiteDeLaCubeta(32));  // A partir de 32, cubetas de 2
+        assertEquals(33, limiteDeLaCubeta(33));
+        assertEquals(35, limiteDeLaCubeta(34));
+        assertEquals(63, limiteDeLaCubeta(62));
+        assertEquals(63, limiteDeLaCubeta(63));  // Última cubeta de [32, 64)
+        assertEquals(67, limiteDeLaCubeta(64));  // Primera de [64, 128), de a 4
+        assertEquals(1023, limiteDeLaCubeta(1023));
+        assertEquals(1024 + 64 - 1, limiteDeLaCubeta(1024));
+        for (int exponente = 5; exponente < 62; exponente++) {
+            long potencia = 1L << exponente;
+            assertEquals(potencia - 1, limiteDeLaCubeta(potencia - 1));
+            assertEquals(potencia + (potencia >> 4) - 1, limiteDeLaCubeta(potencia));
+        }
+    }
+
+    public void testErrorRelativoMenorAlSeisPorCiento() {
+        SplittableRandom azar = new SplittableRandom(3);
+        for (int i = 0; i < 100_000; i++) {
+            long v = 32 + (azar.nextLong() >>> (1 + azar.nextInt(56))); // Todas las escalas
+            long limite = limiteDeLaCubeta(v);
+            assertTrue(v + " -> " + limite, limite >= v);
+            assertTrue(v + " -> " + limite, (limite - v) < v / 16.0);
+        }
+    }
+
+    public void testPercentilesContraUnaReferenciaOrdenada() {
+        SplittableRandom azar = new SplittableRandom(11);
+        int n = 50_000;
+        long[] valores = new long[n];
+        HistogramaLatencias h = new HistogramaLatencias();
+        for (int i = 0; i < n; i++) {
+            // Cola larga: la mayoría cerca de 100 ms, algunas de varios segundos
+            valores[i] = (long) Math.exp(4.6 + azar.nextDouble() * azar.nextDouble() * 4);
+            h.registrar(valores[i]);
+        }
+        long[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long referencia = ordenados[(int) Math.ceil(p / 100 * n) - 1];
+            long estimado = h.getPercentil(p);
+            assertTrue("p" + p + ": " + estimado + " < " + referencia, estimado >= referencia);
+            assertTrue("p" + p + ": " + estimado + " vs " + referencia, estimado - referencia <= referencia / 16);
+        }
+        assertEquals(ordenados[n - 1], h.getMaximo());
+        assertEquals(ordenados[n - 1], h.getPercentil(100)); // Acotado por el máximo exacto
+        assertEquals(Arrays.stream(valores).average().getAsDouble(), h.getPromedio(), 1e-6);
+    }
+
+    public void testSinMedicionesYValoresNegativos() {
+        HistogramaLatencias h = new HistogramaLatencias();
+        assertEquals(0, h.getPercentil(99));
+        assertEquals(0.0, h.getPromedio());
+        h.registrar(-5);
+        assertEquals(1, h.getCantidad());
+        assertEquals(0, h.getPercentil(50));
+    }
+
+    public void testUtilizacionConRelojVirtual() {
+        RelojFijo reloj = new RelojFijo();
+        Flota flota = new Flota(2, reloj);
+        MetricasSimulacion metricas = new MetricasSimulacion(flota);
+
+        reloj.ahora = 1000;
+        assertTrue(flota.intentarTraslado("A")); // La unidad 1 queda ocupada desde 1000
+        reloj.ahora = 4000;
+        assertEquals(3000.0 / 8000, metricas.getUtilizacion(), 1e-9);
+
+        metricas.finalizar();
+        reloj.ahora = 10_000; // Después del cierre el tiempo ya no cuenta
+        assertEquals(3000.0 / 8000, metricas.getUtilizacion(), 1e-9);
+        Map<String, Long> unidad1 = metricas.getPermanenciaPorEstado(flota.getUnidad(0));
+        assertEquals(Long.valueOf(1000), unidad1.get("EstadoDisponible"));
+        assertEquals(Long.valueOf(3000), unidad1.get("EstadoTrasladandoPaciente"));
+        assertEquals(Long.valueOf(4000), metricas.getPermanenciaPorEstado(flota.getUnidad(1)).get("EstadoDisponible"));
+    }
+
+    /** Límite superior de la cubeta de un valor, visto desde afuera: p50 de {valor, GRANDE}. */
+    private static long limiteDeLaCubeta(long valor) {
+        HistogramaLatencias h = new HistogramaLatencias();
+        h.registrar(valor);
+        h.registrar(GRANDE);
+        return h.getPercentil(50);
+    }
+
+    /** Reloj que el test mueve a mano; los vencimientos de los estados nunca llegan. */
+    private static class RelojFijo implements PlanificadorEventos {
+        private long ahora = 0;
+
+        @Override public void programar(Runnable tarea, long demoraMs) { }
+        @Override public long ahoraMillis() { return ahora; }
+    }
+}
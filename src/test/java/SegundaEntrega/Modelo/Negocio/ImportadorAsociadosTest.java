@@ -0,0 +1,112 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import SegundaEntrega.Persistencia.DAOAsociado.ExportadorAsociados;
+import junit.framework.TestCase;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests de la importación masiva: validación, rechazos con su línea, duplicados,
+ * campos con saltos de línea (ida y vuelta con la exportación) y orden de las altas
+ * con varias tandas validadas en paralelo.
+ */
+public class ImportadorAsociadosTest extends TestCase {
+
+    private AsociadoDAOEnMemoria dao;
+    private GestorAsociados gestor;
+
+    protected void setUp() throws Exception {
+        dao = new AsociadoDAOEnMemoria();
+        gestor = new GestorAsociados(dao);
+        gestor.altaAsociado(new Asociado("Eva", "Diaz", "30000000", "D", "T", "C"));
+    }
+
+    public void testValidaYRechazaConElNumeroDeLinea() throws Exception {
+        String csv = "﻿DNI;Nombre;Apellido;Domicilio;Telefono;Ciudad\n"
+                + "20.111.222;Ana;Lopez;\"Calle 1; piso 2\";223;Tandil\n"   // 2: válida, DNI con puntos
+                + "123;Juan;Perez\n"                                         // 3: DNI inválido
+                + "\n"
+                + "20333444;Luis;\n"                                        // 5: falta el apellido
+                + "20111222;Otra;Ana\n"                                     // 6: repetido en el archivo
+                + "30000000;Eva;Diaz\n"                                     // 7: ya registrado
+                + "20555666;\"Maria \"\"Mary\"\"\";Gomez\n";                // 8: válida, sin columnas opcionales
+
+        ResultadoImportacion resultado = new ImportadorAsociados(gestor, 2).importar(new StringReader(csv), null);
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(4, resultado.getRechazadas());
+        List<Long> lineas = new ArrayList<>();
+        for (ResultadoImportacion.Rechazo rechazo : resultado.getDetalleRechazos()) {
+            lineas.add(rechazo.getLinea());
+        }
+        assertEquals(List.of(3L, 5L, 6L, 7L), lineas);
+
+        Asociado ana = gestor.buscarAsociadoPorDNI("20111222").get();
+        assertEquals("Calle 1; piso 2", ana.getDomicilio());
+        assertEquals("Maria \"Mary\"", gestor.buscarAsociadoPorDNI("20555666").get().getNombre());
+        assertEquals("", gestor.buscarAsociadoPorDNI("20555666").get().getCiudad());
+        assertEquals(3, dao.filas.size());
+    }
+
+    public void testUnCampoConSaltosDeLineaSigueEnLaLineaSiguiente() throws Exception {
+        String csv = "dni;nombre;apellido;domicilio\n"
+                + "20111222;Ana;Lopez;\"Calle 1\n"                        // 2-3: un solo registro
+                + "piso 2\"\n"
+                + "123;Juan;Perez\n"                                       // 4: DNI inválido
+                + "20555666;Luis;Gomez;\"\"\"Depto\"\"\r\n\r\nB\"\n";      // 5-7: comillas y líneas vacías adentro
+
+        ResultadoImportacion resultado = new ImportadorAsociados(gestor, 2).importar(new StringReader(csv), null);
+
+        assertEquals(3, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(4L, resultado.getDetalleRechazos().get(0).getLinea());
+        assertEquals("Calle 1\npiso 2", gestor.buscarAsociadoPorDNI("20111222").get().getDomicilio());
+        assertEquals("\"Depto\"\n\nB", gestor.buscarAsociadoPorDNI("20555666").get().getDomicilio());
+    }
+
+    public void testImportaLoQueExporta() throws Exception {
+        Asociado ana = new Asociado("Ana", "Lopez", "20111222", "Calle 1\npiso 2; \"B\"", "223", "Tandil");
+        gestor.altaAsociado(ana);
+        Path archivo = Files.createTempFile("padron", ".csv");
+        try {
+            new ExportadorAsociados(dao, false).exportar(archivo, ExportadorAsociados.Formato.CSV);
+            GestorAsociados otro = new GestorAsociados(new AsociadoDAOEnMemoria());
+
+            ResultadoImportacion resultado = new ImportadorAsociados(otro, 2).importar(archivo, null);
+
+            assertEquals(2, resultado.getImportadas());
+            assertEquals(0, resultado.getRechazadas());
+            assertEquals("Calle 1\npiso 2; \"B\"", otro.buscarAsociadoPorDNI("20111222").get().getDomicilio());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    public void testVariasTandasSeDanDeAltaEnOrden() throws Exception {
+        int filas = 2 * ImportadorAsociados.FILAS_POR_TANDA + 500;
+        StringBuilder csv = new StringBuilder("dni,nombre,apellido\n");
+        for (int i = 0; i < filas; i++) {
+            csv.append(40_000_000 + i).append(",N").append(i).append(",A").append(i).append('\n');
+        }
+        List<Integer> avances = new ArrayList<>();
+
+        ResultadoImportacion resultado = new ImportadorAsociados(gestor, 4).importar(new StringReader(csv.toString()), avances::add);
+
+        assertEquals(filas, resultado.getImportadas());
+        assertEquals(0, resultado.getRechazadas());
+        assertEquals(List.of(1000, 2000, 2500), avances);
+        List<Asociado> listado = gestor.getListadoAsociados();
+        assertEquals(filas + 1, listado.size());
+        for (int i = 0; i < filas; i++) {
+            assertEquals(String.valueOf(40_000_000 + i), listado.get(i + 1).getDni());
+        }
+        assertEquals(filas + 1, dao.filas.size());
+    }
+}
@@ -0,0 +1,131 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests del índice de búsqueda: prefijos, tildes, varias palabras, errores de tipeo
+ * y sincronización con las altas, bajas, modificaciones y cargas del gestor.
+ */
+public class IndiceBusquedaAsociadosTest extends TestCase {
+
+    private AsociadoDAOEnMemoria dao;
+    private GestorAsociados gestor;
+    private IndiceBusquedaAsociados indice;
+
+    protected void setUp() throws Exception {
+        dao = new AsociadoDAOEnMemoria();
+        gestor = new GestorAsociados(dao);
+        gestor.altaAsociado(new Asociado("Ana María", "López", "20111222", "D", "T", "Tandil"));
+        gestor.altaAsociado(new Asociado("Juan", "Lopresti", "20333444", "D", "T", "Azul"));
+        gestor.altaAsociado(new Asociado("Lucía", "Pérez Loza", "27555666", "D", "T", "Tandil"));
+        indice = new IndiceBusquedaAsociados(gestor);
+    }
+
+    protected void tearDown() {
+        indice.cerrar();
+    }
+
+    public void testCerrarDejaDeObservarYTerminaElHilo() throws Exception {
+        int observadores = gestor.countObservers();
+        long hilos = hilosDelIndice();
+        indice.cerrar();
+        assertEquals(observadores - 1, gestor.countObservers());
+        assertEquals(hilos - 1, hilosDelIndice());
+
+        gestor.altaAsociado(new Asociado("Pedro", "Gomez", "30111222", "D", "T", "C"));
+        assertTrue(indice.buscar("gomez", 10).isEmpty()); // Ya no sigue al gestor
+        assertEquals(1, indice.buscar("lopresti", 10).size()); // Pero sigue buscando
+    }
+
+    private static long hilosDelIndice() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(h -> h.getName().equals("indice-busqueda-asociados") && h.isAlive()).count();
+    }
+
+    public void testBuscaPorPrefijoSinTildesYConVariasPalabras() {
+        assertEquals(List.of("20111222", "20333444", "27555666"), dnis(indice.buscar("lo", 10)));
+        assertEquals(List.of("20111222"), dnis(indice.buscar("LOPEZ", 10)));
+        assertEquals(List.of("20111222"), dnis(indice.buscar("maria", 10)));
+        assertEquals(List.of("27555666"), dnis(indice.buscar("Pérez, Lu", 10)));
+        assertEquals(List.of("20333444"), dnis(indice.buscar("2033", 10)));
+        assertEquals(2, indice.buscar("lop", 2).size());
+        assertEquals(1, indice.buscar("lop", 1).size());
+        assertTrue(indice.buscar("  ", 10).isEmpty());
+        assertTrue(indice.buscar("gomez", 10).isEmpty());
+    }
+
+    public void testToleraUnErrorDeTipeo() {
+        assertEquals(List.of("20333444"), dnis(indice.buscar("lorpesti", 10)));  // Letras invertidas
+        assertEquals(List.of("20111222"), dnis(indice.buscar("lopaz", 10)));     // Letra cambiada
+        assertEquals(List.of("27555666"), dnis(indice.buscar("prez", 10)));      // Letra de menos
+        assertEquals(List.of("20333444"), dnis(indice.buscar("20334444", 10)));  // Dígito cambiado
+        assertTrue(indice.buscar("xy", 10).isEmpty());                            // Corto: solo exacto
+        // Lo exacto primero, lo aproximado después
+        assertEquals("20111222", indice.buscar("lopez", 10).get(0).getDni());
+    }
+
+    public void testSeMantieneSincronizadoConElGestor() throws Exception {
+        gestor.altaAsociado(new Asociado("Pedro", "Gomez", "30111222", "D", "T", "C"));
+        assertTrue(indice.ponerAlDia(1000));
+        assertEquals(List.of("30111222"), dnis(indice.buscar("gom", 10)));
+
+        Asociado baja = new Asociado();
+        baja.setDni("20333444");
+        gestor.bajaAsociado(baja);
+        assertTrue(indice.ponerAlDia(1000));
+        assertEquals(List.of("20111222", "27555666"), dnis(indice.buscar("lo", 10)));
+
+        gestor.actualizarAsociado(new Asociado("Ana", "Suárez", "20111222", "D", "T", "Tandil"));
+        assertTrue(indice.ponerAlDia(1000));
+        assertTrue(indice.buscar("lopez", 10).isEmpty());
+        assertEquals(List.of("20111222"), dnis(indice.buscar("suarez ana", 10)));
+
+        gestor.confirmarCambios(); // La modificación llega al DAO (el gestor ya no edita su instancia)
+        gestor.cargarAsociadosDesdeBD(); // Recarga desde el DAO: se reemplaza todo el índice
+        assertTrue(indice.ponerAlDia(1000));
+        assertEquals(List.of("30111222"), dnis(indice.buscar("gomez", 10)));
+        assertEquals(List.of("20111222"), dnis(indice.buscar("suarez", 10)));
+        assertTrue(indice.buscar("lopresti", 10).isEmpty());
+        assertEquals(10, indice.getCantidadClaves()); // Palabras de los tres asociados más sus DNI
+    }
+
+    public void testUnaRafagaDeCambiosSeAplicaEntera() throws Exception {
+        int cantidad = 300;
+        for (int i = 0; i < cantidad; i++) { // Todos con la misma clave "gomez"
+            gestor.altaAsociado(new Asociado("N" + i, "Gomez", String.valueOf(40_000_000 + i), "D", "T", "C"));
+        }
+        int vigentes = cantidad;
+        for (int i = 0; i < cantidad; i += 3) {
+            Asociado baja = new Asociado();
+            baja.setDni(String.valueOf(40_000_000 + i));
+            gestor.bajaAsociado(baja);
+            vigentes--;
+        }
+        for (int i = 1; i < cantidad; i += 3) { // La mitad deja de ser Gomez
+            gestor.actualizarAsociado(new Asociado("N" + i, i % 2 == 0 ? "Gomez Diaz" : "Diaz",
+                    String.valueOf(40_000_000 + i), "D", "T", "C"));
+            if (i % 2 != 0) vigentes--;
+        }
+        assertTrue(indice.ponerAlDia(5000));
+
+        List<Asociado> gomez = indice.buscar("gomez", 1000);
+        assertEquals(vigentes, gomez.size());
+        for (Asociado a : gomez) {
+            assertSame(a, gestor.buscarAsociadoPorDNI(a.getDni()).get()); // Ni bajas ni versiones viejas
+        }
+        int claves = 0;
+        for (Asociado a : gestor.getListadoAsociados()) claves += IndiceBusquedaAsociados.claves(a).size();
+        assertEquals(claves, indice.getCantidadClaves());
+    }
+
+    private static List<String> dnis(List<Asociado> asociados) {
+        List<String> dnis = new ArrayList<>();
+        for (Asociado a : asociados) dnis.add(a.getDni());
+        return dnis;
+    }
+}
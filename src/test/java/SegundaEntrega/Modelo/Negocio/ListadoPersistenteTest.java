@@ -0,0 +1,107 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tests del listado persistente: altas, bajas y reemplazos al azar comparados con una
+ * ArrayList, posición por clave y que las versiones anteriores no cambien.
+ */
+public class ListadoPersistenteTest extends TestCase {
+
+    public void testCoincideConUnaListaComun() {
+        SplittableRandom azar = new SplittableRandom(5);
+        ListadoPersistente listado = ListadoPersistente.VACIO;
+        List<Asociado> referencia = new ArrayList<>();
+        int siguiente = 0;
+        for (int paso = 0; paso < 20_000; paso++) {
+            int operacion = azar.nextInt(10);
+            if (operacion < 5 || referencia.isEmpty()) {
+                Asociado nuevo = asociado(siguiente);
+                listado = listado.agregar(siguiente++, nuevo);
+                referencia.add(nuevo);
+            } else if (operacion < 8) {
+                int i = azar.nextInt(referencia.size());
+                listado = listado.quitar(i);
+                referencia.remove(i);
+            } else {
+                int i = azar.nextInt(referencia.size());
+                Asociado otro = asociado(Integer.parseInt(referencia.get(i).getDni())); // Misma clave
+                listado = listado.reemplazar(i, otro);
+                referencia.set(i, otro);
+            }
+            if (paso % 1000 == 0) {
+                assertEquals(referencia, listado);
+            }
+        }
+        assertEquals(referencia, listado);
+        for (int i = 0; i < referencia.size(); i++) {
+            assertSame(referencia.get(i), listado.get(i));
+            assertEquals(i, listado.posicion(Long.parseLong(referencia.get(i).getDni()))); // La clave es el DNI
+        }
+        assertEquals(-1, listado.posicion(siguiente));
+        assertEquals(-1, listado.posicion(-5));
+    }
+
+    public void testCargaMasivaYBajasHastaVaciar() {
+        List<Asociado> referencia = new ArrayList<>();
+        for (int i = 0; i < 300_000; i++) { // Cuatro niveles de 64
+            referencia.add(asociado(i));
+        }
+        ListadoPersistente listado = ListadoPersistente.VACIO.agregarTodos(0, referencia.subList(0, 10))
+                .agregarTodos(10, referencia.subList(10, referencia.size()));
+        assertEquals(referencia, listado);
+
+        SplittableRandom azar = new SplittableRandom(9);
+        for (int i = 0; i < 1000; i++) {
+            int posicion = azar.nextInt(referencia.size());
+            Asociado quitado = referencia.remove(posicion);
+            assertEquals(posicion, listado.posicion(Long.parseLong(quitado.getDni())));
+            listado = listado.quitar(posicion);
+        }
+        listado = listado.agregar(300_000, asociado(300_000));
+        referencia.add(asociado(300_000));
+        assertEquals(referencia.size() - 1, listado.posicion(300_000));
+        assertEquals(referencia.size(), listado.size());
+        assertEquals(referencia.get(referencia.size() - 1).getDni(), listado.get(listado.size() - 1).getDni());
+
+        while (!listado.isEmpty()) {
+            listado = listado.quitar(listado.size() / 2);
+        }
+        assertSame(ListadoPersistente.VACIO, listado);
+        assertEquals(-1, listado.ultimaClave());
+        assertEquals("1", listado.agregar(7, asociado(1)).get(0).getDni());
+    }
+
+    public void testLasVersionesAnterioresNoCambian() {
+        ListadoPersistente base = ListadoPersistente.VACIO;
+        for (int i = 0; i < 1000; i++) {
+            base = base.agregar(i, asociado(i));
+        }
+        List<Asociado> copia = new ArrayList<>(base);
+
+        ListadoPersistente otro = base.quitar(500).reemplazar(0, asociado(-1)).agregar(1000, asociado(-2));
+
+        assertEquals(copia, base);
+        assertEquals(1000, otro.size());
+        assertEquals("-1", otro.get(0).getDni());
+        assertEquals("501", otro.get(500).getDni());
+        assertEquals(500, base.posicion(500));
+        assertEquals(-1, otro.posicion(500));
+        assertEquals(999, otro.posicion(1000));
+        try {
+            base.add(asociado(0));
+            fail("El listado publicado no se puede modificar");
+        } catch (UnsupportedOperationException esperado) {
+            // Correcto
+        }
+    }
+
+    private static Asociado asociado(int i) {
+        return new Asociado("N", "A", String.valueOf(i), "D", "T", "C");
+    }
+}
@@ -0,0 +1,82 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.DAOAsociado.AsociadoDAOEnMemoria;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests del padrón compacto: datos leídos de las columnas, DNIs repetidos, crecimiento
+ * de los buffers y de la tabla por DNI, y vistas de solo lectura.
+ */
+public class PadronAsociadosCompactoTest extends TestCase {
+
+    public void testLeeLoMismoQueSeAgrego() {
+        PadronAsociadosCompacto padron = new PadronAsociadosCompacto();
+        Asociado sinDatos = new Asociado();
+        sinDatos.setDni("3");
+        sinDatos.setNombre("Eva");
+        sinDatos.setApellido("Diaz"); // Domicilio, teléfono y ciudad en null
+        assertTrue(padron.agregar(new Asociado("José", "Muñoz", "20111222", "Calle 1", "223", "Tandil")));
+        assertTrue(padron.agregar(new Asociado("Ana", "Lopez", "1234567890", "", "", "Tandil")));
+        assertTrue(padron.agregar(sinDatos));
+        assertFalse(padron.agregar(new Asociado("Otra", "Ana", "3", "D", "T", "C")));
+
+        assertEquals(3, padron.getCantidad());
+        assertEquals(1, padron.getCantidadCiudades());
+        Asociado jose = padron.buscarAsociadoPorDNI("20111222").get();
+        assertEquals("José", jose.getNombre());
+        assertEquals("Muñoz", jose.getApellido());
+        assertEquals("Calle 1", jose.getDomicilio());
+        assertEquals("223", jose.getTelefono());
+        assertEquals("Tandil", jose.getCiudad());
+        assertEquals("José Muñoz", jose.getNombreCompleto());
+        assertEquals(new Asociado("X", "Y", "20111222", "", "", ""), jose);
+        assertEquals("1234567890", padron.buscarAsociadoPorDNI("1234567890").get().getDni());
+        Asociado eva = padron.buscarAsociadoPorDNI("3").get();
+        assertEquals("Eva", eva.getNombre());
+        assertNull(eva.getDomicilio());
+        assertNull(eva.getCiudad());
+        assertFalse(padron.buscarAsociadoPorDNI("2011122").isPresent()); // Prefijo de otro DNI
+        assertFalse(padron.buscarAsociadoPorDNI("99").isPresent());
+
+        try {
+            jose.setCiudad("Balcarce");
+            fail("Las vistas son de solo lectura");
+        } catch (UnsupportedOperationException esperada) {
+            // Ok
+        }
+        try {
+            padron.agregar(new Asociado("A", "B", "12345678901", "", "", ""));
+            fail("El DNI no entra en la columna");
+        } catch (IllegalArgumentException esperada) {
+            // Ok
+        }
+    }
+
+    public void testCreceSinPerderFilasNiInstantaneas() throws Exception {
+        PadronAsociadosCompacto padron = new PadronAsociadosCompacto();
+        padron.agregar(new Asociado("N0", "A0", "10000000", "D", "T", "Ciudad 0"));
+        List<Asociado> anterior = padron.getListadoAsociados();
+
+        AsociadoDAOEnMemoria dao = new AsociadoDAOEnMemoria();
+        for (int i = 1; i < 5000; i++) {
+            dao.guardar(new Asociado("N" + i, "A" + i, String.valueOf(10_000_000 + i), "D" + i, "T", "Ciudad " + (i % 7)));
+        }
+        dao.guardar(new Asociado("Repetido", "R", "10000000", "D", "T", "C"));
+        assertEquals(4999, padron.cargarDesde(dao));
+
+        assertEquals(1, anterior.size()); // Una instantánea no cambia con las altas posteriores
+        List<Asociado> listado = padron.getListadoAsociados();
+        assertEquals(5000, listado.size());
+        assertEquals(7, padron.getCantidadCiudades());
+        for (int i = 0; i < 5000; i++) {
+            String dni = String.valueOf(10_000_000 + i);
+            assertEquals(dni, listado.get(i).getDni());
+            Asociado encontrado = padron.buscarAsociadoPorDNI(dni).get();
+            assertEquals("N" + i, encontrado.getNombre());
+            assertEquals(i == 0 ? "D" : "D" + i, encontrado.getDomicilio());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package SegundaEntrega.Modelo.Negocio;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests del motor de eventos discretos: orden de los eventos en el reloj virtual,
+ * despacho de las solicitudes de los asociados y repetición exacta con la misma semilla.
+ */
+public class SimulacionDiscretaTest extends TestCase {
+
+    public void testOrdenaLosEventosPorTiempoYDespuesPorSecuencia() {
+        SimulacionDiscreta simulacion = new SimulacionDiscreta(1, new ConfiguracionSimulacion(1));
+        List<String> ejecutados = new ArrayList<>();
+        simulacion.programar(() -> ejecutados.add("b@" + simulacion.ahoraMillis()), 10);
+        simulacion.programar(() -> {
+            ejecutados.add("a@" + simulacion.ahoraMillis());
+            simulacion.programar(() -> ejecutados.add("d@" + simulacion.ahoraMillis()), 5); // Mismo instante que b y c, programado después
+        }, 5);
+        simulacion.programar(() -> ejecutados.add("c@" + simulacion.ahoraMillis()), 10);
+        simulacion.programar(() -> ejecutados.add("z@" + simulacion.ahoraMillis()), -3); // Una demora negativa cuenta como 0
+
+        ResultadoSimulacionDiscreta resultado = simulacion.ejecutar(List.of(), 1);
+
+        assertEquals(List.of("z@0", "a@5", "b@10", "c@10", "d@10"), ejecutados);
+        assertEquals(5, resultado.getEventosProcesados());
+        assertEquals(10, resultado.getTiempoVirtualMs());
+    }
+
+    public void testAtiendeTodasLasSolicitudesEnOrdenDeLlegada() {
+        // Pocas unidades para muchos asociados: la mayoría de las solicitudes tiene que esperar
+        SimulacionDiscreta simulacion = new SimulacionDiscreta(2, new ConfiguracionSimulacion(7));
+        ResultadoSimulacionDiscreta resultado = simulacion.ejecutar(padron(20), 5);
+
+        assertEquals(100, resultado.getSolicitudesAtendidas());
+        assertEquals(0, resultado.getSolicitudesSinAtender());
+        assertTrue("Ninguna solicitud esperó",
+                resultado.getMetricas().getHistogramaEspera(TipoSolicitud.TRASLADO).getMaximo() > 0);
+        // Toda unidad que puede trasladar puede atender a domicilio y viceversa, así que las
+        // que esperan salen en el mismo orden en que llegaron
+        List<Long> orden = simulacion.getOrdenDeAtencion();
+        assertEquals(100, orden.size());
+        for (int i = 0; i < orden.size(); i++) {
+            assertEquals(Long.valueOf(i), orden.get(i));
+        }
+    }
+
+    public void testNoSePuedeEjecutarDosVeces() {
+        SimulacionDiscreta simulacion = new SimulacionDiscreta(1, new ConfiguracionSimulacion(1));
+        simulacion.ejecutar(padron(1), 1);
+        try {
+            simulacion.ejecutar(padron(1), 1);
+            fail("Debería rechazar una segunda ejecución");
+        } catch (IllegalStateException esperado) {
+            // Correcto
+        }
+    }
+
+    public void testLaMismaSemillaRepiteElRegistroDeTransiciones() {
+        ResultadoSimulacionDiscreta primera = new SimulacionDiscreta(3, new ConfiguracionSimulacion(42)).ejecutar(padron(15), 4);
+        ResultadoSimulacionDiscreta segunda = new SimulacionDiscreta(3, new ConfiguracionSimulacion(42)).ejecutar(padron(15), 4);
+
+        assertTrue(primera.getRegistroEventos().size() > 100);
+        assertEquals(primera.getRegistroEventos(), segunda.getRegistroEventos());
+        assertEquals(primera.getHuellaRegistro(), segunda.getHuellaRegistro());
+        assertEquals(primera.getTiempoVirtualMs(), segunda.getTiempoVirtualMs());
+    }
+
+    public void testOtraSemillaCambiaElRegistro() {
+        ResultadoSimulacionDiscreta primera = new SimulacionDiscreta(3, new ConfiguracionSimulacion(42)).ejecutar(padron(15), 4);
+        ResultadoSimulacionDiscreta otra = new SimulacionDiscreta(3, new ConfiguracionSimulacion(43)).ejecutar(padron(15), 4);
+
+        assertFalse(primera.getRegistroEventos().equals(otra.getRegistroEventos()));
+        assertEquals(primera.getSolicitudesAtendidas(), otra.getSolicitudesAtendidas()); // Cambian los tiempos, no el trabajo
+    }
+
+    static List<Asociado> padron(int cantidad) {
+        List<Asociado> asociados = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            asociados.add(new Asociado("Nombre" + i, "Apellido" + i, String.valueOf(30_000_000 + i), "D", "T", "C"));
+        }
+        return asociados;
+    }
+}
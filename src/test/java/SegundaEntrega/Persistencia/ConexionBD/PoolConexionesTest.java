@@ -0,0 +1,190 @@
+package SegundaEntrega.Persistencia.ConexionBD;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Tests del pool de conexiones contra una base H2 en memoria.
+ */
+public class PoolConexionesTest extends TestCase {
+
+    private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+    private PoolConexiones pool;
+
+    protected void tearDown() {
+        if (pool != null) pool.cerrar();
+    }
+
+    public void testReutilizaLaConexionDevuelta() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 2, 1000, 60_000, 0);
+        Connection primera = pool.obtenerConexion();
+        primera.close();
+        Connection segunda = pool.obtenerConexion();
+        segunda.close();
+        assertEquals(2, pool.getPrestamos());
+        assertEquals(1, pool.getConexionesCreadas());
+        assertTrue(primera.isClosed());
+    }
+
+    public void testUsarUnaConexionDevueltaFalla() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 0);
+        Connection conexion = pool.obtenerConexion();
+        conexion.close();
+        conexion.close(); // Cerrar dos veces no devuelve dos veces
+        assertEquals(1, pool.getConexionesInactivas());
+        try {
+            conexion.createStatement();
+            fail("Se esperaba SQLException");
+        } catch (SQLException esperada) {
+            // ok
+        }
+    }
+
+    public void testTimeoutDePrestamoConElPoolLleno() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 100, 60_000, 0);
+        Connection ocupada = pool.obtenerConexion();
+        try {
+            pool.obtenerConexion();
+            fail("Se esperaba SQLTimeoutException");
+        } catch (SQLTimeoutException esperada) {
+            assertEquals(1, pool.getTimeoutsPrestamo());
+        } finally {
+            ocupada.close();
+        }
+    }
+
+    public void testEsperaHastaQueSeDevuelva() throws Exception {
+        pool = new PoolConexiones(URL, "sa", "", 1, 5000, 60_000, 0);
+        Connection ocupada = pool.obtenerConexion();
+        Thread liberador = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                ocupada.close();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        liberador.start();
+        Connection conexion = pool.obtenerConexion();
+        conexion.close();
+        liberador.join();
+        assertEquals(1, pool.getConexionesCreadas());
+        assertTrue(pool.getEsperaPrestamoMicros().getMaximo() >= 50_000);
+    }
+
+    public void testDescartaConexionInvalida() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 0);
+        Connection conexion = pool.obtenerConexion();
+        try (Statement st = conexion.createStatement()) {
+            st.execute("SELECT 1");
+        }
+        conexion.close();
+        // Se rompe la conexión física inactiva por detrás del pool
+        Connection fisica = pool.obtenerConexion();
+        fisica.unwrap(org.h2.jdbc.JdbcConnection.class).close();
+        fisica.close(); // Ya no sirve: el pool no la guarda
+        Connection nueva = pool.obtenerConexion();
+        assertFalse(nueva.isClosed());
+        nueva.close();
+        assertEquals(2, pool.getConexionesCreadas());
+    }
+
+    public void testRetiraConexionesQueSuperanLaVidaMaxima() throws Exception {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 50);
+        pool.obtenerConexion().close();
+        Thread.sleep(80);
+        pool.obtenerConexion().close();
+        assertEquals(2, pool.getConexionesCreadas());
+        assertTrue(pool.getRetiradasPorVidaMaxima() >= 1);
+    }
+
+    public void testDesalojaConexionesInactivas() throws Exception {
+        pool = new PoolConexiones(URL, "sa", "", 2, 1000, 100, 0);
+        pool.obtenerConexion().close();
+        assertEquals(1, pool.getConexionesInactivas());
+        Thread.sleep(1500); // El período de limpieza mínimo es de 1 segundo
+        assertEquals(0, pool.getConexionesInactivas());
+        assertEquals(0, pool.getConexionesAbiertas());
+        assertEquals(1, pool.getDesalojadasPorInactividad());
+    }
+
+    public void testDevolverRevierteLaTransaccionPendiente() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 0);
+        try (Connection c = pool.obtenerConexion(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS t (id INT)");
+            st.execute("DELETE FROM t");
+        }
+        try (Connection c = pool.obtenerConexion(); Statement st = c.createStatement()) {
+            c.setAutoCommit(false);
+            st.execute("INSERT INTO t VALUES (1)");
+            // Se devuelve sin commit
+        }
+        try (Connection c = pool.obtenerConexion(); Statement st = c.createStatement()) {
+            assertTrue(c.getAutoCommit());
+            java.sql.ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t");
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    public void testReutilizaLasSentenciasPreparadasEntrePrestamos() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 0, 2);
+        for (int i = 0; i < 3; i++) {
+            try (Connection c = pool.obtenerConexion();
+                 PreparedStatement ps = c.prepareStatement("SELECT ? + 1")) {
+                ps.setInt(1, i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    assertEquals(i + 1, rs.getInt(1));
+                }
+                assertSame(c, ps.getConnection());
+            }
+        }
+        assertEquals(1, pool.getSentenciasPreparadas());
+        assertEquals(2, pool.getSentenciasReutilizadas());
+
+        try (Connection c = pool.obtenerConexion()) {
+            PreparedStatement ps = c.prepareStatement("SELECT ? + 1");
+            ps.close();
+            try {
+                ps.setInt(1, 1);
+                fail("Se esperaba SQLException");
+            } catch (SQLException esperada) {
+                assertTrue(ps.isClosed());
+            }
+            // Dos sentencias iguales abiertas a la vez: la segunda no sale del caché
+            try (PreparedStatement a = c.prepareStatement("SELECT 1");
+                 PreparedStatement b = c.prepareStatement("SELECT 1")) {
+                assertNotSame(a, b);
+            }
+        }
+    }
+
+    public void testDevolverLaConexionLiberaLasSentenciasQueQuedaronAbiertas() throws SQLException {
+        pool = new PoolConexiones(URL, "sa", "", 1, 1000, 60_000, 0, 2);
+        PreparedStatement olvidada;
+        try (Connection c = pool.obtenerConexion()) {
+            olvidada = c.prepareStatement("SELECT ? + 1"); // No se cierra
+        }
+        assertTrue(olvidada.isClosed());
+        for (int i = 0; i < 2; i++) {
+            try (Connection c = pool.obtenerConexion();
+                 PreparedStatement ps = c.prepareStatement("SELECT ? + 1")) {
+                ps.setInt(1, i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    assertEquals(i + 1, rs.getInt(1));
+                }
+            }
+        }
+        assertEquals(1, pool.getSentenciasPreparadas()); // El lugar del caché no quedó tomado
+        assertEquals(2, pool.getSentenciasReutilizadas());
+    }
+}
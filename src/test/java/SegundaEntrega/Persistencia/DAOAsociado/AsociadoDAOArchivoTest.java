@@ -0,0 +1,226 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests del DAO sobre archivo: persistencia al reabrir, orden y paginación,
+ * lotes todo-o-nada, recuperación de una escritura cortada y compactación.
+ */
+public class AsociadoDAOArchivoTest extends TestCase {
+
+    private Path archivo;
+    private AsociadoDAOArchivo dao;
+
+    protected void setUp() throws Exception {
+        archivo = Files.createTempFile("asociados", ".dat");
+        dao = new AsociadoDAOArchivo(archivo, false);
+    }
+
+    protected void tearDown() throws Exception {
+        dao.cerrar();
+        Files.deleteIfExists(archivo);
+        Files.deleteIfExists(compactando());
+    }
+
+    public void testLosCambiosSobrevivenAlReabrir() throws DAOException {
+        dao.inicializarTablaAsociados();
+        Asociado nueva = new Asociado();
+        nueva.setDni("1");
+        nueva.setNombre("Ana");
+        nueva.setApellido("Lopez");
+        nueva.setCiudad("Tandil"); // Sin domicilio ni teléfono: columnas opcionales
+        dao.guardar(nueva);
+        Asociado ana = dao.buscarPorDNI("1").get();
+        assertNull(ana.getDomicilio());
+        assertFalse(ana.isModificado());
+        ana.setCiudad("Balcarce");
+        dao.actualizar(ana);
+        dao.eliminar(new Asociado("Juan", "Perez", "12345678", "D", "T", "C"));
+
+        reabrir();
+        assertEquals("Balcarce", dao.buscarPorDNI("1").get().getCiudad());
+        assertFalse(dao.buscarPorDNI("12345678").isPresent());
+        assertEquals(List.of("87654321", "1"), dnis(dao.listarTodos())); // Gomez, Lopez
+        try {
+            dao.eliminar(new Asociado("Juan", "Perez", "12345678", "D", "T", "C"));
+            fail("Eliminar un DNI inexistente debe fallar, como en la BD");
+        } catch (DAOException esperada) {
+            // Ok
+        }
+    }
+
+    public void testElArchivoSeLeeConElPrimerUso() throws DAOException {
+        dao.inicializarTablaAsociados();
+        long tamanio = dao.getTamanioArchivo();
+
+        reabrir();
+        assertEquals(0, dao.getTamanioArchivo()); // Abrir no lee nada
+        assertTrue(dao.buscarPorDNI("12345678").isPresent());
+        assertEquals(tamanio, dao.getTamanioArchivo());
+    }
+
+    public void testPaginacionYRecorridoEnOrdenDelListado() throws DAOException {
+        dao.guardarLote(List.of(
+                new Asociado("Eva", "Diaz", "3", "D", "T", "C"),
+                new Asociado("Ana", "Lopez", "1", "D", "T", "C"),
+                new Asociado("Ana", "Diaz", "4", "D", "T", "C"),
+                new Asociado("Juan", "Perez", "2", "D", "T", "C")));
+
+        List<Asociado> primera = dao.listarPagina(null, 2);
+        assertEquals(List.of("4", "3"), dnis(primera));
+        assertEquals(List.of("1", "2"), dnis(dao.listarPagina(primera.get(1), 2)));
+        try (Stream<Asociado> todos = dao.recorrerTodos(3)) {
+            assertEquals(List.of("4", "3", "1", "2"), todos.map(Asociado::getDni).collect(Collectors.toList()));
+        }
+    }
+
+    public void testUnLoteConDuplicadoNoGuardaNada() throws DAOException {
+        dao.guardar(new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        try {
+            dao.guardarLote(List.of(new Asociado("Juan", "Perez", "2", "D", "T", "C"),
+                    new Asociado("Otra", "Ana", "1", "D", "T", "C")));
+            fail("El lote tiene un DNI que ya existe");
+        } catch (DAOException esperada) {
+            // Ok
+        }
+        assertFalse(dao.buscarPorDNI("2").isPresent());
+    }
+
+    public void testDescartaUnaEscrituraCortada() throws Exception {
+        dao.guardar(new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        long tamanioValido = dao.getTamanioArchivo();
+        dao.guardar(new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        dao.cerrar();
+        try (var canal = java.nio.channels.FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(archivo) - 3); // Se cortó a mitad del CONFIRMAR
+        }
+
+        dao = new AsociadoDAOArchivo(archivo, false);
+        assertTrue(dao.buscarPorDNI("1").isPresent());
+        assertFalse(dao.buscarPorDNI("2").isPresent());
+        assertEquals(tamanioValido, Files.size(archivo));
+        dao.guardar(new Asociado("Juan", "Perez", "2", "D", "T", "C")); // Se sigue escribiendo desde ahí
+        reabrir();
+        assertEquals(2, dao.listarTodos().size());
+    }
+
+    public void testUnRegistroDanadoEnElMedioNoBorraLoQueSigue() throws Exception {
+        dao.guardar(new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        dao.guardar(new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        dao.guardar(new Asociado("Eva", "Diaz", "3", "D", "T", "C"));
+        dao.cerrar();
+        long tamanio = Files.size(archivo);
+        try (var canal = java.nio.channels.FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(java.nio.ByteBuffer.wrap(new byte[]{'X'}), 12); // Dentro del registro de Ana: falla el CRC
+        }
+
+        dao = new AsociadoDAOArchivo(archivo, false);
+        try {
+            dao.buscarPorDNI("3");
+            fail("Un registro dañado seguido de lotes confirmados no es una escritura cortada");
+        } catch (DAOException esperada) {
+            // Ok
+        }
+        assertEquals(tamanio, Files.size(archivo)); // No se truncó nada
+    }
+
+    public void testRechazaLaEscrituraQueSuperaElLimite() throws Exception {
+        dao.cerrar();
+        dao = new AsociadoDAOArchivo(archivo, false, 1000);
+        Asociado ana = new Asociado("Ana", "Lopez", "1", "D", "T", "C");
+        dao.guardar(ana);
+        for (int i = 0; i < 100; i++) { // Con basura, primero compacta y la escritura entra
+            ana.setCiudad("Ciudad " + i);
+            dao.actualizar(ana);
+        }
+        assertTrue(dao.getCompactaciones() > 0);
+
+        int guardados = 1;
+        try {
+            for (; guardados < 100; guardados++) {
+                dao.guardar(new Asociado("N" + guardados, "A" + guardados, "DNI" + guardados, "D", "T", "C"));
+            }
+            fail("El archivo debería llegar al límite");
+        } catch (DAOException esperada) {
+            // Ok
+        }
+        long tamanio = dao.getTamanioArchivo();
+        assertTrue(tamanio <= 1000);
+        assertEquals(tamanio, Files.size(archivo)); // No quedó nada a medias
+        assertFalse(dao.buscarPorDNI("DNI" + guardados).isPresent());
+
+        reabrir();
+        assertEquals(guardados, dao.listarTodos().size());
+        assertEquals("Ciudad 99", dao.buscarPorDNI("1").get().getCiudad());
+    }
+
+    public void testCompactarDejaSoloLoVigente() throws Exception {
+        Asociado ana = new Asociado("Ana", "Lopez", "1", "D", "T", "C");
+        dao.guardar(ana);
+        dao.guardar(new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        for (int i = 0; i < 100; i++) {
+            ana.setCiudad("Ciudad " + i);
+            dao.actualizar(ana);
+        }
+        dao.eliminar(new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        long antes = dao.getTamanioArchivo();
+
+        dao.compactar();
+        assertTrue(dao.getTamanioArchivo() < antes / 50);
+        assertEquals(Files.size(archivo), dao.getTamanioArchivo());
+        assertEquals("Ciudad 99", dao.buscarPorDNI("1").get().getCiudad());
+
+        reabrir();
+        assertEquals("Ciudad 99", dao.buscarPorDNI("1").get().getCiudad());
+        assertEquals(1, dao.listarTodos().size());
+    }
+
+    public void testSiNoPuedeCompactarSigueConElArchivoAnterior() throws Exception {
+        Asociado ana = new Asociado("Ana", "Lopez", "1", "D", "T", "C");
+        dao.guardar(ana);
+        Files.createDirectory(compactando()); // El archivo temporal no se puede crear
+
+        try {
+            dao.compactar();
+            fail("Debería informar que no pudo compactar");
+        } catch (DAOException esperado) {
+            // Correcto
+        }
+        // La compactación automática falla igual, pero las escrituras ya están confirmadas
+        String ciudadLarga = "x".repeat(4096);
+        for (int i = 0; i < 300; i++) {
+            ana.setCiudad(ciudadLarga + i);
+            dao.actualizar(ana);
+        }
+        assertTrue(dao.getTamanioArchivo() > 1 << 20);
+        assertEquals(ciudadLarga + 299, dao.buscarPorDNI("1").get().getCiudad());
+
+        Files.delete(compactando());
+        reabrir();
+        assertEquals(ciudadLarga + 299, dao.buscarPorDNI("1").get().getCiudad());
+        dao.compactar();
+        assertEquals(ciudadLarga + 299, dao.buscarPorDNI("1").get().getCiudad());
+    }
+
+    private Path compactando() {
+        return archivo.resolveSibling(archivo.getFileName() + ".compactando");
+    }
+
+    private void reabrir() throws DAOException {
+        dao.cerrar();
+        dao = new AsociadoDAOArchivo(archivo, false);
+    }
+
+    private static List<String> dnis(List<Asociado> asociados) {
+        return asociados.stream().map(Asociado::getDni).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests del caché de búsquedas por DNI, con un DAO en memoria que cuenta las consultas
+ * y un reloj manual.
+ */
+public class AsociadoDAOCacheTest extends TestCase {
+
+    private AsociadoDAOEnMemoria dao;
+    private long ahora;
+    private AsociadoDAOCache cache;
+
+    protected void setUp() {
+        dao = new AsociadoDAOEnMemoria();
+        ahora = 0;
+        cache = new AsociadoDAOCache(dao, 2, 1000, 100, () -> ahora);
+        dao.filas.put("1", new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        dao.filas.put("2", new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        dao.filas.put("3", new Asociado("Eva", "Diaz", "3", "D", "T", "C"));
+    }
+
+    public void testLasBusquedasRepetidasNoVanALaBD() throws DAOException {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Ana", cache.buscarPorDNI("1").get().getNombre());
+        }
+        assertEquals(1, dao.busquedas);
+        assertEquals(9, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+
+        cache.buscarPorDNI("1").get().setNombre("Cambiada"); // Se devuelven copias
+        assertEquals("Ana", cache.buscarPorDNI("1").get().getNombre());
+    }
+
+    public void testCacheNegativoConSuPropioTtl() throws DAOException {
+        assertFalse(cache.buscarPorDNI("9").isPresent());
+        assertFalse(cache.buscarPorDNI("9").isPresent());
+        assertEquals(1, dao.busquedas);
+
+        avanzarMs(100); // Vence el "no existe"
+        dao.filas.put("9", new Asociado("Otro", "Cliente", "9", "D", "T", "C"));
+        assertTrue(cache.buscarPorDNI("9").isPresent());
+        assertEquals(2, dao.busquedas);
+        assertEquals(1, cache.getVencidas());
+    }
+
+    public void testDesalojaElMenosUsado() throws DAOException {
+        cache.buscarPorDNI("1");
+        cache.buscarPorDNI("2");
+        cache.buscarPorDNI("1"); // "2" queda como el menos usado
+        cache.buscarPorDNI("3");
+        assertEquals(1, cache.getDesalojosPorCapacidad());
+        assertEquals(2, cache.getTamanio());
+
+        cache.buscarPorDNI("1");
+        assertEquals(3, dao.busquedas);
+        cache.buscarPorDNI("2");
+        assertEquals(4, dao.busquedas);
+    }
+
+    public void testLasEscriturasInvalidan() throws DAOException {
+        cache.buscarPorDNI("1");
+        Asociado ana = new Asociado("Ana", "Lopez", "1", "D", "T", "Balcarce");
+        cache.actualizar(ana);
+        assertEquals("Balcarce", cache.buscarPorDNI("1").get().getCiudad());
+
+        cache.eliminar(ana);
+        assertFalse(cache.buscarPorDNI("1").isPresent());
+
+        cache.guardarLote(List.of(ana));
+        assertTrue(cache.buscarPorDNI("1").isPresent());
+        assertEquals(4, dao.busquedas);
+        assertEquals(3, cache.getInvalidaciones());
+    }
+
+    private void avanzarMs(long ms) {
+        ahora += TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
@@ -0,0 +1,96 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DAO en memoria para los tests y los benchmarks: guarda las filas en un mapa (en orden
+ * de alta), cuenta las búsquedas por DNI, registra las llamadas por lote y puede simular
+ * una BD caída o que rechaza algunas filas. Para un comportamiento distinto (un cursor
+ * que genera las filas, por ejemplo) se sobrescribe el método que haga falta.
+ */
+public class AsociadoDAOEnMemoria implements IAsociadoDAO {
+
+    private static final Comparator<Asociado> ORDEN_LISTADO = Comparator.comparing(Asociado::getApellido)
+            .thenComparing(Asociado::getNombre).thenComparing(Asociado::getDni);
+
+    /** Filas por DNI. Se puede cargar directamente antes de usar el DAO. */
+    public final Map<String, Asociado> filas = new LinkedHashMap<>();
+    /** Llamadas por lote, como "guardarLote:3". */
+    public final List<String> llamadas = new CopyOnWriteArrayList<>();
+    /** DNIs de las filas que la BD rechaza. */
+    public final Set<String> fallanDnis = ConcurrentHashMap.newKeySet();
+    /** true: todas las escrituras fallan, como con la BD caída. */
+    public volatile boolean fallar = false;
+    /** Cantidad de llamadas a buscarPorDNI(). */
+    public volatile int busquedas = 0;
+
+    private void verificar() throws DAOException {
+        if (fallar) throw new DAOException("BD no disponible");
+    }
+
+    private void verificar(Collection<Asociado> lote) throws DAOException {
+        verificar();
+        for (Asociado a : lote) {
+            if (fallanDnis.contains(a.getDni())) throw new DAOException("Fila rechazada: " + a.getDni());
+        }
+    }
+
+    @Override public synchronized void guardar(Asociado a) throws DAOException { verificar(List.of(a)); filas.put(a.getDni(), a); }
+    @Override public synchronized void eliminar(Asociado a) throws DAOException { verificar(); filas.remove(a.getDni()); }
+    @Override public synchronized void actualizar(Asociado a) throws DAOException { verificar(); filas.put(a.getDni(), a); }
+
+    @Override
+    public synchronized Optional<Asociado> buscarPorDNI(String dni) {
+        busquedas++;
+        return Optional.ofNullable(filas.get(dni));
+    }
+
+    @Override public synchronized List<Asociado> listarTodos() { return new ArrayList<>(filas.values()); }
+
+    @Override
+    public synchronized List<Asociado> listarPagina(Asociado despuesDe, int limite) {
+        return filas.values().stream().sorted(ORDEN_LISTADO)
+                .filter(a -> despuesDe == null || ORDEN_LISTADO.compare(a, despuesDe) > 0)
+                .limit(limite).collect(Collectors.toList());
+    }
+
+    /** Recorre una copia de las filas: se pueden modificar mientras el cursor está abierto. */
+    @Override public Stream<Asociado> recorrerTodos(int tamanioFetch) { return listarTodos().stream(); }
+
+    @Override
+    public synchronized void guardarLote(Collection<Asociado> lote) throws DAOException {
+        verificar(lote);
+        llamadas.add("guardarLote:" + lote.size());
+        for (Asociado a : lote) filas.put(a.getDni(), a);
+    }
+
+    @Override
+    public synchronized void actualizarLote(Collection<Asociado> lote) throws DAOException {
+        verificar();
+        llamadas.add("actualizarLote:" + lote.size());
+        for (Asociado a : lote) filas.put(a.getDni(), a);
+    }
+
+    @Override
+    public synchronized void eliminarLote(Collection<Asociado> lote) throws DAOException {
+        verificar();
+        llamadas.add("eliminarLote:" + lote.size());
+        for (Asociado a : lote) filas.remove(a.getDni());
+    }
+
+    @Override public synchronized void inicializarTablaAsociados() { filas.clear(); }
+}
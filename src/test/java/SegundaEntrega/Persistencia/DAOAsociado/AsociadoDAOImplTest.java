@@ -0,0 +1,146 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.ConexionBD.ConexionSingleton;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Tests del DAO de asociados contra una base H2 embebida en modo MySQL.
+ */
+public class AsociadoDAOImplTest extends TestCase {
+
+    private IAsociadoDAO dao;
+
+    protected void setUp() throws Exception {
+        System.setProperty("clinica.db.url", "jdbc:h2:mem:clinica;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("clinica.db.usuario", "sa");
+        System.setProperty("clinica.db.password", "");
+        dao = new AsociadoDAOImpl();
+        dao.inicializarTablaAsociados();
+    }
+
+    protected void tearDown() throws SQLException {
+        ConexionSingleton.getInstance().closeConnection();
+    }
+
+    public void testAltaBusquedaYBaja() throws DAOException {
+        Asociado nuevo = new Asociado("Ana", "Lopez", "11111111", "Calle 1", "223", "Mar del Plata");
+        dao.guardar(nuevo);
+        assertTrue(dao.buscarPorDNI("11111111").isPresent());
+        assertEquals(3, dao.listarTodos().size());
+
+        nuevo.setCiudad("Balcarce");
+        dao.actualizar(nuevo);
+        assertEquals("Balcarce", dao.buscarPorDNI("11111111").get().getCiudad());
+
+        dao.eliminar(nuevo);
+        assertFalse(dao.buscarPorDNI("11111111").isPresent());
+    }
+
+    public void testElListadoOrdenadoUsaElIndice() throws Exception {
+        try (Connection conn = ConexionSingleton.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet plan = stmt.executeQuery("EXPLAIN SELECT dni FROM asociados"
+                     + " WHERE (apellido, nombre, dni) > ('Gomez', 'Maria', '1') ORDER BY apellido, nombre, dni LIMIT 10")) {
+            assertTrue(plan.next());
+            String texto = plan.getString(1).toUpperCase();
+            assertTrue(texto, texto.contains("IDX_ASOCIADOS_LISTADO"));
+        }
+    }
+
+    public void testLasConexionesVuelvenAlPool() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            dao.buscarPorDNI("12345678");
+        }
+        assertEquals(0, ConexionSingleton.getInstance().getPool().getConexionesAbiertas()
+                - ConexionSingleton.getInstance().getPool().getConexionesInactivas());
+    }
+
+    public void testAccesoConcurrente() throws Exception {
+        AtomicReference<Exception> error = new AtomicReference<>();
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            final int hilo = h;
+            Thread t = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20; i++) {
+                        String dni = String.valueOf(20_000_000 + hilo * 100 + i);
+                        dao.guardar(new Asociado("N" + i, "A" + hilo, dni, "D", "T", "C"));
+                        assertTrue(dao.buscarPorDNI(dni).isPresent());
+                    }
+                } catch (Exception e) {
+                    error.set(e);
+                }
+            });
+            hilos.add(t);
+            t.start();
+        }
+        for (Thread t : hilos) t.join();
+        if (error.get() != null) throw error.get();
+        assertEquals(2 + 8 * 20, dao.listarTodos().size());
+        assertEquals(0, ConexionSingleton.getInstance().getPool().getTimeoutsPrestamo());
+    }
+
+    public void testOperacionesPorLote() throws DAOException {
+        List<Asociado> lote = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) { // Más de un executeBatch
+            lote.add(new Asociado("N" + i, "A" + i, String.valueOf(30_000_000 + i), "D", "T", "C"));
+        }
+        dao.guardarLote(lote);
+        assertEquals(2 + 2500, dao.listarTodos().size());
+
+        for (Asociado a : lote) a.setCiudad("Tandil");
+        dao.actualizarLote(lote);
+        assertEquals("Tandil", dao.buscarPorDNI("30001234").get().getCiudad());
+
+        dao.eliminarLote(lote);
+        assertEquals(2, dao.listarTodos().size());
+    }
+
+    public void testPaginasYRecorridoSiguenElOrdenDelListado() throws Exception {
+        List<Asociado> lote = new ArrayList<>();
+        for (int i = 0; i < 250; i++) { // Homónimos: solo el DNI desempata
+            lote.add(new Asociado("Ana", "Lopez", String.valueOf(50_000_000 + i), "D", "T", "C"));
+        }
+        dao.guardarLote(lote);
+        List<Asociado> todos = dao.listarTodos();
+
+        List<Asociado> paginado = new ArrayList<>();
+        List<Asociado> pagina = dao.listarPagina(null, 100);
+        while (!pagina.isEmpty()) {
+            paginado.addAll(pagina);
+            pagina = dao.listarPagina(pagina.get(pagina.size() - 1), 100);
+        }
+        assertEquals(todos, paginado);
+
+        List<Asociado> recorrido = new ArrayList<>();
+        try (Stream<Asociado> stream = dao.recorrerTodos(50)) {
+            stream.forEach(recorrido::add);
+        }
+        assertEquals(todos, recorrido);
+        assertEquals(0, ConexionSingleton.getInstance().getPool().getConexionesAbiertas()
+                - ConexionSingleton.getInstance().getPool().getConexionesInactivas());
+    }
+
+    public void testUnLoteFallidoNoGuardaNada() throws DAOException {
+        List<Asociado> lote = new ArrayList<>();
+        lote.add(new Asociado("Ana", "Lopez", "40000000", "D", "T", "C"));
+        lote.add(new Asociado("Juan", "Perez", "12345678", "D", "T", "C")); // DNI ya existente
+        try {
+            dao.guardarLote(lote);
+            fail("Se esperaba DAOException");
+        } catch (DAOException esperada) {
+            assertFalse(dao.buscarPorDNI("40000000").isPresent());
+        }
+    }
+}
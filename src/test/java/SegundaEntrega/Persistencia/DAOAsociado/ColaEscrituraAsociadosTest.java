@@ -0,0 +1,186 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Tests de la escritura diferida: combinación por DNI, escritura por lotes, reintentos
+ * con aviso a los observadores y recuperación del diario.
+ */
+public class ColaEscrituraAsociadosTest extends TestCase {
+
+    private Path diario;
+    private AsociadoDAOEnMemoria dao;
+    private ColaEscrituraAsociados cola;
+
+    protected void setUp() throws Exception {
+        diario = Files.createTempFile("asociados", ".diario");
+        dao = new AsociadoDAOEnMemoria();
+    }
+
+    protected void tearDown() throws Exception {
+        if (cola != null) {
+            cola.cerrar(1000);
+        }
+        borrarDiario(diario);
+    }
+
+    public void testCombinaPorDniYEscribeEnLotes() throws DAOException {
+        dao.filas.put("3", new Asociado("Eva", "Diaz", "3", "D", "T", "C"));
+        cola = new ColaEscrituraAsociados(dao, diario, 1000);
+
+        Asociado ana = new Asociado("Ana", "Lopez", "1", "D", "T", "C");
+        cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, ana);
+        ana.setCiudad("Tandil");
+        cola.encolar(ColaEscrituraAsociados.Operacion.ACTUALIZAR, ana);
+        Asociado juan = new Asociado("Juan", "Perez", "2", "D", "T", "C");
+        cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, juan);
+        cola.encolar(ColaEscrituraAsociados.Operacion.ELIMINAR, juan); // Nunca llega a la BD
+        Asociado eva = new Asociado("Eva", "Diaz", "3", "D", "T", "C");
+        cola.encolar(ColaEscrituraAsociados.Operacion.ELIMINAR, eva);
+        eva.setDomicilio("Otro");
+        cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, eva); // Baja y alta: se actualiza
+
+        assertTrue(cola.vaciar(5000));
+        assertEquals("Tandil", dao.filas.get("1").getCiudad());
+        assertFalse(dao.filas.containsKey("2"));
+        assertEquals("Otro", dao.filas.get("3").getDomicilio());
+        assertEquals(List.of("guardarLote:1", "actualizarLote:1"), dao.llamadas);
+        assertEquals(6, cola.getEncoladas());
+        assertEquals(2, cola.getEscritas());
+    }
+
+    public void testReintentaYAvisaLosFallos() throws DAOException {
+        cola = new ColaEscrituraAsociados(dao, diario, 1);
+        List<FalloEscrituraAsociado> fallos = new CopyOnWriteArrayList<>();
+        cola.addObserver((o, arg) -> fallos.add((FalloEscrituraAsociado) arg));
+        dao.fallar = true;
+
+        cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        assertTrue(cola.vaciar(5000)); // Se descarta al agotar los reintentos
+
+        assertEquals(ColaEscrituraAsociados.MAX_INTENTOS, fallos.size());
+        assertFalse(fallos.get(0).isDefinitivo());
+        assertTrue(fallos.get(fallos.size() - 1).isDefinitivo());
+        assertEquals("1", fallos.get(0).getAsociado().getDni());
+        assertEquals(1, cola.getDescartadas());
+        assertTrue(dao.filas.isEmpty());
+    }
+
+    public void testRecuperaLoPendienteDelDiario() throws Exception {
+        dao.fallar = true;
+        ColaEscrituraAsociados primera = new ColaEscrituraAsociados(dao, diario, 1000);
+        primera.encolar(ColaEscrituraAsociados.Operacion.INSERTAR,
+                new Asociado("Ana\tMaría", "Lopez", "1", "D", "T", "C")); // Con tabulación: se escapa
+        primera.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        primera.cerrar(50); // La BD no responde: queda en el diario
+        assertEquals(2, Files.readAllLines(diario).size());
+
+        dao.fallar = false;
+        cola = new ColaEscrituraAsociados(dao, diario, 1000);
+        assertTrue(cola.vaciar(5000));
+        assertEquals("Ana\tMaría", dao.filas.get("1").getNombre());
+        assertTrue(dao.filas.containsKey("2"));
+        assertEquals(0, Files.size(diario)); // Compactado: no queda nada pendiente
+    }
+
+    public void testEncolarVuelveConLaOperacionEnElDiario() throws Exception {
+        dao.fallar = true; // Que el escritor no la saque del diario
+        cola = new ColaEscrituraAsociados(dao, diario, 1000);
+        cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+
+        List<String> lineas = Files.readAllLines(diario);
+        assertEquals(1, lineas.size());
+        assertTrue(lineas.get(0), lineas.get(0).startsWith("INSERTAR\t1\t1\tAna\t"));
+    }
+
+    public void testEncolarLoteFuerzaElDiarioUnaSolaVez() throws Exception {
+        dao.fallar = true;
+        cola = new ColaEscrituraAsociados(dao, diario, 1000);
+        List<Asociado> lote = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lote.add(new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        cola.encolarLote(ColaEscrituraAsociados.Operacion.INSERTAR, lote);
+
+        assertEquals(500, Files.readAllLines(diario).size());
+        assertEquals(500, cola.getEncoladas());
+        assertEquals(1, cola.getSincronizaciones());
+    }
+
+    public void testAnotarNoEscribeHastaEsperar() throws Exception {
+        dao.fallar = true;
+        cola = new ColaEscrituraAsociados(dao, diario, 1000);
+        ColaEscrituraAsociados.Anotacion primera =
+                cola.anotar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("Ana", "Lopez", "1", "D", "T", "C"));
+        ColaEscrituraAsociados.Anotacion segunda =
+                cola.anotar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("Juan", "Perez", "2", "D", "T", "C"));
+        assertEquals(0, Files.size(diario));
+
+        segunda.esperar(); // Escribe también la primera, en orden y con el mismo force()
+        primera.esperar();
+        List<String> lineas = Files.readAllLines(diario);
+        assertEquals(2, lineas.size());
+        assertTrue(lineas.get(0), lineas.get(0).startsWith("INSERTAR\t1\t1\tAna\t"));
+        assertEquals(1, cola.getSincronizaciones());
+        assertEquals(2, cola.getEncoladas());
+    }
+
+    public void testRotaElDiarioYNoRepiteLoYaEscritoAlRecuperar() throws Exception {
+        dao.fallanDnis.add("0"); // Queda pendiente y retiene el primer segmento
+        cola = new ColaEscrituraAsociados(dao, diario, 10_000, 200); // Reintentos lentos: "0" no se descarta
+        for (int i = 0; i < 40; i++) {
+            cola.encolar(ColaEscrituraAsociados.Operacion.INSERTAR, new Asociado("N" + i, "A" + i, String.valueOf(i), "D", "T", "C"));
+        }
+        assertFalse(cola.vaciar(500));
+        assertEquals(39, dao.filas.size());
+        assertEquals(1, cola.getPendientes());
+        assertTrue("No se rotó el diario", Files.exists(diario.resolveSibling(diario.getFileName() + ".1")));
+
+        // Caída: se recupera una copia de los archivos, sin cerrar la cola
+        Path copia = Files.createTempFile("asociados", ".copia");
+        for (Path archivo : archivosDelDiario(diario)) {
+            String sufijo = archivo.getFileName().toString().substring(diario.getFileName().toString().length());
+            Files.copy(archivo, copia.resolveSibling(copia.getFileName() + sufijo), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        }
+        AsociadoDAOEnMemoria otra = new AsociadoDAOEnMemoria();
+        ColaEscrituraAsociados recuperada = new ColaEscrituraAsociados(otra, copia, 1);
+        try {
+            assertTrue(recuperada.vaciar(5000));
+            assertEquals(List.of("0"), new ArrayList<>(otra.filas.keySet())); // Lo ya escrito no se repite
+            assertEquals(List.of(copia), archivosDelDiario(copia)); // Compactado en un solo archivo
+        } finally {
+            recuperada.cerrar(1000);
+            borrarDiario(copia);
+        }
+
+        dao.fallanDnis.clear();
+        assertTrue(cola.vaciar(5000));
+        assertEquals(40, dao.filas.size());
+        assertEquals(List.of(diario), archivosDelDiario(diario)); // Sin pendientes no quedan segmentos
+        assertEquals(0, Files.size(diario));
+    }
+
+    private static List<Path> archivosDelDiario(Path diario) throws java.io.IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (Stream<Path> hermanos = Files.list(diario.toAbsolutePath().getParent())) {
+            hermanos.filter(p -> p.getFileName().toString().startsWith(diario.getFileName().toString()))
+                    .sorted().forEach(archivos::add);
+        }
+        return archivos;
+    }
+
+    private static void borrarDiario(Path diario) throws java.io.IOException {
+        for (Path archivo : archivosDelDiario(diario)) {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAORuntimeException;
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests de la exportación: contenido del CSV, ida y vuelta del formato binario,
+ * un binario dañado y que un error a mitad de camino no toque el archivo destino.
+ */
+public class ExportadorAsociadosTest extends TestCase {
+
+    private Path archivoDAO;
+    private Path destino;
+    private AsociadoDAOArchivo dao;
+
+    protected void setUp() throws Exception {
+        archivoDAO = Files.createTempFile("asociados", ".dat");
+        destino = Files.createTempFile("exportacion", ".tmp");
+        dao = new AsociadoDAOArchivo(archivoDAO, false);
+        Asociado sinDatos = new Asociado();
+        sinDatos.setDni("3");
+        sinDatos.setNombre("Eva");
+        sinDatos.setApellido("Diaz"); // Domicilio, teléfono y ciudad en null
+        dao.guardarLote(List.of(
+                new Asociado("Ana", "Lopez", "1", "Calle \"B\"; 2", "223", "Tandil"),
+                new Asociado("José", "Muñoz", "2", "D", "T", "Cañuelas 😀"),
+                sinDatos));
+    }
+
+    protected void tearDown() throws Exception {
+        dao.cerrar();
+        Files.deleteIfExists(archivoDAO);
+        Files.deleteIfExists(destino);
+    }
+
+    public void testCsvEnElOrdenDelListado() throws Exception {
+        long cantidad = new ExportadorAsociados(dao, false).exportar(destino, ExportadorAsociados.Formato.CSV);
+
+        assertEquals(3, cantidad);
+        assertEquals("dni;nombre;apellido;domicilio;telefono;ciudad\n"
+                        + "3;Eva;Diaz;;;\n"
+                        + "1;Ana;Lopez;\"Calle \"\"B\"\"; 2\";223;Tandil\n"
+                        + "2;José;Muñoz;D;T;Cañuelas 😀\n",
+                Files.readString(destino, StandardCharsets.UTF_8));
+    }
+
+    public void testBinarioIdaYVuelta() throws Exception {
+        new ExportadorAsociados(dao, false).exportar(destino, ExportadorAsociados.Formato.BINARIO);
+
+        List<Asociado> leidos = new ArrayList<>();
+        assertEquals(3, ExportadorAsociados.leerBinario(destino, leidos::add));
+        List<Asociado> esperados = dao.listarTodos();
+        for (int i = 0; i < esperados.size(); i++) {
+            Asociado e = esperados.get(i), l = leidos.get(i);
+            assertEquals(e.getDni(), l.getDni());
+            assertEquals(e.getNombre(), l.getNombre());
+            assertEquals(e.getApellido(), l.getApellido());
+            assertEquals(e.getDomicilio(), l.getDomicilio());
+            assertEquals(e.getTelefono(), l.getTelefono());
+            assertEquals(e.getCiudad(), l.getCiudad());
+        }
+        assertNull(leidos.get(0).getCiudad());
+
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(destino) - 4); // Falta parte de la cantidad final
+        }
+        try {
+            ExportadorAsociados.leerBinario(destino, a -> { });
+            fail("Un archivo cortado debe detectarse");
+        } catch (DAOException esperada) {
+            // Ok
+        }
+    }
+
+    public void testRechazaUnLargoMayorQueElBuffer() throws Exception {
+        byte[] cabecera = {'A', 'S', 'O', 'C', 1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F}; // Fila con un DNI de 256 MB
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(cabecera));
+            canal.write(ByteBuffer.allocate(2 * ExportadorAsociados.TAMANIO_BUFFER)); // Antes llenaba el buffer y no salía más
+        }
+        try {
+            ExportadorAsociados.leerBinario(destino, a -> { });
+            fail("Un largo imposible debe detectarse");
+        } catch (DAOException esperada) {
+            assertTrue(esperada.getMessage(), esperada.getMessage().startsWith("Largo inválido"));
+        }
+    }
+
+    public void testUnErrorNoTocaElDestino() throws Exception {
+        Files.writeString(destino, "exportación anterior");
+        IAsociadoDAO falla = new AsociadoDAOArchivo(archivoDAO.resolveSibling(archivoDAO.getFileName() + ".otro"), false) {
+            @Override
+            public Stream<Asociado> recorrerTodos(int tamanioFetch) {
+                return Stream.concat(dao.recorrerTodos(tamanioFetch), Stream.<Asociado>generate(() -> {
+                    throw new DAORuntimeException(new DAOException("Se cortó la conexión"));
+                }));
+            }
+        };
+        try {
+            new ExportadorAsociados(falla, false).exportar(destino, ExportadorAsociados.Formato.CSV);
+            fail("El error del recorrido debe llegar como DAOException");
+        } catch (DAOException esperada) {
+            assertEquals("Se cortó la conexión", esperada.getMessage());
+        } finally {
+            ((AsociadoDAOArchivo) falla).cerrar();
+            Files.deleteIfExists(archivoDAO.resolveSibling(archivoDAO.getFileName() + ".otro"));
+        }
+        assertEquals("exportación anterior", Files.readString(destino));
+        assertFalse(Files.exists(destino.resolveSibling(destino.getFileName() + ".parcial")));
+    }
+}
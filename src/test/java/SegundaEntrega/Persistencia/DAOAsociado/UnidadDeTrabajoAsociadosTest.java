@@ -0,0 +1,95 @@
+package SegundaEntrega.Persistencia.DAOAsociado;
+
+import SegundaEntrega.Modelo.Datos.Personas.Asociado;
+import SegundaEntrega.Persistencia.ConexionBD.ConexionSingleton;
+import SegundaEntrega.Persistencia.PersistenciaExcepciones.DAOException;
+import junit.framework.TestCase;
+
+import java.sql.SQLException;
+
+/**
+ * Tests de la unidad de trabajo de asociados contra una base H2 embebida.
+ */
+public class UnidadDeTrabajoAsociadosTest extends TestCase {
+
+    private IAsociadoDAO dao;
+    private UnidadDeTrabajoAsociados unidad;
+
+    protected void setUp() throws Exception {
+        System.setProperty("clinica.db.url", "jdbc:h2:mem:clinica;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("clinica.db.usuario", "sa");
+        System.setProperty("clinica.db.password", "");
+        dao = new AsociadoDAOImpl();
+        dao.inicializarTablaAsociados();
+        unidad = new UnidadDeTrabajoAsociados(dao);
+        for (Asociado a : dao.listarTodos()) {
+            unidad.registrarLimpio(a);
+        }
+    }
+
+    protected void tearDown() throws SQLException {
+        ConexionSingleton.getInstance().closeConnection();
+    }
+
+    public void testSinCambiosNoEscribeNada() throws DAOException {
+        assertEquals(0, unidad.getCantidadCambiosPendientes());
+        assertEquals(0, unidad.confirmar());
+    }
+
+    public void testSoloEscribeLoModificado() throws DAOException {
+        Asociado juan = dao.buscarPorDNI("12345678").get();
+        assertFalse(juan.isModificado()); // Recién leído
+        unidad.registrarLimpio(juan);
+        juan.setCiudad(juan.getCiudad()); // Mismo valor: no es un cambio
+        assertEquals(0, unidad.getCantidadCambiosPendientes());
+
+        juan.setCiudad("Necochea");
+        assertEquals(1, unidad.confirmar());
+        assertFalse(juan.isModificado());
+        assertEquals("Necochea", dao.buscarPorDNI("12345678").get().getCiudad());
+        assertEquals(0, unidad.confirmar());
+    }
+
+    public void testAltasYBajas() throws DAOException {
+        Asociado nuevo = new Asociado("Ana", "Lopez", "11111111", "D", "T", "C");
+        Asociado efimero = new Asociado("Luis", "Diaz", "22222222", "D", "T", "C");
+        unidad.registrarNuevo(nuevo);
+        unidad.registrarNuevo(efimero);
+        unidad.registrarEliminado(efimero); // Nunca llega a la BD
+        unidad.registrarEliminado(dao.buscarPorDNI("87654321").get());
+
+        assertEquals(2, unidad.confirmar());
+        assertTrue(dao.buscarPorDNI("11111111").isPresent());
+        assertFalse(dao.buscarPorDNI("22222222").isPresent());
+        assertFalse(dao.buscarPorDNI("87654321").isPresent());
+
+        nuevo.setTelefono("999"); // Tras confirmar, el alta se sigue como cualquier otro
+        assertEquals(1, unidad.confirmar());
+    }
+
+    public void testOlvidarYLimpiarDejanDeSeguirLosCambios() throws DAOException {
+        Asociado juan = dao.buscarPorDNI("12345678").get();
+        Asociado maria = dao.buscarPorDNI("87654321").get();
+        unidad.registrarLimpio(juan);
+        unidad.registrarLimpio(maria);
+
+        unidad.olvidar(juan);
+        juan.setCiudad("Necochea");
+        unidad.limpiar();
+        maria.setCiudad("Tandil"); // Instancia del padrón anterior a limpiar()
+        assertEquals(0, unidad.getCantidadCambiosPendientes());
+
+        unidad.registrarLimpio(maria); // Vuelve a seguirse, ya sin la marca vieja
+        assertEquals(0, unidad.getCantidadCambiosPendientes());
+        maria.setCiudad("Azul");
+        assertEquals(1, unidad.confirmar());
+        assertEquals("Azul", dao.buscarPorDNI("87654321").get().getCiudad());
+    }
+
+    public void testBajaYAltaDelMismoDniEsUnaActualizacion() throws DAOException {
+        unidad.registrarEliminado(dao.buscarPorDNI("12345678").get());
+        unidad.registrarNuevo(new Asociado("Juan", "Perez", "12345678", "Otra calle", "T", "C"));
+        assertEquals(1, unidad.confirmar());
+        assertEquals("Otra calle", dao.buscarPorDNI("12345678").get().getDomicilio());
+    }
+}